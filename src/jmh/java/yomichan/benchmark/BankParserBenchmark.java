@@ -0,0 +1,68 @@
+package yomichan.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import yomichan.parser.IYomichanParser;
+import yomichan.parser.YomichanParserFactory;
+import yomichan.parser.YomichanParserType;
+import yomichan.utils.FileUtils;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each bank parser against every matching bank file in {@link #directory}.
+ *
+ * <pre>{@code
+ *     ./gradlew jmh -PjmhIncludes=BankParserBenchmark
+ * }</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BankParserBenchmark {
+
+    @Param({"TERM", "TERM_METADATA", "KANJI", "KANJI_METADATA", "TAG"})
+    public YomichanParserType type;
+
+    @Param("src/test/resources/yomichan")
+    public String directory;
+
+    private IYomichanParser<List<?>> parser;
+    private List<File> files;
+    private long bytes;
+
+    @Setup
+    public void setUp() {
+        parser = new YomichanParserFactory().getInstance(type);
+        files = FileUtils.getFiles(directory, (dir, name) -> name.matches(type.getPattern()));
+        if (files.isEmpty()) {
+            throw new IllegalStateException("No " + type + " bank files found in " + directory);
+        }
+        bytes = files.stream().mapToLong(File::length).sum();
+    }
+
+    @Benchmark
+    public void parse(ParseCounters counters, Blackhole blackhole) {
+        for (File file : files) {
+            final List<?> rows = parser.parse(file);
+            counters.rows += rows.size();
+            blackhole.consume(rows);
+        }
+        counters.bytes += bytes;
+    }
+}
@@ -0,0 +1,82 @@
+package yomichan.benchmark;
+
+import net.lingala.zip4j.ZipFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import yomichan.YomichanParser;
+import yomichan.model.YomichanDictionary;
+import yomichan.parser.YomichanParserType;
+import yomichan.utils.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full {@link YomichanParser#parseDictionary(File)} run, including zip extraction,
+ * against a dictionary zipped from the bank files in {@link #directory}.
+ *
+ * <pre>{@code
+ *     ./gradlew jmh -PjmhIncludes=DictionaryParserBenchmark
+ * }</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class DictionaryParserBenchmark {
+
+    @Param("src/test/resources/yomichan")
+    public String directory;
+
+    private YomichanParser parser;
+    private File zip;
+    private long bytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        parser = new YomichanParser();
+        zip = Files.createTempFile("yomichan-benchmark", ".zip").toFile();
+        // zip4j expects to create the archive itself.
+        Files.delete(zip.toPath());
+        final List<File> files = FileUtils.getFiles(directory, (dir, name) -> Arrays.stream(YomichanParserType.values())
+            .filter(type -> type != YomichanParserType.DICTIONARY)
+            .anyMatch(type -> name.matches(type.getPattern())));
+        try (ZipFile archive = new ZipFile(zip)) {
+            archive.addFiles(files);
+        }
+        bytes = zip.length();
+    }
+
+    @TearDown
+    public void tearDown() {
+        FileUtils.delete(zip);
+    }
+
+    @Benchmark
+    public YomichanDictionary parse(ParseCounters counters) {
+        final YomichanDictionary dictionary = parser.parseDictionary(zip);
+        counters.rows += dictionary.getTerms().size()
+            + dictionary.getTermMetadata().size()
+            + dictionary.getKanjis().size()
+            + dictionary.getKanjiMetadata().size()
+            + dictionary.getTags().size();
+        counters.bytes += bytes;
+        return dictionary;
+    }
+}
@@ -0,0 +1,79 @@
+package yomichan.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import yomichan.YomichanParser;
+import yomichan.generator.YomichanDictionaryGenerator;
+import yomichan.model.YomichanDictionary;
+import yomichan.utils.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures full dictionary parsing against synthetic dictionaries of increasing size.
+ *
+ * <pre>{@code
+ *     ./gradlew jmh -PjmhIncludes=GeneratedDictionaryBenchmark
+ * }</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class GeneratedDictionaryBenchmark {
+
+    @Param({"10000", "100000", "500000"})
+    public int termCount;
+
+    @Param("3")
+    public int contentDepth;
+
+    private YomichanParser parser;
+    private File zip;
+    private long bytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        final YomichanDictionaryGenerator generator = new YomichanDictionaryGenerator();
+        generator.setTermCount(termCount);
+        generator.setFrequencyCount(termCount);
+        generator.setPitchCount(termCount / 2);
+        generator.setContentDepth(contentDepth);
+        parser = new YomichanParser();
+        zip = Files.createTempFile("yomichan-generated", ".zip").toFile();
+        generator.generate(zip);
+        bytes = zip.length();
+    }
+
+    @TearDown
+    public void tearDown() {
+        FileUtils.delete(zip);
+    }
+
+    @Benchmark
+    public YomichanDictionary parse(ParseCounters counters) {
+        final YomichanDictionary dictionary = parser.parseDictionary(zip);
+        counters.rows += dictionary.getTerms().size()
+            + dictionary.getTermMetadata().size()
+            + dictionary.getKanjis().size()
+            + dictionary.getKanjiMetadata().size()
+            + dictionary.getTags().size();
+        counters.bytes += bytes;
+        return dictionary;
+    }
+}
@@ -0,0 +1,34 @@
+package yomichan.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary benchmark results reported next to the primary score.
+ *
+ * <p>JMH divides each counter by the measured time, so with {@code Mode.Throughput}
+ * {@code rows} is reported as rows/s and {@code bytes} as bytes/s of input.</p>
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ParseCounters {
+
+    /**
+     * Number of rows (terms, tags, kanji, etc.) parsed.
+     */
+    public long rows;
+
+    /**
+     * Number of input bytes consumed.
+     */
+    public long bytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        rows = 0;
+        bytes = 0;
+    }
+}
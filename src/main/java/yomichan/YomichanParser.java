@@ -1,21 +1,42 @@
 package yomichan;
 
 import lombok.extern.slf4j.Slf4j;
+import yomichan.listener.ParseListener;
+import yomichan.model.DictionaryManifest;
 import yomichan.model.Index;
 import yomichan.model.YomichanDictionary;
+import yomichan.model.YomichanDictionaryUpdate;
 import yomichan.model.v3.Kanji;
 import yomichan.model.v3.KanjiMetadata;
 import yomichan.model.v3.Tag;
 import yomichan.model.v3.Term;
 import yomichan.model.v3.TermMetadata;
+import yomichan.model.v3.compact.CompactTerm;
+import yomichan.model.v3.compact.StringPool;
 import yomichan.parser.IYomichanParser;
+import yomichan.parser.YomichanBankHandler;
+import yomichan.parser.YomichanBankParser;
+import yomichan.parser.YomichanCompactTermParser;
+import yomichan.parser.YomichanIncrementalParser;
 import yomichan.parser.YomichanParserFactory;
 import yomichan.parser.YomichanParserType;
+import yomichan.parser.YomichanPublisher;
+import yomichan.parser.YomichanSpilledDictionary;
+import yomichan.parser.YomichanSpillingParser;
+import yomichan.validator.ValidationResult;
+import yomichan.validator.YomichanValidator;
 
 import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static yomichan.parser.YomichanParserType.DICTIONARY;
@@ -67,10 +88,35 @@ public class YomichanParser {
 
     @SuppressWarnings("rawtypes")
     private final Map<YomichanParserType, IYomichanParser> parsers;
+    private final YomichanParserFactory factory;
+    private final YomichanIncrementalParser incrementalParser;
+    private final YomichanBankParser bankParser;
 
     public YomichanParser() {
-        final YomichanParserFactory factory = new YomichanParserFactory();
+        this(ParseListener.NONE);
+    }
+
+    /**
+     * Create a parser that reports parsing events to the given listener.
+     *
+     * @param listener The listener to receive dictionary and bank events.
+     * @see ParseListener
+     */
+    public YomichanParser(final ParseListener listener) {
+        this(new YomichanParserFactory(listener));
+    }
+
+    /**
+     * Create a parser that uses the parsers of the given factory, e.g. to canonicalize
+     * structured content with a {@link yomichan.parser.ContentInterner}.
+     *
+     * @param factory The factory to create the bank parsers with.
+     */
+    public YomichanParser(final YomichanParserFactory factory) {
+        this.factory = factory;
         this.parsers = Arrays.stream(values()).collect(Collectors.toMap(type -> type, factory::getInstance));
+        this.incrementalParser = new YomichanIncrementalParser(factory);
+        this.bankParser = new YomichanBankParser(factory);
     }
 
     /**
@@ -95,6 +141,158 @@ public class YomichanParser {
         return parser.parse(file);
     }
 
+    /**
+     * Parse the Yomichan dictionary .zip file at the path. Paths on other file systems than the
+     * default one are read as a stream without being copied to disk.
+     *
+     * @param path The path to the Yomichan dictionary file.
+     * @return the parsed Yomichan dictionary.
+     */
+    @SuppressWarnings("unchecked")
+    public YomichanDictionary parseDictionary(final Path path) {
+        IYomichanParser<YomichanDictionary> parser = parsers.get(DICTIONARY);
+        return parser.parse(path);
+    }
+
+    /**
+     * Parse a Yomichan dictionary .zip file read from the stream, e.g. an upload, without writing it to disk.
+     * The bank files are parsed straight from their zip entries. The stream isn't closed.
+     *
+     * @param in The contents of the Yomichan dictionary file.
+     * @return the parsed Yomichan dictionary.
+     */
+    @SuppressWarnings("unchecked")
+    public YomichanDictionary parseDictionary(final InputStream in) {
+        IYomichanParser<YomichanDictionary> parser = parsers.get(DICTIONARY);
+        return parser.parse(in);
+    }
+
+    /**
+     * Parse a Yomichan dictionary .zip file held in memory, without writing it to disk.
+     *
+     * @param bytes The contents of the Yomichan dictionary file.
+     * @return the parsed Yomichan dictionary.
+     */
+    @SuppressWarnings("unchecked")
+    public YomichanDictionary parseDictionary(final byte[] bytes) {
+        IYomichanParser<YomichanDictionary> parser = parsers.get(DICTIONARY);
+        return parser.parse(bytes);
+    }
+
+    /**
+     * Parse a Yomichan dictionary .zip file held in a buffer, e.g. a memory-mapped file, without
+     * copying it. The position of the buffer isn't changed.
+     *
+     * @param buffer The contents of the Yomichan dictionary file.
+     * @return the parsed Yomichan dictionary.
+     */
+    @SuppressWarnings("unchecked")
+    public YomichanDictionary parseDictionary(final ByteBuffer buffer) {
+        IYomichanParser<YomichanDictionary> parser = parsers.get(DICTIONARY);
+        return parser.parse(buffer);
+    }
+
+    /**
+     * Parse the Yomichan dictionary .zip file one bank file at a time, without holding the whole dictionary in memory.
+     *
+     * @param path    The path to the Yomichan dictionary file.
+     * @param handler The handler to receive the index and the rows of each bank.
+     * @see YomichanBankHandler
+     */
+    public void parseDictionary(final String path, final YomichanBankHandler handler) {
+        this.parseDictionary(getFile(path), handler);
+    }
+
+    /**
+     * Parse the Yomichan dictionary .zip file one bank file at a time, without holding the whole dictionary in memory.
+     *
+     * @param file    The Yomichan dictionary file.
+     * @param handler The handler to receive the index and the rows of each bank.
+     * @see YomichanBankHandler
+     */
+    public void parseDictionary(final File file, final YomichanBankHandler handler) {
+        bankParser.parse(file, handler);
+    }
+
+    /**
+     * Parse the Yomichan dictionary .zip file, spilling the parsed rows to temporary run files on disk
+     * whenever their estimated size exceeds the heap budget.
+     *
+     * @param file       The Yomichan dictionary file.
+     * @param heapBudget Estimated number of bytes of parsed rows to keep in memory.
+     * @return the parsed dictionary, which has to be closed to delete its run files.
+     * @see YomichanSpillingParser
+     */
+    public YomichanSpilledDictionary parseDictionarySpilling(final File file, final long heapBudget) {
+        return new YomichanSpillingParser(factory, heapBudget).parse(file);
+    }
+
+    /**
+     * Check that the Yomichan dictionary .zip file can be parsed without parsing it, collecting every
+     * problem found together with the bank file and row it was found in.
+     *
+     * @param file The Yomichan dictionary file.
+     * @return the result of the validation.
+     * @see YomichanValidator
+     */
+    public ValidationResult validateDictionary(final File file) {
+        return new YomichanValidator().validate(file);
+    }
+
+    /**
+     * Parse the Yomichan dictionary .zip file asynchronously. The dictionary is extracted in one task,
+     * after which each bank file is parsed in its own task.
+     *
+     * @param path     The path to the Yomichan dictionary file.
+     * @param executor The executor to run the extraction and parsing tasks on.
+     * @return a future for the parsed Yomichan dictionary.
+     */
+    public CompletableFuture<YomichanDictionary> parseDictionaryAsync(final String path, final Executor executor) {
+        return this.parseDictionaryAsync(getFile(path), executor);
+    }
+
+    /**
+     * Parse the Yomichan dictionary .zip file asynchronously. The dictionary is extracted in one task,
+     * after which each bank file is parsed in its own task.
+     *
+     * @param file     The Yomichan dictionary file.
+     * @param executor The executor to run the extraction and parsing tasks on.
+     * @return a future for the parsed Yomichan dictionary, completed exceptionally with a
+     * {@link yomichan.exception.YomichanException} if the dictionary couldn't be parsed.
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<YomichanDictionary> parseDictionaryAsync(final File file, final Executor executor) {
+        IYomichanParser<YomichanDictionary> parser = parsers.get(DICTIONARY);
+        return parser.parseAsync(file, executor);
+    }
+
+    /**
+     * Parse only the banks of the Yomichan dictionary .zip file that changed since a previous import.
+     *
+     * @param file     The Yomichan dictionary file.
+     * @param previous The manifest returned by the previous import, or null to parse every bank.
+     * @return the index, the rows of the changed banks, and the manifest for the next import.
+     * @see YomichanIncrementalParser
+     */
+    public YomichanDictionaryUpdate parseDictionaryUpdate(final File file, final DictionaryManifest previous) {
+        return incrementalParser.parse(file, previous);
+    }
+
+    /**
+     * Parse only the banks of the Yomichan dictionary .zip file that changed since the import recorded
+     * in the manifest file, pass them to the handler, and write the new manifest back to that file
+     * once the handler returned. The manifest is left untouched if the handler throws.
+     *
+     * @param file     The Yomichan dictionary file.
+     * @param manifest The manifest file, which doesn't need to exist for the first import.
+     * @param handler  Applies the changed rows.
+     * @return the index, the rows of the changed banks, and the new manifest.
+     * @see YomichanIncrementalParser
+     */
+    public YomichanDictionaryUpdate parseDictionaryUpdate(final File file, final File manifest, final Consumer<? super YomichanDictionaryUpdate> handler) {
+        return incrementalParser.parse(file, manifest, handler);
+    }
+
     /**
      * Parses the Yomichan index.json file.
      *
@@ -109,6 +307,20 @@ public class YomichanParser {
         return parser.parse(file);
     }
 
+    /**
+     * Parses the Yomichan index.json file asynchronously.
+     *
+     * @param file     The index.json file.
+     * @param executor The executor to run the parsing task on.
+     * @return a future for the Index object.
+     * @see Index
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Index> parseIndexAsync(File file, Executor executor) {
+        final IYomichanParser<Index> parser = parsers.get(INDEX);
+        return parser.parseAsync(file, executor);
+    }
+
     /**
      * Parses the Yomichan index.json file.
      *
@@ -136,6 +348,20 @@ public class YomichanParser {
         return parser.parse(file);
     }
 
+    /**
+     * Parses the Yomichan kanji_bank.json file asynchronously.
+     *
+     * @param file     The kanji_bank.json file.
+     * @param executor The executor to run the parsing task on.
+     * @return a future for the list of Kanji.
+     * @see Kanji
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<List<Kanji>> parseKanjisAsync(File file, Executor executor) {
+        final IYomichanParser<List<Kanji>> parser = parsers.get(KANJI);
+        return parser.parseAsync(file, executor);
+    }
+
     /**
      * Parses the Yomichan kanji_bank.json file.
      *
@@ -163,6 +389,20 @@ public class YomichanParser {
         return parser.parse(file);
     }
 
+    /**
+     * Parse the tags from the tag_bank.json file asynchronously.
+     *
+     * @param file     The tag_bank.json file.
+     * @param executor The executor to run the parsing task on.
+     * @return a future for the list of Tags.
+     * @see Tag
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<List<Tag>> parseTagsAsync(File file, Executor executor) {
+        final IYomichanParser<List<Tag>> parser = parsers.get(TAG);
+        return parser.parseAsync(file, executor);
+    }
+
     /**
      * Parse the tags from the tag_bank.json file.
      *
@@ -190,6 +430,20 @@ public class YomichanParser {
         return parser.parse(file);
     }
 
+    /**
+     * Parses the term_bank.json file in the Yomichan dictionary asynchronously.
+     *
+     * @param file     The term_bank.json file.
+     * @param executor The executor to run the parsing task on.
+     * @return a future for the parsed terms from the file.
+     * @see Term
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<List<Term>> parseTermsAsync(File file, Executor executor) {
+        final IYomichanParser<List<Term>> parser = parsers.get(TERM);
+        return parser.parseAsync(file, executor);
+    }
+
     /**
      * Parses the term_bank.json file in the Yomichan dictionary.
      *
@@ -203,6 +457,19 @@ public class YomichanParser {
         return parseTerms(file);
     }
 
+    /**
+     * Parses the term_bank.json file in the Yomichan dictionary into memory-efficient compact terms.
+     *
+     * @param file The term_bank.json file.
+     * @param pool The pool to store the tags and rules of the terms in. Use the same pool for
+     *             every term bank of a dictionary to store each tag and rule only once.
+     * @return the parsed terms from the file.
+     * @see YomichanCompactTermParser
+     */
+    public List<CompactTerm> parseCompactTerms(File file, StringPool pool) {
+        return new YomichanCompactTermParser(pool).parse(file);
+    }
+
     /**
      * Parse the term_meta_bank.json file.
      *
@@ -217,6 +484,20 @@ public class YomichanParser {
         return parser.parse(file);
     }
 
+    /**
+     * Parse the term_meta_bank.json file asynchronously.
+     *
+     * @param file     The term_meta_bank.json file.
+     * @param executor The executor to run the parsing task on.
+     * @return a future for the parsed term "meta" entries.
+     * @see TermMetadata
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<List<TermMetadata>> parseTermMetadataAsync(File file, Executor executor) {
+        final IYomichanParser<List<TermMetadata>> parser = parsers.get(TERM_METADATA);
+        return parser.parseAsync(file, executor);
+    }
+
     /**
      * Parse the term_meta_bank.json file.
      *
@@ -256,4 +537,78 @@ public class YomichanParser {
         IYomichanParser<List<KanjiMetadata>> parser = parsers.get(KANJI_METADATA);
         return parser.parse(file);
     }
+
+    /**
+     * Parse the kanji_meta_bank.json file asynchronously.
+     *
+     * @param file     The kanji_meta_bank.json file.
+     * @param executor The executor to run the parsing task on.
+     * @return a future for the parsed kanji metadata entries.
+     * @see KanjiMetadata
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<List<KanjiMetadata>> parseKanjiMetadataAsync(File file, Executor executor) {
+        final IYomichanParser<List<KanjiMetadata>> parser = parsers.get(KANJI_METADATA);
+        return parser.parseAsync(file, executor);
+    }
+
+    /**
+     * Publish the tags of the Yomichan dictionary .zip file, parsing bank files only as fast as the subscriber requests rows.
+     *
+     * @param file     The Yomichan dictionary file.
+     * @param executor The executor to parse banks and deliver rows on, or {@code Runnable::run} for the requesting thread.
+     * @return a publisher of the tags.
+     * @see YomichanPublisher
+     */
+    public Flow.Publisher<Tag> publishTags(final File file, final Executor executor) {
+        return new YomichanPublisher<>(factory, TAG, file, executor);
+    }
+
+    /**
+     * Publish the terms of the Yomichan dictionary .zip file, parsing bank files only as fast as the subscriber requests rows.
+     *
+     * @param file     The Yomichan dictionary file.
+     * @param executor The executor to parse banks and deliver rows on, or {@code Runnable::run} for the requesting thread.
+     * @return a publisher of the terms.
+     * @see YomichanPublisher
+     */
+    public Flow.Publisher<Term> publishTerms(final File file, final Executor executor) {
+        return new YomichanPublisher<>(factory, TERM, file, executor);
+    }
+
+    /**
+     * Publish the term metadata entries of the Yomichan dictionary .zip file, parsing bank files only as fast as the subscriber requests rows.
+     *
+     * @param file     The Yomichan dictionary file.
+     * @param executor The executor to parse banks and deliver rows on, or {@code Runnable::run} for the requesting thread.
+     * @return a publisher of the term metadata entries.
+     * @see YomichanPublisher
+     */
+    public Flow.Publisher<TermMetadata> publishTermMetadata(final File file, final Executor executor) {
+        return new YomichanPublisher<>(factory, TERM_METADATA, file, executor);
+    }
+
+    /**
+     * Publish the kanji of the Yomichan dictionary .zip file, parsing bank files only as fast as the subscriber requests rows.
+     *
+     * @param file     The Yomichan dictionary file.
+     * @param executor The executor to parse banks and deliver rows on, or {@code Runnable::run} for the requesting thread.
+     * @return a publisher of the kanji.
+     * @see YomichanPublisher
+     */
+    public Flow.Publisher<Kanji> publishKanjis(final File file, final Executor executor) {
+        return new YomichanPublisher<>(factory, KANJI, file, executor);
+    }
+
+    /**
+     * Publish the kanji metadata entries of the Yomichan dictionary .zip file, parsing bank files only as fast as the subscriber requests rows.
+     *
+     * @param file     The Yomichan dictionary file.
+     * @param executor The executor to parse banks and deliver rows on, or {@code Runnable::run} for the requesting thread.
+     * @return a publisher of the kanji metadata entries.
+     * @see YomichanPublisher
+     */
+    public Flow.Publisher<KanjiMetadata> publishKanjiMetadata(final File file, final Executor executor) {
+        return new YomichanPublisher<>(factory, KANJI_METADATA, file, executor);
+    }
 }
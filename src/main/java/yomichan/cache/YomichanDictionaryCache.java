@@ -0,0 +1,389 @@
+package yomichan.cache;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.FileHeader;
+import yomichan.YomichanParser;
+import yomichan.exception.YomichanException;
+import yomichan.model.Index;
+import yomichan.model.YomichanDictionary;
+import yomichan.model.v3.Kanji;
+import yomichan.model.v3.KanjiMetadata;
+import yomichan.model.v3.Tag;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.TermMetadata;
+import yomichan.parser.IYomichanParser;
+import yomichan.parser.YomichanParserFactory;
+import yomichan.parser.YomichanParserType;
+import yomichan.writer.YomichanJsonWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static yomichan.writer.YomichanJsonWriter.MissingValues.NULLS;
+
+/**
+ * Caches parsed Yomichan dictionaries on local disk, so that parsing the same dictionary .zip file
+ * again loads it from the cache instead.
+ *
+ * <p>Entries are addressed by a key computed from the dictionary file (see {@link KeyStrategy}), so a
+ * changed dictionary gets a new entry, and copies of the same dictionary share one. An entry holds
+ * every bank of the dictionary as a length-prefixed, uncompressed JSON section in a single file.
+ * Loading an entry reads that file in one go and parses each section straight from memory, which
+ * skips decompressing and extracting the zip to a temporary directory.</p>
+ *
+ * <p>The cache is bounded by the total size of its entries. Every hit marks the entry as used, and
+ * after each new entry is stored the least recently used entries are deleted until the cache fits
+ * in {@link #getMaxBytes()}. Entries are written to a temporary file and moved into place, so
+ * several threads and processes can share a cache directory. An unreadable entry is deleted and
+ * the dictionary is parsed again.</p>
+ *
+ * <pre>{@code
+ *     YomichanDictionaryCache cache = new YomichanDictionaryCache(new File("build/dictionary-cache"), 512 * 1024 * 1024);
+ *     YomichanDictionary dictionary = cache.parseDictionary(new File("jmdict.zip"));
+ * }</pre>
+ */
+@Slf4j
+public class YomichanDictionaryCache {
+
+    /**
+     * How the key of a dictionary file is computed.
+     */
+    public enum KeyStrategy {
+        /**
+         * Hash of the file's size and modification time and of the name, size and CRC-32 of every
+         * entry in the zip's central directory. Only the central directory is read, so computing
+         * the key is cheap even for large dictionaries.
+         */
+        FINGERPRINT,
+
+        /**
+         * SHA-256 hash of the entire file. Reads the whole file, but survives the file being copied
+         * or touched.
+         */
+        CONTENT
+    }
+
+    public static final long DEFAULT_MAX_BYTES = 1024L * 1024 * 1024;
+
+    static final String EXTENSION = ".ydc";
+
+    /**
+     * Changing the cache file layout or the way banks are written requires bumping the version,
+     * which makes every existing entry miss.
+     */
+    private static final int VERSION = 2;
+    private static final int MAGIC = 0x59444300 | VERSION;
+    private static final JsonFactory FACTORY = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private static final YomichanParserType[] SECTIONS = {
+        YomichanParserType.INDEX,
+        YomichanParserType.TAG,
+        YomichanParserType.TERM,
+        YomichanParserType.TERM_METADATA,
+        YomichanParserType.KANJI,
+        YomichanParserType.KANJI_METADATA
+    };
+
+    private final YomichanParser parser;
+    private final YomichanParserFactory factory;
+
+    @Getter
+    private final File directory;
+
+    /**
+     * Maximum total size of the cache entries in bytes.
+     */
+    @Getter
+    private final long maxBytes;
+
+    @Getter
+    @Setter
+    private KeyStrategy keyStrategy = KeyStrategy.FINGERPRINT;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public YomichanDictionaryCache(File directory) {
+        this(directory, DEFAULT_MAX_BYTES);
+    }
+
+    public YomichanDictionaryCache(File directory, long maxBytes) {
+        this(new YomichanParserFactory(), directory, maxBytes);
+    }
+
+    /**
+     * Create a cache that parses missing dictionaries and loads cached ones with the parsers of the
+     * given factory.
+     *
+     * @param factory   The factory to create the parsers with.
+     * @param directory The directory to store the cache entries in, which is created if needed.
+     * @param maxBytes  Maximum total size of the cache entries in bytes.
+     */
+    public YomichanDictionaryCache(YomichanParserFactory factory, File directory, long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache size cannot be negative: " + maxBytes);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new YomichanException("Failed to create cache directory " + directory.getAbsolutePath());
+        }
+        this.factory = factory;
+        this.parser = new YomichanParser(factory);
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Parse the Yomichan dictionary .zip file, or load it from the cache if it was parsed before.
+     *
+     * @param file The Yomichan dictionary file.
+     * @return the parsed Yomichan dictionary.
+     */
+    public YomichanDictionary parseDictionary(File file) {
+        final String key = key(file);
+        final File entry = new File(directory, key + EXTENSION);
+        if (entry.isFile()) {
+            try {
+                final long start = System.nanoTime();
+                final YomichanDictionary dictionary = read(entry);
+                hits.incrementAndGet();
+                if (!entry.setLastModified(System.currentTimeMillis())) {
+                    log.debug("Couldn't mark cache entry {} as used", entry.getName());
+                }
+                log.debug("Loaded Yomichan dictionary {} from cache in {}ms", file.getName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                return dictionary;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Discarding unreadable cache entry {}", entry.getAbsolutePath(), e);
+                delete(entry);
+            }
+        }
+
+        misses.incrementAndGet();
+        final YomichanDictionary dictionary = parser.parseDictionary(file);
+        try {
+            write(dictionary, entry);
+            evict(entry);
+        } catch (IOException e) {
+            // The cache is only an optimization, a full disk shouldn't fail the parse
+            log.warn("Couldn't cache Yomichan dictionary {}", file.getName(), e);
+        }
+        return dictionary;
+    }
+
+    /**
+     * Compute the key of the dictionary file's cache entry with the current {@link KeyStrategy}.
+     *
+     * @param file The Yomichan dictionary file.
+     * @return the key, as a lowercase hex string.
+     */
+    public String key(File file) {
+        final MessageDigest digest = sha256();
+        digest.update(ByteBuffer.allocate(4).putInt(VERSION).flip());
+        try {
+            if (keyStrategy == KeyStrategy.CONTENT) {
+                try (InputStream in = new DigestInputStream(Files.newInputStream(file.toPath()), digest)) {
+                    in.transferTo(OutputStream.nullOutputStream());
+                }
+            } else {
+                final ByteBuffer buffer = ByteBuffer.allocate(16);
+                digest.update(buffer.putLong(file.length()).putLong(file.lastModified()).flip());
+                try (ZipFile zip = new ZipFile(file)) {
+                    final List<FileHeader> headers = new ArrayList<>(zip.getFileHeaders());
+                    headers.sort(Comparator.comparing(FileHeader::getFileName));
+                    for (FileHeader header : headers) {
+                        digest.update(header.getFileName().getBytes(StandardCharsets.UTF_8));
+                        digest.update(buffer.clear().putLong(header.getCrc()).putLong(header.getUncompressedSize()).flip());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new YomichanException("Failed to compute cache key of Yomichan dictionary " + file.getAbsolutePath(), e);
+        }
+        return keyStrategy.name().toLowerCase().charAt(0) + HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Delete every entry in the cache.
+     */
+    public void clear() {
+        for (File entry : entries()) {
+            delete(entry);
+        }
+    }
+
+    /**
+     * @return the total size of the cache entries in bytes.
+     */
+    public long size() {
+        return entries().stream().mapToLong(File::length).sum();
+    }
+
+    /**
+     * @return the number of dictionaries that were loaded from the cache.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of dictionaries that had to be parsed.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private YomichanDictionary read(File entry) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(entry.toPath()));
+        if (buffer.remaining() < 4 || buffer.getInt() != MAGIC) {
+            throw new YomichanException("Not a version " + VERSION + " cache entry.");
+        }
+        final YomichanDictionary dictionary = new YomichanDictionary();
+        for (YomichanParserType type : SECTIONS) {
+            final int length = buffer.getInt();
+            if (length < 0) {
+                continue;
+            }
+            final ByteBuffer section = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            final Object value = ((IYomichanParser<Object>) factory.getInstance(type)).parse(section);
+            switch (type) {
+                case INDEX -> dictionary.setIndex((Index) value);
+                case TAG -> dictionary.setTags((List<Tag>) value);
+                case TERM -> dictionary.setTerms((List<Term>) value);
+                case TERM_METADATA -> dictionary.setTermMetadata((List<TermMetadata>) value);
+                case KANJI -> dictionary.setKanjis((List<Kanji>) value);
+                case KANJI_METADATA -> dictionary.setKanjiMetadata((List<KanjiMetadata>) value);
+                default -> throw new IllegalStateException("Unexpected cache section " + type);
+            }
+        }
+        return dictionary;
+    }
+
+    private void write(YomichanDictionary dictionary, File entry) throws IOException {
+        final File temp = new File(directory, UUID.randomUUID() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                final ByteArrayOutputStream section = new ByteArrayOutputStream();
+                for (YomichanParserType type : SECTIONS) {
+                    section.reset();
+                    if (!writeSection(dictionary, type, section)) {
+                        out.writeInt(-1);
+                        continue;
+                    }
+                    out.writeInt(section.size());
+                    section.writeTo(out);
+                }
+            }
+            try {
+                Files.move(temp.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    private static boolean writeSection(YomichanDictionary dictionary, YomichanParserType type, ByteArrayOutputStream out) throws IOException {
+        try (JsonGenerator generator = FACTORY.createGenerator(out)) {
+            switch (type) {
+                case INDEX -> {
+                    if (dictionary.getIndex() == null) {
+                        return false;
+                    }
+                    YomichanJsonWriter.writeIndex(generator, dictionary.getIndex());
+                }
+                case TAG -> writeRows(generator, dictionary.getTags(), (g, tag) -> YomichanJsonWriter.writeTag(g, tag, NULLS));
+                case TERM -> writeRows(generator, dictionary.getTerms(), (g, term) -> YomichanJsonWriter.writeTerm(g, term, NULLS));
+                case TERM_METADATA -> writeRows(generator, dictionary.getTermMetadata(), (g, meta) -> YomichanJsonWriter.writeTermMetadata(g, meta, NULLS));
+                case KANJI -> writeRows(generator, dictionary.getKanjis(), (g, kanji) -> YomichanJsonWriter.writeKanji(g, kanji, NULLS));
+                case KANJI_METADATA -> writeRows(generator, dictionary.getKanjiMetadata(), (g, meta) -> YomichanJsonWriter.writeKanjiMetadata(g, meta, NULLS));
+                default -> throw new IllegalStateException("Unexpected cache section " + type);
+            }
+        }
+        return true;
+    }
+
+    private static <T> void writeRows(JsonGenerator generator, List<T> rows, RowWriter<T> writer) throws IOException {
+        generator.writeStartArray();
+        for (T row : rows) {
+            writer.write(generator, row);
+        }
+        generator.writeEndArray();
+    }
+
+    private void evict(File current) {
+        final List<File> entries = entries();
+        long size = entries.stream().mapToLong(File::length).sum();
+        if (size <= maxBytes) {
+            return;
+        }
+        entries.sort(Comparator.comparingLong(File::lastModified));
+        for (File entry : entries) {
+            if (size <= maxBytes) {
+                break;
+            }
+            if (entry.equals(current)) {
+                continue;
+            }
+            final long length = entry.length();
+            if (delete(entry)) {
+                size -= length;
+                log.debug("Evicted cache entry {}", entry.getName());
+            }
+        }
+    }
+
+    private List<File> entries() {
+        final File[] files = directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+        return files == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(files));
+    }
+
+    private static boolean delete(File entry) {
+        try {
+            return Files.deleteIfExists(entry.toPath());
+        } catch (IOException e) {
+            log.warn("Couldn't delete cache entry {}", entry.getAbsolutePath(), e);
+            return false;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new YomichanException("SHA-256 is not available.", e);
+        }
+    }
+
+    private interface RowWriter<T> {
+        void write(JsonGenerator generator, T row) throws IOException;
+    }
+}
@@ -0,0 +1,22 @@
+package yomichan.diff;
+
+/**
+ * How a row differs between two revisions of a dictionary.
+ */
+public enum ChangeType {
+
+    /**
+     * The row only exists in the new revision.
+     */
+    ADDED,
+
+    /**
+     * The row only exists in the previous revision.
+     */
+    REMOVED,
+
+    /**
+     * A row with the same identity exists in both revisions, with different contents.
+     */
+    CHANGED
+}
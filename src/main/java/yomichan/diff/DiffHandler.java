@@ -0,0 +1,19 @@
+package yomichan.diff;
+
+/**
+ * Receives the changes between two revisions of a dictionary as they're found.
+ *
+ * <p>Added and changed rows are delivered while the new revision is read, and removed rows
+ * afterwards, while the previous revision is read a second time. Exceptions thrown by the handler
+ * abort the diff and are rethrown wrapped in a {@link yomichan.exception.YomichanException}.</p>
+ */
+@FunctionalInterface
+public interface DiffHandler {
+
+    /**
+     * Called with every added, removed or changed row.
+     *
+     * @param change The change.
+     */
+    void onChange(RowChange change);
+}
@@ -0,0 +1,40 @@
+package yomichan.diff;
+
+import lombok.Value;
+
+/**
+ * Counts of the changes between two revisions of a dictionary.
+ */
+@Value
+public class DiffSummary {
+
+    /**
+     * The revision of the previous dictionary, from its index.
+     */
+    String previousRevision;
+
+    /**
+     * The revision of the new dictionary, from its index.
+     */
+    String revision;
+
+    long added;
+
+    long removed;
+
+    long changed;
+
+    long unchanged;
+
+    /**
+     * Time spent on the diff in nanoseconds.
+     */
+    long elapsedNanos;
+
+    /**
+     * @return true if any row was added, removed or changed.
+     */
+    public boolean isChanged() {
+        return added > 0 || removed > 0 || changed > 0;
+    }
+}
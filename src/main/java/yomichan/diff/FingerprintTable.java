@@ -0,0 +1,111 @@
+package yomichan.diff;
+
+/**
+ * Open addressing hash table from 64-bit row identities to 64-bit content fingerprints, with a
+ * visited flag per row, stored in primitive arrays. A slot costs 17 bytes, and at most half of the
+ * slots are used.
+ */
+final class FingerprintTable {
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    /**
+     * Marks an empty slot. The identity 0 is stored as {@link #ZERO} instead.
+     */
+    private static final long EMPTY = 0;
+    private static final long ZERO = 0x9e3779b97f4a7c15L;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] values = new long[INITIAL_CAPACITY];
+    private boolean[] visited = new boolean[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Set the value of the key, keeping its visited flag.
+     */
+    void put(long key, long value) {
+        if (size * 2 >= keys.length) {
+            resize();
+        }
+        final int slot = slot(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = normalize(key);
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Add one to the value of the key, starting from 0 for new keys.
+     *
+     * @return the value before it was incremented.
+     */
+    long increment(long key) {
+        if (size * 2 >= keys.length) {
+            resize();
+        }
+        final int slot = slot(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = normalize(key);
+            size++;
+        }
+        return values[slot]++;
+    }
+
+    /**
+     * @return the slot of the key, or -1 if the table doesn't contain it.
+     */
+    int find(long key) {
+        final int slot = slot(key);
+        return keys[slot] != EMPTY ? slot : -1;
+    }
+
+    long value(int slot) {
+        return values[slot];
+    }
+
+    boolean isVisited(int slot) {
+        return visited[slot];
+    }
+
+    void visit(int slot) {
+        visited[slot] = true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the slot holding the key, or the empty slot it would be stored in.
+     */
+    private int slot(long key) {
+        final long normalized = normalize(key);
+        final int mask = keys.length - 1;
+        int slot = (int) (normalized ^ normalized >>> 32) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != normalized) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+        final boolean[] oldVisited = visited;
+        keys = new long[oldKeys.length * 2];
+        values = new long[oldKeys.length * 2];
+        visited = new boolean[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                final int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                visited[slot] = oldVisited[i];
+            }
+        }
+    }
+
+    private static long normalize(long key) {
+        return key == EMPTY ? ZERO : key;
+    }
+}
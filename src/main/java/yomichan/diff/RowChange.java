@@ -0,0 +1,28 @@
+package yomichan.diff;
+
+import lombok.Value;
+import yomichan.parser.YomichanParserType;
+
+/**
+ * A row that was added, removed or changed between two revisions of a dictionary.
+ */
+@Value
+public class RowChange {
+
+    /**
+     * How the row changed.
+     */
+    ChangeType type;
+
+    /**
+     * The bank type of the row, e.g. {@link YomichanParserType#TERM}.
+     */
+    YomichanParserType bank;
+
+    /**
+     * The row to store for {@link ChangeType#ADDED} and {@link ChangeType#CHANGED} changes, taken
+     * from the new revision, or the row to delete for {@link ChangeType#REMOVED} changes, taken from
+     * the previous revision. Its class depends on the {@link #bank}, e.g. {@link yomichan.model.v3.Term}.
+     */
+    Object row;
+}
@@ -0,0 +1,307 @@
+package yomichan.diff;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import yomichan.YomichanParser;
+import yomichan.exception.YomichanException;
+import yomichan.model.Index;
+import yomichan.model.v3.Kanji;
+import yomichan.model.v3.KanjiMetadata;
+import yomichan.model.v3.Tag;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.TermMetadata;
+import yomichan.parser.YomichanBankHandler;
+import yomichan.parser.YomichanParserType;
+import yomichan.writer.YomichanJsonWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the rows that were added, removed or changed between two revisions of a dictionary, without
+ * holding either of them in memory.
+ *
+ * <p>Both dictionaries are read bank by bank with a {@link YomichanBankHandler}, so only one bank
+ * is in memory at a time. Every row is reduced to two 64-bit hashes: an identity, e.g. the
+ * expression, reading and sequence number of a term, and a fingerprint of the row as written to
+ * its bank file by {@link YomichanJsonWriter}. Rows with the same identity are told apart by the
+ * order they appear in. The diff then takes three passes:</p>
+ *
+ * <ol>
+ *     <li>The previous revision is read into a {@link FingerprintTable} of identities and
+ *     fingerprints, which takes a few dozen bytes per row.</li>
+ *     <li>The new revision is read, and every row is reported as {@link ChangeType#ADDED} if its
+ *     identity isn't in the table, as {@link ChangeType#CHANGED} if its fingerprint differs, and is
+ *     marked as seen.</li>
+ *     <li>The previous revision is read again, and every row that wasn't seen is reported as
+ *     {@link ChangeType#REMOVED}.</li>
+ * </ol>
+ *
+ * <p>Tags, terms, term metadata, kanji and kanji metadata are compared. Rows whose hashes collide
+ * are treated as equal, which is vanishingly unlikely with 64-bit hashes.</p>
+ *
+ * <pre>{@code
+ *     DiffSummary summary = new YomichanDictionaryDiff().diff(previous, current, change -> {
+ *         switch (change.getType()) {
+ *             case ADDED, CHANGED -> store.upsert(change.getBank(), change.getRow());
+ *             case REMOVED -> store.delete(change.getBank(), change.getRow());
+ *         }
+ *     });
+ * }</pre>
+ */
+@Slf4j
+public class YomichanDictionaryDiff {
+
+    private static final JsonFactory FACTORY = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final YomichanParser parser;
+
+    public YomichanDictionaryDiff() {
+        this(new YomichanParser());
+    }
+
+    /**
+     * @param parser The parser to read the dictionaries with.
+     */
+    public YomichanDictionaryDiff(YomichanParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Compare two revisions of a dictionary, passing every change to the handler as it's found.
+     *
+     * @param previous The previous revision of the dictionary.
+     * @param current  The new revision of the dictionary.
+     * @param handler  The handler to receive the changes.
+     * @return the number of changes of each type.
+     */
+    public DiffSummary diff(File previous, File current, DiffHandler handler) {
+        final long start = System.nanoTime();
+        final FingerprintTable rows = new FingerprintTable();
+        final long[] counts = new long[ChangeType.values().length + 1];
+        final int unchanged = counts.length - 1;
+
+        final Pass read = new Pass((bank, row, identity, fingerprint) -> rows.put(identity, fingerprint));
+        parser.parseDictionary(previous, read);
+        log.debug("Read {} rows of {}", rows.size(), previous);
+
+        final Pass compare = new Pass((bank, row, identity, fingerprint) -> {
+            final int slot = rows.find(identity);
+            if (slot < 0) {
+                counts[ChangeType.ADDED.ordinal()]++;
+                handler.onChange(new RowChange(ChangeType.ADDED, bank, row));
+                return;
+            }
+            rows.visit(slot);
+            if (rows.value(slot) != fingerprint) {
+                counts[ChangeType.CHANGED.ordinal()]++;
+                handler.onChange(new RowChange(ChangeType.CHANGED, bank, row));
+            } else {
+                counts[unchanged]++;
+            }
+        });
+        parser.parseDictionary(current, compare);
+
+        final Pass remove = new Pass((bank, row, identity, fingerprint) -> {
+            final int slot = rows.find(identity);
+            if (slot >= 0 && !rows.isVisited(slot)) {
+                counts[ChangeType.REMOVED.ordinal()]++;
+                handler.onChange(new RowChange(ChangeType.REMOVED, bank, row));
+            }
+        });
+        parser.parseDictionary(previous, remove);
+
+        final DiffSummary summary = new DiffSummary(read.revision(), compare.revision(),
+            counts[ChangeType.ADDED.ordinal()], counts[ChangeType.REMOVED.ordinal()], counts[ChangeType.CHANGED.ordinal()],
+            counts[unchanged], System.nanoTime() - start);
+        log.debug("Compared {} to {} in {}ms: {} added, {} removed, {} changed", previous, current,
+            TimeUnit.NANOSECONDS.toMillis(summary.getElapsedNanos()), summary.getAdded(), summary.getRemoved(), summary.getChanged());
+        return summary;
+    }
+
+    /**
+     * Compare two revisions of a dictionary.
+     *
+     * @param previous The previous revision of the dictionary.
+     * @param current  The new revision of the dictionary.
+     * @return the added and changed rows, followed by the removed rows.
+     */
+    public List<RowChange> diff(File previous, File current) {
+        final List<RowChange> changes = new ArrayList<>();
+        diff(previous, current, changes::add);
+        return changes;
+    }
+
+    @FunctionalInterface
+    private interface RowVisitor {
+        void visit(YomichanParserType bank, Object row, long identity, long fingerprint);
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(JsonGenerator generator, T row) throws IOException;
+    }
+
+    /**
+     * Hashes the rows of one read of a dictionary and passes them to a visitor.
+     */
+    private static class Pass implements YomichanBankHandler {
+        private final RowVisitor visitor;
+        private final Hash hash = new Hash();
+        private final JsonGenerator generator;
+        /**
+         * How often each identity has been seen so far, to tell rows with the same identity apart.
+         */
+        private final FingerprintTable occurrences = new FingerprintTable();
+        private Index index;
+
+        Pass(RowVisitor visitor) {
+            this.visitor = visitor;
+            try {
+                this.generator = FACTORY.createGenerator(hash);
+            } catch (IOException e) {
+                throw new YomichanException("Failed to create row hash generator.", e);
+            }
+            // Every row is hashed on its own, without the space written between root values
+            generator.setRootValueSeparator(null);
+        }
+
+        String revision() {
+            return index != null ? index.getRevision() : null;
+        }
+
+        @Override
+        public void onIndex(Index index) {
+            this.index = index;
+        }
+
+        @Override
+        public void onTags(List<Tag> tags) {
+            for (Tag tag : tags) {
+                visit(YomichanParserType.TAG, tag, YomichanJsonWriter::writeTag, tag.getName());
+            }
+        }
+
+        @Override
+        public void onTerms(List<Term> terms) {
+            for (Term term : terms) {
+                final Integer sequence = term.getSequenceNumber();
+                visit(YomichanParserType.TERM, term, YomichanJsonWriter::writeTerm, term.getTerm(), term.getReading(), sequence != null ? sequence.toString() : null);
+            }
+        }
+
+        @Override
+        public void onTermMetadata(List<TermMetadata> termMetadata) {
+            for (TermMetadata meta : termMetadata) {
+                String reading = null;
+                if (meta.getFrequency() != null) {
+                    reading = meta.getFrequency().getReading();
+                } else if (meta.getPitches() != null) {
+                    reading = meta.getPitches().getReading();
+                }
+                final String type = meta.getType() != null ? meta.getType().name() : null;
+                visit(YomichanParserType.TERM_METADATA, meta, YomichanJsonWriter::writeTermMetadata, meta.getText(), type, reading);
+            }
+        }
+
+        @Override
+        public void onKanjis(List<Kanji> kanjis) {
+            for (Kanji kanji : kanjis) {
+                visit(YomichanParserType.KANJI, kanji, YomichanJsonWriter::writeKanji, kanji.getCharacter());
+            }
+        }
+
+        @Override
+        public void onKanjiMetadata(List<KanjiMetadata> kanjiMetadata) {
+            for (KanjiMetadata meta : kanjiMetadata) {
+                visit(YomichanParserType.KANJI_METADATA, meta, YomichanJsonWriter::writeKanjiMetadata, meta.getText());
+            }
+        }
+
+        private <T> void visit(YomichanParserType bank, T row, RowWriter<T> writer, String... identity) {
+            hash.reset();
+            hash.update(bank.ordinal());
+            for (String field : identity) {
+                hash.update(field);
+            }
+            final long key = hash.value();
+            hash.reset();
+            hash.update(key);
+            hash.update(occurrences.increment(key));
+            final long occurrence = hash.value();
+
+            hash.reset();
+            try {
+                writer.write(generator, row);
+                generator.flush();
+            } catch (IOException e) {
+                throw new YomichanException("Failed to hash " + bank + " row.", e);
+            }
+            visitor.visit(bank, row, occurrence, hash.value());
+        }
+    }
+
+    /**
+     * Streaming 64-bit FNV-1a hash, with a final avalanche step so that the low bits used by
+     * {@link FingerprintTable} depend on every byte.
+     */
+    private static final class Hash extends OutputStream {
+        private static final long OFFSET = 0xcbf29ce484222325L;
+        private static final long PRIME = 0x100000001b3L;
+
+        private long hash = OFFSET;
+
+        void reset() {
+            hash = OFFSET;
+        }
+
+        void update(long value) {
+            for (int i = 0; i < Long.BYTES; i++) {
+                write((int) (value >>> (i * 8)));
+            }
+        }
+
+        void update(String value) {
+            if (value == null) {
+                update(-1L);
+                return;
+            }
+            // The length keeps consecutive fields from running into each other
+            update(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                write(c);
+                write(c >>> 8);
+            }
+        }
+
+        long value() {
+            long h = hash;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+
+        @Override
+        public void write(int b) {
+            hash ^= b & 0xff;
+            hash *= PRIME;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                hash ^= bytes[i] & 0xff;
+                hash *= PRIME;
+            }
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package yomichan.export;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import yomichan.exception.YomichanException;
+import yomichan.model.Index;
+import yomichan.model.v3.Kanji;
+import yomichan.model.v3.KanjiMetadata;
+import yomichan.model.v3.Tag;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.TermMetadata;
+import yomichan.parser.YomichanBankHandler;
+import yomichan.parser.YomichanBankParser;
+import yomichan.parser.YomichanParserFactory;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports Yomichan dictionaries into an embedded SQLite database.
+ *
+ * <p>The dictionary is parsed one bank file at a time with a {@link YomichanBankParser}, and the
+ * rows of each bank are written with batched prepared statements, so memory stays flat no matter
+ * how large the dictionary is. The lookup indexes are dropped before the rows are loaded and
+ * created again afterwards, so the inserts don't pay for index maintenance.</p>
+ *
+ * <p>Several dictionaries can be exported into the same database. Exporting a dictionary with the
+ * same title again replaces the rows of the previous export, which are deleted while the indexes
+ * still exist. The whole export is a single transaction: if it fails, the rows of the previous
+ * export and the indexes are restored. Structured content, pitch accents, kanji meanings and stats
+ * are stored as JSON text.</p>
+ *
+ * <p>The SQLite JDBC driver (e.g. {@code org.xerial:sqlite-jdbc}) has to be on the classpath.</p>
+ *
+ * <pre>{@code
+ *     YomichanSqliteExporter exporter = new YomichanSqliteExporter();
+ *     exporter.export(new File("jmdict.zip"), new File("dictionaries.db"));
+ * }</pre>
+ */
+@Slf4j
+public class YomichanSqliteExporter {
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final String[] TABLES = {
+        """
+        CREATE TABLE IF NOT EXISTS dictionaries (
+            id INTEGER PRIMARY KEY,
+            title TEXT NOT NULL UNIQUE,
+            revision TEXT,
+            format INTEGER,
+            author TEXT,
+            url TEXT,
+            description TEXT,
+            attribution TEXT,
+            sequenced INTEGER,
+            frequency_mode TEXT
+        )""",
+        """
+        CREATE TABLE IF NOT EXISTS tags (
+            dictionary INTEGER NOT NULL,
+            name TEXT,
+            category TEXT,
+            sort_order INTEGER,
+            notes TEXT,
+            score INTEGER
+        )""",
+        """
+        CREATE TABLE IF NOT EXISTS terms (
+            dictionary INTEGER NOT NULL,
+            expression TEXT,
+            reading TEXT,
+            definition_tags TEXT,
+            rules TEXT,
+            score INTEGER,
+            glossary TEXT,
+            sequence INTEGER,
+            term_tags TEXT
+        )""",
+        """
+        CREATE TABLE IF NOT EXISTS term_meta (
+            dictionary INTEGER NOT NULL,
+            expression TEXT,
+            mode TEXT,
+            reading TEXT,
+            frequency INTEGER,
+            display TEXT,
+            pitches TEXT
+        )""",
+        """
+        CREATE TABLE IF NOT EXISTS kanji (
+            dictionary INTEGER NOT NULL,
+            character TEXT,
+            onyomi TEXT,
+            kunyomi TEXT,
+            tags TEXT,
+            meanings TEXT,
+            stats TEXT
+        )""",
+        """
+        CREATE TABLE IF NOT EXISTS kanji_meta (
+            dictionary INTEGER NOT NULL,
+            character TEXT,
+            frequency INTEGER,
+            display TEXT
+        )"""
+    };
+
+    private static final String[][] INDEXES = {
+        {"idx_tags_dictionary", "tags(dictionary, name)"},
+        {"idx_terms_expression", "terms(expression)"},
+        {"idx_terms_reading", "terms(reading)"},
+        {"idx_terms_dictionary", "terms(dictionary, sequence)"},
+        {"idx_term_meta_expression", "term_meta(expression)"},
+        {"idx_term_meta_dictionary", "term_meta(dictionary)"},
+        {"idx_kanji_character", "kanji(character)"},
+        {"idx_kanji_dictionary", "kanji(dictionary)"},
+        {"idx_kanji_meta_character", "kanji_meta(character)"},
+        {"idx_kanji_meta_dictionary", "kanji_meta(dictionary)"}
+    };
+
+    private final YomichanBankParser parser;
+    private final ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+
+    /**
+     * Number of rows sent to the database in a single JDBC batch.
+     */
+    @Getter
+    @Setter
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    public YomichanSqliteExporter() {
+        this(new YomichanParserFactory());
+    }
+
+    public YomichanSqliteExporter(YomichanParserFactory factory) {
+        this.parser = new YomichanBankParser(factory);
+    }
+
+    /**
+     * Export the Yomichan dictionary .zip file into the SQLite database file, creating it if it doesn't exist.
+     *
+     * @param file     The Yomichan dictionary file.
+     * @param database The SQLite database file.
+     */
+    public void export(File file, File database) {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database.getAbsolutePath())) {
+            export(file, connection);
+        } catch (SQLException e) {
+            throw new YomichanException("Failed to open SQLite database at path " + database.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Export the Yomichan dictionary .zip file using an open database connection. The auto-commit mode
+     * of the connection is restored afterwards, but the connection isn't closed.
+     *
+     * @param file       The Yomichan dictionary file.
+     * @param connection The connection to the SQLite database.
+     */
+    public void export(File file, Connection connection) {
+        log.info("Exporting Yomichan dictionary {} to SQLite", file.getAbsolutePath());
+        final long start = System.nanoTime();
+        try {
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                createTables(connection);
+                try {
+                    parser.parse(file, new Export(connection));
+                } catch (RuntimeException e) {
+                    // The rollback undoes dropping the indexes as well, so only make sure they exist.
+                    rollback(connection, e);
+                    restoreIndexes(connection, e);
+                    throw e;
+                }
+                // Restores the indexes dropped by the export, and commits it.
+                createIndexes(connection);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new YomichanException("Failed to export Yomichan dictionary at path " + file.getAbsolutePath(), e);
+        }
+        log.debug("Successfully exported Yomichan dictionary {} in {}ms", file.getName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static void createTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                statement.execute(table);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    private static void createIndexes(Connection connection) throws SQLException {
+        final long start = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            for (String[] index : INDEXES) {
+                statement.execute("CREATE INDEX IF NOT EXISTS " + index[0] + " ON " + index[1]);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+        log.debug("Created SQLite indexes in {}ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static void dropIndexes(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String[] index : INDEXES) {
+                statement.execute("DROP INDEX IF EXISTS " + index[0]);
+            }
+        }
+    }
+
+    private static void rollback(Connection connection, Exception cause) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private static void restoreIndexes(Connection connection, Exception cause) {
+        try {
+            createIndexes(connection);
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private static void setInt(PreparedStatement statement, int index, Integer value) throws SQLException {
+        if (value != null) {
+            statement.setInt(index, value);
+        } else {
+            statement.setNull(index, Types.INTEGER);
+        }
+    }
+
+    private static String join(List<String> values) {
+        return values != null ? String.join(" ", values) : null;
+    }
+
+    private String toJson(Object value) throws SQLException {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Couldn't serialize column value to JSON", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Binder<T> {
+        void bind(PreparedStatement statement, T row) throws SQLException;
+    }
+
+    /**
+     * Writes the rows of each bank, leaving the transaction to be committed once every bank is loaded.
+     */
+    private class Export implements YomichanBankHandler {
+
+        private final Connection connection;
+        private Long dictionary;
+
+        Export(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public void onIndex(Index index) {
+            try {
+                final String[] tables = {"tags", "terms", "term_meta", "kanji", "kanji_meta"};
+                try (PreparedStatement select = connection.prepareStatement("SELECT id FROM dictionaries WHERE title = ?")) {
+                    select.setString(1, index.getTitle());
+                    try (ResultSet result = select.executeQuery()) {
+                        if (result.next()) {
+                            // Deleted before the indexes are dropped, so that the rows are found through them
+                            final long previous = result.getLong(1);
+                            log.info("Replacing previous export of Yomichan dictionary {}", index.getTitle());
+                            for (String table : tables) {
+                                try (PreparedStatement delete = connection.prepareStatement("DELETE FROM " + table + " WHERE dictionary = ?")) {
+                                    delete.setLong(1, previous);
+                                    delete.executeUpdate();
+                                }
+                            }
+                            try (PreparedStatement delete = connection.prepareStatement("DELETE FROM dictionaries WHERE id = ?")) {
+                                delete.setLong(1, previous);
+                                delete.executeUpdate();
+                            }
+                        }
+                    }
+                }
+
+                final String sql = "INSERT INTO dictionaries (title, revision, format, author, url, description, attribution, sequenced, frequency_mode) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                try (PreparedStatement insert = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    insert.setString(1, index.getTitle());
+                    insert.setString(2, index.getRevision());
+                    setInt(insert, 3, index.getFormat());
+                    insert.setString(4, index.getAuthor());
+                    insert.setString(5, index.getUrl());
+                    insert.setString(6, index.getDescription());
+                    insert.setString(7, index.getAttribution());
+                    insert.setInt(8, index.isSequenced() ? 1 : 0);
+                    insert.setString(9, index.getFrequencyMode() != null ? index.getFrequencyMode().getValue() : null);
+                    insert.executeUpdate();
+                    try (ResultSet keys = insert.getGeneratedKeys()) {
+                        if (!keys.next()) {
+                            throw new SQLException("No id generated for dictionary " + index.getTitle());
+                        }
+                        dictionary = keys.getLong(1);
+                    }
+                }
+                // Indexes are rebuilt once all rows are loaded.
+                dropIndexes(connection);
+            } catch (SQLException e) {
+                throw new YomichanException("Failed to export Yomichan index to SQLite table dictionaries", e);
+            }
+        }
+
+        @Override
+        public void onTags(List<Tag> tags) {
+            insert("tags", "INSERT INTO tags (dictionary, name, category, sort_order, notes, score) VALUES (?, ?, ?, ?, ?, ?)", tags, (statement, tag) -> {
+                statement.setString(2, tag.getName());
+                statement.setString(3, tag.getCategory());
+                setInt(statement, 4, tag.getOrder());
+                statement.setString(5, tag.getNotes());
+                setInt(statement, 6, tag.getScore());
+            });
+        }
+
+        @Override
+        public void onTerms(List<Term> terms) {
+            insert("terms", "INSERT INTO terms (dictionary, expression, reading, definition_tags, rules, score, glossary, sequence, term_tags) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", terms, (statement, term) -> {
+                statement.setString(2, term.getTerm());
+                statement.setString(3, term.getReading());
+                statement.setString(4, join(term.getDefinitionTags()));
+                statement.setString(5, join(term.getRules()));
+                setInt(statement, 6, term.getScore());
+                statement.setString(7, toJson(term.getContents()));
+                setInt(statement, 8, term.getSequenceNumber());
+                statement.setString(9, join(term.getTermTags()));
+            });
+        }
+
+        @Override
+        public void onTermMetadata(List<TermMetadata> termMetadata) {
+            insert("term_meta", "INSERT INTO term_meta (dictionary, expression, mode, reading, frequency, display, pitches) VALUES (?, ?, ?, ?, ?, ?, ?)", termMetadata, (statement, meta) -> {
+                statement.setString(2, meta.getText());
+                statement.setString(3, meta.getType() != null ? meta.getType().getValue() : null);
+                if (meta.getFrequency() != null) {
+                    statement.setString(4, meta.getFrequency().getReading());
+                    setInt(statement, 5, meta.getFrequency().getValue());
+                    statement.setString(6, meta.getFrequency().getDisplay());
+                    statement.setNull(7, Types.VARCHAR);
+                } else {
+                    statement.setString(4, meta.getPitches() != null ? meta.getPitches().getReading() : null);
+                    statement.setNull(5, Types.INTEGER);
+                    statement.setNull(6, Types.VARCHAR);
+                    statement.setString(7, meta.getPitches() != null ? toJson(meta.getPitches().getPitches()) : null);
+                }
+            });
+        }
+
+        @Override
+        public void onKanjis(List<Kanji> kanjis) {
+            insert("kanji", "INSERT INTO kanji (dictionary, character, onyomi, kunyomi, tags, meanings, stats) VALUES (?, ?, ?, ?, ?, ?, ?)", kanjis, (statement, kanji) -> {
+                statement.setString(2, kanji.getCharacter());
+                statement.setString(3, join(kanji.getOnyomi()));
+                statement.setString(4, join(kanji.getKunyomi()));
+                statement.setString(5, join(kanji.getTags()));
+                statement.setString(6, toJson(kanji.getMeanings()));
+                statement.setString(7, toJson(kanji.getStats()));
+            });
+        }
+
+        @Override
+        public void onKanjiMetadata(List<KanjiMetadata> kanjiMetadata) {
+            insert("kanji_meta", "INSERT INTO kanji_meta (dictionary, character, frequency, display) VALUES (?, ?, ?, ?)", kanjiMetadata, (statement, meta) -> {
+                statement.setString(2, meta.getText());
+                setInt(statement, 3, meta.getFrequency());
+                statement.setString(4, meta.getDisplay());
+            });
+        }
+
+        private <T> void insert(String table, String sql, List<T> rows, Binder<T> binder) {
+            if (dictionary == null) {
+                throw new YomichanException("Yomichan dictionary is missing its index.json file, can't export rows to " + table);
+            }
+            final long start = System.nanoTime();
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int pending = 0;
+                for (T row : rows) {
+                    statement.setLong(1, dictionary);
+                    binder.bind(statement, row);
+                    statement.addBatch();
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            } catch (SQLException e) {
+                throw new YomichanException("Failed to export Yomichan bank to SQLite table " + table, e);
+            }
+            log.debug("Exported {} rows to {} in {}ms", rows.size(), table, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package yomichan.importer;
+
+import yomichan.model.YomichanDictionary;
+
+import java.io.File;
+
+/**
+ * Receives the dictionaries of a bulk import as soon as each of them is parsed.
+ *
+ * <p>{@link #onDictionary(File, YomichanDictionary)} is called from the importer's worker threads,
+ * so several dictionaries can be handled at once and implementations have to be thread safe. The
+ * memory reserved for a dictionary is only released once the handler returns, so storing the
+ * dictionary before returning keeps the import within its memory budget.</p>
+ *
+ * <p>Exceptions thrown by the handler fail the import of that dictionary only, and are reported
+ * in the {@link ImportResult} like parse failures.</p>
+ */
+public interface BulkImportHandler {
+
+    /**
+     * Called with each successfully parsed dictionary.
+     *
+     * @param file       The dictionary file.
+     * @param dictionary The parsed dictionary.
+     */
+    void onDictionary(File file, YomichanDictionary dictionary);
+
+    /**
+     * Called once for every dictionary, whether it was imported or not. Calls are never made
+     * concurrently, and are made in the order the dictionaries finished.
+     *
+     * @param progress The progress of the finished dictionary and of the import as a whole.
+     */
+    default void onProgress(ImportProgress progress) {
+    }
+}
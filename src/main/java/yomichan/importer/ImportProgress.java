@@ -0,0 +1,59 @@
+package yomichan.importer;
+
+import lombok.Value;
+
+import java.io.File;
+
+/**
+ * Progress of a bulk import, reported after each dictionary has finished.
+ */
+@Value
+public class ImportProgress {
+
+    /**
+     * The dictionary file that finished.
+     */
+    File file;
+
+    /**
+     * Whether the dictionary was parsed and handled without errors.
+     */
+    boolean imported;
+
+    /**
+     * Uncompressed size of the dictionary's bank files in bytes.
+     */
+    long bytes;
+
+    /**
+     * Time spent parsing and handling the dictionary in nanoseconds.
+     */
+    long elapsedNanos;
+
+    /**
+     * Number of dictionaries that have finished so far, including this one and failed ones.
+     */
+    int completed;
+
+    /**
+     * Number of dictionaries in the import.
+     */
+    int total;
+
+    /**
+     * Uncompressed size of the bank files of the finished dictionaries in bytes.
+     */
+    long completedBytes;
+
+    /**
+     * Uncompressed size of the bank files of all dictionaries in bytes.
+     */
+    long totalBytes;
+
+    /**
+     * @return the finished fraction of the import by size, between 0 and 1.
+     */
+    public double getFraction() {
+        return totalBytes == 0 ? (double) completed / Math.max(total, 1) : (double) completedBytes / totalBytes;
+    }
+}
@@ -0,0 +1,36 @@
+package yomichan.importer;
+
+import lombok.Value;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk import.
+ */
+@Value
+public class ImportResult {
+
+    /**
+     * The dictionary files that were imported, in the order they finished.
+     */
+    List<File> imported;
+
+    /**
+     * The dictionary files that couldn't be imported, with the reason.
+     */
+    Map<File, Throwable> failures;
+
+    /**
+     * Time spent on the whole import in nanoseconds.
+     */
+    long elapsedNanos;
+
+    /**
+     * @return true if every dictionary was imported.
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+}
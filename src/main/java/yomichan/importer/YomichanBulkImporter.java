@@ -0,0 +1,240 @@
+package yomichan.importer;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.FileHeader;
+import yomichan.YomichanParser;
+import yomichan.exception.YomichanException;
+import yomichan.model.YomichanDictionary;
+import yomichan.parser.YomichanParserType;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports a directory of Yomichan dictionary .zip files on a pool of worker threads.
+ *
+ * <p>Parsing dictionaries one after the other leaves most cores idle, but parsing all of them at
+ * once runs out of heap as soon as a few large dictionaries are in flight together. The importer
+ * bounds both: at most {@link #getThreads()} dictionaries are parsed at once, and a dictionary is
+ * only started once its estimated heap footprint fits in what's left of {@link #getMemoryBudget()}.
+ * The footprint is estimated up front from the uncompressed sizes of the bank files in the zip's
+ * central directory, times {@link #getExpansion()}. A dictionary estimated to be larger than the
+ * whole budget is parsed on its own.</p>
+ *
+ * <p>Dictionaries are started largest first, so that the small ones fill the gaps left by the large
+ * ones at the end of the import. Every parsed dictionary is passed to the handler as soon as it's
+ * ready, and its memory is reserved until the handler returns. A dictionary that fails to parse
+ * doesn't stop the import; it's reported in the result.</p>
+ *
+ * <pre>{@code
+ *     YomichanBulkImporter importer = new YomichanBulkImporter();
+ *     importer.setMemoryBudget(2L * 1024 * 1024 * 1024);
+ *     ImportResult result = importer.importDirectory(new File("/path/to/dictionaries"), store::insert);
+ * }</pre>
+ */
+@Slf4j
+public class YomichanBulkImporter {
+
+    public static final double DEFAULT_EXPANSION = 4.0;
+
+    private static final long PERMIT_BYTES = 1024;
+
+    private final YomichanParser parser;
+
+    /**
+     * Maximum number of dictionaries parsed at the same time.
+     */
+    @Getter
+    @Setter
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Heap in bytes that the dictionaries being parsed and handled may use together.
+     */
+    @Getter
+    @Setter
+    private long memoryBudget = Runtime.getRuntime().maxMemory() / 2;
+
+    /**
+     * Estimated heap used by the parsed rows per byte of uncompressed JSON.
+     */
+    @Getter
+    @Setter
+    private double expansion = DEFAULT_EXPANSION;
+
+    public YomichanBulkImporter() {
+        this(new YomichanParser());
+    }
+
+    /**
+     * Create an importer that parses the dictionaries with the given parser, e.g. one reporting to a
+     * {@link yomichan.listener.ParseListener}.
+     *
+     * @param parser The parser to parse each dictionary with.
+     */
+    public YomichanBulkImporter(YomichanParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Import every .zip file directly inside the directory.
+     *
+     * @param directory The directory containing the dictionaries.
+     * @param handler   The handler to receive the parsed dictionaries.
+     * @return the imported and failed dictionary files.
+     */
+    public ImportResult importDirectory(File directory, BulkImportHandler handler) {
+        final File[] files = directory.listFiles((dir, name) -> name.toLowerCase().endsWith(".zip"));
+        if (files == null) {
+            throw new YomichanException("Couldn't list dictionaries in directory: " + directory);
+        }
+        Arrays.sort(files);
+        return importFiles(Arrays.asList(files), handler);
+    }
+
+    /**
+     * Import the dictionary files.
+     *
+     * @param files   The dictionary files.
+     * @param handler The handler to receive the parsed dictionaries.
+     * @return the imported and failed dictionary files.
+     */
+    public ImportResult importFiles(List<File> files, BulkImportHandler handler) {
+        if (threads < 1) {
+            throw new YomichanException("Bulk import needs at least one thread, got " + threads);
+        }
+        final long start = System.nanoTime();
+        final List<Job> jobs = new ArrayList<>();
+        long totalBytes = 0;
+        for (File file : files) {
+            final Job job = new Job(file, uncompressedSize(file));
+            totalBytes += job.bytes;
+            jobs.add(job);
+        }
+        jobs.sort(Comparator.comparingLong((Job job) -> job.bytes).reversed());
+
+        final int budget = (int) Math.min(Integer.MAX_VALUE, Math.max(1, memoryBudget / PERMIT_BYTES));
+        final Import state = new Import(handler, jobs.size(), totalBytes, new Semaphore(budget), new Semaphore(threads));
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, new WorkerFactory());
+        try {
+            for (Job job : jobs) {
+                final int permits = (int) Math.min(budget, Math.max(1, (long) Math.ceil(job.bytes * expansion / PERMIT_BYTES)));
+                state.threads.acquire();
+                state.memory.acquire(permits);
+                executor.execute(() -> {
+                    try {
+                        run(job, state);
+                    } finally {
+                        state.memory.release(permits);
+                        state.threads.release();
+                    }
+                });
+            }
+            // Every worker returns its thread permit once it's done, so this waits for all of them
+            state.threads.acquire(threads);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            throw new YomichanException("Interrupted while importing dictionaries.", e);
+        } finally {
+            executor.shutdown();
+        }
+
+        final long elapsed = System.nanoTime() - start;
+        log.info("Imported {} of {} Yomichan dictionaries in {}ms", state.imported.size(), jobs.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return new ImportResult(Collections.unmodifiableList(state.imported), Collections.unmodifiableMap(state.failures), elapsed);
+    }
+
+    private void run(Job job, Import state) {
+        final long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            final YomichanDictionary dictionary = parser.parseDictionary(job.file);
+            state.handler.onDictionary(job.file, dictionary);
+        } catch (RuntimeException | Error e) {
+            log.warn("Couldn't import Yomichan dictionary {}", job.file.getName(), e);
+            failure = e;
+        }
+        state.finish(job, failure, System.nanoTime() - start);
+    }
+
+    private static long uncompressedSize(File file) {
+        long size = 0;
+        try (final ZipFile zip = new ZipFile(file)) {
+            for (FileHeader header : zip.getFileHeaders()) {
+                if (!header.isDirectory() && YomichanParserType.findBank(header.getFileName()).isPresent()) {
+                    size += Math.max(0, header.getUncompressedSize());
+                }
+            }
+        } catch (IOException e) {
+            // Parsing reports the problem, the dictionary only needs an estimate to be scheduled
+            log.debug("Couldn't read the size of Yomichan dictionary {}", file.getName(), e);
+        }
+        return size;
+    }
+
+    private record Job(File file, long bytes) {
+    }
+
+    private static class Import {
+        private final BulkImportHandler handler;
+        private final int total;
+        private final long totalBytes;
+        private final Semaphore memory;
+        private final Semaphore threads;
+        private final List<File> imported = new ArrayList<>();
+        private final Map<File, Throwable> failures = new LinkedHashMap<>();
+        private int completed;
+        private long completedBytes;
+
+        private Import(BulkImportHandler handler, int total, long totalBytes, Semaphore memory, Semaphore threads) {
+            this.handler = handler;
+            this.total = total;
+            this.totalBytes = totalBytes;
+            this.memory = memory;
+            this.threads = threads;
+        }
+
+        private synchronized void finish(Job job, Throwable failure, long elapsedNanos) {
+            if (failure == null) {
+                imported.add(job.file);
+            } else {
+                failures.put(job.file, failure);
+            }
+            completed++;
+            completedBytes += job.bytes;
+            try {
+                handler.onProgress(new ImportProgress(job.file, failure == null, job.bytes, elapsedNanos, completed, total, completedBytes, totalBytes));
+            } catch (RuntimeException e) {
+                log.warn("Bulk import progress handler failed", e);
+            }
+        }
+    }
+
+    private static class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, "yomichan-import-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package yomichan.index;
+
+import lombok.Getter;
+import yomichan.jfr.BatchLookupEvent;
+import yomichan.model.v3.Term;
+import yomichan.scanner.ScanSpan;
+import yomichan.scanner.TextScanner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Resolves large batches of lookups or documents in parallel over a shared {@link LookupIndex}, for
+ * offline jobs like annotating a corpus.
+ *
+ * <p>Repeated keys in a batch are only resolved once: the batch is first reduced to its distinct
+ * keys, which are then split into ranges and resolved as {@link RecursiveAction}s on a
+ * {@link ForkJoinPool}, so idle workers steal the remaining ranges of busy ones when some keys are
+ * much more expensive than others. The results are returned in the order of the input, and repeated
+ * keys share the same result.</p>
+ *
+ * <p>The index and scanners are only read, so several batches can run at the same time. Add every
+ * dictionary to the index before looking up batches.</p>
+ *
+ * <p>Every batch emits a {@link BatchLookupEvent} when JDK Flight Recorder is recording. Scanning
+ * documents keeps the per-thread buffers of the {@link TextScanner} on every worker of the pool that
+ * scanned one; they're sized by the matches at a single position, not by the number of terms.</p>
+ *
+ * <pre>{@code
+ *     BatchLookup batch = new BatchLookup(index);
+ *     List<List<IndexEntry<Term>>> terms = batch.findTerms(tokens);
+ *     List<List<ScanSpan>> spans = batch.scan(scanner, sentences);
+ * }</pre>
+ */
+public class BatchLookup {
+
+    /**
+     * Number of ranges per worker the distinct keys of a batch are split into, so that workers that
+     * finish early have ranges left to steal.
+     */
+    private static final int SPLITS_PER_WORKER = 16;
+
+    private final LookupIndex index;
+
+    /**
+     * The pool resolving the batches.
+     */
+    @Getter
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a batch lookup running on the common fork/join pool.
+     *
+     * @param index The index to look up keys in.
+     */
+    public BatchLookup(LookupIndex index) {
+        this(index, ForkJoinPool.commonPool());
+    }
+
+    public BatchLookup(LookupIndex index, ForkJoinPool pool) {
+        this.index = index;
+        this.pool = pool;
+    }
+
+    /**
+     * Look up every key in the index of the given type.
+     *
+     * @param type The kind of lookup.
+     * @param keys The texts to look up, which may contain duplicates.
+     * @return the matching rows of every key, in the order of the keys.
+     */
+    public List<List<IndexEntry<?>>> find(LookupType type, List<String> keys) {
+        return resolve(type.name(), keys, key -> index.find(type, key));
+    }
+
+    /**
+     * @param texts The expressions or readings of the terms, which may contain duplicates.
+     * @return the terms with each expression or reading, in the order of the texts.
+     */
+    @SuppressWarnings("unchecked")
+    public List<List<IndexEntry<Term>>> findTerms(List<String> texts) {
+        return (List<List<IndexEntry<Term>>>) (List<?>) find(LookupType.TERM, texts);
+    }
+
+    /**
+     * Scan every document for dictionary matches.
+     *
+     * @param scanner   The scanner to find matches with.
+     * @param documents The documents to scan, which may contain duplicates.
+     * @return the spans of every document, in the order of the documents.
+     * @see TextScanner#scan(CharSequence)
+     */
+    public List<List<ScanSpan>> scan(TextScanner scanner, List<String> documents) {
+        return resolve("SCAN", documents, scanner::scan);
+    }
+
+    private <R> List<R> resolve(String type, List<String> keys, Function<String, R> function) {
+        final BatchLookupEvent event = new BatchLookupEvent();
+        event.begin();
+        final Map<String, Integer> distinct = new HashMap<>();
+        final int[] positions = new int[keys.size()];
+        final List<String> unique = new ArrayList<>();
+        for (int i = 0; i < positions.length; i++) {
+            final String key = keys.get(i);
+            Integer position = distinct.get(key);
+            if (position == null) {
+                position = unique.size();
+                distinct.put(key, position);
+                unique.add(key);
+            }
+            positions[i] = position;
+        }
+
+        final Object[] results = new Object[unique.size()];
+        if (!unique.isEmpty()) {
+            final int threshold = Math.max(1, unique.size() / (pool.getParallelism() * SPLITS_PER_WORKER));
+            pool.invoke(new Resolve<>(unique.toArray(new String[0]), results, function, 0, unique.size(), threshold));
+        }
+
+        final Object[] ordered = new Object[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            ordered[i] = results[positions[i]];
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setType(type);
+            event.setKeys(keys.size());
+            event.setDistinct(unique.size());
+            event.setParallelism(pool.getParallelism());
+            event.commit();
+        }
+        @SuppressWarnings("unchecked")
+        final List<R> list = (List<R>) Collections.unmodifiableList(Arrays.asList(ordered));
+        return list;
+    }
+
+    /**
+     * Resolves the keys in {@code [start, end)}, splitting the range in halves while
+     * it's larger than the threshold.
+     */
+    private static class Resolve<R> extends RecursiveAction {
+        private final String[] keys;
+        private final Object[] results;
+        private final Function<String, R> function;
+        private final int start;
+        private final int end;
+        private final int threshold;
+
+        Resolve(String[] keys, Object[] results, Function<String, R> function, int start, int end, int threshold) {
+            this.keys = keys;
+            this.results = results;
+            this.function = function;
+            this.start = start;
+            this.end = end;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > threshold) {
+                final int middle = (start + end) >>> 1;
+                invokeAll(new Resolve<>(keys, results, function, start, middle, threshold),
+                    new Resolve<>(keys, results, function, middle, end, threshold));
+                return;
+            }
+            for (int i = start; i < end; i++) {
+                results[i] = function.apply(keys[i]);
+            }
+        }
+    }
+}
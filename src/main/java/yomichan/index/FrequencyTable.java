@@ -0,0 +1,239 @@
+package yomichan.index;
+
+import lombok.extern.slf4j.Slf4j;
+import yomichan.model.Index;
+import yomichan.model.YomichanDictionary;
+import yomichan.model.v3.TermMetadata;
+import yomichan.model.v3.term.meta.Frequency;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frequencies of the frequency dictionaries normalized to a common scale, so that terms can be
+ * ranked across dictionaries without any per-lookup math.
+ *
+ * <p>The frequency values of a dictionary are only comparable within that dictionary: a
+ * {@link Index.FrequencyMode#RANK rank-based} dictionary lists the most frequent term as 1, while an
+ * {@link Index.FrequencyMode#OCCURRENCE occurrence-based} one counts how often each term occurs in
+ * its own corpus. The table converts every value to its percentile within its dictionary, from
+ * {@code 1.0} for the most frequent term down towards {@code 0.0} for the least frequent one, with
+ * equal values sharing a percentile. Dictionaries without a frequency mode are treated as
+ * rank-based.</p>
+ *
+ * <p>Every (term, reading) pair and every term is assigned an id when the table is built, and the
+ * percentiles are stored in a {@code float} array per dictionary indexed by that id, together with
+ * their mean over the dictionaries that list the term. Percentiles are computed over the entries a
+ * dictionary lists. Frequencies without a reading then apply to every reading of the term in their
+ * dictionary, and a term only listed with readings takes the percentile of its most frequent one.
+ * Once the id of a term has been looked up, ranking it is a single array read. Missing percentiles are {@link Float#NaN}.</p>
+ *
+ * <pre>{@code
+ *     FrequencyTable table = new FrequencyTable(List.of(jpdb, innocent, bccwj));
+ *     int id = table.id("日本語", "にほんご");
+ *     float percentile = table.getPercentile(id);
+ * }</pre>
+ */
+@Slf4j
+public class FrequencyTable {
+
+    private final List<String> dictionaries;
+    private final Map<String, Integer> ids;
+    private final float[][] percentiles;
+    private final float[] combined;
+
+    /**
+     * Build the table from the frequency metadata of the dictionaries. Dictionaries without any
+     * frequency metadata are ignored.
+     *
+     * @param dictionaries The dictionaries to take frequencies from.
+     */
+    public FrequencyTable(Collection<YomichanDictionary> dictionaries) {
+        final long start = System.nanoTime();
+        final List<String> titles = new ArrayList<>();
+        final List<YomichanDictionary> sources = new ArrayList<>();
+        this.ids = new HashMap<>();
+        // Readings of every term, so that frequencies without a reading can be applied to each of them
+        final Map<String, List<Integer>> readings = new HashMap<>();
+        for (YomichanDictionary dictionary : dictionaries) {
+            boolean frequencies = false;
+            for (TermMetadata meta : dictionary.getTermMetadata()) {
+                final Frequency frequency = frequency(meta);
+                if (frequency == null) {
+                    continue;
+                }
+                frequencies = true;
+                id(meta.getText(), null, readings);
+                if (frequency.getReading() != null) {
+                    id(meta.getText(), frequency.getReading(), readings);
+                }
+            }
+            if (frequencies) {
+                titles.add(dictionary.getIndex() != null ? dictionary.getIndex().getTitle() : null);
+                sources.add(dictionary);
+            }
+        }
+        this.dictionaries = Collections.unmodifiableList(titles);
+
+        this.percentiles = new float[sources.size()][];
+        for (int d = 0; d < percentiles.length; d++) {
+            percentiles[d] = percentiles(sources.get(d), readings);
+        }
+        this.combined = new float[ids.size()];
+        for (int id = 0; id < combined.length; id++) {
+            float sum = 0;
+            int count = 0;
+            for (float[] dictionary : percentiles) {
+                if (!Float.isNaN(dictionary[id])) {
+                    sum += dictionary[id];
+                    count++;
+                }
+            }
+            combined[id] = count > 0 ? sum / count : Float.NaN;
+        }
+        log.debug("Built frequency table of {} dictionaries over {} keys in {}ms", titles.size(), ids.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Find the id of a term, preferring the frequencies of its reading over those of the term alone.
+     *
+     * @param term    The term.
+     * @param reading The reading of the term, or null.
+     * @return the id of the term, or -1 if no dictionary has a frequency for it.
+     */
+    public int id(String term, String reading) {
+        Integer id = reading != null ? ids.get(key(term, reading)) : null;
+        if (id == null) {
+            id = ids.get(term);
+        }
+        return id != null ? id : -1;
+    }
+
+    /**
+     * @param id The id of the term.
+     * @return the mean percentile of the term over the dictionaries that have it, or {@link Float#NaN}.
+     */
+    public float getPercentile(int id) {
+        return id >= 0 ? combined[id] : Float.NaN;
+    }
+
+    /**
+     * @param dictionary The position of the dictionary in {@link #getDictionaries()}.
+     * @param id         The id of the term.
+     * @return the percentile of the term in the dictionary, or {@link Float#NaN}.
+     */
+    public float getPercentile(int dictionary, int id) {
+        return id >= 0 ? percentiles[dictionary][id] : Float.NaN;
+    }
+
+    /**
+     * @param term    The term.
+     * @param reading The reading of the term, or null.
+     * @return the mean percentile of the term over the dictionaries that have it, or {@link Float#NaN}.
+     */
+    public float getPercentile(String term, String reading) {
+        return getPercentile(id(term, reading));
+    }
+
+    /**
+     * @return the titles of the dictionaries with frequencies, in the order they were given.
+     */
+    public List<String> getDictionaries() {
+        return dictionaries;
+    }
+
+    /**
+     * @return the number of term ids.
+     */
+    public int size() {
+        return combined.length;
+    }
+
+    private int id(String term, String reading, Map<String, List<Integer>> readings) {
+        final String key = reading != null ? key(term, reading) : term;
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = ids.size();
+            ids.put(key, id);
+            if (reading != null) {
+                readings.computeIfAbsent(term, t -> new ArrayList<>(1)).add(id);
+            }
+        }
+        return id;
+    }
+
+    private float[] percentiles(YomichanDictionary dictionary, Map<String, List<Integer>> readings) {
+        final boolean occurrence = dictionary.getIndex() != null && dictionary.getIndex().getFrequencyMode() == Index.FrequencyMode.OCCURRENCE;
+        // The most frequent value of every listed id, oriented so that lower is more frequent
+        final long[] values = new long[ids.size()];
+        Arrays.fill(values, Long.MAX_VALUE);
+        for (TermMetadata meta : dictionary.getTermMetadata()) {
+            final Frequency frequency = frequency(meta);
+            if (frequency == null) {
+                continue;
+            }
+            final long value = occurrence ? -(long) frequency.getValue() : frequency.getValue();
+            final int id = id(meta.getText(), frequency.getReading());
+            values[id] = Math.min(values[id], value);
+        }
+
+        // Sort the ids by value, packing the value into the high bits and the id into the low bits
+        // so that the sort stays primitive
+        int count = 0;
+        final long[] order = new long[values.length];
+        for (int id = 0; id < values.length; id++) {
+            if (values[id] != Long.MAX_VALUE) {
+                final long value = Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, values[id]));
+                order[count++] = value << 32 | id;
+            }
+        }
+        Arrays.sort(order, 0, count);
+
+        final float[] result = new float[values.length];
+        Arrays.fill(result, Float.NaN);
+        int moreFrequent = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && order[i] >> 32 != order[i - 1] >> 32) {
+                moreFrequent = i;
+            }
+            result[(int) order[i]] = 1f - (float) moreFrequent / count;
+        }
+
+        // Readings the dictionary doesn't list take the frequency of the term, and terms the dictionary
+        // only lists with readings take the frequency of their most frequent reading
+        for (Map.Entry<String, List<Integer>> entry : readings.entrySet()) {
+            final int term = ids.get(entry.getKey());
+            final float listed = result[term];
+            float best = Float.NaN;
+            for (int id : entry.getValue()) {
+                if (Float.isNaN(result[id])) {
+                    result[id] = listed;
+                } else if (Float.isNaN(best) || result[id] > best) {
+                    best = result[id];
+                }
+            }
+            if (Float.isNaN(listed)) {
+                result[term] = best;
+            }
+        }
+        return result;
+    }
+
+    private static Frequency frequency(TermMetadata meta) {
+        final Frequency frequency = meta.getFrequency();
+        if (meta.getType() != TermMetadata.Type.FREQUENCY || meta.getText() == null || frequency == null || frequency.getValue() == null) {
+            return null;
+        }
+        return frequency;
+    }
+
+    private static String key(String term, String reading) {
+        return term + '\u0000' + reading;
+    }
+}
@@ -0,0 +1,22 @@
+package yomichan.index;
+
+import lombok.Value;
+
+/**
+ * A row found in a {@link LookupIndex}, together with the title of the dictionary it's from.
+ *
+ * @param <T> The type of row, e.g. {@link yomichan.model.v3.Term}.
+ */
+@Value
+public class IndexEntry<T> {
+
+    /**
+     * Title of the dictionary the row is from.
+     */
+    String dictionary;
+
+    /**
+     * The row.
+     */
+    T value;
+}
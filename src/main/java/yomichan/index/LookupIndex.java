@@ -0,0 +1,162 @@
+package yomichan.index;
+
+import yomichan.jfr.LookupEvent;
+import yomichan.model.YomichanDictionary;
+import yomichan.model.v3.Kanji;
+import yomichan.model.v3.KanjiMetadata;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.TermMetadata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory hash indexes over the rows of one or more parsed dictionaries, for exact lookups by text.
+ *
+ * <p>Terms are indexed by both their expression and their reading, so looking up 「ひきあわせる」 finds
+ * 「引き合わせる」. Kanji, kanji frequencies and the frequency and pitch accent term metadata are
+ * indexed by their text. Lookups return every matching row of every dictionary, in the order the
+ * dictionaries were added, and emit a {@link LookupEvent} when JDK Flight Recorder is recording.</p>
+ *
+ * <p>The index isn't synchronized: add every dictionary before sharing the index between threads.
+ * Lookups never modify the index and can then run concurrently.</p>
+ *
+ * <pre>{@code
+ *     LookupIndex index = new LookupIndex();
+ *     index.add(parser.parseDictionary("/path/to/jmdict.zip"));
+ *     List<IndexEntry<Term>> terms = index.findTerms("日本語");
+ * }</pre>
+ */
+public class LookupIndex {
+
+    private final List<String> dictionaries = new ArrayList<>();
+    private final Map<LookupType, Map<String, List<IndexEntry<?>>>> indexes = new EnumMap<>(LookupType.class);
+
+    public LookupIndex() {
+        for (LookupType type : LookupType.values()) {
+            indexes.put(type, new HashMap<>());
+        }
+    }
+
+    /**
+     * Add the rows of the dictionary to the indexes.
+     *
+     * @param dictionary The parsed dictionary.
+     */
+    public void add(YomichanDictionary dictionary) {
+        final String title = dictionary.getIndex() != null ? dictionary.getIndex().getTitle() : null;
+        dictionaries.add(title);
+        for (Term term : dictionary.getTerms()) {
+            put(LookupType.TERM, term.getTerm(), title, term);
+            if (term.getReading() != null && !term.getReading().isEmpty() && !term.getReading().equals(term.getTerm())) {
+                put(LookupType.TERM, term.getReading(), title, term);
+            }
+        }
+        for (Kanji kanji : dictionary.getKanjis()) {
+            put(LookupType.KANJI, kanji.getCharacter(), title, kanji);
+        }
+        for (KanjiMetadata meta : dictionary.getKanjiMetadata()) {
+            put(LookupType.KANJI_FREQUENCY, meta.getText(), title, meta);
+        }
+        for (TermMetadata meta : dictionary.getTermMetadata()) {
+            if (meta.getType() == TermMetadata.Type.FREQUENCY) {
+                put(LookupType.FREQUENCY, meta.getText(), title, meta);
+            } else if (meta.getType() == TermMetadata.Type.PITCH) {
+                put(LookupType.PITCH, meta.getText(), title, meta);
+            }
+        }
+    }
+
+    /**
+     * @param text The expression or reading of the term.
+     * @return the terms with the expression or reading.
+     */
+    @SuppressWarnings("unchecked")
+    public List<IndexEntry<Term>> findTerms(String text) {
+        return (List<IndexEntry<Term>>) (List<?>) find(LookupType.TERM, text);
+    }
+
+    /**
+     * @param character The kanji character.
+     * @return the kanji entries for the character.
+     */
+    @SuppressWarnings("unchecked")
+    public List<IndexEntry<Kanji>> findKanji(String character) {
+        return (List<IndexEntry<Kanji>>) (List<?>) find(LookupType.KANJI, character);
+    }
+
+    /**
+     * @param character The kanji character.
+     * @return the frequencies of the kanji character.
+     */
+    @SuppressWarnings("unchecked")
+    public List<IndexEntry<KanjiMetadata>> findKanjiFrequencies(String character) {
+        return (List<IndexEntry<KanjiMetadata>>) (List<?>) find(LookupType.KANJI_FREQUENCY, character);
+    }
+
+    /**
+     * @param text The term.
+     * @return the frequency metadata of the term.
+     */
+    @SuppressWarnings("unchecked")
+    public List<IndexEntry<TermMetadata>> findFrequencies(String text) {
+        return (List<IndexEntry<TermMetadata>>) (List<?>) find(LookupType.FREQUENCY, text);
+    }
+
+    /**
+     * @param text The term.
+     * @return the pitch accent metadata of the term.
+     */
+    @SuppressWarnings("unchecked")
+    public List<IndexEntry<TermMetadata>> findPitches(String text) {
+        return (List<IndexEntry<TermMetadata>>) (List<?>) find(LookupType.PITCH, text);
+    }
+
+    /**
+     * Look up the key in the index of the given type.
+     *
+     * @param type The kind of lookup.
+     * @param key  The text to look up.
+     * @return the matching rows, or an empty list.
+     */
+    public List<IndexEntry<?>> find(LookupType type, String key) {
+        final LookupEvent event = new LookupEvent();
+        event.begin();
+        final List<IndexEntry<?>> entries = key == null ? null : indexes.get(type).get(key);
+        final List<IndexEntry<?>> result = entries == null ? List.of() : Collections.unmodifiableList(entries);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setType(type.name());
+            event.setKey(key);
+            event.setResults(result.size());
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * @return the titles of the indexed dictionaries, in the order they were added.
+     */
+    public List<String> getDictionaries() {
+        return Collections.unmodifiableList(dictionaries);
+    }
+
+    /**
+     * @param type The kind of lookup.
+     * @return the number of distinct keys in the index of the given type.
+     */
+    public int size(LookupType type) {
+        return indexes.get(type).size();
+    }
+
+    private void put(LookupType type, String key, String dictionary, Object value) {
+        if (key == null) {
+            return;
+        }
+        indexes.get(type).computeIfAbsent(key, k -> new ArrayList<>(1)).add(new IndexEntry<>(dictionary, value));
+    }
+}
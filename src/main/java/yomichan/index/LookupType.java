@@ -0,0 +1,22 @@
+package yomichan.index;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The kinds of lookups supported by a {@link LookupIndex}.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum LookupType {
+    TERM("terms"),
+    KANJI("kanji"),
+    FREQUENCY("frequencies"),
+    KANJI_FREQUENCY("kanji-frequencies"),
+    PITCH("pitches");
+
+    /**
+     * Name of the lookup, e.g. as used in URLs.
+     */
+    private final String value;
+}
@@ -0,0 +1,370 @@
+package yomichan.index;
+
+import lombok.extern.slf4j.Slf4j;
+import yomichan.jfr.ScoredLookupEvent;
+import yomichan.model.YomichanDictionary;
+import yomichan.model.v3.Term;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable index of terms by expression and reading, with the terms of every key sorted by
+ * {@link Term#getScore()} when the index is built, for top-k and paged lookups.
+ *
+ * <p>The keys are kept in a sorted array, and the term ids of every key in one flat array of
+ * postings, highest score first and in dictionary order among equal scores. Looking up a page of a
+ * key is a binary search and a copy of the page, however many terms match the key, so asking for the
+ * best 10 of the hundreds of terms read 「こう」 doesn't sort or even touch the other ones.</p>
+ *
+ * <p>Prefix lookups, e.g. for autocompletion, merge the already sorted postings of the keys with the
+ * prefix, and stop as soon as the page is complete. A short prefix can match tens of thousands of
+ * keys, so the keys aren't all put in the heap up front: a segment tree over the best term of every
+ * key finds the best key of a range of keys in logarithmic time, and a range is only split, and its
+ * best key read, once that term is the next one of the page. A query for {@code k} terms therefore
+ * touches {@code O(k)} keys and takes {@code O(k log n)} time, however many keys match the prefix.
+ * A term matched through both its expression and its reading is only returned once.</p>
+ *
+ * <p>Every page emits a {@link ScoredLookupEvent} when JDK Flight Recorder is recording.</p>
+ *
+ * <pre>{@code
+ *     ScoredTermIndex index = new ScoredTermIndex(List.of(jmdict));
+ *     List<IndexEntry<Term>> best = index.top("こう", 10);
+ *     List<IndexEntry<Term>> next = index.page("こう", 10, 10);
+ *     List<IndexEntry<Term>> completions = index.topWithPrefix("にほ", 10);
+ * }</pre>
+ */
+@Slf4j
+public class ScoredTermIndex {
+
+    private final String[] keys;
+    private final int[] postingStart;
+    private final int[] postings;
+    private final Term[] terms;
+    private final String[] dictionaries;
+    private final int[] scores;
+    /**
+     * Segment tree over the keys, where every node holds the key whose first, i.e. best, term ranks
+     * highest in the node's range. The leaves, holding the keys themselves, start at {@code keys.length}.
+     */
+    private final int[] bestKeys;
+
+    /**
+     * Build the index over the terms of the dictionaries.
+     *
+     * @param dictionaries The dictionaries to index, in the order their terms rank among equal scores.
+     */
+    public ScoredTermIndex(Collection<YomichanDictionary> dictionaries) {
+        final long start = System.nanoTime();
+        final int count = dictionaries.stream().mapToInt(dictionary -> dictionary.getTerms().size()).sum();
+        this.terms = new Term[count];
+        this.dictionaries = new String[count];
+        this.scores = new int[count];
+
+        final Map<String, List<Integer>> ids = new HashMap<>();
+        int id = 0;
+        for (YomichanDictionary dictionary : dictionaries) {
+            final String title = dictionary.getIndex() != null ? dictionary.getIndex().getTitle() : null;
+            for (Term term : dictionary.getTerms()) {
+                terms[id] = term;
+                this.dictionaries[id] = title;
+                scores[id] = term.getScore() != null ? term.getScore() : 0;
+                if (term.getTerm() != null) {
+                    ids.computeIfAbsent(term.getTerm(), key -> new ArrayList<>(1)).add(id);
+                }
+                if (term.getReading() != null && !term.getReading().isEmpty() && !term.getReading().equals(term.getTerm())) {
+                    ids.computeIfAbsent(term.getReading(), key -> new ArrayList<>(1)).add(id);
+                }
+                id++;
+            }
+        }
+
+        this.keys = ids.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        this.postingStart = new int[keys.length + 1];
+        int size = 0;
+        for (int i = 0; i < keys.length; i++) {
+            postingStart[i] = size;
+            size += ids.get(keys[i]).size();
+        }
+        postingStart[keys.length] = size;
+        this.postings = new int[size];
+        for (int i = 0; i < keys.length; i++) {
+            final List<Integer> posting = ids.get(keys[i]);
+            posting.sort(this::compare);
+            for (int j = 0; j < posting.size(); j++) {
+                postings[postingStart[i] + j] = posting.get(j);
+            }
+        }
+        this.bestKeys = new int[keys.length * 2];
+        for (int i = 0; i < keys.length; i++) {
+            bestKeys[keys.length + i] = i;
+        }
+        for (int i = keys.length - 1; i > 0; i--) {
+            bestKeys[i] = better(bestKeys[2 * i], bestKeys[2 * i + 1]);
+        }
+        log.debug("Built scored term index over {} terms with {} keys in {}ms", count, keys.length, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * @param key The expression or reading.
+     * @return the number of terms with the expression or reading.
+     */
+    public int count(String key) {
+        final int index = key != null ? Arrays.binarySearch(keys, key) : -1;
+        return index >= 0 ? postingStart[index + 1] - postingStart[index] : 0;
+    }
+
+    /**
+     * @param key The expression or reading.
+     * @param k   Maximum number of terms to return.
+     * @return the {@code k} highest scored terms with the expression or reading, highest first.
+     */
+    public List<IndexEntry<Term>> top(String key, int k) {
+        return page(key, 0, k);
+    }
+
+    /**
+     * Find a page of the terms with the expression or reading, in the order of {@link #top(String, int)}.
+     *
+     * @param key    The expression or reading.
+     * @param offset Number of terms to skip.
+     * @param limit  Maximum number of terms to return.
+     * @return the terms of the page, or an empty list if it's past the last term.
+     */
+    public List<IndexEntry<Term>> page(String key, int offset, int limit) {
+        checkPage(offset, limit);
+        final ScoredLookupEvent event = new ScoredLookupEvent();
+        event.begin();
+        final List<IndexEntry<Term>> page = readPage(key, offset, limit);
+        commit(event, key, false, offset, limit, page);
+        return page;
+    }
+
+    private List<IndexEntry<Term>> readPage(String key, int offset, int limit) {
+        final int index = key != null ? Arrays.binarySearch(keys, key) : -1;
+        if (index < 0) {
+            return List.of();
+        }
+        final int from = (int) Math.min(postingStart[index + 1], (long) postingStart[index] + offset);
+        final int to = (int) Math.min(postingStart[index + 1], (long) from + limit);
+        final List<IndexEntry<Term>> page = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            page.add(entry(postings[i]));
+        }
+        return page;
+    }
+
+    /**
+     * @param prefix The start of the expressions or readings.
+     * @param k      Maximum number of terms to return.
+     * @return the {@code k} highest scored terms with an expression or reading starting with the prefix.
+     */
+    public List<IndexEntry<Term>> topWithPrefix(String prefix, int k) {
+        return pageWithPrefix(prefix, 0, k);
+    }
+
+    /**
+     * Find a page of the terms with an expression or reading starting with the prefix, highest score
+     * first. Only the postings up to the end of the page are read.
+     *
+     * @param prefix The start of the expressions or readings.
+     * @param offset Number of terms to skip.
+     * @param limit  Maximum number of terms to return.
+     * @return the terms of the page, or an empty list if it's past the last term.
+     */
+    public List<IndexEntry<Term>> pageWithPrefix(String prefix, int offset, int limit) {
+        checkPage(offset, limit);
+        final ScoredLookupEvent event = new ScoredLookupEvent();
+        event.begin();
+        final List<IndexEntry<Term>> page = mergePrefix(prefix, offset, limit);
+        commit(event, prefix, true, offset, limit, page);
+        return page;
+    }
+
+    private List<IndexEntry<Term>> mergePrefix(String prefix, int offset, int limit) {
+        if (prefix == null || limit == 0) {
+            return List.of();
+        }
+        int from = Arrays.binarySearch(keys, prefix);
+        from = from >= 0 ? from : -from - 1;
+        // The keys with the prefix follow each other from the first one
+        int to = keys.length;
+        for (int lo = from; lo < to; ) {
+            final int mid = (lo + to) >>> 1;
+            if (keys[mid].startsWith(prefix)) {
+                lo = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        if (from == to) {
+            return List.of();
+        }
+
+        // Every heap entry is a key with the position of its next term, and a range of keys next to
+        // it which are all ranked after that term. Popping an entry adds its term to the page, then
+        // splits off the best key of each side of the range and moves on to the key's next term.
+        final Heap heap = new Heap();
+        push(heap, from, to);
+        final List<IndexEntry<Term>> page = new ArrayList<>(Math.min(limit, 64));
+        int skipped = 0;
+        int last = -1;
+        while (heap.size > 0 && page.size() < limit) {
+            final int position = heap.entries[0];
+            final int lower = heap.entries[1];
+            final int upper = heap.entries[2];
+            final int key = heap.entries[3];
+            heap.poll();
+            push(heap, lower, key);
+            push(heap, key + 1, upper);
+            if (position + 1 < postingStart[key + 1]) {
+                heap.add(position + 1, key, key + 1, key);
+            }
+            // Terms come out in rank order, so both postings of a term matched through its
+            // expression and its reading come out one after the other
+            final int id = postings[position];
+            if (id == last) {
+                continue;
+            }
+            last = id;
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                page.add(entry(id));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * @return the number of distinct expressions and readings.
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    private static void commit(ScoredLookupEvent event, String key, boolean prefix, int offset, int limit, List<IndexEntry<Term>> page) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setKey(key);
+            event.setPrefix(prefix);
+            event.setOffset(offset);
+            event.setLimit(limit);
+            event.setResults(page.size());
+            event.commit();
+        }
+    }
+
+    private IndexEntry<Term> entry(int id) {
+        return new IndexEntry<>(dictionaries[id], terms[id]);
+    }
+
+    /**
+     * Add the best key of the range to the heap, with its first term.
+     */
+    private void push(Heap heap, int from, int to) {
+        if (from < to) {
+            final int key = bestKey(from, to);
+            heap.add(postingStart[key], from, to, key);
+        }
+    }
+
+    /**
+     * @return the key of the range whose first term ranks highest.
+     */
+    private int bestKey(int from, int to) {
+        int best = -1;
+        for (int lo = from + keys.length, hi = to + keys.length; lo < hi; lo >>= 1, hi >>= 1) {
+            if ((lo & 1) == 1) {
+                best = best < 0 ? bestKeys[lo] : better(best, bestKeys[lo]);
+                lo++;
+            }
+            if ((hi & 1) == 1) {
+                hi--;
+                best = best < 0 ? bestKeys[hi] : better(best, bestKeys[hi]);
+            }
+        }
+        return best;
+    }
+
+    private int better(int a, int b) {
+        return compare(postings[postingStart[a]], postings[postingStart[b]]) <= 0 ? a : b;
+    }
+
+    private int compare(int a, int b) {
+        if (scores[a] != scores[b]) {
+            return Integer.compare(scores[b], scores[a]);
+        }
+        return Integer.compare(a, b);
+    }
+
+    private static void checkPage(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative: " + offset + ", " + limit);
+        }
+    }
+
+    /**
+     * Binary min-heap of (posting position, lower key, upper key, key) entries in one int array,
+     * ordered by the term at the posting position.
+     */
+    private final class Heap {
+        private static final int WIDTH = 4;
+
+        private int[] entries = new int[16 * WIDTH];
+        private int size;
+
+        void add(int position, int lower, int upper, int key) {
+            if ((size + 1) * WIDTH > entries.length) {
+                entries = Arrays.copyOf(entries, entries.length * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                final int parent = (i - 1) / 2;
+                if (compare(postings[entries[parent * WIDTH]], postings[position]) <= 0) {
+                    break;
+                }
+                System.arraycopy(entries, parent * WIDTH, entries, i * WIDTH, WIDTH);
+                i = parent;
+            }
+            set(i, position, lower, upper, key);
+        }
+
+        /**
+         * Remove the first entry, which is at the start of {@link #entries}.
+         */
+        void poll() {
+            size--;
+            final int position = entries[size * WIDTH];
+            final int lower = entries[size * WIDTH + 1];
+            final int upper = entries[size * WIDTH + 2];
+            final int key = entries[size * WIDTH + 3];
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && compare(postings[entries[(child + 1) * WIDTH]], postings[entries[child * WIDTH]]) < 0) {
+                    child++;
+                }
+                if (compare(postings[position], postings[entries[child * WIDTH]]) <= 0) {
+                    break;
+                }
+                System.arraycopy(entries, child * WIDTH, entries, i * WIDTH, WIDTH);
+                i = child;
+            }
+            set(i, position, lower, upper, key);
+        }
+
+        private void set(int i, int position, int lower, int upper, int key) {
+            entries[i * WIDTH] = position;
+            entries[i * WIDTH + 1] = lower;
+            entries[i * WIDTH + 2] = upper;
+            entries[i * WIDTH + 3] = key;
+        }
+    }
+}
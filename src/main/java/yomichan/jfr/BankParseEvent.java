@@ -0,0 +1,32 @@
+package yomichan.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+/**
+ * JDK Flight Recorder event emitted for every parsed bank file (index.json, term_bank_1.json, etc.).
+ */
+@Setter
+@Name("yomichan.BankParse")
+@Label("Bank Parse")
+@Category({"Yomichan", "Parsing"})
+@Description("Parsing of a single Yomichan bank file")
+public class BankParseEvent extends jdk.jfr.Event {
+
+    @Label("Type")
+    private String type;
+
+    @Label("File Name")
+    private String fileName;
+
+    @Label("Rows")
+    private int rows;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+}
@@ -0,0 +1,31 @@
+package yomichan.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+/**
+ * JDK Flight Recorder event emitted for every batch resolved by a {@link yomichan.index.BatchLookup}.
+ * The lookups and scans of the batch emit their own events as well.
+ */
+@Setter
+@Name("yomichan.BatchLookup")
+@Label("Batch Lookup")
+@Category({"Yomichan", "Lookup"})
+@Description("Parallel lookup of a batch of keys or documents")
+public class BatchLookupEvent extends jdk.jfr.Event {
+
+    @Label("Type")
+    private String type;
+
+    @Label("Keys")
+    private int keys;
+
+    @Label("Distinct Keys")
+    private int distinct;
+
+    @Label("Parallelism")
+    private int parallelism;
+}
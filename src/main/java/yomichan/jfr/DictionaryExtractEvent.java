@@ -0,0 +1,33 @@
+package yomichan.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+/**
+ * JDK Flight Recorder event emitted when a dictionary .zip file is extracted.
+ */
+@Setter
+@Name("yomichan.DictionaryExtract")
+@Label("Dictionary Extract")
+@Category({"Yomichan", "Parsing"})
+@Description("Extraction of a Yomichan dictionary .zip file")
+public class DictionaryExtractEvent extends jdk.jfr.Event {
+
+    @Label("File Name")
+    private String fileName;
+
+    @Label("Entries")
+    private int entries;
+
+    @Label("Compressed Bytes")
+    @DataAmount
+    private long compressedBytes;
+
+    @Label("Uncompressed Bytes")
+    @DataAmount
+    private long uncompressedBytes;
+}
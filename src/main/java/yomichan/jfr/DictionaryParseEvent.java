@@ -0,0 +1,32 @@
+package yomichan.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+/**
+ * JDK Flight Recorder event emitted for every parsed dictionary .zip file, spanning extraction and all banks.
+ */
+@Setter
+@Name("yomichan.DictionaryParse")
+@Label("Dictionary Parse")
+@Category({"Yomichan", "Parsing"})
+@Description("Parsing of a complete Yomichan dictionary .zip file")
+public class DictionaryParseEvent extends jdk.jfr.Event {
+
+    @Label("File Name")
+    private String fileName;
+
+    @Label("Title")
+    private String title;
+
+    @Label("Rows")
+    private long rows;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+}
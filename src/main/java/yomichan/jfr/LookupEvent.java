@@ -0,0 +1,27 @@
+package yomichan.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+/**
+ * JDK Flight Recorder event emitted for every lookup in a {@link yomichan.index.LookupIndex}.
+ */
+@Setter
+@Name("yomichan.Lookup")
+@Label("Lookup")
+@Category({"Yomichan", "Lookup"})
+@Description("Lookup of a key in an in-memory Yomichan index")
+public class LookupEvent extends jdk.jfr.Event {
+
+    @Label("Type")
+    private String type;
+
+    @Label("Key")
+    private String key;
+
+    @Label("Results")
+    private int results;
+}
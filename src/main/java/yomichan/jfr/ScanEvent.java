@@ -0,0 +1,28 @@
+package yomichan.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+/**
+ * JDK Flight Recorder event emitted for every scan of a text, or of a single position of a text, by
+ * a {@link yomichan.scanner.TextScanner}.
+ */
+@Setter
+@Name("yomichan.Scan")
+@Label("Scan")
+@Category({"Yomichan", "Lookup"})
+@Description("Scan of a text for the terms of in-memory Yomichan dictionaries")
+public class ScanEvent extends jdk.jfr.Event {
+
+    @Label("Start")
+    private int start;
+
+    @Label("Positions")
+    private int positions;
+
+    @Label("Spans")
+    private int spans;
+}
@@ -0,0 +1,33 @@
+package yomichan.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import lombok.Setter;
+
+/**
+ * JDK Flight Recorder event emitted for every page looked up in a {@link yomichan.index.ScoredTermIndex}.
+ */
+@Setter
+@Name("yomichan.ScoredLookup")
+@Label("Scored Lookup")
+@Category({"Yomichan", "Lookup"})
+@Description("Lookup of a page of terms by key or prefix in an in-memory Yomichan index")
+public class ScoredLookupEvent extends jdk.jfr.Event {
+
+    @Label("Key")
+    private String key;
+
+    @Label("Prefix")
+    private boolean prefix;
+
+    @Label("Offset")
+    private int offset;
+
+    @Label("Limit")
+    private int limit;
+
+    @Label("Results")
+    private int results;
+}
@@ -0,0 +1,39 @@
+package yomichan.listener;
+
+import lombok.Value;
+import yomichan.parser.YomichanParserType;
+
+import java.io.File;
+
+/**
+ * Metrics for a single parsed bank file.
+ */
+@Value
+public class BankEvent {
+
+    /**
+     * The type of the bank.
+     */
+    YomichanParserType type;
+
+    /**
+     * The bank file. For a bank read from a stream, a file with just the name of its zip entry, or
+     * null if the bank was parsed from a stream on its own.
+     */
+    File file;
+
+    /**
+     * Number of bytes read from the bank file, or from the stream for a bank read from a stream.
+     */
+    long bytes;
+
+    /**
+     * Number of rows parsed from the bank file.
+     */
+    int rows;
+
+    /**
+     * Time spent parsing the bank file in nanoseconds.
+     */
+    long elapsedNanos;
+}
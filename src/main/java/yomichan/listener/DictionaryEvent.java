@@ -0,0 +1,34 @@
+package yomichan.listener;
+
+import lombok.Value;
+import yomichan.parser.YomichanParserType;
+
+import java.io.File;
+import java.util.Map;
+
+/**
+ * Metrics for a fully parsed dictionary .zip file.
+ */
+@Value
+public class DictionaryEvent {
+
+    /**
+     * The dictionary file, or null if the dictionary was read from a stream.
+     */
+    File file;
+
+    /**
+     * Size of the dictionary file in bytes, or the number of bytes read from the stream.
+     */
+    long bytes;
+
+    /**
+     * Number of rows parsed for each bank type.
+     */
+    Map<YomichanParserType, Integer> rows;
+
+    /**
+     * Time spent parsing the entire dictionary in nanoseconds, including extraction.
+     */
+    long elapsedNanos;
+}
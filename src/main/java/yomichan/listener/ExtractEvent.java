@@ -0,0 +1,42 @@
+package yomichan.listener;
+
+import lombok.Value;
+
+import java.io.File;
+
+/**
+ * Metrics for the extraction of a dictionary .zip file.
+ */
+@Value
+public class ExtractEvent {
+
+    /**
+     * The dictionary file.
+     */
+    File file;
+
+    /**
+     * The directory the dictionary was extracted to.
+     */
+    File directory;
+
+    /**
+     * Number of files extracted from the dictionary.
+     */
+    int entries;
+
+    /**
+     * Size of the dictionary file in bytes.
+     */
+    long compressedBytes;
+
+    /**
+     * Total size of the extracted files in bytes.
+     */
+    long uncompressedBytes;
+
+    /**
+     * Time spent opening and extracting the dictionary in nanoseconds.
+     */
+    long elapsedNanos;
+}
@@ -0,0 +1,86 @@
+package yomichan.listener;
+
+import yomichan.parser.YomichanParserType;
+
+import java.io.File;
+
+/**
+ * Receives structured events while Yomichan dictionaries and bank files are parsed.
+ *
+ * <p>Register a listener through {@code new YomichanParser(listener)} or
+ * {@code new YomichanParserFactory(listener)} to collect import metrics without
+ * scraping the log output. Every method has an empty default implementation, so
+ * implementations only need to override the events they're interested in.</p>
+ *
+ * <p>Events are delivered synchronously on the parsing thread. Implementations should
+ * be fast, thread-safe if the parser is shared between threads, and should not throw.</p>
+ */
+public interface ParseListener {
+
+    /**
+     * A listener that ignores every event.
+     */
+    ParseListener NONE = new ParseListener() {
+    };
+
+    /**
+     * Called before a dictionary .zip file is opened.
+     *
+     * @param file The dictionary file, or null if the dictionary is read from a stream.
+     */
+    default void onDictionaryStarted(File file) {
+    }
+
+    /**
+     * Called after the dictionary .zip file has been extracted.
+     *
+     * @param event The extraction metrics.
+     */
+    default void onDictionaryExtracted(ExtractEvent event) {
+    }
+
+    /**
+     * Called after every bank in the dictionary has been parsed.
+     *
+     * @param event The dictionary metrics.
+     */
+    default void onDictionaryFinished(DictionaryEvent event) {
+    }
+
+    /**
+     * Called when parsing a dictionary fails.
+     *
+     * @param file  The dictionary file, or null if the dictionary was read from a stream.
+     * @param cause The reason parsing failed.
+     */
+    default void onDictionaryFailed(File file, Throwable cause) {
+    }
+
+    /**
+     * Called before a single bank file (index.json, term_bank_1.json, etc.) is parsed.
+     *
+     * @param type The type of the bank.
+     * @param file The bank file. For a bank read from a stream, a file with just the name of its zip
+     *             entry, or null if the bank was parsed from a stream on its own.
+     */
+    default void onBankStarted(YomichanParserType type, File file) {
+    }
+
+    /**
+     * Called after a single bank file has been parsed.
+     *
+     * @param event The bank metrics.
+     */
+    default void onBankFinished(BankEvent event) {
+    }
+
+    /**
+     * Called when parsing a single bank file fails.
+     *
+     * @param type  The type of the bank.
+     * @param file  The bank file, as in {@link #onBankStarted(YomichanParserType, File)}.
+     * @param cause The reason parsing failed.
+     */
+    default void onBankFailed(YomichanParserType type, File file, Throwable cause) {
+    }
+}
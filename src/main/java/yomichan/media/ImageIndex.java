@@ -0,0 +1,98 @@
+package yomichan.media;
+
+import yomichan.model.YomichanDictionary;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.term.Content;
+import yomichan.model.v3.term.ContentType;
+import yomichan.model.v3.term.HtmlTag;
+import yomichan.model.v3.term.StructuredContent;
+import yomichan.parser.YomichanBankHandler;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Index of every image path referenced by the contents of the terms, with the preferred
+ * width and height of the image.
+ *
+ * <p>Both {@code image} contents and {@code img} structured content tags are indexed. When an
+ * image is referenced more than once, the dimensions of the first reference are kept. The index
+ * is also a {@link YomichanBankHandler}, so it can be built while streaming a dictionary.</p>
+ *
+ * <pre>{@code
+ *     ImageIndex images = ImageIndex.of(dictionary);
+ *     images.get("img/logo.png").ifPresent(image -> render(image.getWidth(), image.getHeight()));
+ * }</pre>
+ */
+public class ImageIndex implements YomichanBankHandler {
+
+    private final Map<String, ImageReference> images = new LinkedHashMap<>();
+
+    /**
+     * Build the index for all terms of the dictionary.
+     *
+     * @param dictionary The parsed dictionary.
+     * @return the image index.
+     */
+    public static ImageIndex of(YomichanDictionary dictionary) {
+        final ImageIndex index = new ImageIndex();
+        index.addAll(dictionary.getTerms());
+        return index;
+    }
+
+    @Override
+    public void onTerms(List<Term> terms) {
+        addAll(terms);
+    }
+
+    public void addAll(Collection<Term> terms) {
+        terms.forEach(this::add);
+    }
+
+    public void add(Term term) {
+        if (term.getContents() != null) {
+            term.getContents().forEach(this::add);
+        }
+    }
+
+    private void add(Content content) {
+        if (content.getType() == ContentType.IMAGE || content instanceof StructuredContent structured && structured.getTag() == HtmlTag.IMG) {
+            if (content.getPath() != null) {
+                images.putIfAbsent(content.getPath(), new ImageReference(content.getPath(), content.getWidth(), content.getHeight()));
+            }
+        }
+        if (content.getContents() != null) {
+            content.getContents().forEach(this::add);
+        }
+    }
+
+    /**
+     * Get the image referenced at the path.
+     *
+     * @param path The path to the image file in the archive.
+     * @return the image, or empty if no term references the path.
+     */
+    public Optional<ImageReference> get(String path) {
+        return Optional.ofNullable(images.get(path));
+    }
+
+    public boolean contains(String path) {
+        return images.containsKey(path);
+    }
+
+    /**
+     * @return the referenced image paths, in the order they were first referenced.
+     */
+    public Set<String> getPaths() {
+        return Collections.unmodifiableSet(images.keySet());
+    }
+
+    public int size() {
+        return images.size();
+    }
+}
@@ -0,0 +1,25 @@
+package yomichan.media;
+
+import lombok.Value;
+
+/**
+ * An image referenced by the contents of a term.
+ */
+@Value
+public class ImageReference {
+
+    /**
+     * Path to the image file in the archive.
+     */
+    String path;
+
+    /**
+     * Preferred width of the image, or null if not specified.
+     */
+    Double width;
+
+    /**
+     * Preferred height of the image, or null if not specified.
+     */
+    Double height;
+}
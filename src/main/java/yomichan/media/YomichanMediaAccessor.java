@@ -0,0 +1,186 @@
+package yomichan.media;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.FileHeader;
+import yomichan.exception.YomichanException;
+import yomichan.parser.YomichanParserType;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads the images and other media files of a Yomichan dictionary .zip file on demand.
+ *
+ * <p>The accessor keeps the dictionary file open and reads an entry only when its path is first
+ * requested, so media doesn't need to be extracted up front. Recently used files are kept in an
+ * LRU cache that is bounded by the total number of bytes it holds. Files larger than the cache
+ * are read every time they are requested.</p>
+ *
+ * <p>The accessor is thread-safe. Cache hits only hold the cache lock, while reads from the
+ * zip file are serialized.</p>
+ *
+ * <pre>{@code
+ *     try (YomichanMediaAccessor media = new YomichanMediaAccessor(new File("jmdict.zip"))) {
+ *         ByteBuffer image = media.get("img/logo.png").orElseThrow();
+ *     }
+ * }</pre>
+ *
+ * @see ImageIndex
+ */
+@Slf4j
+public class YomichanMediaAccessor implements Closeable {
+
+    public static final long DEFAULT_CACHE_SIZE = 16 * 1024 * 1024;
+
+    private final ZipFile zip;
+    private final Map<String, FileHeader> entries = new HashMap<>();
+    private final LinkedHashMap<String, byte[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Maximum number of bytes kept in the cache.
+     */
+    @Getter
+    private final long maxCacheSize;
+    private long cacheSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public YomichanMediaAccessor(File file) {
+        this(file, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Open the media files of the dictionary.
+     *
+     * @param file         The Yomichan dictionary file.
+     * @param maxCacheSize Maximum number of bytes kept in the cache, or 0 to disable caching.
+     */
+    public YomichanMediaAccessor(File file, long maxCacheSize) {
+        if (maxCacheSize < 0) {
+            throw new IllegalArgumentException("Cache size cannot be negative: " + maxCacheSize);
+        }
+        this.maxCacheSize = maxCacheSize;
+        this.zip = new ZipFile(file);
+        try {
+            for (FileHeader header : zip.getFileHeaders()) {
+                if (!header.isDirectory() && YomichanParserType.findBank(header.getFileName()).isEmpty()) {
+                    entries.put(header.getFileName(), header);
+                }
+            }
+        } catch (IOException e) {
+            close();
+            throw new YomichanException("Failed to read media files of Yomichan dictionary at path " + file.getAbsolutePath(), e);
+        }
+        log.debug("Found {} media files in Yomichan dictionary {}", entries.size(), file.getName());
+    }
+
+    /**
+     * Get the contents of the media file at the path. The contents are shared with the cache, so
+     * they're returned as a read-only buffer, which every call creates anew.
+     *
+     * @param path The path of the file in the archive, e.g. {@code img/1.png}.
+     * @return the contents of the file, or empty if the dictionary doesn't contain the path.
+     */
+    public Optional<ByteBuffer> get(String path) {
+        final FileHeader header = entries.get(path);
+        if (header == null) {
+            return Optional.empty();
+        }
+        synchronized (cache) {
+            final byte[] cached = cache.get(path);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return Optional.of(ByteBuffer.wrap(cached).asReadOnlyBuffer());
+            }
+        }
+        misses.incrementAndGet();
+        final byte[] bytes = read(header);
+        cache(path, bytes);
+        return Optional.of(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+    }
+
+    /**
+     * @param path The path of the file in the archive.
+     * @return true if the dictionary contains a media file at the path.
+     */
+    public boolean contains(String path) {
+        return entries.containsKey(path);
+    }
+
+    /**
+     * @return the paths of every media file in the dictionary.
+     */
+    public Set<String> getPaths() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * @return the number of bytes currently held in the cache.
+     */
+    public long getCacheSize() {
+        synchronized (cache) {
+            return cacheSize;
+        }
+    }
+
+    public long getCacheHits() {
+        return hits.get();
+    }
+
+    public long getCacheMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public void close() {
+        synchronized (cache) {
+            cache.clear();
+            cacheSize = 0;
+        }
+        try {
+            zip.close();
+        } catch (IOException e) {
+            log.warn("Could not close Yomichan dictionary {}", zip.getFile().getAbsolutePath(), e);
+        }
+    }
+
+    private byte[] read(FileHeader header) {
+        synchronized (zip) {
+            try (InputStream in = zip.getInputStream(header)) {
+                return in.readAllBytes();
+            } catch (IOException e) {
+                throw new YomichanException("Failed to read media file " + header.getFileName() + " from Yomichan dictionary " + zip.getFile().getName(), e);
+            }
+        }
+    }
+
+    private void cache(String path, byte[] bytes) {
+        if (bytes.length > maxCacheSize) {
+            return;
+        }
+        synchronized (cache) {
+            final byte[] previous = cache.put(path, bytes);
+            cacheSize += bytes.length - (previous != null ? previous.length : 0);
+            final Iterator<Map.Entry<String, byte[]>> eldest = cache.entrySet().iterator();
+            while (cacheSize > maxCacheSize && eldest.hasNext()) {
+                final Map.Entry<String, byte[]> entry = eldest.next();
+                cacheSize -= entry.getValue().length;
+                eldest.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package yomichan.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A small summary of an imported dictionary, used to detect which banks changed between imports.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DictionaryManifest {
+
+    /**
+     * The title of the dictionary from the index.json file.
+     */
+    private String title;
+
+    /**
+     * The revision of the dictionary from the index.json file.
+     */
+    private String revision;
+
+    /**
+     * The format of the dictionary from the index.json file.
+     */
+    private Integer format;
+
+    /**
+     * The CRC-32 checksum of every bank file in the dictionary, keyed by file name.
+     */
+    private Map<String, Long> banks = new LinkedHashMap<>();
+}
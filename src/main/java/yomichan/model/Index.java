@@ -28,6 +28,20 @@ public class Index {
         return version != null ? version : format;
     }
 
+    /**
+     * @return the {@code format} field as it was declared, without falling back to {@code version}.
+     */
+    public Integer getDeclaredFormat() {
+        return format;
+    }
+
+    /**
+     * @return the {@code version} field as it was declared, without falling back to {@code format}.
+     */
+    public Integer getDeclaredVersion() {
+        return version;
+    }
+
     @Getter
     @RequiredArgsConstructor
     public enum FrequencyMode {
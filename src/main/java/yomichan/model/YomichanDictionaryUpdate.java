@@ -0,0 +1,59 @@
+package yomichan.model;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of an incremental dictionary import.
+ *
+ * <p>The {@link #dictionary} only contains the rows of the {@link #changedBanks}, along
+ * with the index, and {@link #changedRows} holds the same rows grouped by the bank file they
+ * came from, so that each changed bank can be replaced on its own. Rows from the
+ * {@link #unchangedBanks} were skipped and should be kept from the previous import, and rows
+ * from the {@link #removedBanks} should be dropped.</p>
+ */
+@Value
+public class YomichanDictionaryUpdate {
+
+    /**
+     * The manifest for this import, to be passed to the next import of the same dictionary.
+     */
+    DictionaryManifest manifest;
+
+    /**
+     * The index and the rows of every changed bank.
+     */
+    YomichanDictionary dictionary;
+
+    /**
+     * The rows of every changed bank by the name of its bank file, in the order of {@link #changedBanks}.
+     * The index.json file has no rows, so it's only in the {@link #dictionary}.
+     */
+    Map<String, List<?>> changedRows;
+
+    /**
+     * Bank files that are new or whose contents changed since the previous import.
+     */
+    List<String> changedBanks;
+
+    /**
+     * Bank files whose contents are identical to the previous import.
+     */
+    List<String> unchangedBanks;
+
+    /**
+     * Bank files from the previous import that no longer exist in the dictionary.
+     */
+    List<String> removedBanks;
+
+    /**
+     * Whether anything changed since the previous import.
+     *
+     * @return true when at least one bank was added, changed or removed.
+     */
+    public boolean isChanged() {
+        return !changedBanks.isEmpty() || !removedBanks.isEmpty();
+    }
+}
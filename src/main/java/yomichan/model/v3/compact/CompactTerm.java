@@ -0,0 +1,143 @@
+package yomichan.model.v3.compact;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import yomichan.model.v3.Term;
+
+import java.util.List;
+
+/**
+ * A memory-efficient, immutable alternative to {@link Term} for holding very large dictionaries in memory.
+ *
+ * <p>The score and sequence number are primitive fields, the tags and rules are ids into a
+ * {@link StringPool} shared by every term of the dictionary, and the definitions are kept in their
+ * minified JSON form as a single string. A term is therefore a handful of objects rather than the
+ * dozens needed by a {@link Term} with structured content. Use
+ * {@link yomichan.parser.YomichanCompactTermParser#toTerm(CompactTerm)} to get the full
+ * {@link Term} back when the definitions need to be displayed.</p>
+ *
+ * <p>The definitions are deliberately not kept as a {@link FlatContent}: a string is a single
+ * compact array, while a flat tree takes eight arrays plus a copy of the attributes of every
+ * styled node, several times the size of the JSON for a typical structured content glossary.
+ * Most terms of a large dictionary are never displayed, so the cost of parsing the string again
+ * is only paid for the few that are, with
+ * {@link yomichan.parser.YomichanCompactTermParser#flatten(CompactTerm)} or
+ * {@link yomichan.parser.YomichanCompactTermParser#toTerm(CompactTerm)}.</p>
+ *
+ * <p>A null score or sequence number is stored as 0 and null tags or rules as an empty array, with a
+ * bit in {@link #isNull(int)} recording that the value was null, so that
+ * {@link yomichan.parser.YomichanCompactTermParser#toTerm(CompactTerm)} returns the same {@link Term}
+ * as the term parser.</p>
+ *
+ * <p>The id arrays are shared and must not be modified.</p>
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class CompactTerm {
+
+    public static final int NULL_DEFINITION_TAGS = 1;
+    public static final int NULL_RULES = 1 << 1;
+    public static final int NULL_SCORE = 1 << 2;
+    public static final int NULL_SEQUENCE_NUMBER = 1 << 3;
+    public static final int NULL_TERM_TAGS = 1 << 4;
+
+    static final int[] EMPTY = new int[0];
+
+    /**
+     * The text for the term.
+     */
+    private final String term;
+
+    /**
+     * Reading of the term, or an empty string if the reading
+     * is the same as the term.
+     */
+    private final String reading;
+
+    /**
+     * Pool ids of the tags for the definition.
+     */
+    private final int[] definitionTagIds;
+
+    /**
+     * Pool ids of the rule identifiers used to validate de-inflection.
+     */
+    private final int[] ruleIds;
+
+    /**
+     * Score used to determine popularity.
+     */
+    private final int score;
+
+    /**
+     * The definitions of the term, as a minified JSON array in the term bank format, or
+     * {@code "null"} if the term has none.
+     */
+    private final String contents;
+
+    /**
+     * Sequence number for the term.
+     */
+    private final int sequenceNumber;
+
+    /**
+     * Pool ids of the tags for the term.
+     */
+    private final int[] termTagIds;
+
+    /**
+     * Bit set of the fields that were null, made of the {@code NULL_} constants.
+     */
+    @Getter(AccessLevel.NONE)
+    private final byte nulls;
+
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final StringPool pool;
+
+    public CompactTerm(String term, String reading, int[] definitionTagIds, int[] ruleIds, int score, String contents, int sequenceNumber, int[] termTagIds, int nulls, StringPool pool) {
+        this.term = term;
+        this.reading = reading;
+        this.definitionTagIds = definitionTagIds.length == 0 ? EMPTY : definitionTagIds;
+        this.ruleIds = ruleIds.length == 0 ? EMPTY : ruleIds;
+        this.score = score;
+        this.contents = contents;
+        this.sequenceNumber = sequenceNumber;
+        this.termTagIds = termTagIds.length == 0 ? EMPTY : termTagIds;
+        this.nulls = (byte) nulls;
+        this.pool = pool;
+    }
+
+    /**
+     * @param field One of the {@code NULL_} constants, e.g. {@link #NULL_SCORE}.
+     * @return whether the field was null in the term bank, rather than 0 or empty.
+     */
+    public boolean isNull(int field) {
+        return (nulls & field) != 0;
+    }
+
+    /**
+     * @return the tags for the definition.
+     */
+    public List<String> getDefinitionTags() {
+        return pool.get(definitionTagIds);
+    }
+
+    /**
+     * @return the rule identifiers used to validate de-inflection.
+     */
+    public List<String> getRules() {
+        return pool.get(ruleIds);
+    }
+
+    /**
+     * @return the tags for the term.
+     */
+    public List<String> getTermTags() {
+        return pool.get(termTagIds);
+    }
+}
@@ -0,0 +1,489 @@
+package yomichan.model.v3.compact;
+
+import yomichan.model.v3.term.Content;
+import yomichan.model.v3.term.ContentType;
+import yomichan.model.v3.term.HtmlTag;
+import yomichan.model.v3.term.StructuredContent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The definitions of a term encoded as a flat, immutable tree of parallel arrays.
+ *
+ * <p>Every definition and every structured content node is a node numbered in document order, and
+ * its kind, tag, parent, text and attributes are stored at that index of a handful of primitive
+ * arrays. A node's descendants directly follow it, up to {@link #getEnd(int)}. Texts are stored
+ * once per tree, and only nodes that have attributes besides their tag (a style, a language, the
+ * size of an image, etc.) keep a childless copy of themselves holding those attributes. A deep
+ * ruby or table glossary is therefore a few arrays instead of hundreds of sparse objects.</p>
+ *
+ * <p>Walk the tree with a {@link Cursor}, which doesn't allocate, or get the object tree back with
+ * {@link #toContents()} when it's needed. A tree can also be built node by node with a
+ * {@link Builder}, e.g. straight from the JSON of a term bank without building the object tree
+ * first.</p>
+ *
+ * <pre>{@code
+ *     FlatContent content = FlatContent.of(term.getContents());
+ *     FlatContent.Cursor cursor = content.cursor();
+ *     while (cursor.next()) {
+ *         if (cursor.getKind() == FlatContent.Kind.TEXT) {
+ *             out.append(cursor.getText());
+ *         }
+ *     }
+ * }</pre>
+ */
+public final class FlatContent {
+
+    /**
+     * The kind of a node in the tree.
+     */
+    public enum Kind {
+        /**
+         * A text definition, or a text node within structured content.
+         */
+        TEXT,
+        /**
+         * An image definition.
+         */
+        IMAGE,
+        /**
+         * A structured content definition, whose children are its top-level nodes.
+         */
+        STRUCTURED_CONTENT,
+        /**
+         * A structured content element with an {@link HtmlTag}.
+         */
+        ELEMENT
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final HtmlTag[] TAGS = HtmlTag.values();
+    private static final byte NO_TAG = -1;
+
+    private final byte[] kinds;
+    private final byte[] tags;
+    private final int[] parents;
+    private final int[] ends;
+    private final int[] texts;
+    private final int[] attributes;
+    private final String[] strings;
+    private final Content[] attributeValues;
+
+    private FlatContent(Builder builder) {
+        final int size = builder.size;
+        this.kinds = Arrays.copyOf(builder.kinds, size);
+        this.tags = Arrays.copyOf(builder.tags, size);
+        this.parents = Arrays.copyOf(builder.parents, size);
+        this.ends = Arrays.copyOf(builder.ends, size);
+        this.texts = Arrays.copyOf(builder.texts, size);
+        this.attributes = Arrays.copyOf(builder.attributes, size);
+        this.strings = builder.strings.toArray(new String[0]);
+        this.attributeValues = builder.attributeValues.toArray(new Content[0]);
+    }
+
+    /**
+     * Flatten the definitions of a term.
+     *
+     * @param contents The definitions, e.g. from {@link yomichan.model.v3.Term#getContents()}, or null
+     *                 for a term without definitions.
+     * @return the flattened definitions.
+     */
+    public static FlatContent of(List<? extends Content> contents) {
+        final Builder builder = new Builder();
+        if (contents != null) {
+            for (Content content : contents) {
+                builder.addDefinition(content);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the number of nodes in the tree.
+     */
+    public int size() {
+        return kinds.length;
+    }
+
+    public Kind getKind(int node) {
+        return KINDS[kinds[node]];
+    }
+
+    /**
+     * @return the tag of an {@link Kind#ELEMENT} node, or null for other nodes.
+     */
+    public HtmlTag getTag(int node) {
+        return tags[node] != NO_TAG ? TAGS[tags[node]] : null;
+    }
+
+    /**
+     * @return the text of a {@link Kind#TEXT} node, or null for other nodes.
+     */
+    public String getText(int node) {
+        return texts[node] >= 0 ? strings[texts[node]] : null;
+    }
+
+    /**
+     * Get the attributes of a node, such as the style of an element or the path of an image. The
+     * returned object has no children and is shared, so it must not be modified.
+     *
+     * @return the attributes of the node, or null if it has none besides its tag.
+     */
+    public Content getAttributes(int node) {
+        return attributes[node] >= 0 ? attributeValues[attributes[node]] : null;
+    }
+
+    /**
+     * @return the parent of the node, or -1 for a definition.
+     */
+    public int getParent(int node) {
+        return parents[node];
+    }
+
+    /**
+     * @return the index after the last descendant of the node.
+     */
+    public int getEnd(int node) {
+        return ends[node];
+    }
+
+    /**
+     * @return the first child of the node, or -1 if it has none.
+     */
+    public int getFirstChild(int node) {
+        return ends[node] > node + 1 ? node + 1 : -1;
+    }
+
+    /**
+     * @return the next sibling of the node, or -1 if it's the last child of its parent.
+     */
+    public int getNextSibling(int node) {
+        final int next = ends[node];
+        return next < kinds.length && parents[next] == parents[node] ? next : -1;
+    }
+
+    /**
+     * @return a new cursor positioned before the first node.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Rebuild the definitions as an object tree.
+     *
+     * @return a new list of the definitions.
+     */
+    public List<Content> toContents() {
+        final List<Content> output = new ArrayList<>();
+        for (int node = 0; node >= 0 && node < kinds.length; node = getNextSibling(node)) {
+            output.add(toContent(node));
+        }
+        return output;
+    }
+
+    /**
+     * Rebuild a single node and its descendants as an object tree.
+     *
+     * @param node The node.
+     * @return a new object for the node, a {@link StructuredContent} for nodes within structured content.
+     */
+    public Content toContent(int node) {
+        final boolean structured = parents[node] >= 0;
+        final Content content = structured ? new StructuredContent() : new Content();
+        final Content values = getAttributes(node);
+        if (values != null) {
+            copyAttributes(values, content);
+        }
+        switch (getKind(node)) {
+            case TEXT -> {
+                content.setType(ContentType.TEXT);
+                content.setText(getText(node));
+            }
+            case IMAGE -> content.setType(ContentType.IMAGE);
+            case STRUCTURED_CONTENT -> content.setType(ContentType.STRUCTURED_CONTENT);
+            case ELEMENT -> {
+                content.setType(null);
+                ((StructuredContent) content).setTag(getTag(node));
+            }
+        }
+        for (int child = getFirstChild(node); child >= 0; child = getNextSibling(child)) {
+            content.getContents().add((StructuredContent) toContent(child));
+        }
+        return content;
+    }
+
+    private static boolean hasAttributes(Content content) {
+        if (content.getPath() != null || content.getWidth() != null || content.getHeight() != null
+            || content.getTitle() != null || content.getDescription() != null || content.getPixelated() != null
+            || content.getImageRendering() != null || content.getAppearance() != null || content.getBackground() != null
+            || content.getCollapsed() != null || content.getCollapsible() != null) {
+            return true;
+        }
+        return content instanceof StructuredContent structured
+            && (structured.getData() != null || structured.getStyle() != null || structured.getLang() != null
+            || structured.getColSpan() != null || structured.getRowSpan() != null || structured.getVerticalAlign() != null
+            || structured.getSizeUnits() != null || structured.getHref() != null);
+    }
+
+    private static void copyAttributes(Content from, Content to) {
+        to.setPath(from.getPath());
+        to.setWidth(from.getWidth());
+        to.setHeight(from.getHeight());
+        to.setTitle(from.getTitle());
+        to.setDescription(from.getDescription());
+        to.setPixelated(from.getPixelated());
+        to.setImageRendering(from.getImageRendering());
+        to.setAppearance(from.getAppearance());
+        to.setBackground(from.getBackground());
+        to.setCollapsed(from.getCollapsed());
+        to.setCollapsible(from.getCollapsible());
+        if (from instanceof StructuredContent source && to instanceof StructuredContent target) {
+            target.setTag(source.getTag());
+            target.setData(source.getData());
+            target.setStyle(source.getStyle());
+            target.setLang(source.getLang());
+            target.setColSpan(source.getColSpan());
+            target.setRowSpan(source.getRowSpan());
+            target.setVerticalAlign(source.getVerticalAlign());
+            target.setSizeUnits(source.getSizeUnits());
+            target.setHref(source.getHref());
+        }
+    }
+
+    /**
+     * Walks the nodes of a {@link FlatContent} tree without allocating.
+     *
+     * <p>A new cursor is positioned before the first node. {@link #next()} visits every node in
+     * document order, while the {@code moveTo} methods navigate the tree structure. A cursor isn't
+     * thread safe, but any number of cursors can walk the same tree.</p>
+     */
+    public final class Cursor {
+
+        private int node = -1;
+
+        private Cursor() {
+        }
+
+        /**
+         * Move to the next node in document order.
+         *
+         * @return false if there are no more nodes.
+         */
+        public boolean next() {
+            if (node + 1 >= kinds.length) {
+                return false;
+            }
+            node++;
+            return true;
+        }
+
+        /**
+         * Move to the first child of the current node, or to the first definition before the first node.
+         *
+         * @return false if there's no such node, in which case the cursor doesn't move.
+         */
+        public boolean moveToFirstChild() {
+            final int child = node < 0 ? (kinds.length > 0 ? 0 : -1) : getFirstChild(node);
+            return moveTo(child);
+        }
+
+        /**
+         * @return false if the current node is the last child of its parent, in which case the cursor doesn't move.
+         */
+        public boolean moveToNextSibling() {
+            return node >= 0 && moveTo(getNextSibling(node));
+        }
+
+        /**
+         * @return false if the current node is a definition, in which case the cursor doesn't move.
+         */
+        public boolean moveToParent() {
+            return node >= 0 && moveTo(parents[node]);
+        }
+
+        /**
+         * Move past the descendants of the current node, so that {@link #next()} moves to the
+         * node following it.
+         */
+        public void skipChildren() {
+            if (node >= 0) {
+                node = ends[node] - 1;
+            }
+        }
+
+        /**
+         * Move back before the first node.
+         */
+        public void reset() {
+            node = -1;
+        }
+
+        /**
+         * @return the index of the current node, for use with the methods of {@link FlatContent}.
+         */
+        public int getNode() {
+            return node;
+        }
+
+        /**
+         * @return the number of ancestors of the current node, 0 for a definition.
+         */
+        public int getDepth() {
+            int depth = 0;
+            for (int parent = parents[node]; parent >= 0; parent = parents[parent]) {
+                depth++;
+            }
+            return depth;
+        }
+
+        public Kind getKind() {
+            return FlatContent.this.getKind(node);
+        }
+
+        public HtmlTag getTag() {
+            return FlatContent.this.getTag(node);
+        }
+
+        public String getText() {
+            return FlatContent.this.getText(node);
+        }
+
+        public Content getAttributes() {
+            return FlatContent.this.getAttributes(node);
+        }
+
+        private boolean moveTo(int target) {
+            if (target < 0) {
+                return false;
+            }
+            node = target;
+            return true;
+        }
+    }
+
+    /**
+     * Builds a tree node by node, in document order.
+     *
+     * <p>A node is added as the last child of its parent, and its descendants must be added before
+     * its next sibling. A node whose kind or attributes only become known after its descendants, as
+     * in JSON where the tag of an element may follow its content, can be added first and completed
+     * with {@link #set(int, Kind, HtmlTag, String, Content)} once they're known.</p>
+     */
+    public static final class Builder {
+
+        private byte[] kinds = new byte[16];
+        private byte[] tags = new byte[16];
+        private int[] parents = new int[16];
+        private int[] ends = new int[16];
+        private int[] texts = new int[16];
+        private int[] attributes = new int[16];
+        private int size;
+        private final List<String> strings = new ArrayList<>();
+        private final Map<String, Integer> stringIds = new HashMap<>();
+        private final List<Content> attributeValues = new ArrayList<>();
+
+        /**
+         * Add a node.
+         *
+         * @param kind       The kind of the node.
+         * @param tag        The tag of an {@link Kind#ELEMENT} node, or null.
+         * @param parent     The parent of the node, or -1 for a definition.
+         * @param text       The text of a {@link Kind#TEXT} node, or null.
+         * @param attributes The attributes of the node, which are copied, or null.
+         * @return the index of the node.
+         */
+        public int add(Kind kind, HtmlTag tag, int parent, String text, Content attributes) {
+            if (size == kinds.length) {
+                final int capacity = size * 2;
+                kinds = Arrays.copyOf(kinds, capacity);
+                tags = Arrays.copyOf(tags, capacity);
+                parents = Arrays.copyOf(parents, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                texts = Arrays.copyOf(texts, capacity);
+                this.attributes = Arrays.copyOf(this.attributes, capacity);
+            }
+            final int node = size++;
+            parents[node] = parent;
+            ends[node] = size;
+            set(node, kind, tag, text, attributes);
+            return node;
+        }
+
+        /**
+         * Replace the kind, tag, text and attributes of a node that was already added.
+         */
+        public void set(int node, Kind kind, HtmlTag tag, String text, Content attributes) {
+            kinds[node] = (byte) kind.ordinal();
+            tags[node] = tag != null ? (byte) tag.ordinal() : NO_TAG;
+            texts[node] = text != null ? stringIds.computeIfAbsent(text, this::addString) : -1;
+            this.attributes[node] = attributes != null && hasAttributes(attributes) ? addAttributes(attributes) : -1;
+        }
+
+        /**
+         * Mark the nodes added since the node as its descendants. Call it once the last descendant
+         * of the node has been added.
+         */
+        public void end(int node) {
+            ends[node] = size;
+        }
+
+        /**
+         * Remove the descendants of the node, e.g. the content of an element whose tag turns out
+         * to be empty. No node may have been added after its descendants.
+         */
+        public void removeChildren(int node) {
+            size = node + 1;
+            ends[node] = size;
+        }
+
+        /**
+         * @return the tree of the nodes added so far.
+         */
+        public FlatContent build() {
+            return new FlatContent(this);
+        }
+
+        private void addDefinition(Content content) {
+            final ContentType type = content.getType();
+            if (type == null || type == ContentType.TEXT) {
+                add(Kind.TEXT, null, -1, content.getText(), null);
+                return;
+            }
+            if (type == ContentType.IMAGE) {
+                add(Kind.IMAGE, null, -1, null, content);
+                return;
+            }
+            final int node = add(Kind.STRUCTURED_CONTENT, null, -1, null, content);
+            addChildren(node, content);
+        }
+
+        private void addChildren(int parent, Content content) {
+            for (StructuredContent child : content.getContents()) {
+                if (child.getTag() == null) {
+                    add(Kind.TEXT, null, parent, child.getText(), null);
+                } else {
+                    final int node = add(Kind.ELEMENT, child.getTag(), parent, null, child);
+                    addChildren(node, child);
+                }
+            }
+            end(parent);
+        }
+
+        private int addString(String text) {
+            strings.add(text);
+            return strings.size() - 1;
+        }
+
+        private int addAttributes(Content values) {
+            final Content copy = values instanceof StructuredContent ? new StructuredContent() : new Content();
+            copyAttributes(values, copy);
+            attributeValues.add(copy);
+            return attributeValues.size() - 1;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package yomichan.model.v3.compact;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns a dense integer id to every distinct string added to it, so that frequently repeated
+ * strings such as tag names and de-inflection rules are stored once and referenced by id.
+ *
+ * <p>A pool is safe to share between parsers running on several threads.</p>
+ */
+public class StringPool {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * Get the id of the string, adding it to the pool if it's not there yet.
+     *
+     * @param value The string.
+     * @return the id of the string.
+     */
+    public synchronized int id(String value) {
+        final Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        values.add(value);
+        ids.put(value, values.size() - 1);
+        return values.size() - 1;
+    }
+
+    /**
+     * Get the ids of the strings, adding any that aren't in the pool yet.
+     *
+     * @param values The strings.
+     * @return the ids of the strings, in the same order.
+     */
+    public int[] ids(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return CompactTerm.EMPTY;
+        }
+        final int[] output = new int[values.size()];
+        for (int i = 0; i < output.length; i++) {
+            output[i] = id(values.get(i));
+        }
+        return output;
+    }
+
+    /**
+     * @param id The id of a string in the pool.
+     * @return the string with the id.
+     * @throws IndexOutOfBoundsException if the id isn't in the pool.
+     */
+    public synchronized String get(int id) {
+        return values.get(id);
+    }
+
+    /**
+     * @param ids The ids of strings in the pool.
+     * @return the strings with the ids, in the same order.
+     */
+    public List<String> get(int[] ids) {
+        return Arrays.stream(ids).mapToObj(this::get).toList();
+    }
+
+    /**
+     * @return the number of distinct strings in the pool.
+     */
+    public synchronized int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,230 @@
+package yomichan.parser;
+
+import yomichan.model.v3.term.ContentData;
+import yomichan.model.v3.term.ContentStyle;
+import yomichan.model.v3.term.StructuredContent;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Canonicalizes structurally equal styles, data attributes and structured content subtrees while
+ * parsing, so that every copy of e.g. a common list style or a shared "see also" span is the same
+ * instance.
+ *
+ * <p>Dictionaries with structured content repeat the same handful of styles and small subtrees
+ * hundreds of thousands of times, so sharing them greatly reduces the heap used by the parsed terms.
+ * Subtrees are interned bottom-up as they're parsed, so comparing a node only compares its already
+ * canonical children by identity.</p>
+ *
+ * <p>The model classes don't define equality themselves. Every interned value is looked up by a
+ * {@link Key} snapshot of its fields, with its style, data and children by identity, whose hash is
+ * computed once when the value is interned. Modifying a value after it was interned therefore
+ * doesn't corrupt the interner, but canonical instances are shared between terms, so <b>they must
+ * not be modified</b>: changing a shared style would change it for every term using it. Interning is
+ * therefore opt-in, by passing an interner to
+ * {@link YomichanParserFactory#YomichanParserFactory(com.fasterxml.jackson.databind.ObjectMapper, yomichan.listener.ParseListener, ContentInterner)}.</p>
+ *
+ * <p>Canonical instances are held weakly, and are released once no parsed dictionary refers to them.
+ * An interner is thread safe without locking, and can be shared by every parser of a factory.</p>
+ */
+public class ContentInterner {
+
+    /**
+     * An interner that returns every value as is.
+     */
+    public static final ContentInterner NONE = new ContentInterner(false);
+
+    private final boolean enabled;
+    private final ConcurrentMap<Key, Canonical> canonical = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> released = new ReferenceQueue<>();
+    private final AtomicLong hits = new AtomicLong();
+
+    public ContentInterner() {
+        this(true);
+    }
+
+    private ContentInterner(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public ContentStyle intern(ContentStyle style) {
+        if (!enabled || style == null) {
+            return style;
+        }
+        return canonicalize(style, new Key(ContentStyle.class, new Object[]{
+            style.getFontStyle(),
+            style.getFontWeight(),
+            style.getFontSize(),
+            style.getTextDecorationLine() != null ? new ArrayList<>(style.getTextDecorationLine()) : null,
+            style.getVerticalAlign(),
+            style.getTextAlign(),
+            style.getMarginTop(),
+            style.getMarginLeft(),
+            style.getMarginRight(),
+            style.getMarginBottom(),
+            style.getListStyleType()
+        }, null));
+    }
+
+    public ContentData intern(ContentData data) {
+        if (!enabled || data == null) {
+            return data;
+        }
+        return canonicalize(data, new Key(ContentData.class, new Object[]{new LinkedHashMap<>(data.getData())}, null));
+    }
+
+    /**
+     * Get the canonical instance of the structured content node. The style, data and children of
+     * the node should already be canonical.
+     *
+     * @param content The structured content node.
+     * @return the canonical node equal to the given one.
+     */
+    public StructuredContent intern(StructuredContent content) {
+        if (!enabled || content == null) {
+            return content;
+        }
+        final Object[] nodes = new Object[content.getContents().size() + 2];
+        nodes[0] = content.getData();
+        nodes[1] = content.getStyle();
+        for (int i = 0; i < content.getContents().size(); i++) {
+            nodes[i + 2] = content.getContents().get(i);
+        }
+        return canonicalize(content, new Key(StructuredContent.class, new Object[]{
+            content.getType(),
+            content.getText(),
+            content.getPath(),
+            content.getWidth(),
+            content.getHeight(),
+            content.getTitle(),
+            content.getDescription(),
+            content.getPixelated(),
+            content.getImageRendering(),
+            content.getAppearance(),
+            content.getBackground(),
+            content.getCollapsed(),
+            content.getCollapsible(),
+            content.getTag(),
+            content.getLang(),
+            content.getColSpan(),
+            content.getRowSpan(),
+            content.getVerticalAlign(),
+            content.getSizeUnits(),
+            content.getHref()
+        }, nodes));
+    }
+
+    /**
+     * @return the number of canonical instances currently held.
+     */
+    public int size() {
+        expunge();
+        return canonical.size();
+    }
+
+    /**
+     * @return the number of values that were replaced by an existing canonical instance.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T canonicalize(T value, Key key) {
+        expunge();
+        while (true) {
+            final Canonical reference = canonical.get(key);
+            final Object existing = reference != null ? reference.get() : null;
+            if (existing != null) {
+                hits.incrementAndGet();
+                return (T) existing;
+            }
+            final Canonical created = new Canonical(value, key, released);
+            final boolean stored = reference == null
+                ? canonical.putIfAbsent(key, created) == null
+                : canonical.replace(key, reference, created);
+            if (stored) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Remove the entries of canonical instances that were garbage collected.
+     */
+    private void expunge() {
+        for (Object reference = released.poll(); reference != null; reference = released.poll()) {
+            final Canonical stale = (Canonical) reference;
+            canonical.remove(stale.key, stale);
+        }
+    }
+
+    /**
+     * Snapshot of the fields of an interned value. Plain values are compared with equals, and the
+     * nodes, i.e. the already canonical style, data and children of a structured content node, are
+     * compared by identity, so neither comparing nor hashing a key walks the subtree below it.
+     */
+    private record Key(Class<?> type, Object[] values, Object[] nodes, int hash) {
+
+        Key(Class<?> type, Object[] values, Object[] nodes) {
+            this(type, values, nodes, hash(type, values, nodes));
+        }
+
+        private static int hash(Class<?> type, Object[] values, Object[] nodes) {
+            int hash = type.hashCode() * 31 + Arrays.hashCode(values);
+            if (nodes != null) {
+                for (Object node : nodes) {
+                    hash = hash * 31 + System.identityHashCode(node);
+                }
+            }
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other) || hash != other.hash || type != other.type || !Arrays.equals(values, other.values)) {
+                return false;
+            }
+            if (nodes == null || other.nodes == null) {
+                return nodes == other.nodes;
+            }
+            if (nodes.length != other.nodes.length) {
+                return false;
+            }
+            for (int i = 0; i < nodes.length; i++) {
+                if (nodes[i] != other.nodes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Weak reference to a canonical instance, which remembers its key so that its entry can be
+     * removed once the instance is collected.
+     */
+    private static final class Canonical extends WeakReference<Object> {
+        private final Key key;
+
+        Canonical(Object value, Key key, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+}
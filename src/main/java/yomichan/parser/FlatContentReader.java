@@ -0,0 +1,344 @@
+package yomichan.parser;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import yomichan.exception.YomichanException;
+import yomichan.model.v3.compact.FlatContent;
+import yomichan.model.v3.compact.FlatContent.Kind;
+import yomichan.model.v3.term.Appearance;
+import yomichan.model.v3.term.Content;
+import yomichan.model.v3.term.ContentData;
+import yomichan.model.v3.term.ContentStyle;
+import yomichan.model.v3.term.ContentType;
+import yomichan.model.v3.term.FontStyle;
+import yomichan.model.v3.term.FontWeight;
+import yomichan.model.v3.term.HtmlTag;
+import yomichan.model.v3.term.ImageRendering;
+import yomichan.model.v3.term.SizeUnits;
+import yomichan.model.v3.term.StructuredContent;
+import yomichan.model.v3.term.TextAlign;
+import yomichan.model.v3.term.TextDecorationLine;
+import yomichan.model.v3.term.VerticalAlign;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Reads the definitions of a term from a {@link JsonParser} straight into a {@link FlatContent},
+ * without building a JSON tree or a {@link Content} tree first.
+ *
+ * <p>The result is the same as flattening the definitions parsed by {@link YomichanTermParser}: the
+ * same attributes are kept for every tag, with the same defaults. The fields of an object can come
+ * in any order, so a definition or element is added to the tree when its object starts, its
+ * children are added as they're read, and its kind and attributes are set once its object ends.</p>
+ */
+final class FlatContentReader {
+
+    private final JsonParser parser;
+    private final FlatContent.Builder builder = new FlatContent.Builder();
+
+    private FlatContentReader(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Read the definitions array the parser is positioned at.
+     *
+     * @param parser The parser, positioned at the start of the definitions array or at null.
+     * @return the flattened definitions.
+     */
+    static FlatContent read(JsonParser parser) throws IOException {
+        final FlatContentReader reader = new FlatContentReader(parser);
+        switch (parser.currentToken()) {
+            case VALUE_NULL -> {
+            }
+            case START_ARRAY -> {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    reader.readDefinition();
+                }
+            }
+            default -> throw new YomichanException("Yomichan term definitions should be an array: " + parser.currentToken());
+        }
+        return reader.builder.build();
+    }
+
+    private void readDefinition() throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_STRING -> builder.add(Kind.TEXT, null, -1, parser.getText(), null);
+            case START_OBJECT -> readDefinitionObject();
+            default -> throw new YomichanException("Content node should only be a string or object: " + parser.currentToken());
+        }
+    }
+
+    private void readDefinitionObject() throws IOException {
+        final int node = builder.add(Kind.STRUCTURED_CONTENT, null, -1, null, null);
+        final Content content = new Content();
+        String type = null;
+        String text = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "type" -> type = text();
+                case "text" -> text = text();
+                case "content" -> readStructuredContent(node);
+                case "description" -> content.setDescription(text());
+                default -> readImageField(content, field);
+            }
+        }
+        builder.end(node);
+        final ContentType contentType = ContentType.from(type);
+        switch (contentType) {
+            case TEXT -> {
+                builder.removeChildren(node);
+                builder.set(node, Kind.TEXT, null, text, null);
+            }
+            case IMAGE -> {
+                builder.removeChildren(node);
+                setImageDefaults(content);
+                builder.set(node, Kind.IMAGE, null, null, content);
+            }
+            case STRUCTURED_CONTENT -> {
+            }
+            default -> throw new YomichanException("Unimplemented Yomichan content type: " + contentType);
+        }
+    }
+
+    private void readStructuredContent(int parent) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NULL -> {
+                // Elements like an empty span may leave out their content
+            }
+            case VALUE_STRING -> builder.add(Kind.TEXT, null, parent, parser.getText(), null);
+            case START_ARRAY -> {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    readStructuredContent(parent);
+                }
+            }
+            case START_OBJECT -> readElement(parent);
+            default -> throw new YomichanException("Unexpected node type in Term Structured Content: " + parser.currentToken());
+        }
+    }
+
+    private void readElement(int parent) throws IOException {
+        final int node = builder.add(Kind.ELEMENT, null, parent, null, null);
+        // Every attribute is read, and only the ones of the tag are kept once it's known
+        final StructuredContent read = new StructuredContent();
+        String tag = null;
+        String sizeUnits = null;
+        String verticalAlign = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "tag" -> tag = text();
+                case "content" -> readStructuredContent(node);
+                case "data" -> read.setData(readData());
+                case "style" -> read.setStyle(readStyle());
+                case "lang" -> read.setLang(text());
+                case "colSpan" -> read.setColSpan(integer());
+                case "rowSpan" -> read.setRowSpan(integer());
+                case "href" -> read.setHref(text());
+                case "sizeUnits" -> sizeUnits = text();
+                case "verticalAlign" -> verticalAlign = text();
+                default -> readImageField(read, field);
+            }
+        }
+        builder.end(node);
+
+        final HtmlTag htmlTag = HtmlTag.from(tag);
+        final StructuredContent content = new StructuredContent();
+        content.setTag(htmlTag);
+        switch (htmlTag) {
+            case BR -> {
+                builder.removeChildren(node);
+                content.setData(read.getData());
+            }
+            case RUBY, RT, RP, TABLE, THEAD, TBODY, TFOOT, TR -> {
+                content.setData(read.getData());
+                content.setLang(read.getLang());
+            }
+            case TD, TH -> {
+                content.setColSpan(read.getColSpan());
+                content.setData(read.getData());
+                content.setLang(read.getLang());
+                content.setRowSpan(read.getRowSpan());
+                content.setStyle(read.getStyle());
+            }
+            case SPAN, DIV, OL, UL, LI -> {
+                content.setData(read.getData());
+                content.setLang(read.getLang());
+                content.setStyle(read.getStyle());
+            }
+            case IMG -> {
+                builder.removeChildren(node);
+                setImageDefaults(read);
+                copyImageFields(read, content);
+                content.setData(read.getData());
+                content.setSizeUnits(SizeUnits.from(sizeUnits));
+                content.setVerticalAlign(VerticalAlign.from(verticalAlign));
+            }
+            case A -> {
+                content.setHref(read.getHref());
+                content.setLang(read.getLang());
+            }
+            default -> throw new YomichanException("Unimplemented tag in Term Structured Content: " + htmlTag);
+        }
+        builder.set(node, Kind.ELEMENT, htmlTag, null, content);
+    }
+
+    private void readImageField(Content content, String field) throws IOException {
+        switch (field) {
+            case "appearance" -> content.setAppearance(Appearance.from(text()));
+            case "background" -> content.setBackground(parser.getValueAsBoolean());
+            case "collapsed" -> content.setCollapsed(parser.getValueAsBoolean());
+            case "collapsible" -> content.setCollapsible(parser.getValueAsBoolean());
+            case "height" -> content.setHeight(parser.getValueAsDouble());
+            case "imageRendering" -> content.setImageRendering(ImageRendering.from(text()));
+            case "path" -> content.setPath(text());
+            case "pixelated" -> content.setPixelated(parser.getValueAsBoolean());
+            case "title" -> content.setTitle(text());
+            case "width" -> content.setWidth(parser.getValueAsDouble());
+            default -> parser.skipChildren();
+        }
+    }
+
+    /**
+     * Set the image fields that weren't read to the defaults used by {@link YomichanTermParser}.
+     */
+    private static void setImageDefaults(Content content) {
+        if (content.getAppearance() == null) {
+            content.setAppearance(Appearance.from(null));
+        }
+        if (content.getImageRendering() == null) {
+            content.setImageRendering(ImageRendering.from(null));
+        }
+        if (content.getBackground() == null) {
+            content.setBackground(false);
+        }
+        if (content.getCollapsed() == null) {
+            content.setCollapsed(false);
+        }
+        if (content.getCollapsible() == null) {
+            content.setCollapsible(true);
+        }
+        if (content.getPixelated() == null) {
+            content.setPixelated(false);
+        }
+    }
+
+    private static void copyImageFields(Content from, Content to) {
+        to.setAppearance(from.getAppearance());
+        to.setBackground(from.getBackground());
+        to.setCollapsed(from.getCollapsed());
+        to.setCollapsible(from.getCollapsible());
+        to.setHeight(from.getHeight());
+        to.setImageRendering(from.getImageRendering());
+        to.setPath(from.getPath());
+        to.setPixelated(from.getPixelated());
+        to.setTitle(from.getTitle());
+        to.setWidth(from.getWidth());
+    }
+
+    private ContentStyle readStyle() throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new YomichanException("Yomichan structured content style should be an object: " + parser.currentToken());
+        }
+        final ContentStyle style = new ContentStyle();
+        String fontSize = null;
+        String fontStyle = null;
+        String fontWeight = null;
+        String textAlign = null;
+        String verticalAlign = null;
+        String listStyleType = null;
+        double marginTop = 0;
+        double marginLeft = 0;
+        double marginRight = 0;
+        double marginBottom = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "textDecorationLine" -> readTextDecorationLine(style);
+                case "fontSize" -> fontSize = text();
+                case "fontStyle" -> fontStyle = text();
+                case "fontWeight" -> fontWeight = text();
+                case "textAlign" -> textAlign = text();
+                case "verticalAlign" -> verticalAlign = text();
+                case "marginTop" -> marginTop = parser.getValueAsDouble();
+                case "marginLeft" -> marginLeft = parser.getValueAsDouble();
+                case "marginRight" -> marginRight = parser.getValueAsDouble();
+                case "marginBottom" -> marginBottom = parser.getValueAsDouble();
+                case "listStyleType" -> listStyleType = text();
+                default -> parser.skipChildren();
+            }
+        }
+        style.setFontSize(fontSize != null ? fontSize : "medium");
+        style.setFontStyle(FontStyle.from(fontStyle));
+        style.setFontWeight(FontWeight.from(fontWeight));
+        style.setTextAlign(TextAlign.from(textAlign));
+        style.setVerticalAlign(VerticalAlign.from(verticalAlign));
+        style.setMarginTop(marginTop);
+        style.setMarginLeft(marginLeft);
+        style.setMarginRight(marginRight);
+        style.setMarginBottom(marginBottom);
+        style.setListStyleType(listStyleType != null ? listStyleType : "disc");
+        return style;
+    }
+
+    private void readTextDecorationLine(ContentStyle style) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_STRING -> {
+                if (style.getTextDecorationLine() == null) {
+                    style.setTextDecorationLine(new ArrayList<>());
+                }
+                style.getTextDecorationLine().add(TextDecorationLine.from(parser.getText()));
+            }
+            case START_ARRAY -> {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    readTextDecorationLine(style);
+                }
+            }
+            default -> throw new YomichanException("Only expecting string or array for textDecorationLine in Yomichan structured content style: " + parser.currentToken());
+        }
+    }
+
+    private ContentData readData() throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        final ContentData data = new ContentData();
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return data;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.currentName();
+            parser.nextToken();
+            data.setData(field, parser.currentToken().isStructStart() ? skip() : parser.getText());
+        }
+        return data;
+    }
+
+    /**
+     * @return the current value as text, or null if it's null. Objects and arrays are skipped and read as an empty string.
+     */
+    private String text() throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return parser.currentToken().isStructStart() ? skip() : parser.getText();
+    }
+
+    private Integer integer() throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsInt();
+    }
+
+    private String skip() throws IOException {
+        parser.skipChildren();
+        return "";
+    }
+}
@@ -1,8 +1,20 @@
 package yomichan.parser;
 
+import yomichan.exception.YomichanException;
+import yomichan.utils.ByteBufferInputStream;
 import yomichan.utils.FileUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public interface IYomichanParser<T> {
 
@@ -11,4 +23,63 @@ public interface IYomichanParser<T> {
     }
 
     T parse(File file);
+
+    /**
+     * Parse the contents of a file read from the stream, e.g. a bank file received in memory, or a
+     * dictionary .zip file for the dictionary parser. The stream isn't closed.
+     *
+     * <p>By default the stream is copied to a temporary file which is passed to {@link #parse(File)}.
+     * The built-in parsers override this to read the stream directly.</p>
+     *
+     * @param in The contents of the file.
+     * @return the parsed contents.
+     */
+    default T parse(InputStream in) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("yomichan", ".tmp");
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            return parse(file.toFile());
+        } catch (IOException e) {
+            throw new YomichanException("Failed to copy Yomichan file from stream to " + file, e);
+        } finally {
+            if (file != null) {
+                FileUtils.delete(file.toFile());
+            }
+        }
+    }
+
+    default T parse(byte[] bytes) {
+        return parse(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Parse the remaining bytes of the buffer, e.g. a memory-mapped file, without copying them.
+     * The position of the buffer isn't changed.
+     */
+    default T parse(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return parse(new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining()));
+        }
+        return parse(new ByteBufferInputStream(buffer));
+    }
+
+    /**
+     * Parse the file at the path. Paths on other file systems than the default one, e.g. within a
+     * zip file system, are read as a stream.
+     */
+    default T parse(Path path) {
+        if (path.getFileSystem() == FileSystems.getDefault()) {
+            return parse(path.toFile());
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            return parse(in);
+        } catch (IOException e) {
+            throw new YomichanException("Failed to read Yomichan file at path " + path, e);
+        }
+    }
+
+    default CompletableFuture<T> parseAsync(File file, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> parse(file), executor);
+    }
 }
@@ -0,0 +1,129 @@
+package yomichan.parser;
+
+import lombok.RequiredArgsConstructor;
+import yomichan.jfr.BankParseEvent;
+import yomichan.listener.BankEvent;
+import yomichan.listener.ParseListener;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Reports bank start, finish and failure events for a delegate parser to a {@link ParseListener}
+ * and records a {@link BankParseEvent} for JDK Flight Recorder.
+ */
+@RequiredArgsConstructor
+class InstrumentedParser<T> implements IYomichanParser<T> {
+
+    private final YomichanParserType type;
+    private final IYomichanParser<T> delegate;
+    private final ParseListener listener;
+
+    @Override
+    public T parse(File file) {
+        return instrument(file, file::length, () -> delegate.parse(file));
+    }
+
+    /**
+     * Streams have no file, so the events report a null file, and the number of bytes read from the
+     * stream.
+     */
+    @Override
+    public T parse(InputStream in) {
+        return parse(in, null);
+    }
+
+    /**
+     * Parse a bank file read from the stream, e.g. a zip entry, reporting the name of the file in
+     * the events.
+     *
+     * @param in   The contents of the bank file.
+     * @param name The name of the bank file, or null if it's unknown.
+     * @return the parsed contents.
+     */
+    T parse(InputStream in, String name) {
+        final CountingInputStream counting = new CountingInputStream(in);
+        return instrument(name != null ? new File(name) : null, () -> counting.count, () -> delegate.parse(counting));
+    }
+
+    private T instrument(File file, Supplier<Long> bytes, Supplier<T> parse) {
+        listener.onBankStarted(type, file);
+        final BankParseEvent event = new BankParseEvent();
+        event.begin();
+        final long start = System.nanoTime();
+        try {
+            final T result = parse.get();
+            final int rows = rows(result);
+            event.end();
+            if (event.shouldCommit()) {
+                event.setType(type.name());
+                event.setFileName(file != null ? file.getName() : null);
+                event.setRows(rows);
+                event.setBytes(bytes.get());
+                event.commit();
+            }
+            listener.onBankFinished(new BankEvent(type, file, bytes.get(), rows, System.nanoTime() - start));
+            return result;
+        } catch (RuntimeException e) {
+            listener.onBankFailed(type, file, e);
+            throw e;
+        }
+    }
+
+    private static int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        return result != null ? 1 : 0;
+    }
+
+    /**
+     * Counts the bytes read through it. Closing it doesn't close the wrapped stream, which the
+     * caller owns.
+     */
+    static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            final int read = super.read(bytes, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() {
+            // The caller owns the stream.
+        }
+    }
+}
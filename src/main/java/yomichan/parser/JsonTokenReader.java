@@ -0,0 +1,188 @@
+package yomichan.parser;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import yomichan.exception.YomichanException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the values of a bank file straight from the token stream, without building a tree.
+ *
+ * <p>The read methods take the value at the current token, i.e. the token the last call to
+ * {@link #nextItem()} or {@link #nextField()} moved to the value of, and convert it the same way
+ * as the {@link yomichan.utils.JsonUtils} tree accessors: numbers can be read as text, numeric
+ * strings can be read as numbers, and an absent field is null.</p>
+ */
+class JsonTokenReader implements Closeable {
+
+    private final JsonParser parser;
+
+    JsonTokenReader(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * @return the current token.
+     */
+    JsonToken token() {
+        return parser.currentToken();
+    }
+
+    /**
+     * Move to the next token, which should be the start of the bank's root array.
+     *
+     * @return false if the file isn't an array.
+     */
+    boolean startArray() throws IOException {
+        return parser.nextToken() == JsonToken.START_ARRAY;
+    }
+
+    /**
+     * Move to the next item of the current array.
+     *
+     * @return false at the end of the array.
+     */
+    boolean nextItem() throws IOException {
+        final JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new YomichanException("Unexpected end of file while reading an array.");
+        }
+        return token != JsonToken.END_ARRAY;
+    }
+
+    /**
+     * Move to the value of the next field of the current object.
+     *
+     * @return the name of the field, or null at the end of the object.
+     */
+    String nextField() throws IOException {
+        final JsonToken token = parser.nextToken();
+        if (token != JsonToken.FIELD_NAME) {
+            return null;
+        }
+        final String name = parser.currentName();
+        parser.nextToken();
+        return name;
+    }
+
+    /**
+     * Skip the current value, including all of its children.
+     */
+    void skip() throws IOException {
+        parser.skipChildren();
+    }
+
+    /**
+     * @return the current value as text, or null if it's null. Objects and arrays are skipped and read as an empty string.
+     */
+    String readText() throws IOException {
+        final JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return "";
+        }
+        return parser.getText();
+    }
+
+    /**
+     * @return the current value as an int, parsing numeric strings, null if it's null, or 0 if it isn't a number.
+     */
+    Integer readInt() throws IOException {
+        final JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return 0;
+        }
+        return parser.getValueAsInt();
+    }
+
+    /**
+     * @return the current value as a list of its space separated words, skipping blanks, or null if it's null.
+     */
+    List<String> readSpaceSeparatedText() throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            throw new YomichanException("Cannot parse space separated text from non-text token: " + parser.currentToken());
+        }
+        return Arrays.stream(parser.getText().split(" "))
+            .filter(s -> !s.isBlank())
+            .toList();
+    }
+
+    /**
+     * @return the current array as a list of texts, or null if it's null.
+     */
+    List<String> readTextArray() throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expectArray("string");
+        final List<String> output = new ArrayList<>();
+        while (nextItem()) {
+            output.add(readText());
+        }
+        return output;
+    }
+
+    /**
+     * @return the current array as a list of ints, a list of the current value if it's a single number, or null if it's null.
+     */
+    List<Integer> readIntArray() throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        final List<Integer> output = new ArrayList<>();
+        if (parser.currentToken().isNumeric()) {
+            output.add(parser.getValueAsInt());
+            return output;
+        }
+        expectArray("integer");
+        while (nextItem()) {
+            output.add(readInt());
+        }
+        return output;
+    }
+
+    /**
+     * @return the current object as a map of field names to their values as text, or null if it's null.
+     */
+    Map<String, String> readTextMap() throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new YomichanException("Can only convert JSON object to map!");
+        }
+        final Map<String, String> output = new HashMap<>();
+        for (String field = nextField(); field != null; field = nextField()) {
+            output.put(field, readText());
+        }
+        return output;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private void expectArray(String type) {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new YomichanException("Cannot parse " + type + " array from non-array token: " + parser.currentToken());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package yomichan.parser;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import yomichan.model.v3.Kanji;
+import yomichan.model.v3.KanjiMetadata;
+import yomichan.model.v3.Tag;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.TermMetadata;
+import yomichan.model.v3.term.Content;
+import yomichan.model.v3.term.StructuredContent;
+import yomichan.model.v3.term.meta.Pitch;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rough estimate of the heap retained by parsed rows, used to decide when to spill rows to disk.
+ *
+ * <p>The estimate assumes a 64-bit JVM with compressed pointers and UTF-16 strings. It doesn't have
+ * to be exact, only cheap and proportional to the real footprint.</p>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class RowSizeEstimator {
+
+    private static final long OBJECT = 16;
+    private static final long REFERENCE = 4;
+    private static final long BOXED = 16;
+    private static final long STRING = 40;
+    private static final long LIST = 40;
+    private static final long MAP_ENTRY = 32;
+    private static final long CONTENT = OBJECT + 15 * REFERENCE;
+    private static final long STRUCTURED_CONTENT = CONTENT + 9 * REFERENCE;
+    private static final long STYLE = OBJECT + 11 * REFERENCE + 4 * BOXED;
+
+    static long estimate(Object row) {
+        if (row instanceof Term term) {
+            return estimate(term);
+        } else if (row instanceof TermMetadata meta) {
+            return estimate(meta);
+        } else if (row instanceof Kanji kanji) {
+            return estimate(kanji);
+        } else if (row instanceof KanjiMetadata meta) {
+            return OBJECT + 3 * REFERENCE + estimate(meta.getText()) + estimate(meta.getDisplay()) + BOXED;
+        } else if (row instanceof Tag tag) {
+            return OBJECT + 5 * REFERENCE + estimate(tag.getName()) + estimate(tag.getCategory()) + estimate(tag.getNotes()) + 2 * BOXED;
+        }
+        return OBJECT;
+    }
+
+    private static long estimate(Term term) {
+        long size = OBJECT + 8 * REFERENCE + 2 * BOXED;
+        size += estimate(term.getTerm()) + estimate(term.getReading());
+        size += estimateStrings(term.getDefinitionTags()) + estimateStrings(term.getRules()) + estimateStrings(term.getTermTags());
+        if (term.getContents() != null) {
+            size += LIST + term.getContents().size() * REFERENCE;
+            for (Content content : term.getContents()) {
+                size += estimate(content);
+            }
+        }
+        return size;
+    }
+
+    private static long estimate(Content content) {
+        long size = content instanceof StructuredContent ? STRUCTURED_CONTENT : CONTENT;
+        size += estimate(content.getText()) + estimate(content.getPath()) + estimate(content.getTitle()) + estimate(content.getDescription());
+        if (content instanceof StructuredContent structured) {
+            size += estimate(structured.getLang()) + estimate(structured.getHref());
+            if (structured.getStyle() != null) {
+                size += STYLE;
+            }
+            if (structured.getData() != null) {
+                size += estimate(structured.getData().getData());
+            }
+        }
+        size += LIST + content.getContents().size() * REFERENCE;
+        for (StructuredContent child : content.getContents()) {
+            size += estimate(child);
+        }
+        return size;
+    }
+
+    private static long estimate(TermMetadata meta) {
+        long size = OBJECT + 4 * REFERENCE + estimate(meta.getText());
+        if (meta.getFrequency() != null) {
+            size += OBJECT + 3 * REFERENCE + BOXED + estimate(meta.getFrequency().getReading()) + estimate(meta.getFrequency().getDisplay());
+        }
+        if (meta.getPitches() != null) {
+            size += OBJECT + 2 * REFERENCE + estimate(meta.getPitches().getReading());
+            final List<Pitch> pitches = meta.getPitches().getPitches();
+            if (pitches != null) {
+                size += LIST + pitches.size() * REFERENCE;
+                for (Pitch pitch : pitches) {
+                    size += OBJECT + 4 * REFERENCE + BOXED + estimateStrings(pitch.getTags());
+                    size += pitch.getNasals() != null ? LIST + pitch.getNasals().size() * (REFERENCE + BOXED) : 0;
+                    size += pitch.getDevoicings() != null ? LIST + pitch.getDevoicings().size() * (REFERENCE + BOXED) : 0;
+                }
+            }
+        }
+        return size;
+    }
+
+    private static long estimate(Kanji kanji) {
+        return OBJECT + 6 * REFERENCE
+            + estimate(kanji.getCharacter())
+            + estimateStrings(kanji.getOnyomi())
+            + estimateStrings(kanji.getKunyomi())
+            + estimateStrings(kanji.getTags())
+            + estimateStrings(kanji.getMeanings())
+            + estimate(kanji.getStats());
+    }
+
+    private static long estimate(Map<String, String> map) {
+        if (map == null) {
+            return 0;
+        }
+        long size = LIST + map.size() * MAP_ENTRY;
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            size += estimate(entry.getKey()) + estimate(entry.getValue());
+        }
+        return size;
+    }
+
+    private static long estimateStrings(List<String> values) {
+        if (values == null) {
+            return 0;
+        }
+        long size = LIST + values.size() * REFERENCE;
+        for (String value : values) {
+            size += estimate(value);
+        }
+        return size;
+    }
+
+    private static long estimate(String value) {
+        return value != null ? STRING + 2L * value.length() : 0;
+    }
+}
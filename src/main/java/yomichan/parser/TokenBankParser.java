@@ -0,0 +1,87 @@
+package yomichan.parser;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import yomichan.exception.YomichanException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static yomichan.utils.JsonUtils.createParser;
+
+/**
+ * Base class for the parsers of banks whose rows are small arrays of scalars, such as the tag,
+ * kanji and metadata banks. Rows are decoded straight from the token stream with a
+ * {@link JsonTokenReader}, so the bank is never held in memory as a tree.
+ *
+ * @param <T> The type of the rows.
+ */
+@Slf4j
+@RequiredArgsConstructor
+abstract class TokenBankParser<T> implements IYomichanParser<List<T>> {
+
+    private final ObjectMapper mapper;
+
+    /**
+     * Name of the bank for messages, e.g. "tag bank".
+     */
+    private final String bank;
+
+    /**
+     * Name of the rows for messages, e.g. "tags".
+     */
+    private final String rows;
+
+    @Override
+    public List<T> parse(File file) {
+        try {
+            return parse(mapper.getFactory().createParser(file), "at path " + file.getAbsolutePath());
+        } catch (IOException e) {
+            throw new YomichanException("Failed to parse Yomichan " + bank + " at path " + file.getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public List<T> parse(InputStream in) {
+        try {
+            return parse(createParser(mapper, in), "from stream");
+        } catch (IOException e) {
+            throw new YomichanException("Failed to parse Yomichan " + bank + " from stream", e);
+        }
+    }
+
+    private List<T> parse(JsonParser parser, String source) throws IOException {
+        try (JsonTokenReader reader = new JsonTokenReader(parser)) {
+            if (!reader.startArray()) {
+                throw new YomichanException("Yomichan " + bank + " should be an array.");
+            }
+
+            log.info("Parsing Yomichan {} {}", bank, source);
+            final long start = System.nanoTime();
+            final List<T> output = new ArrayList<>();
+            while (reader.nextItem()) {
+                if (reader.token() != JsonToken.START_ARRAY) {
+                    throw new YomichanException("Yomichan " + bank + " array items should be an array.");
+                }
+                output.add(parseRow(reader));
+            }
+            log.debug("Successfully parsed {} {} in {}ms", output.size(), rows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return output;
+        }
+    }
+
+    /**
+     * Parse the row starting at the current token, reading up to and including the end of its array.
+     *
+     * @param reader The reader positioned at the start of the row's array.
+     * @return the parsed row.
+     */
+    abstract T parseRow(JsonTokenReader reader) throws IOException;
+}
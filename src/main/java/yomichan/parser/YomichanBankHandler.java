@@ -0,0 +1,74 @@
+package yomichan.parser;
+
+import yomichan.model.Index;
+import yomichan.model.v3.Kanji;
+import yomichan.model.v3.KanjiMetadata;
+import yomichan.model.v3.Tag;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.TermMetadata;
+
+import java.util.List;
+
+/**
+ * Receives the rows of a Yomichan dictionary one bank file at a time.
+ *
+ * <p>Pass a handler to {@code YomichanParser.parseDictionary(file, handler)} to process
+ * dictionaries that are too large to hold in memory as a single {@link yomichan.model.YomichanDictionary}.
+ * The index is always delivered first, and the rows of each bank are released as soon as the
+ * handler returns, so the memory used while parsing is bounded by the largest bank file
+ * rather than by the size of the dictionary.</p>
+ *
+ * <p>Every method has an empty default implementation, so implementations only need to
+ * override the banks they're interested in. Exceptions thrown by the handler abort parsing
+ * and are rethrown wrapped in a {@link yomichan.exception.YomichanException}.</p>
+ */
+public interface YomichanBankHandler {
+
+    /**
+     * Called with the contents of the index.json file.
+     *
+     * @param index The dictionary index.
+     */
+    default void onIndex(Index index) {
+    }
+
+    /**
+     * Called with the rows of a single kanji_bank_N.json file.
+     *
+     * @param kanjis The kanji in the bank.
+     */
+    default void onKanjis(List<Kanji> kanjis) {
+    }
+
+    /**
+     * Called with the rows of a single tag_bank_N.json file.
+     *
+     * @param tags The tags in the bank.
+     */
+    default void onTags(List<Tag> tags) {
+    }
+
+    /**
+     * Called with the rows of a single term_bank_N.json file.
+     *
+     * @param terms The terms in the bank.
+     */
+    default void onTerms(List<Term> terms) {
+    }
+
+    /**
+     * Called with the rows of a single term_meta_bank_N.json file.
+     *
+     * @param termMetadata The term metadata entries in the bank.
+     */
+    default void onTermMetadata(List<TermMetadata> termMetadata) {
+    }
+
+    /**
+     * Called with the rows of a single kanji_meta_bank_N.json file.
+     *
+     * @param kanjiMetadata The kanji metadata entries in the bank.
+     */
+    default void onKanjiMetadata(List<KanjiMetadata> kanjiMetadata) {
+    }
+}
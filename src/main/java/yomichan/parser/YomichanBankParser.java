@@ -0,0 +1,47 @@
+package yomichan.parser;
+
+import yomichan.model.YomichanDictionary;
+
+import java.io.File;
+
+import static yomichan.parser.YomichanParserType.DICTIONARY;
+
+/**
+ * Parses a Yomichan dictionary .zip file one bank file at a time.
+ *
+ * <p>Instead of collecting every row into a {@link YomichanDictionary}, the rows of each bank are
+ * passed to a {@link YomichanBankHandler} and released once the handler returns. This keeps memory
+ * flat when importing very large dictionaries into a database or another store.</p>
+ *
+ * <pre>{@code
+ *     YomichanBankParser parser = new YomichanBankParser();
+ *     parser.parse(new File("jmdict.zip"), new YomichanBankHandler() {
+ *         @Override
+ *         public void onTerms(List<Term> terms) {
+ *             store.insertTerms(terms);
+ *         }
+ *     });
+ * }</pre>
+ */
+public class YomichanBankParser {
+
+    private final YomichanDictionaryParser parser;
+
+    public YomichanBankParser() {
+        this(new YomichanParserFactory());
+    }
+
+    public YomichanBankParser(YomichanParserFactory factory) {
+        this.parser = (YomichanDictionaryParser) factory.<YomichanDictionary>getInstance(DICTIONARY);
+    }
+
+    /**
+     * Parse the Yomichan dictionary .zip file, passing the index and the rows of every bank to the handler.
+     *
+     * @param file    The Yomichan dictionary file.
+     * @param handler The handler to receive the index and the rows of each bank.
+     */
+    public void parse(File file, YomichanBankHandler handler) {
+        parser.parse(file, handler);
+    }
+}
@@ -0,0 +1,266 @@
+package yomichan.parser;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import yomichan.exception.YomichanException;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.compact.CompactTerm;
+import yomichan.model.v3.compact.FlatContent;
+import yomichan.model.v3.compact.StringPool;
+import yomichan.writer.YomichanJsonWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static yomichan.model.v3.compact.CompactTerm.NULL_DEFINITION_TAGS;
+import static yomichan.model.v3.compact.CompactTerm.NULL_RULES;
+import static yomichan.model.v3.compact.CompactTerm.NULL_SCORE;
+import static yomichan.model.v3.compact.CompactTerm.NULL_SEQUENCE_NUMBER;
+import static yomichan.model.v3.compact.CompactTerm.NULL_TERM_TAGS;
+import static yomichan.utils.JsonUtils.createParser;
+import static yomichan.writer.YomichanJsonWriter.MissingValues.NULLS;
+
+/**
+ * Parses term_bank_N.json files straight into {@link CompactTerm}s, without building a {@link Term}
+ * or a tree of its definitions first.
+ *
+ * <p>Every term parsed by the same parser shares its {@link StringPool}, so pass the same parser (or
+ * the same pool) for every term bank of a dictionary to store each tag and rule only once.</p>
+ *
+ * <pre>{@code
+ *     YomichanCompactTermParser parser = new YomichanCompactTermParser();
+ *     List<CompactTerm> terms = parser.parse(new File("term_bank_1.json"));
+ *     Term term = parser.toTerm(terms.get(0));
+ * }</pre>
+ */
+@Slf4j
+public class YomichanCompactTermParser implements IYomichanParser<List<CompactTerm>> {
+
+    private static final int[] NONE = new int[0];
+
+    private final ObjectMapper mapper;
+    private final YomichanTermParser termParser;
+
+    /**
+     * The pool holding the tags and rules of the parsed terms.
+     */
+    @Getter
+    private final StringPool pool;
+
+    public YomichanCompactTermParser() {
+        this(new StringPool());
+    }
+
+    public YomichanCompactTermParser(StringPool pool) {
+        this(new ObjectMapper(), pool);
+    }
+
+    public YomichanCompactTermParser(ObjectMapper mapper, StringPool pool) {
+        this.mapper = mapper;
+        this.termParser = new YomichanTermParser(mapper);
+        this.pool = pool;
+    }
+
+    @Override
+    public List<CompactTerm> parse(File file) {
+        try {
+            return parse(mapper.getFactory().createParser(file), "at path " + file.getAbsolutePath());
+        } catch (IOException e) {
+            throw new YomichanException("Failed to parse Yomichan term bank at path " + file.getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public List<CompactTerm> parse(InputStream in) {
+        try {
+            return parse(createParser(mapper, in), "from stream");
+        } catch (IOException e) {
+            throw new YomichanException("Failed to parse Yomichan term bank from stream", e);
+        }
+    }
+
+    /**
+     * Convert a term into its compact form, adding its tags and rules to this parser's pool.
+     *
+     * @param term The term.
+     * @return the compact term.
+     */
+    public CompactTerm compact(Term term) {
+        // Write the term as a term bank row and read it back, so that its definitions are stored
+        // exactly as if it had been parsed from a bank
+        final StringWriter row = new StringWriter();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(row)) {
+            YomichanJsonWriter.writeTerm(generator, term, NULLS);
+        } catch (IOException e) {
+            throw new YomichanException("Failed to write term " + term.getTerm(), e);
+        }
+        try (JsonParser parser = mapper.getFactory().createParser(row.toString())) {
+            parser.nextToken();
+            return parseTerm(parser, new StringWriter());
+        } catch (IOException e) {
+            throw new YomichanException("Failed to read term " + term.getTerm(), e);
+        }
+    }
+
+    /**
+     * Convert a compact term back into a {@link Term}, parsing its definitions. Values that were null
+     * in the term bank are null again, as if the term had been parsed by the term parser.
+     *
+     * @param term The compact term.
+     * @return the full term.
+     */
+    public Term toTerm(CompactTerm term) {
+        final Term output = new Term();
+        output.setTerm(term.getTerm());
+        output.setReading(term.getReading());
+        output.setDefinitionTags(term.isNull(NULL_DEFINITION_TAGS) ? null : term.getDefinitionTags());
+        output.setRules(term.isNull(NULL_RULES) ? null : term.getRules());
+        output.setScore(term.isNull(NULL_SCORE) ? null : term.getScore());
+        try {
+            output.setContents(termParser.parseContents(mapper.readTree(term.getContents())));
+        } catch (IOException e) {
+            throw new YomichanException("Failed to parse the contents of term " + term.getTerm(), e);
+        }
+        output.setSequenceNumber(term.isNull(NULL_SEQUENCE_NUMBER) ? null : term.getSequenceNumber());
+        output.setTermTags(term.isNull(NULL_TERM_TAGS) ? null : term.getTermTags());
+        return output;
+    }
+
+    /**
+     * Parse the definitions of a compact term into a {@link FlatContent} tree, for walking them
+     * without building an object tree for every term. The tree is built straight from the JSON
+     * tokens, so neither a JSON tree nor a {@link Term} is created.
+     *
+     * @param term The compact term.
+     * @return the flattened definitions.
+     */
+    public FlatContent flatten(CompactTerm term) {
+        try (JsonParser parser = mapper.getFactory().createParser(term.getContents())) {
+            parser.nextToken();
+            return FlatContentReader.read(parser);
+        } catch (IOException e) {
+            throw new YomichanException("Failed to parse the contents of term " + term.getTerm(), e);
+        }
+    }
+
+    private List<CompactTerm> parse(JsonParser json, String source) throws IOException {
+        try (JsonParser parser = json) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new YomichanException("Yomichan term bank should be an array.");
+            }
+
+            log.info("Parsing Yomichan term bank {}", source);
+            final long start = System.nanoTime();
+            final List<CompactTerm> terms = new ArrayList<>();
+            final StringWriter contents = new StringWriter();
+            while (parser.nextToken() == JsonToken.START_ARRAY) {
+                terms.add(parseTerm(parser, contents));
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new YomichanException("Yomichan term bank array items should start with an array.");
+            }
+            log.debug("Successfully parsed {} compact terms in {}ms", terms.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return terms;
+        }
+    }
+
+    private CompactTerm parseTerm(JsonParser parser, StringWriter contents) throws IOException {
+        String term = null;
+        String reading = null;
+        int[] definitionTags = null;
+        int[] rules = null;
+        int score = 0;
+        String definitions = null;
+        int sequenceNumber = 0;
+        int[] termTags = null;
+        // Like the term parser, a missing score or sequence number is null, but missing tags are empty
+        int nulls = NULL_SCORE | NULL_SEQUENCE_NUMBER;
+        int i = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            final boolean isNull = parser.currentToken() == JsonToken.VALUE_NULL;
+            switch (i++) {
+                case 0 -> term = parser.getValueAsString();
+                case 1 -> reading = parser.getValueAsString();
+                case 2 -> {
+                    definitionTags = parseSpaceSeparatedIds(parser);
+                    if (isNull) {
+                        nulls |= NULL_DEFINITION_TAGS;
+                    }
+                }
+                case 3 -> {
+                    rules = parseSpaceSeparatedIds(parser);
+                    if (isNull) {
+                        nulls |= NULL_RULES;
+                    }
+                }
+                case 4 -> {
+                    score = parser.getValueAsInt();
+                    if (!isNull) {
+                        nulls &= ~NULL_SCORE;
+                    }
+                }
+                case 5 -> definitions = copy(parser, contents);
+                case 6 -> {
+                    sequenceNumber = parser.getValueAsInt();
+                    if (!isNull) {
+                        nulls &= ~NULL_SEQUENCE_NUMBER;
+                    }
+                }
+                case 7 -> {
+                    termTags = parseSpaceSeparatedIds(parser);
+                    if (isNull) {
+                        nulls |= NULL_TERM_TAGS;
+                    }
+                }
+                default ->
+                    throw new YomichanException("Couldn't parse term due to invalid length. Yomichan term array should be 8 items long: " + term);
+            }
+        }
+        if (definitions == null) {
+            throw new YomichanException("Yomichan term is missing its definitions: " + term);
+        }
+        return new CompactTerm(term, reading, orEmpty(definitionTags), orEmpty(rules), score, definitions, sequenceNumber, orEmpty(termTags), nulls, pool);
+    }
+
+    private int[] parseSpaceSeparatedIds(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return NONE;
+        }
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            throw new YomichanException("Cannot parse space separated text from non-text token: " + parser.currentToken());
+        }
+        final String text = parser.getText();
+        if (text.isBlank()) {
+            return NONE;
+        }
+        return pool.ids(Arrays.stream(text.split(" ")).filter(s -> !s.isBlank()).toList());
+    }
+
+    private String copy(JsonParser parser, StringWriter buffer) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return "null";
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new YomichanException("Yomichan term definitions should be an array.");
+        }
+        buffer.getBuffer().setLength(0);
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(buffer)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return buffer.toString();
+    }
+
+    private static int[] orEmpty(int[] ids) {
+        return ids != null ? ids : NONE;
+    }
+}
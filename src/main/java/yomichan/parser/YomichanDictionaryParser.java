@@ -2,7 +2,15 @@ package yomichan.parser;
 
 import lombok.extern.slf4j.Slf4j;
 import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.io.inputstream.ZipInputStream;
+import net.lingala.zip4j.model.LocalFileHeader;
+import net.lingala.zip4j.model.FileHeader;
 import yomichan.exception.YomichanException;
+import yomichan.jfr.DictionaryExtractEvent;
+import yomichan.jfr.DictionaryParseEvent;
+import yomichan.listener.DictionaryEvent;
+import yomichan.listener.ExtractEvent;
+import yomichan.listener.ParseListener;
 import yomichan.model.Index;
 import yomichan.model.YomichanDictionary;
 import yomichan.model.v3.Kanji;
@@ -13,10 +21,22 @@ import yomichan.model.v3.TermMetadata;
 import yomichan.utils.FileUtils;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static yomichan.parser.YomichanParserType.DICTIONARY;
@@ -32,52 +52,322 @@ import static yomichan.utils.FileUtils.getFiles;
 @Slf4j
 class YomichanDictionaryParser implements IYomichanParser<YomichanDictionary> {
 
+    private static final Predicate<String> ALL_BANKS = name -> YomichanParserType.findBank(name).isPresent();
+
     @SuppressWarnings("rawtypes")
     private final Map<YomichanParserType, IYomichanParser> parsers;
+    private final ParseListener listener;
 
     public YomichanDictionaryParser(YomichanParserFactory factory) {
         this.parsers = Arrays.stream(values())
             .filter(type -> type != DICTIONARY)
             .collect(Collectors.toMap(type -> type, factory::getInstance));
+        this.listener = factory.getListener();
     }
 
     @Override
     public YomichanDictionary parse(File file) {
+        return parse(file, ALL_BANKS);
+    }
+
+    /**
+     * Parse a Yomichan dictionary .zip file read from the stream. Every bank file is parsed straight
+     * from its zip entry as the stream is read, so nothing is extracted or written to disk. The stream
+     * isn't closed. The listener and the JFR event receive a null file and the number of bytes read
+     * from the stream.
+     *
+     * @param in The contents of the Yomichan dictionary file.
+     * @return the parsed Yomichan dictionary.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public YomichanDictionary parse(InputStream in) {
+        log.info("Parsing Yomichan dictionary from stream");
+        final long start = System.nanoTime();
+        final DictionaryParseEvent event = new DictionaryParseEvent();
+        event.begin();
+        listener.onDictionaryStarted(null);
+        // Entries can be in any order, so sort the banks of each type by file name like the extracted files.
+        final Map<YomichanParserType, SortedMap<String, Object>> banks = new EnumMap<>(YomichanParserType.class);
+        // Closing the counting stream doesn't close the caller's stream.
+        final InstrumentedParser.CountingInputStream counting = new InstrumentedParser.CountingInputStream(in);
+        try (ZipInputStream zip = new ZipInputStream(counting)) {
+            for (LocalFileHeader header = zip.getNextEntry(); header != null; header = zip.getNextEntry()) {
+                final String name = header.getFileName();
+                final Optional<YomichanParserType> type = header.isDirectory() ? Optional.empty() : YomichanParserType.findBank(name);
+                if (type.isPresent()) {
+                    final IYomichanParser<Object> parser = parsers.get(type.get());
+                    final Object rows = parser instanceof InstrumentedParser<Object> instrumented ? instrumented.parse(zip, name) : parser.parse(zip);
+                    banks.computeIfAbsent(type.get(), t -> new TreeMap<>()).put(name, rows);
+                }
+            }
+            final Map<YomichanParserType, List<Object>> output = new EnumMap<>(YomichanParserType.class);
+            banks.forEach((type, files) -> output.put(type, new ArrayList<>(files.values())));
+            return finish(null, counting.getCount(), toDictionary(output), start, event);
+        } catch (Exception e) {
+            throw fail(null, e);
+        }
+    }
+
+    /**
+     * Parse the Yomichan dictionary .zip file, only extracting and parsing the entries accepted by the filter.
+     *
+     * @param file    The Yomichan dictionary file.
+     * @param entries Filter for the names of the zip entries to parse.
+     * @return the parsed Yomichan dictionary.
+     */
+    YomichanDictionary parse(File file, Predicate<String> entries) {
+        return parse(file, entries, new HashMap<>());
+    }
+
+    /**
+     * Parse the Yomichan dictionary .zip file, only extracting and parsing the entries accepted by the filter,
+     * and keep the result of every bank file apart as well.
+     *
+     * @param file    The Yomichan dictionary file.
+     * @param entries Filter for the names of the zip entries to parse.
+     * @param files   Map to put the index or the rows of every parsed bank file into, by the name of the file.
+     * @return the parsed Yomichan dictionary.
+     */
+    YomichanDictionary parse(File file, Predicate<String> entries, Map<String, Object> files) {
         log.info("Parsing Yomichan dictionary at path: {}", file.getAbsolutePath());
         final long start = System.nanoTime();
         final String dir = FileUtils.getTempFolder();
-        try (final ZipFile zip = new ZipFile(file)) {
-            log.debug("Extracting Yomichan dictionary {} to {}", zip.getFile().getName(), dir);
-            zip.extractAll(dir);
+        final DictionaryParseEvent event = new DictionaryParseEvent();
+        event.begin();
+        listener.onDictionaryStarted(file);
+        try {
+            extract(file, dir, entries, start);
 
             // Parse the index, term_bank, and tag_bank JSON files.
-            final YomichanDictionary dictionary = new YomichanDictionary();
-            this.<Index>parse(dir, INDEX).stream().findFirst().ifPresent(dictionary::setIndex);
-            this.<List<Kanji>>parse(dir, KANJI).forEach(dictionary.getKanjis()::addAll);
-            this.<List<Term>>parse(dir, TERM).forEach(dictionary.getTerms()::addAll);
-            this.<List<Tag>>parse(dir, TAG).forEach(dictionary.getTags()::addAll);
-            this.<List<TermMetadata>>parse(dir, TERM_METADATA).forEach(dictionary.getTermMetadata()::addAll);
-            this.<List<KanjiMetadata>>parse(dir, KANJI_METADATA).forEach(dictionary.getKanjiMetadata()::addAll);
-
-            log.debug("Successfully parsed Yomichan {} dictionary {} in {}ms", dictionary.getType() != null ? dictionary.getType().getName() : "[Unknown]", zip.getFile().getName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
-            return dictionary;
+            final Map<YomichanParserType, List<Object>> banks = new EnumMap<>(YomichanParserType.class);
+            parsers.keySet().forEach(type -> banks.put(type, parse(dir, type, files)));
+            return finish(file, file.length(), toDictionary(banks), start, event);
         } catch (Exception e) {
-            log.error("Couldn't parse Yomichan dictionary at path {}", file.getAbsolutePath(), e);
-            throw new YomichanException("Failed to parse Yomichan dictionary at path " + file.getAbsolutePath(), e);
+            throw fail(file, e);
         } finally {
-            getFiles(dir, (d, name) -> name.endsWith(".json"))
-                .stream()
-                .map(File::getAbsolutePath)
-                .forEach(FileUtils::delete);
+            cleanup(dir);
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> List<T> parse(String path, YomichanParserType type) {
-        final IYomichanParser<T> parser = parsers.get(type);
-        return getFiles(path, (dir, name) -> name.matches(type.getPattern()))
+    /**
+     * Parse the Yomichan dictionary .zip file one bank file at a time, passing the rows of every bank to the
+     * handler instead of collecting them into a single dictionary.
+     *
+     * @param file    The Yomichan dictionary file.
+     * @param handler The handler to receive the index and the rows of each bank.
+     */
+    void parse(File file, YomichanBankHandler handler) {
+        log.info("Parsing Yomichan dictionary at path: {}", file.getAbsolutePath());
+        final long start = System.nanoTime();
+        final String dir = FileUtils.getTempFolder();
+        final DictionaryParseEvent event = new DictionaryParseEvent();
+        event.begin();
+        listener.onDictionaryStarted(file);
+        try {
+            extract(file, dir, ALL_BANKS, start);
+
+            // Parse the banks in a fixed order so the index is always handled first.
+            final Map<YomichanParserType, Integer> rows = new EnumMap<>(YomichanParserType.class);
+            String title = null;
+            for (YomichanParserType type : values()) {
+                if (type == DICTIONARY) {
+                    continue;
+                }
+                for (File bank : getFiles(dir, (d, name) -> type.matches(name))) {
+                    final Object result = parsers.get(type).parse(bank);
+                    if (result instanceof Index index) {
+                        title = index.getTitle();
+                    }
+                    rows.merge(type, result instanceof List<?> list ? list.size() : 1, Integer::sum);
+                    handle(handler, type, result);
+                }
+            }
+            log.debug("Successfully parsed Yomichan dictionary {} in {}ms", file.getName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            finish(file, file.length(), title, rows, start, event);
+        } catch (Exception e) {
+            throw fail(file, e);
+        } finally {
+            cleanup(dir);
+        }
+    }
+
+    /**
+     * Parse the Yomichan dictionary .zip file asynchronously. The dictionary is extracted in one task,
+     * after which every bank file is parsed in a separate task on the executor.
+     *
+     * @param file     The Yomichan dictionary file.
+     * @param executor The executor to run the extraction and parsing tasks on.
+     * @return a future for the parsed Yomichan dictionary, completed exceptionally with a
+     * {@link YomichanException} if the dictionary couldn't be parsed.
+     */
+    @Override
+    public CompletableFuture<YomichanDictionary> parseAsync(File file, Executor executor) {
+        final long start = System.nanoTime();
+        final String dir = FileUtils.getTempFolder();
+        final DictionaryParseEvent event = new DictionaryParseEvent();
+        event.begin();
+
+        final CompletableFuture<YomichanDictionary> result = new CompletableFuture<>();
+        CompletableFuture
+            .runAsync(() -> {
+                log.info("Parsing Yomichan dictionary at path: {}", file.getAbsolutePath());
+                listener.onDictionaryStarted(file);
+                extract(file, dir, ALL_BANKS, start);
+            }, executor)
+            .thenCompose(ignored -> {
+                final Map<YomichanParserType, List<CompletableFuture<Object>>> tasks = new EnumMap<>(YomichanParserType.class);
+                parsers.keySet().forEach(type -> tasks.put(type, parseAsync(dir, type, executor)));
+                return CompletableFuture
+                    .allOf(tasks.values().stream().flatMap(List::stream).toArray(CompletableFuture[]::new))
+                    .thenApply(done -> {
+                        final Map<YomichanParserType, List<Object>> banks = new EnumMap<>(YomichanParserType.class);
+                        tasks.forEach((type, futures) -> banks.put(type, futures.stream().map(CompletableFuture::join).toList()));
+                        return finish(file, file.length(), toDictionary(banks), start, event);
+                    });
+            })
+            .whenComplete((dictionary, error) -> {
+                cleanup(dir);
+                if (error != null) {
+                    final Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    result.completeExceptionally(fail(file, cause));
+                } else {
+                    result.complete(dictionary);
+                }
+            });
+        return result;
+    }
+
+    private void extract(File file, String dir, Predicate<String> filter, long start) {
+        try (final ZipFile zip = new ZipFile(file)) {
+            log.debug("Extracting Yomichan dictionary {} to {}", zip.getFile().getName(), dir);
+            final DictionaryExtractEvent event = new DictionaryExtractEvent();
+            event.begin();
+            int entries = 0;
+            long bytes = 0;
+            for (FileHeader header : zip.getFileHeaders()) {
+                if (!header.isDirectory() && filter.test(header.getFileName())) {
+                    zip.extractFile(header, dir);
+                    entries++;
+                    bytes += header.getUncompressedSize();
+                }
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.setFileName(zip.getFile().getName());
+                event.setEntries(entries);
+                event.setCompressedBytes(zip.getFile().length());
+                event.setUncompressedBytes(bytes);
+                event.commit();
+            }
+            listener.onDictionaryExtracted(new ExtractEvent(zip.getFile(), new File(dir), entries, zip.getFile().length(), bytes, System.nanoTime() - start));
+        } catch (IOException e) {
+            throw new YomichanException("Failed to extract Yomichan dictionary at path " + file.getAbsolutePath(), e);
+        }
+    }
+
+    private YomichanDictionary finish(File file, long bytes, YomichanDictionary dictionary, long start, DictionaryParseEvent event) {
+        log.debug("Successfully parsed Yomichan {} dictionary {} in {}ms", getTypeName(dictionary), getName(file), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        finish(file, bytes, dictionary.getIndex() != null ? dictionary.getIndex().getTitle() : null, getRows(dictionary), start, event);
+        return dictionary;
+    }
+
+    private void finish(File file, long bytes, String title, Map<YomichanParserType, Integer> rows, long start, DictionaryParseEvent event) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setFileName(file != null ? file.getName() : null);
+            event.setTitle(title);
+            event.setRows(rows.values().stream().mapToLong(Integer::longValue).sum());
+            event.setBytes(bytes);
+            event.commit();
+        }
+        listener.onDictionaryFinished(new DictionaryEvent(file, bytes, rows, System.nanoTime() - start));
+    }
+
+    /**
+     * Report the failure to the listener. The file is null for a dictionary read from a stream.
+     */
+    private YomichanException fail(File file, Throwable cause) {
+        final String source = file != null ? "at path " + file.getAbsolutePath() : "from stream";
+        log.error("Couldn't parse Yomichan dictionary {}", source, cause);
+        listener.onDictionaryFailed(file, cause);
+        return new YomichanException("Failed to parse Yomichan dictionary " + source, cause);
+    }
+
+    private static String getName(File file) {
+        return file != null ? file.getName() : "from stream";
+    }
+
+    private static void cleanup(String dir) {
+        getFiles(dir, (d, name) -> name.endsWith(".json"))
             .stream()
-            .map(parser::parse)
-            .toList();
+            .map(File::getAbsolutePath)
+            .forEach(FileUtils::delete);
+        FileUtils.delete(dir);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static YomichanDictionary toDictionary(Map<YomichanParserType, List<Object>> banks) {
+        final YomichanDictionary dictionary = new YomichanDictionary();
+        banks.getOrDefault(INDEX, List.of()).stream().findFirst().map(Index.class::cast).ifPresent(dictionary::setIndex);
+        banks.getOrDefault(KANJI, List.of()).forEach(bank -> dictionary.getKanjis().addAll((List<Kanji>) bank));
+        banks.getOrDefault(TERM, List.of()).forEach(bank -> dictionary.getTerms().addAll((List<Term>) bank));
+        banks.getOrDefault(TAG, List.of()).forEach(bank -> dictionary.getTags().addAll((List<Tag>) bank));
+        banks.getOrDefault(TERM_METADATA, List.of()).forEach(bank -> dictionary.getTermMetadata().addAll((List<TermMetadata>) bank));
+        banks.getOrDefault(KANJI_METADATA, List.of()).forEach(bank -> dictionary.getKanjiMetadata().addAll((List<KanjiMetadata>) bank));
+        return dictionary;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void handle(YomichanBankHandler handler, YomichanParserType type, Object rows) {
+        switch (type) {
+            case INDEX -> handler.onIndex((Index) rows);
+            case KANJI -> handler.onKanjis((List<Kanji>) rows);
+            case TAG -> handler.onTags((List<Tag>) rows);
+            case TERM -> handler.onTerms((List<Term>) rows);
+            case TERM_METADATA -> handler.onTermMetadata((List<TermMetadata>) rows);
+            case KANJI_METADATA -> handler.onKanjiMetadata((List<KanjiMetadata>) rows);
+            default -> throw new YomichanException("Unexpected bank type in Yomichan dictionary: " + type);
+        }
+    }
+
+    private static String getTypeName(YomichanDictionary dictionary) {
+        try {
+            return dictionary.getType().getName();
+        } catch (IllegalStateException e) {
+            // Nothing but the index was parsed.
+            return "[Unknown]";
+        }
+    }
+
+    private static Map<YomichanParserType, Integer> getRows(YomichanDictionary dictionary) {
+        final Map<YomichanParserType, Integer> rows = new EnumMap<>(YomichanParserType.class);
+        rows.put(INDEX, dictionary.getIndex() != null ? 1 : 0);
+        rows.put(KANJI, dictionary.getKanjis().size());
+        rows.put(TERM, dictionary.getTerms().size());
+        rows.put(TAG, dictionary.getTags().size());
+        rows.put(TERM_METADATA, dictionary.getTermMetadata().size());
+        rows.put(KANJI_METADATA, dictionary.getKanjiMetadata().size());
+        return rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> parse(String path, YomichanParserType type, Map<String, Object> files) {
+        final IYomichanParser<Object> parser = parsers.get(type);
+        final List<Object> results = new ArrayList<>();
+        for (File bank : getFiles(path, (dir, name) -> type.matches(name))) {
+            final Object result = parser.parse(bank);
+            files.put(bank.getName(), result);
+            results.add(result);
+        }
+        return results;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<CompletableFuture<Object>> parseAsync(String path, YomichanParserType type, Executor executor) {
+        final IYomichanParser<Object> parser = parsers.get(type);
+        final List<CompletableFuture<Object>> tasks = new ArrayList<>();
+        getFiles(path, (dir, name) -> type.matches(name)).forEach(file -> tasks.add(parser.parseAsync(file, executor)));
+        return tasks;
     }
 }
@@ -0,0 +1,182 @@
+package yomichan.parser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.FileHeader;
+import yomichan.exception.YomichanException;
+import yomichan.model.DictionaryManifest;
+import yomichan.model.Index;
+import yomichan.model.YomichanDictionary;
+import yomichan.model.YomichanDictionaryUpdate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static yomichan.parser.YomichanParserType.DICTIONARY;
+import static yomichan.parser.YomichanParserType.INDEX;
+
+/**
+ * Re-imports a Yomichan dictionary .zip file, only parsing the banks that changed since the previous import.
+ *
+ * <p>Changes are detected by comparing the CRC-32 checksums stored in the zip entries against a
+ * {@link DictionaryManifest} from the previous import, so unchanged banks are neither extracted nor parsed.
+ * The index.json file is always read first, straight from the archive, and if the dictionary title differs
+ * from the manifest every bank is parsed.</p>
+ *
+ * <p>The new manifest must only be stored once the changed rows have been applied, or a failed update
+ * would be skipped by the next import. {@link #parse(File, File, Consumer)} takes care of that by writing
+ * the manifest file after the handler returned.</p>
+ *
+ * <pre>{@code
+ *     YomichanIncrementalParser parser = new YomichanIncrementalParser();
+ *     parser.parse(new File("jmdict.zip"), new File("jmdict.manifest.json"), update -> {
+ *         update.getChangedRows().forEach(store::replaceBank);
+ *         update.getRemovedBanks().forEach(store::removeBank);
+ *         store.commit();
+ *     });
+ * }</pre>
+ */
+@Slf4j
+public class YomichanIncrementalParser {
+
+    private final ObjectMapper mapper;
+    private final YomichanDictionaryParser parser;
+    private final IYomichanParser<Index> indexParser;
+
+    public YomichanIncrementalParser() {
+        this(new YomichanParserFactory());
+    }
+
+    public YomichanIncrementalParser(YomichanParserFactory factory) {
+        this.mapper = factory.getMapper();
+        this.parser = (YomichanDictionaryParser) factory.<YomichanDictionary>getInstance(DICTIONARY);
+        this.indexParser = factory.create(INDEX);
+    }
+
+    /**
+     * Parse the banks of the dictionary that changed since the previous import.
+     *
+     * @param file     The Yomichan dictionary file.
+     * @param previous The manifest from the previous import, or null to parse every bank.
+     * @return the changed rows and the manifest for the next import.
+     */
+    public YomichanDictionaryUpdate parse(File file, DictionaryManifest previous) {
+        final Map<String, Long> banks = new TreeMap<>();
+        final String title = readBanks(file, banks);
+        Map<String, Long> previousBanks = previous != null ? previous.getBanks() : Map.of();
+        if (previous != null && !Objects.equals(previous.getTitle(), title)) {
+            log.info("Dictionary title changed from {} to {}, parsing every bank of {}", previous.getTitle(), title, file.getName());
+            previousBanks = Map.of();
+        }
+        final Map<String, Long> compared = previousBanks;
+        final Set<String> changed = banks.entrySet()
+            .stream()
+            .filter(bank -> !Objects.equals(bank.getValue(), compared.get(bank.getKey())))
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toSet());
+
+        final Map<String, Object> files = new HashMap<>();
+        final YomichanDictionary dictionary = parser.parse(file, name -> INDEX.matches(name) || changed.contains(name), files);
+        final Index index = dictionary.getIndex();
+
+        final List<String> changedBanks = new ArrayList<>();
+        final List<String> unchangedBanks = new ArrayList<>();
+        final Map<String, List<?>> changedRows = new LinkedHashMap<>();
+        for (String name : banks.keySet()) {
+            if (!changed.contains(name)) {
+                unchangedBanks.add(name);
+                continue;
+            }
+            changedBanks.add(name);
+            if (files.get(name) instanceof List<?> rows) {
+                changedRows.put(name, rows);
+            }
+        }
+        final List<String> removedBanks = compared.keySet()
+            .stream()
+            .filter(name -> !banks.containsKey(name))
+            .sorted()
+            .toList();
+        log.debug("Dictionary {} has {} changed, {} unchanged and {} removed banks", file.getName(), changedBanks.size(), unchangedBanks.size(), removedBanks.size());
+
+        final DictionaryManifest manifest = new DictionaryManifest(
+            title,
+            index != null ? index.getRevision() : null,
+            index != null ? index.getFormat() : null,
+            banks
+        );
+        return new YomichanDictionaryUpdate(manifest, dictionary, Collections.unmodifiableMap(changedRows), changedBanks, unchangedBanks, removedBanks);
+    }
+
+    /**
+     * Parse the banks of the dictionary that changed since the import recorded in the manifest file,
+     * pass them to the handler, and then write the new manifest to the same file. If the handler
+     * throws, the manifest file is left as it was, so the next import parses the same banks again.
+     *
+     * @param file     The Yomichan dictionary file.
+     * @param manifest The manifest file. Every bank is parsed if it doesn't exist yet.
+     * @param handler  Applies the changed rows, e.g. to a database, and throws if they couldn't be applied.
+     * @return the changed rows and the new manifest.
+     */
+    public YomichanDictionaryUpdate parse(File file, File manifest, Consumer<? super YomichanDictionaryUpdate> handler) {
+        final DictionaryManifest previous = manifest.exists() ? readManifest(manifest) : null;
+        final YomichanDictionaryUpdate update = parse(file, previous);
+        handler.accept(update);
+        writeManifest(update.getManifest(), manifest);
+        return update;
+    }
+
+    public DictionaryManifest readManifest(File file) {
+        try {
+            return mapper.readValue(file, DictionaryManifest.class);
+        } catch (IOException e) {
+            throw new YomichanException("Failed to read Yomichan dictionary manifest at path " + file.getAbsolutePath(), e);
+        }
+    }
+
+    public void writeManifest(DictionaryManifest manifest, File file) {
+        try {
+            mapper.writeValue(file, manifest);
+        } catch (IOException e) {
+            throw new YomichanException("Failed to write Yomichan dictionary manifest at path " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Read the checksum of every bank file, and the title from the index.json file, without extracting anything.
+     *
+     * @return the title of the dictionary.
+     */
+    private String readBanks(File file, Map<String, Long> banks) {
+        try (final ZipFile zip = new ZipFile(file)) {
+            String title = null;
+            for (FileHeader header : zip.getFileHeaders()) {
+                if (header.isDirectory() || YomichanParserType.findBank(header.getFileName()).isEmpty()) {
+                    continue;
+                }
+                banks.put(header.getFileName(), header.getCrc());
+                if (INDEX.matches(header.getFileName())) {
+                    try (InputStream in = zip.getInputStream(header)) {
+                        title = indexParser.parse(in).getTitle();
+                    }
+                }
+            }
+            return title;
+        } catch (IOException e) {
+            throw new YomichanException("Failed to read Yomichan dictionary at path " + file.getAbsolutePath(), e);
+        }
+    }
+}
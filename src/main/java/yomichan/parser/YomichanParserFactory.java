@@ -1,24 +1,67 @@
 package yomichan.parser;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import lombok.AccessLevel;
+import lombok.Getter;
+import yomichan.listener.ParseListener;
 
-@RequiredArgsConstructor
 public class YomichanParserFactory {
 
+    @Getter(AccessLevel.PACKAGE)
     private final ObjectMapper mapper;
 
+    @Getter(AccessLevel.PACKAGE)
+    private final ParseListener listener;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final ContentInterner interner;
+
     public YomichanParserFactory() {
         this(new ObjectMapper());
     }
 
-    @SuppressWarnings("unchecked")
+    public YomichanParserFactory(ObjectMapper mapper) {
+        this(mapper, ParseListener.NONE);
+    }
+
+    public YomichanParserFactory(ParseListener listener) {
+        this(new ObjectMapper(), listener);
+    }
+
+    public YomichanParserFactory(ObjectMapper mapper, ParseListener listener) {
+        this(mapper, listener, ContentInterner.NONE);
+    }
+
+    /**
+     * Create a factory whose term parsers share structurally equal styles, data attributes and
+     * structured content subtrees through the interner.
+     *
+     * @param mapper   The object mapper to read the bank files with.
+     * @param listener The listener to receive dictionary and bank events.
+     * @param interner The interner to canonicalize structured content with.
+     * @see ContentInterner
+     */
+    public YomichanParserFactory(ObjectMapper mapper, ParseListener listener, ContentInterner interner) {
+        this.mapper = mapper;
+        this.listener = listener;
+        this.interner = interner;
+    }
+
     public <T> IYomichanParser<T> getInstance(YomichanParserType type) {
+        final IYomichanParser<T> parser = create(type);
+        if (type == YomichanParserType.DICTIONARY) {
+            return parser;
+        }
+        return new InstrumentedParser<>(type, parser, listener);
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> IYomichanParser<T> create(YomichanParserType type) {
         return switch (type) {
             case KANJI -> (IYomichanParser<T>) new YomichanKanjiParser(mapper);
             case INDEX -> (IYomichanParser<T>) new YomichanIndexParser(mapper);
             case TAG -> (IYomichanParser<T>) new YomichanTagParser(mapper);
-            case TERM -> (IYomichanParser<T>) new YomichanTermParser(mapper);
+            case TERM -> (IYomichanParser<T>) new YomichanTermParser(mapper, interner);
             case TERM_METADATA -> (IYomichanParser<T>) new YomichanTermMetadataParser(mapper);
             case KANJI_METADATA -> (IYomichanParser<T>) new YomichanKanjiMetadataParser(mapper);
             case DICTIONARY -> (IYomichanParser<T>) new YomichanDictionaryParser(this);
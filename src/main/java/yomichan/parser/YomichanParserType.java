@@ -3,6 +3,9 @@ package yomichan.parser;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
+import java.util.Arrays;
+import java.util.Optional;
+
 @Getter
 @RequiredArgsConstructor
 public enum YomichanParserType {
@@ -15,4 +18,21 @@ public enum YomichanParserType {
     DICTIONARY(".*\\.zip");
 
     private final String pattern;
+
+    public boolean matches(String fileName) {
+        return fileName.matches(pattern);
+    }
+
+    /**
+     * Find the type of the bank file (index.json, term_bank_1.json, etc.) with the given name.
+     *
+     * @param fileName The name of the file within the dictionary.
+     * @return the bank type, or empty if the file isn't a bank file.
+     */
+    public static Optional<YomichanParserType> findBank(String fileName) {
+        return Arrays.stream(values())
+            .filter(type -> type != DICTIONARY)
+            .filter(type -> type.matches(fileName))
+            .findFirst();
+    }
 }
@@ -0,0 +1,182 @@
+package yomichan.parser;
+
+import lombok.extern.slf4j.Slf4j;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.FileHeader;
+import yomichan.exception.YomichanException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the rows of one bank type of a Yomichan dictionary .zip file with backpressure.
+ *
+ * <p>Bank files are parsed one at a time straight from their zip entries, without extracting them,
+ * and only when the subscriber has requested more rows than the previous bank provided. A slow subscriber therefore throttles parsing directly,
+ * and at most one parsed bank is held in memory per subscription. Every subscription reads the
+ * dictionary file independently.</p>
+ *
+ * <p>Signals are delivered on the executor. With a direct executor such as {@code Runnable::run},
+ * rows are delivered on the thread that calls {@link Flow.Subscription#request(long)}.</p>
+ *
+ * @param <T> The type of the rows, e.g. {@link yomichan.model.v3.Term}.
+ */
+@Slf4j
+public class YomichanPublisher<T> implements Flow.Publisher<T> {
+
+    private final File file;
+    private final YomichanParserType type;
+    private final IYomichanParser<List<T>> parser;
+    private final Executor executor;
+
+    public YomichanPublisher(YomichanParserFactory factory, YomichanParserType type, File file, Executor executor) {
+        if (type == YomichanParserType.INDEX || type == YomichanParserType.DICTIONARY) {
+            throw new IllegalArgumentException("Can only publish the rows of bank types: " + type);
+        }
+        this.file = file;
+        this.type = type;
+        this.parser = factory.getInstance(type);
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "Subscriber cannot be null!");
+        subscriber.onSubscribe(new BankSubscription(subscriber));
+    }
+
+    private final class BankSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // Only accessed from the drain loop.
+        private boolean done;
+        private ZipFile zip;
+        private List<FileHeader> banks;
+        private int bank;
+        private Iterator<T> rows = Collections.emptyIterator();
+
+        private BankSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested rows must be positive: " + n);
+            } else {
+                demand.getAndUpdate(d -> Long.MAX_VALUE - d < n ? Long.MAX_VALUE : d + n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            // Only one drain loop runs at a time, which also prevents recursion when onNext requests more rows.
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(() -> {
+                    int missed = 1;
+                    do {
+                        emit();
+                        missed = wip.addAndGet(-missed);
+                    } while (missed != 0);
+                });
+            }
+        }
+
+        private void emit() {
+            if (done) {
+                return;
+            }
+            if (cancelled) {
+                finish();
+                return;
+            }
+            if (invalidRequest != null) {
+                finish();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+            try {
+                while (demand.get() > 0 && !cancelled) {
+                    if (!rows.hasNext()) {
+                        if (!nextBank()) {
+                            finish();
+                            subscriber.onComplete();
+                            return;
+                        }
+                        continue;
+                    }
+                    subscriber.onNext(rows.next());
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                }
+                if (cancelled) {
+                    finish();
+                }
+            } catch (RuntimeException e) {
+                finish();
+                subscriber.onError(e);
+            }
+        }
+
+        private boolean nextBank() {
+            try {
+                if (zip == null) {
+                    log.debug("Publishing Yomichan {} rows from {}", type, file.getAbsolutePath());
+                    zip = new ZipFile(file);
+                    banks = zip.getFileHeaders()
+                        .stream()
+                        .filter(header -> !header.isDirectory() && type.matches(header.getFileName()))
+                        .sorted(Comparator.comparing(FileHeader::getFileName))
+                        .toList();
+                }
+                if (bank >= banks.size()) {
+                    return false;
+                }
+                final FileHeader header = banks.get(bank++);
+                try (InputStream in = zip.getInputStream(header)) {
+                    final List<T> parsed = parser instanceof InstrumentedParser<List<T>> instrumented
+                        ? instrumented.parse(in, header.getFileName())
+                        : parser.parse(in);
+                    rows = parsed.iterator();
+                }
+                return true;
+            } catch (IOException e) {
+                throw new YomichanException("Failed to read Yomichan dictionary at path " + file.getAbsolutePath(), e);
+            }
+        }
+
+        private void finish() {
+            done = true;
+            rows = Collections.emptyIterator();
+            if (zip != null) {
+                try {
+                    zip.close();
+                } catch (IOException e) {
+                    log.warn("Could not close Yomichan dictionary {}", file.getAbsolutePath(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package yomichan.parser;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import yomichan.exception.YomichanException;
+import yomichan.model.Index;
+import yomichan.model.v3.Kanji;
+import yomichan.model.v3.KanjiMetadata;
+import yomichan.model.v3.Tag;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.TermMetadata;
+import yomichan.utils.FileUtils;
+import yomichan.writer.YomichanJsonWriter;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static yomichan.parser.YomichanParserType.KANJI;
+import static yomichan.parser.YomichanParserType.KANJI_METADATA;
+import static yomichan.parser.YomichanParserType.TAG;
+import static yomichan.parser.YomichanParserType.TERM;
+import static yomichan.parser.YomichanParserType.TERM_METADATA;
+import static yomichan.writer.YomichanJsonWriter.MissingValues.NULLS;
+
+/**
+ * A parsed Yomichan dictionary whose rows are partly kept in memory and partly spilled to temporary run files.
+ *
+ * <p>Run files are GZIP-compressed bank files, since the repeated keys and glossaries of a bank compress
+ * well and writing fewer bytes is cheaper than the compression. Rows are read back lazily, one run file
+ * at a time, when the row iterables are iterated, and are returned in the same order as in the
+ * dictionary. Each iterable can be iterated any number of times. Closing the dictionary deletes the
+ * run files.</p>
+ *
+ * @see YomichanSpillingParser
+ */
+@Slf4j
+public class YomichanSpilledDictionary implements Closeable {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File directory;
+    private final long heapBudget;
+
+    /**
+     * The dictionary index.
+     */
+    @Getter
+    private Index index;
+
+    private final Rows<Tag> tags;
+    private final Rows<Term> terms;
+    private final Rows<TermMetadata> termMetadata;
+    private final Rows<Kanji> kanjis;
+    private final Rows<KanjiMetadata> kanjiMetadata;
+
+    /**
+     * Estimated heap used by the rows that are still in memory.
+     */
+    @Getter
+    private long bufferedBytes;
+
+    /**
+     * Number of run files written to disk.
+     */
+    @Getter
+    private int runCount;
+
+    YomichanSpilledDictionary(YomichanParserFactory factory, File directory, long heapBudget) {
+        this.directory = directory;
+        this.heapBudget = heapBudget;
+        this.tags = new Rows<>(factory.create(TAG), (generator, tag) -> YomichanJsonWriter.writeTag(generator, tag, NULLS));
+        this.terms = new Rows<>(factory.create(TERM), (generator, term) -> YomichanJsonWriter.writeTerm(generator, term, NULLS));
+        this.termMetadata = new Rows<>(factory.create(TERM_METADATA), (generator, meta) -> YomichanJsonWriter.writeTermMetadata(generator, meta, NULLS));
+        this.kanjis = new Rows<>(factory.create(KANJI), (generator, kanji) -> YomichanJsonWriter.writeKanji(generator, kanji, NULLS));
+        this.kanjiMetadata = new Rows<>(factory.create(KANJI_METADATA), (generator, meta) -> YomichanJsonWriter.writeKanjiMetadata(generator, meta, NULLS));
+    }
+
+    public Iterable<Tag> getTags() {
+        return tags;
+    }
+
+    public Iterable<Term> getTerms() {
+        return terms;
+    }
+
+    public Iterable<TermMetadata> getTermMetadata() {
+        return termMetadata;
+    }
+
+    public Iterable<Kanji> getKanjis() {
+        return kanjis;
+    }
+
+    public Iterable<KanjiMetadata> getKanjiMetadata() {
+        return kanjiMetadata;
+    }
+
+    public int getTagCount() {
+        return tags.count;
+    }
+
+    public int getTermCount() {
+        return terms.count;
+    }
+
+    public int getTermMetadataCount() {
+        return termMetadata.count;
+    }
+
+    public int getKanjiCount() {
+        return kanjis.count;
+    }
+
+    public int getKanjiMetadataCount() {
+        return kanjiMetadata.count;
+    }
+
+    /**
+     * Delete the run files of the dictionary.
+     */
+    @Override
+    public void close() {
+        FileUtils.getFiles(directory.getAbsolutePath(), (dir, name) -> name.endsWith(".json.gz")).forEach(FileUtils::delete);
+        FileUtils.delete(directory);
+    }
+
+    /**
+     * @return the handler that collects the parsed banks into this dictionary.
+     */
+    YomichanBankHandler handler() {
+        return new YomichanBankHandler() {
+            @Override
+            public void onIndex(Index index) {
+                YomichanSpilledDictionary.this.index = index;
+            }
+
+            @Override
+            public void onKanjis(List<Kanji> rows) {
+                add(kanjis, rows);
+            }
+
+            @Override
+            public void onTags(List<Tag> rows) {
+                add(tags, rows);
+            }
+
+            @Override
+            public void onTerms(List<Term> rows) {
+                add(terms, rows);
+            }
+
+            @Override
+            public void onTermMetadata(List<TermMetadata> rows) {
+                add(termMetadata, rows);
+            }
+
+            @Override
+            public void onKanjiMetadata(List<KanjiMetadata> rows) {
+                add(kanjiMetadata, rows);
+            }
+        };
+    }
+
+    private <T> void add(Rows<T> target, List<T> rows) {
+        target.buffer.addAll(rows);
+        target.count += rows.size();
+        for (T row : rows) {
+            bufferedBytes += RowSizeEstimator.estimate(row);
+        }
+        if (bufferedBytes > heapBudget) {
+            spill();
+        }
+    }
+
+    private void spill() {
+        final long start = System.nanoTime();
+        final long bytes = bufferedBytes;
+        try {
+            tags.spill(TAG);
+            terms.spill(TERM);
+            termMetadata.spill(TERM_METADATA);
+            kanjis.spill(KANJI);
+            kanjiMetadata.spill(KANJI_METADATA);
+        } catch (IOException e) {
+            throw new YomichanException("Failed to spill Yomichan rows to " + directory.getAbsolutePath(), e);
+        }
+        bufferedBytes = 0;
+        log.debug("Spilled an estimated {} bytes of rows to disk in {}ms", bytes, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(JsonGenerator generator, T row) throws IOException;
+    }
+
+    /**
+     * The rows of one type, made of the run files written so far followed by the rows still in memory.
+     */
+    private final class Rows<T> implements Iterable<T> {
+
+        private final IYomichanParser<List<T>> parser;
+        private final RowWriter<T> writer;
+        private final List<File> runs = new ArrayList<>();
+        private List<T> buffer = new ArrayList<>();
+        private int count;
+
+        private Rows(IYomichanParser<List<T>> parser, RowWriter<T> writer) {
+            this.parser = parser;
+            this.writer = writer;
+        }
+
+        private void spill(YomichanParserType type) throws IOException {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            // Run files are compressed bank files, so they can be read back with the bank parsers.
+            final String name = type.name().toLowerCase(Locale.ROOT) + "_run_" + (++runCount) + ".json.gz";
+            final File run = new File(directory, name);
+            try (OutputStream out = new GZIPOutputStream(new FileOutputStream(run), BUFFER_SIZE);
+                 JsonGenerator generator = FACTORY.createGenerator(out)) {
+                generator.writeStartArray();
+                for (T row : buffer) {
+                    writer.write(generator, row);
+                }
+                generator.writeEndArray();
+            }
+            runs.add(run);
+            buffer = new ArrayList<>();
+        }
+
+        private List<T> read(File run) {
+            try (InputStream in = new GZIPInputStream(new FileInputStream(run), BUFFER_SIZE)) {
+                return parser.parse(in);
+            } catch (IOException e) {
+                throw new YomichanException("Failed to read Yomichan run file at path " + run.getAbsolutePath(), e);
+            }
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+                private int run;
+                private boolean buffered;
+                private Iterator<T> current = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext()) {
+                        if (run < runs.size()) {
+                            current = read(runs.get(run++)).iterator();
+                        } else if (!buffered) {
+                            current = buffer.iterator();
+                            buffered = true;
+                        } else {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return current.next();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package yomichan.parser;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import yomichan.exception.YomichanException;
+import yomichan.utils.FileUtils;
+
+import java.io.File;
+
+/**
+ * Parses Yomichan dictionaries with a bounded heap budget for the parsed rows.
+ *
+ * <p>Rows are kept in memory until their estimated size exceeds the budget, after which every
+ * buffered row is written to a compact temporary run file and released. The returned
+ * {@link YomichanSpilledDictionary} iterates over the run files and the remaining in-memory rows
+ * in dictionary order, so dictionaries of any size can be processed with a small heap.</p>
+ *
+ * <p>The budget only covers the accumulated rows. A single bank file is always parsed in memory,
+ * so the heap also has to fit the largest bank of the dictionary.</p>
+ *
+ * <pre>{@code
+ *     YomichanSpillingParser parser = new YomichanSpillingParser(64 * 1024 * 1024);
+ *     try (YomichanSpilledDictionary dictionary = parser.parse(new File("jmdict.zip"))) {
+ *         for (Term term : dictionary.getTerms()) {
+ *             store.insert(term);
+ *         }
+ *     }
+ * }</pre>
+ */
+@Slf4j
+public class YomichanSpillingParser {
+
+    private final YomichanParserFactory factory;
+    private final YomichanBankParser parser;
+
+    /**
+     * Estimated number of bytes of parsed rows kept in memory before spilling to disk.
+     */
+    @Getter
+    private final long heapBudget;
+
+    public YomichanSpillingParser(long heapBudget) {
+        this(new YomichanParserFactory(), heapBudget);
+    }
+
+    public YomichanSpillingParser(YomichanParserFactory factory, long heapBudget) {
+        if (heapBudget < 0) {
+            throw new IllegalArgumentException("Heap budget cannot be negative: " + heapBudget);
+        }
+        this.factory = factory;
+        this.parser = new YomichanBankParser(factory);
+        this.heapBudget = heapBudget;
+    }
+
+    /**
+     * Parse the Yomichan dictionary .zip file, spilling rows to disk when the heap budget is exceeded.
+     *
+     * @param file The Yomichan dictionary file.
+     * @return the parsed dictionary, which has to be closed to delete its run files.
+     */
+    public YomichanSpilledDictionary parse(File file) {
+        final File directory = new File(FileUtils.getTempFolder());
+        if (!directory.mkdirs()) {
+            throw new YomichanException("Failed to create temporary directory " + directory.getAbsolutePath());
+        }
+        final YomichanSpilledDictionary dictionary = new YomichanSpilledDictionary(factory, directory, heapBudget);
+        try {
+            parser.parse(file, dictionary.handler());
+        } catch (RuntimeException e) {
+            dictionary.close();
+            throw e;
+        }
+        log.debug("Parsed Yomichan dictionary {} into {} run files", file.getName(), dictionary.getRunCount());
+        return dictionary;
+    }
+}
@@ -1,123 +1,120 @@
 package yomichan.parser;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import yomichan.exception.YomichanException;
 import yomichan.model.v3.TermMetadata;
 import yomichan.model.v3.term.meta.Frequency;
 import yomichan.model.v3.term.meta.Pitch;
 import yomichan.model.v3.term.meta.Pitches;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
-import static yomichan.utils.JsonUtils.getInt;
-import static yomichan.utils.JsonUtils.getText;
-import static yomichan.utils.JsonUtils.parseIntegerArray;
-import static yomichan.utils.JsonUtils.parseStringArray;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
 
-@Slf4j
-@RequiredArgsConstructor
-class YomichanTermMetadataParser implements IYomichanParser<List<TermMetadata>> {
+class YomichanTermMetadataParser extends TokenBankParser<TermMetadata> {
 
-    private final ObjectMapper mapper;
-
-    @Override
-    public List<TermMetadata> parse(File file) {
-        try {
-            JsonNode root = mapper.readTree(file);
-            if (!root.isArray()) {
-                throw new YomichanException("Yomichan term meta bank should be an array.");
-            }
-
-            log.info("Parsing Yomichan term meta bank at path {}", file.getAbsolutePath());
-            final long start = System.nanoTime();
-            final List<TermMetadata> metas = new ArrayList<>();
-            root.forEach(n -> metas.add(parseTermMeta(n)));
-            log.debug("Successfully parsed {} term metas in {}ms", metas.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
-            return metas;
-        } catch (IOException e) {
-            throw new YomichanException("Failed to parse Yomichan term meta bank at path " + file.getAbsolutePath(), e);
-        }
+    YomichanTermMetadataParser(ObjectMapper mapper) {
+        super(mapper, "term meta bank", "term metas");
     }
 
-    private TermMetadata parseTermMeta(JsonNode node) {
-        if (!node.isArray()) {
-            throw new YomichanException("Yomichan term meta bank array items should be an array.");
-        }
-        TermMetadata meta = new TermMetadata();
-        for (int i = 0; i < node.size(); i++) {
-            JsonNode item = node.get(i);
+    @Override
+    TermMetadata parseRow(JsonTokenReader reader) throws IOException {
+        final TermMetadata meta = new TermMetadata();
+        for (int i = 0; reader.nextItem(); i++) {
             switch (i) {
-                case 0 -> meta.setText(getText(item));
-                case 1 -> meta.setType(TermMetadata.Type.from(getText(item)));
-                case 2 -> parsePitchesOrFrequency(meta, item);
+                case 0 -> meta.setText(reader.readText());
+                case 1 -> meta.setType(TermMetadata.Type.from(reader.readText()));
+                case 2 -> parsePitchesOrFrequency(meta, reader);
                 default ->
-                    throw new YomichanException("Couldn't parse term meta due to invalid length. Yomichan term meta array should be 3 items long: " + node);
+                    throw new YomichanException("Couldn't parse term meta due to invalid length. Yomichan term meta array should be 3 items long: " + meta.getText());
             }
         }
         return meta;
     }
 
-    private void parsePitchesOrFrequency(TermMetadata meta, JsonNode node) {
+    private void parsePitchesOrFrequency(TermMetadata meta, JsonTokenReader reader) throws IOException {
+        if (meta.getType() == null) {
+            throw new YomichanException("Yomichan term meta is missing its type: " + meta.getText());
+        }
         switch (meta.getType()) {
-            case PITCH -> meta.setPitches(parsePitches(node));
-            case FREQUENCY -> meta.setFrequency(parseFrequency(node));
+            case PITCH -> meta.setPitches(parsePitches(reader));
+            case FREQUENCY -> meta.setFrequency(parseFrequency(reader));
         }
     }
 
-    private Frequency parseFrequency(JsonNode node) {
-        return switch (node.getNodeType()) {
-            case NUMBER -> new Frequency(getInt(node));
-            case OBJECT -> parseFrequencyObject(node);
+    private Frequency parseFrequency(JsonTokenReader reader) throws IOException {
+        return switch (reader.token()) {
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT, VALUE_NULL -> new Frequency(reader.readInt());
+            case START_OBJECT -> parseFrequencyObject(reader, new Frequency());
             default -> throw new YomichanException("Yomichan frequency metadata should be an object.");
         };
     }
 
-    private Frequency parseFrequencyObject(JsonNode node) {
-        Frequency frequency = new Frequency();
-        frequency.setReading(getText(node, "reading"));
-        if (node.has("frequency")) {
-            node = node.get("frequency");
+    private Frequency parseFrequencyObject(JsonTokenReader reader, Frequency frequency) throws IOException {
+        for (String field = reader.nextField(); field != null; field = reader.nextField()) {
+            switch (field) {
+                case "reading" -> frequency.setReading(reader.readText());
+                case "value" -> frequency.setValue(reader.readInt());
+                case "displayValue" -> frequency.setDisplay(reader.readText());
+                case "frequency" -> {
+                    if (reader.token() == START_OBJECT) {
+                        parseFrequencyObject(reader, frequency);
+                    } else {
+                        frequency.setValue(reader.readInt());
+                    }
+                }
+                default -> reader.skip();
+            }
         }
-        frequency.setValue(getInt(node, "value"));
-        frequency.setDisplay(getText(node, "displayValue"));
         return frequency;
     }
 
-    private Pitches parsePitches(JsonNode node) {
-        if (!node.isObject()) {
+    private Pitches parsePitches(JsonTokenReader reader) throws IOException {
+        if (reader.token() != START_OBJECT) {
             throw new YomichanException("Yomichan pitch metadata should be an object.");
         }
-        Pitches pitches = new Pitches();
-        pitches.setReading(getText(node, "reading"));
-        pitches.setPitches(parsePitchArray(node.get("pitches")));
+        final Pitches pitches = new Pitches();
+        for (String field = reader.nextField(); field != null; field = reader.nextField()) {
+            switch (field) {
+                case "reading" -> pitches.setReading(reader.readText());
+                case "pitches" -> pitches.setPitches(parsePitchArray(reader));
+                default -> reader.skip();
+            }
+        }
+        if (pitches.getPitches() == null) {
+            throw new YomichanException("Yomichan pitch metadata is missing its pitches.");
+        }
         return pitches;
     }
 
-    private List<Pitch> parsePitchArray(JsonNode node) {
-        if (!node.isArray()) {
+    private List<Pitch> parsePitchArray(JsonTokenReader reader) throws IOException {
+        if (reader.token() != START_ARRAY) {
             throw new YomichanException("Yomichan pitches should be an array.");
         }
-        List<Pitch> pitches = new ArrayList<>();
-        node.forEach(n -> pitches.add(parsePitch(n)));
+        final List<Pitch> pitches = new ArrayList<>();
+        while (reader.nextItem()) {
+            pitches.add(parsePitch(reader));
+        }
         return pitches;
     }
 
-    private Pitch parsePitch(JsonNode node) {
-        if (!node.isObject()) {
+    private Pitch parsePitch(JsonTokenReader reader) throws IOException {
+        if (reader.token() != START_OBJECT) {
             throw new YomichanException("Yomichan pitch should be an object.");
         }
-        Pitch pitch = new Pitch();
-        pitch.setDownstep(getInt(node.get("position")));
-        pitch.setNasals(parseIntegerArray(node.get("nasal")));
-        pitch.setDevoicings(parseIntegerArray(node.get("devoice")));
-        pitch.setTags(parseStringArray(node.get("tags")));
+        final Pitch pitch = new Pitch();
+        for (String field = reader.nextField(); field != null; field = reader.nextField()) {
+            switch (field) {
+                case "position" -> pitch.setDownstep(reader.readInt());
+                case "nasal" -> pitch.setNasals(reader.readIntArray());
+                case "devoice" -> pitch.setDevoicings(reader.readIntArray());
+                case "tags" -> pitch.setTags(reader.readTextArray());
+                default -> reader.skip();
+            }
+        }
         return pitch;
     }
 }
@@ -1,5 +1,6 @@
 package yomichan.parser;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -23,10 +24,12 @@ import yomichan.model.v3.term.VerticalAlign;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import static yomichan.utils.JsonUtils.createParser;
 import static yomichan.utils.JsonUtils.getBoolean;
 import static yomichan.utils.JsonUtils.getDouble;
 import static yomichan.utils.JsonUtils.getInt;
@@ -38,26 +41,43 @@ import static yomichan.utils.JsonUtils.parseSpaceSeparatedText;
 class YomichanTermParser implements IYomichanParser<List<Term>> {
 
     private final ObjectMapper mapper;
+    private final ContentInterner interner;
+
+    YomichanTermParser(ObjectMapper mapper) {
+        this(mapper, ContentInterner.NONE);
+    }
 
     @Override
     public List<Term> parse(File file) {
         try {
-            final JsonNode node = mapper.readTree(file);
-            if (!node.isArray()) {
-                throw new YomichanException("Yomichan term bank should be an array.");
-            }
-
-            log.info("Parsing Yomichan term bank at path {}", file.getAbsolutePath());
-            final long start = System.nanoTime();
-            final List<Term> terms = new ArrayList<>();
-            node.forEach(n -> terms.add(parseTerm(n)));
-            log.debug("Successfully parsed {} terms in {}ms", terms.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
-            return terms;
+            return parse(mapper.readTree(file), "at path " + file.getAbsolutePath());
         } catch (IOException e) {
             throw new YomichanException("Failed to parse Yomichan term bank at path " + file.getAbsolutePath(), e);
         }
     }
 
+    @Override
+    public List<Term> parse(InputStream in) {
+        try (JsonParser parser = createParser(mapper, in)) {
+            return parse(mapper.readTree(parser), "from stream");
+        } catch (IOException e) {
+            throw new YomichanException("Failed to parse Yomichan term bank from stream", e);
+        }
+    }
+
+    private List<Term> parse(JsonNode node, String source) {
+        if (node == null || !node.isArray()) {
+            throw new YomichanException("Yomichan term bank should be an array.");
+        }
+
+        log.info("Parsing Yomichan term bank {}", source);
+        final long start = System.nanoTime();
+        final List<Term> terms = new ArrayList<>();
+        node.forEach(n -> terms.add(parseTerm(n)));
+        log.debug("Successfully parsed {} terms in {}ms", terms.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return terms;
+    }
+
     private Term parseTerm(JsonNode node) {
         if (!node.isArray()) {
             throw new YomichanException("Yomichan term bank array items should start with an array.");
@@ -81,7 +101,10 @@ class YomichanTermParser implements IYomichanParser<List<Term>> {
         return term;
     }
 
-    private List<Content> parseContents(JsonNode node) {
+    List<Content> parseContents(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
         final List<Content> output = new ArrayList<>();
         node.forEach(n -> output.add(parseContent(n)));
         return output;
@@ -119,11 +142,15 @@ class YomichanTermParser implements IYomichanParser<List<Term>> {
     }
 
     private void parseStructuredContent(Content root, JsonNode node) {
+        if (node == null) {
+            // Elements like an empty span may leave out their content
+            return;
+        }
         log.trace("Parsing structured content: {}", node.toString());
         switch (node.getNodeType()) {
-            case STRING -> root.getContents().add(new StructuredContent(getText(node)));
+            case STRING -> root.getContents().add(interner.intern(new StructuredContent(getText(node))));
             case ARRAY -> node.forEach(n -> parseStructuredContent(root, n));
-            case OBJECT -> root.getContents().add(parseStructuredContentObject(node));
+            case OBJECT -> root.getContents().add(interner.intern(parseStructuredContentObject(node)));
             default -> throw new YomichanException("Unexpected node type in Term Structured Content: " + node);
         }
     }
@@ -171,7 +198,12 @@ class YomichanTermParser implements IYomichanParser<List<Term>> {
     private void parseTextDecorationLine(ContentStyle style, JsonNode tdl) {
         if (tdl == null) return;
         switch (tdl.getNodeType()) {
-            case STRING -> style.getTextDecorationLine().add(TextDecorationLine.from(tdl.asText()));
+            case STRING -> {
+                if (style.getTextDecorationLine() == null) {
+                    style.setTextDecorationLine(new ArrayList<>());
+                }
+                style.getTextDecorationLine().add(TextDecorationLine.from(tdl.asText()));
+            }
             case ARRAY -> tdl.forEach(t -> parseTextDecorationLine(style, t));
             default ->
                 throw new YomichanException("Only expecting string or array for textDecorationLine in Yomichan structured content style: " + tdl);
@@ -192,14 +224,14 @@ class YomichanTermParser implements IYomichanParser<List<Term>> {
         style.setMarginRight(getDouble(node, "marginRight", 0D));
         style.setMarginBottom(getDouble(node, "marginBottom", 0D));
         style.setListStyleType(getText(node, "listStyleType", "disc"));
-        return style;
+        return interner.intern(style);
     }
 
     private ContentData parseData(JsonNode node) {
         if (node == null) return null;
         final ContentData data = new ContentData();
         node.fields().forEachRemaining(f -> data.setData(f.getKey(), f.getValue().asText()));
-        return data;
+        return interner.intern(data);
     }
 
     private void parseImageFields(Content content, JsonNode node) {
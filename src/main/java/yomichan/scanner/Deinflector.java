@@ -0,0 +1,262 @@
+package yomichan.scanner;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Suffix rewriting rules that turn inflected Japanese verbs and adjectives back into their
+ * dictionary form, following the same model as Yomichan's deinflector.
+ *
+ * <p>Every rule replaces an inflected ending with the ending of a less inflected form, e.g. 「ました」
+ * with 「ます」, and then 「ます」 with 「る」. A rule only applies to a form whose word class is one of
+ * its {@code rulesIn}, and the result has the word class {@code rulesOut}, so that chains like
+ * 「食べさせられなかった」 → 「食べる」 are followed while nonsensical ones are not. The text as written
+ * has no word class yet and accepts every rule. A dictionary form only matches terms whose
+ * {@link yomichan.model.v3.Term#getRules()} include its word class.</p>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class Deinflector {
+
+    static final int V1 = 1;
+    static final int V5 = 1 << 1;
+    static final int VS = 1 << 2;
+    static final int VK = 1 << 3;
+    static final int VZ = 1 << 4;
+    static final int ADJ_I = 1 << 5;
+    static final int MASU = 1 << 6;
+    static final int IRU = 1 << 7;
+
+    /**
+     * Godan endings by row: dictionary form, a-stem, i-stem, e-stem, o-stem, te-form and ta-form.
+     */
+    private static final String[][] GODAN = {
+        {"う", "わ", "い", "え", "お", "って", "った"},
+        {"く", "か", "き", "け", "こ", "いて", "いた"},
+        {"ぐ", "が", "ぎ", "げ", "ご", "いで", "いだ"},
+        {"す", "さ", "し", "せ", "そ", "して", "した"},
+        {"つ", "た", "ち", "て", "と", "って", "った"},
+        {"ぬ", "な", "に", "ね", "の", "んで", "んだ"},
+        {"ぶ", "ば", "び", "べ", "ぼ", "んで", "んだ"},
+        {"む", "ま", "み", "め", "も", "んで", "んだ"},
+        {"る", "ら", "り", "れ", "ろ", "って", "った"},
+    };
+    private static final int A = 1;
+    private static final int I = 2;
+    private static final int E = 3;
+    private static final int O = 4;
+    private static final int TE = 5;
+    private static final int TA = 6;
+
+    /**
+     * Rules grouped by the last character of their inflected ending, sorted by that character.
+     */
+    private static final char[] LAST_CHARS;
+    private static final Rule[][] RULES;
+    private static final char[] FIRST_CHARS;
+    private static final int MAX_INFLECTED_LENGTH;
+
+    static {
+        final List<Rule> rules = new ArrayList<>();
+        // Polite forms
+        verb(rules, "polite", MASU, "ます");
+        rules.add(new Rule("ました", "ます", "polite past", 0, MASU));
+        rules.add(new Rule("ません", "ます", "polite negative", 0, MASU));
+        rules.add(new Rule("ませんでした", "ます", "polite past negative", 0, MASU));
+        rules.add(new Rule("ましょう", "ます", "polite volitional", 0, MASU));
+        // Past, te-form and forms built on them
+        taForm(rules, "past", "", 0);
+        taForm(rules, "-tara", "ら", 0);
+        taForm(rules, "-tari", "り", 0);
+        teForm(rules, "-te", IRU);
+        rules.add(new Rule("かった", "い", "past", 0, ADJ_I));
+        rules.add(new Rule("かったら", "い", "-tara", 0, ADJ_I));
+        rules.add(new Rule("くて", "い", "-te", 0, ADJ_I));
+        for (String progressive : new String[]{"いる", "る"}) {
+            rules.add(new Rule("て" + progressive, "て", "progressive or perfect", V1, IRU));
+            rules.add(new Rule("で" + progressive, "で", "progressive or perfect", V1, IRU));
+        }
+        // Negative
+        rules.add(new Rule("ない", "る", "negative", ADJ_I, V1));
+        godan(rules, "negative", ADJ_I, A, "ない");
+        rules.add(new Rule("しない", "する", "negative", ADJ_I, VS));
+        rules.add(new Rule("こない", "くる", "negative", ADJ_I, VK));
+        rules.add(new Rule("くない", "い", "negative", ADJ_I, ADJ_I));
+        rules.add(new Rule("ず", "る", "-zu", 0, V1));
+        godan(rules, "-zu", 0, A, "ず");
+        rules.add(new Rule("せず", "する", "-zu", 0, VS));
+        rules.add(new Rule("こず", "くる", "-zu", 0, VK));
+        // Desire
+        verb(rules, "-tai", ADJ_I, "たい");
+        // Conditional
+        rules.add(new Rule("れば", "る", "-ba", 0, V1));
+        godan(rules, "-ba", 0, E, "ば");
+        rules.add(new Rule("すれば", "する", "-ba", 0, VS));
+        rules.add(new Rule("くれば", "くる", "-ba", 0, VK));
+        rules.add(new Rule("ければ", "い", "-ba", 0, ADJ_I));
+        // Volitional and imperative
+        rules.add(new Rule("よう", "る", "volitional", 0, V1));
+        godan(rules, "volitional", 0, O, "う");
+        rules.add(new Rule("しよう", "する", "volitional", 0, VS));
+        rules.add(new Rule("こよう", "くる", "volitional", 0, VK));
+        rules.add(new Rule("ろ", "る", "imperative", 0, V1));
+        rules.add(new Rule("よ", "る", "imperative", 0, V1));
+        godan(rules, "imperative", 0, E, "");
+        rules.add(new Rule("しろ", "する", "imperative", 0, VS));
+        rules.add(new Rule("せよ", "する", "imperative", 0, VS));
+        rules.add(new Rule("こい", "くる", "imperative", 0, VK));
+        // Passive, potential and causative, which conjugate as ichidan verbs themselves
+        rules.add(new Rule("られる", "る", "passive", V1, V1));
+        godan(rules, "passive", V1, A, "れる");
+        rules.add(new Rule("される", "する", "passive", V1, VS));
+        rules.add(new Rule("こられる", "くる", "passive", V1, VK));
+        godan(rules, "potential", V1, E, "る");
+        rules.add(new Rule("させる", "る", "causative", V1, V1));
+        godan(rules, "causative", V1, A, "せる");
+        rules.add(new Rule("させる", "する", "causative", V1, VS));
+        rules.add(new Rule("こさせる", "くる", "causative", V1, VK));
+        // Adjective stems
+        rules.add(new Rule("く", "い", "adv", 0, ADJ_I));
+        rules.add(new Rule("さ", "い", "noun", 0, ADJ_I));
+
+        final Map<Character, List<Rule>> byLastChar = new TreeMap<>();
+        final TreeSet<Character> firstChars = new TreeSet<>();
+        int maxLength = 0;
+        for (Rule rule : rules) {
+            byLastChar.computeIfAbsent(rule.inflected.charAt(rule.inflected.length() - 1), c -> new ArrayList<>()).add(rule);
+            firstChars.add(rule.inflected.charAt(0));
+            maxLength = Math.max(maxLength, rule.inflected.length());
+        }
+        FIRST_CHARS = new char[firstChars.size()];
+        int j = 0;
+        for (char c : firstChars) {
+            FIRST_CHARS[j++] = c;
+        }
+        LAST_CHARS = new char[byLastChar.size()];
+        RULES = new Rule[byLastChar.size()][];
+        int i = 0;
+        for (Map.Entry<Character, List<Rule>> entry : byLastChar.entrySet()) {
+            LAST_CHARS[i] = entry.getKey();
+            RULES[i++] = entry.getValue().toArray(new Rule[0]);
+        }
+        MAX_INFLECTED_LENGTH = maxLength;
+    }
+
+    /**
+     * @return the rules whose inflected ending ends with the character.
+     */
+    static Rule[] rulesEndingWith(char c) {
+        final int index = Arrays.binarySearch(LAST_CHARS, c);
+        return index >= 0 ? RULES[index] : null;
+    }
+
+    /**
+     * A form can only be rewritten down to a stem shorter than its first character, e.g. 「したい」 to
+     * 「する」, if an inflected ending starts with that character.
+     *
+     * @return true if the inflected ending of any rule starts with the character.
+     */
+    static boolean isEndingStart(char c) {
+        return Arrays.binarySearch(FIRST_CHARS, c) >= 0;
+    }
+
+    /**
+     * @return the length of the longest inflected ending of any rule.
+     */
+    static int maxInflectedLength() {
+        return MAX_INFLECTED_LENGTH;
+    }
+
+    /**
+     * Convert the rule identifiers of a term to a word class mask.
+     *
+     * @param rules The rule identifiers, e.g. {@code v5} or {@code adj-i}.
+     * @return the word classes of the term.
+     */
+    static int mask(List<String> rules) {
+        int mask = 0;
+        if (rules == null) {
+            return mask;
+        }
+        for (String rule : rules) {
+            if (rule.equals("v1")) {
+                mask |= V1;
+            } else if (rule.startsWith("v5")) {
+                mask |= V5;
+            } else if (rule.startsWith("vs")) {
+                mask |= VS;
+            } else if (rule.equals("vk")) {
+                mask |= VK;
+            } else if (rule.equals("vz")) {
+                mask |= VZ;
+            } else if (rule.equals("adj-i")) {
+                mask |= ADJ_I;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Add the rules of an ending that attaches to the i-stem of every verb class, e.g. 「ます」 and 「たい」.
+     */
+    private static void verb(List<Rule> rules, String reason, int rulesIn, String ending) {
+        rules.add(new Rule(ending, "る", reason, rulesIn, V1));
+        godan(rules, reason, rulesIn, I, ending);
+        rules.add(new Rule("し" + ending, "する", reason, rulesIn, VS));
+        rules.add(new Rule("き" + ending, "くる", reason, rulesIn, VK));
+    }
+
+    private static void godan(List<Rule> rules, String reason, int rulesIn, int stem, String ending) {
+        for (String[] row : GODAN) {
+            rules.add(new Rule(row[stem] + ending, row[0], reason, rulesIn, V5));
+        }
+    }
+
+    private static void taForm(List<Rule> rules, String reason, String ending, int rulesIn) {
+        rules.add(new Rule("た" + ending, "る", reason, rulesIn, V1));
+        for (String[] row : GODAN) {
+            rules.add(new Rule(row[TA] + ending, row[0], reason, rulesIn, V5));
+        }
+        rules.add(new Rule("した" + ending, "する", reason, rulesIn, VS));
+        rules.add(new Rule("きた" + ending, "くる", reason, rulesIn, VK));
+        rules.add(new Rule("いった" + ending, "いく", reason, rulesIn, V5));
+        rules.add(new Rule("行った" + ending, "行く", reason, rulesIn, V5));
+    }
+
+    private static void teForm(List<Rule> rules, String reason, int rulesIn) {
+        rules.add(new Rule("て", "る", reason, rulesIn, V1));
+        for (String[] row : GODAN) {
+            rules.add(new Rule(row[TE], row[0], reason, rulesIn, V5));
+        }
+        rules.add(new Rule("して", "する", reason, rulesIn, VS));
+        rules.add(new Rule("きて", "くる", reason, rulesIn, VK));
+        rules.add(new Rule("いって", "いく", reason, rulesIn, V5));
+        rules.add(new Rule("行って", "行く", reason, rulesIn, V5));
+    }
+
+    /**
+     * Replaces the {@code inflected} ending of a form of class {@code rulesIn} with the
+     * {@code deinflected} ending, giving a form of class {@code rulesOut}.
+     */
+    static final class Rule {
+        final String inflected;
+        final String deinflected;
+        final String reason;
+        final int rulesIn;
+        final int rulesOut;
+
+        Rule(String inflected, String deinflected, String reason, int rulesIn, int rulesOut) {
+            this.inflected = inflected;
+            this.deinflected = deinflected;
+            this.reason = reason;
+            this.rulesIn = rulesIn;
+            this.rulesOut = rulesOut;
+        }
+    }
+}
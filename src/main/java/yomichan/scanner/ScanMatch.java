@@ -0,0 +1,39 @@
+package yomichan.scanner;
+
+import lombok.Value;
+import yomichan.model.v3.Term;
+
+import java.util.List;
+
+/**
+ * A dictionary term found at a position of the scanned text.
+ */
+@Value
+public class ScanMatch {
+
+    /**
+     * The matched term.
+     */
+    Term term;
+
+    /**
+     * Title of the dictionary the term is from.
+     */
+    String dictionary;
+
+    /**
+     * Number of characters of the scanned text that the match covers, including its inflection.
+     */
+    int length;
+
+    /**
+     * The inflections that were removed to find the term, from the dictionary form outwards,
+     * e.g. {@code [causative, negative, past]}. Empty if the term was found as written.
+     */
+    List<String> reasons;
+
+    /**
+     * The frequency value of the term in the first frequency dictionary that has it, or null.
+     */
+    Integer frequency;
+}
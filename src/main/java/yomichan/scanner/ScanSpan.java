@@ -0,0 +1,28 @@
+package yomichan.scanner;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * The dictionary matches starting at a position of the scanned text.
+ */
+@Value
+public class ScanSpan {
+
+    /**
+     * Index of the first character of the matches in the text.
+     */
+    int start;
+
+    /**
+     * Index after the last character of the longest match.
+     */
+    int end;
+
+    /**
+     * The matches, best first: longer matches first, then by descending {@link yomichan.model.v3.Term#getScore()},
+     * then by ascending frequency rank.
+     */
+    List<ScanMatch> matches;
+}
@@ -0,0 +1,165 @@
+package yomichan.scanner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable character trie mapping keys to int values, stored in flat arrays.
+ *
+ * <p>Every node stores the range of its children in {@link #childChars}/{@link #childNodes}, sorted by
+ * character, and the range of its values in {@link #values}. Walking the trie is a binary search per
+ * character over a primitive array, and never allocates.</p>
+ */
+final class TermTrie {
+
+    static final int ROOT = 0;
+
+    private final int[] childStart;
+    private final int[] childCount;
+    private final char[] childChars;
+    private final int[] childNodes;
+    private final int[] valueStart;
+    private final int[] valueCount;
+    private final int[] values;
+
+    private TermTrie(Builder builder) {
+        final int nodes = builder.nodes;
+        this.childStart = Arrays.copyOf(builder.childStart, nodes);
+        this.childCount = Arrays.copyOf(builder.childCount, nodes);
+        this.valueStart = Arrays.copyOf(builder.valueStart, nodes);
+        this.valueCount = Arrays.copyOf(builder.valueCount, nodes);
+        this.childChars = Arrays.copyOf(builder.childChars, builder.children);
+        this.childNodes = Arrays.copyOf(builder.childNodes, builder.children);
+        this.values = Arrays.copyOf(builder.values, builder.valueSize);
+    }
+
+    /**
+     * @return the child of the node for the character, or -1 if there is none.
+     */
+    int child(int node, char c) {
+        int low = childStart[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final char m = childChars[middle];
+            if (m < c) {
+                low = middle + 1;
+            } else if (m > c) {
+                high = middle - 1;
+            } else {
+                return childNodes[middle];
+            }
+        }
+        return -1;
+    }
+
+    int valueStart(int node) {
+        return valueStart[node];
+    }
+
+    int valueCount(int node) {
+        return valueCount[node];
+    }
+
+    int value(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return childStart.length;
+    }
+
+    static final class Builder {
+        private final List<String> keys = new ArrayList<>();
+        private final List<Integer> keyValues = new ArrayList<>();
+
+        private int nodes;
+        private int[] childStart = new int[16];
+        private int[] childCount = new int[16];
+        private int[] valueStart = new int[16];
+        private int[] valueCount = new int[16];
+        private int children;
+        private char[] childChars = new char[16];
+        private int[] childNodes = new int[16];
+        private int valueSize;
+        private int[] values = new int[16];
+
+        void add(String key, int value) {
+            if (key != null && !key.isEmpty()) {
+                keys.add(key);
+                keyValues.add(value);
+            }
+        }
+
+        TermTrie build() {
+            final Integer[] order = new Integer[keys.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> keys.get(a).compareTo(keys.get(b)));
+            final String[] sortedKeys = new String[order.length];
+            final int[] sortedValues = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedKeys[i] = keys.get(order[i]);
+                sortedValues[i] = keyValues.get(order[i]);
+            }
+            build(createNode(), sortedKeys, sortedValues, 0, sortedKeys.length, 0);
+            return new TermTrie(this);
+        }
+
+        private void build(int node, String[] keys, int[] keyValues, int low, int high, int depth) {
+            // Keys ending at this node sort before every longer key with the same prefix
+            int i = low;
+            valueStart[node] = valueSize;
+            while (i < high && keys[i].length() == depth) {
+                addValue(keyValues[i++]);
+            }
+            valueCount[node] = valueSize - valueStart[node];
+
+            final List<int[]> groups = new ArrayList<>();
+            childStart[node] = children;
+            while (i < high) {
+                final char c = keys[i].charAt(depth);
+                final int groupStart = i;
+                while (i < high && keys[i].charAt(depth) == c) {
+                    i++;
+                }
+                final int child = createNode();
+                addChild(c, child);
+                groups.add(new int[]{child, groupStart, i});
+            }
+            childCount[node] = groups.size();
+            for (int[] group : groups) {
+                build(group[0], keys, keyValues, group[1], group[2], depth + 1);
+            }
+        }
+
+        private int createNode() {
+            if (nodes == childStart.length) {
+                final int capacity = nodes * 2;
+                childStart = Arrays.copyOf(childStart, capacity);
+                childCount = Arrays.copyOf(childCount, capacity);
+                valueStart = Arrays.copyOf(valueStart, capacity);
+                valueCount = Arrays.copyOf(valueCount, capacity);
+            }
+            return nodes++;
+        }
+
+        private void addChild(char c, int node) {
+            if (children == childChars.length) {
+                childChars = Arrays.copyOf(childChars, children * 2);
+                childNodes = Arrays.copyOf(childNodes, children * 2);
+            }
+            childChars[children] = c;
+            childNodes[children++] = node;
+        }
+
+        private void addValue(int value) {
+            if (valueSize == values.length) {
+                values = Arrays.copyOf(values, valueSize * 2);
+            }
+            values[valueSize++] = value;
+        }
+    }
+}
@@ -0,0 +1,500 @@
+package yomichan.scanner;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import yomichan.index.FrequencyTable;
+import yomichan.jfr.ScanEvent;
+import yomichan.model.YomichanDictionary;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.TermMetadata;
+import yomichan.model.v3.term.meta.Frequency;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Finds the dictionary terms at every position of a Japanese text, the way Yomichan does when
+ * hovering over a word.
+ *
+ * <p>The expressions and readings of every term are stored in a character trie. At each position
+ * of the text the trie is walked as far as the text allows, which yields every term that is a prefix
+ * of the text at that position in a single pass. Inflected words are found by rewriting the endings
+ * of the text with {@link Deinflector} rules, e.g. 「食べさせられなかった」 to 「食べる」, and continuing
+ * the walk from the trie node of the unchanged stem, only keeping terms whose
+ * {@link Term#getRules()} allow the inflection.</p>
+ *
+ * <p>The matches at a position are ordered longest first, then by {@link Term#getScore()} and then by
+ * frequency, using the {@link FrequencyTable} percentiles of the frequency term metadata of the
+ * scanned dictionaries, so that dictionaries on different scales can be combined. Positions the trie
+ * can't be walked from at all are skipped without any work. Rewritten endings are kept in reused
+ * buffers and the inflection reasons are only created once a rewritten form is found in the trie, so
+ * walking the trie and rewriting endings never allocate and only positions with matches produce garbage.</p>
+ *
+ * <p>A scanner is immutable and thread safe. Every thread scanning with it keeps its own buffers,
+ * which only grow with the number of matches at a single position, however many terms the scanner
+ * holds, and are released along with the scanner. Every scan emits a {@link ScanEvent} when JDK
+ * Flight Recorder is recording.</p>
+ *
+ * <pre>{@code
+ *     TextScanner scanner = new TextScanner(List.of(jmdict, frequencies));
+ *     for (ScanSpan span : scanner.scan("昨日は映画を見ませんでした")) {
+ *         ScanMatch best = span.getMatches().get(0);
+ *     }
+ * }</pre>
+ */
+@Slf4j
+public class TextScanner {
+
+    public static final int DEFAULT_MAX_LENGTH = 24;
+
+    private static final int MAX_DEINFLECTIONS = 8;
+
+    private final TermTrie trie;
+    private final Term[] terms;
+    private final String[] dictionaries;
+    private final int[] ruleMasks;
+    private final int[] scores;
+    private final float[] frequencyPercentiles;
+    private final Integer[] frequencies;
+
+    /**
+     * Maximum number of characters of a single match, including its inflection.
+     */
+    @Getter
+    private final int maxLength;
+
+    private final ThreadLocal<State> states;
+
+    public TextScanner(Collection<YomichanDictionary> dictionaries) {
+        this(dictionaries, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * Build a scanner over the terms of the dictionaries.
+     *
+     * @param dictionaries The dictionaries to scan for terms, and to take frequencies from.
+     * @param maxLength    Maximum number of characters of a single match, including its inflection.
+     */
+    public TextScanner(Collection<YomichanDictionary> dictionaries, int maxLength) {
+        if (maxLength < 1) {
+            throw new IllegalArgumentException("Maximum match length must be positive: " + maxLength);
+        }
+        final long start = System.nanoTime();
+        this.maxLength = maxLength;
+        final int count = dictionaries.stream().mapToInt(dictionary -> dictionary.getTerms().size()).sum();
+        this.terms = new Term[count];
+        this.dictionaries = new String[count];
+        this.ruleMasks = new int[count];
+        this.scores = new int[count];
+        this.frequencyPercentiles = new float[count];
+        this.frequencies = new Integer[count];
+
+        final FrequencyTable frequencyTable = new FrequencyTable(dictionaries);
+        final Map<String, Integer> frequencyIndex = frequencyIndex(dictionaries);
+        final TermTrie.Builder builder = new TermTrie.Builder();
+        int id = 0;
+        for (YomichanDictionary dictionary : dictionaries) {
+            final String title = dictionary.getIndex() != null ? dictionary.getIndex().getTitle() : null;
+            for (Term term : dictionary.getTerms()) {
+                terms[id] = term;
+                this.dictionaries[id] = title;
+                ruleMasks[id] = Deinflector.mask(term.getRules());
+                scores[id] = term.getScore() != null ? term.getScore() : 0;
+                // Terms without any frequency rank after every term with one
+                final float percentile = frequencyTable.getPercentile(term.getTerm(), term.getReading());
+                frequencyPercentiles[id] = Float.isNaN(percentile) ? -1 : percentile;
+                final Integer frequency = frequencyIndex.get(frequencyKey(term.getTerm(), term.getReading()));
+                frequencies[id] = frequency != null ? frequency : frequencyIndex.get(term.getTerm());
+
+                builder.add(term.getTerm(), id);
+                if (term.getReading() != null && !term.getReading().equals(term.getTerm())) {
+                    builder.add(term.getReading(), id);
+                }
+                id++;
+            }
+        }
+        this.trie = builder.build();
+        this.states = ThreadLocal.withInitial(() -> new State(maxLength));
+        log.debug("Built text scanner over {} terms with {} trie nodes in {}ms", count, trie.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Find the dictionary matches at every position of the text.
+     *
+     * @param text The text to scan.
+     * @return a span for every position with at least one match, in text order.
+     */
+    public List<ScanSpan> scan(CharSequence text) {
+        final List<ScanSpan> spans = new ArrayList<>();
+        scan(text, spans::add);
+        return spans;
+    }
+
+    /**
+     * Find the dictionary matches at every position of the text, passing them to the consumer as
+     * they're found instead of collecting them.
+     *
+     * @param text     The text to scan.
+     * @param consumer The consumer to receive a span for every position with at least one match, in text order.
+     */
+    public void scan(CharSequence text, Consumer<ScanSpan> consumer) {
+        final ScanEvent event = new ScanEvent();
+        event.begin();
+        final State state = states.get();
+        int spans = 0;
+        try {
+            for (int position = 0; position < text.length(); position++) {
+                final ScanSpan span = scanAt(text, position, state);
+                if (span != null) {
+                    spans++;
+                    consumer.accept(span);
+                }
+            }
+        } finally {
+            state.text = null;
+        }
+        commit(event, 0, text.length(), spans);
+    }
+
+    /**
+     * Find the dictionary matches starting at a single position of the text, e.g. the character
+     * under the cursor.
+     *
+     * @param text     The text to scan.
+     * @param position The index of the character to start matching at.
+     * @return the matches at the position, or null if there are none.
+     */
+    public ScanSpan scanAt(CharSequence text, int position) {
+        if (position < 0 || position >= text.length()) {
+            throw new IndexOutOfBoundsException("Position " + position + " is out of bounds for text of length " + text.length());
+        }
+        final ScanEvent event = new ScanEvent();
+        event.begin();
+        final State state = states.get();
+        final ScanSpan span;
+        try {
+            span = scanAt(text, position, state);
+        } finally {
+            state.text = null;
+        }
+        commit(event, position, 1, span != null ? 1 : 0);
+        return span;
+    }
+
+    /**
+     * @return the number of terms in the scanner.
+     */
+    public int size() {
+        return terms.length;
+    }
+
+    private static void commit(ScanEvent event, int start, int positions, int spans) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setStart(start);
+            event.setPositions(positions);
+            event.setSpans(spans);
+            event.commit();
+        }
+    }
+
+    private ScanSpan scanAt(CharSequence text, int start, State state) {
+        state.begin(text, start);
+        final int[] path = state.path;
+        final int limit = Math.min(text.length() - start, maxLength);
+        int depth = 0;
+        while (depth < limit) {
+            final int child = trie.child(path[depth], text.charAt(start + depth));
+            if (child < 0) {
+                break;
+            }
+            path[++depth] = child;
+        }
+        if (depth == 0 && !Deinflector.isEndingStart(text.charAt(start))) {
+            return null;
+        }
+        state.depth = depth;
+
+        // Every inflected form keeps a stem of at most depth characters, so longer candidates can't match
+        final int longest = Math.min(limit, depth + Deinflector.maxInflectedLength() * 2);
+        for (int length = longest; length > 0; length--) {
+            if (length <= depth) {
+                collect(state, path[length], length, 0, 0);
+            }
+            deinflect(state, length, length, 0, 0);
+        }
+        return state.matches == 0 ? null : toSpan(state, start);
+    }
+
+    /**
+     * Apply every rule matching the end of the candidate form, which is the first {@code stem}
+     * characters of the text at the current position followed by the suffix of the level, and look up
+     * the results. The rewritten suffix is written to the buffer of the next level.
+     */
+    private void deinflect(State state, int length, int stem, int rules, int level) {
+        final char[] suffix = state.suffixes[level];
+        final int suffixLength = state.suffixLengths[level];
+        if (stem + suffixLength == 0) {
+            return;
+        }
+        final char last = suffixLength == 0 ? state.text.charAt(state.start + stem - 1) : suffix[suffixLength - 1];
+        final Deinflector.Rule[] candidates = Deinflector.rulesEndingWith(last);
+        if (candidates == null) {
+            return;
+        }
+        final int next = level + 1;
+        for (Deinflector.Rule rule : candidates) {
+            if ((rules != 0 && (rules & rule.rulesIn) == 0) || !endsWith(state, stem, level, rule.inflected)) {
+                continue;
+            }
+            final int removed = rule.inflected.length();
+            final int newStem = removed <= suffixLength ? stem : stem - (removed - suffixLength);
+            state.rewrite(next, suffix, Math.max(suffixLength - removed, 0), rule);
+            lookup(state, length, newStem, rule.rulesOut, next);
+            if (next < MAX_DEINFLECTIONS) {
+                deinflect(state, length, newStem, rule.rulesOut, next);
+            }
+        }
+    }
+
+    private static boolean endsWith(State state, int stem, int level, String ending) {
+        final char[] suffix = state.suffixes[level];
+        final int suffixLength = state.suffixLengths[level];
+        final int length = ending.length();
+        if (length > stem + suffixLength) {
+            return false;
+        }
+        for (int k = 1; k <= length; k++) {
+            final char c = k <= suffixLength
+                ? suffix[suffixLength - k]
+                : state.text.charAt(state.start + stem - (k - suffixLength));
+            if (c != ending.charAt(length - k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void lookup(State state, int length, int stem, int rules, int level) {
+        if (stem > state.depth) {
+            return;
+        }
+        final char[] suffix = state.suffixes[level];
+        final int suffixLength = state.suffixLengths[level];
+        int node = state.path[stem];
+        for (int i = 0; i < suffixLength && node >= 0; i++) {
+            node = trie.child(node, suffix[i]);
+        }
+        if (node >= 0) {
+            collect(state, node, length, rules, level);
+        }
+    }
+
+    /**
+     * Add the terms at the trie node, for a candidate form made by applying {@code inflections} rules.
+     */
+    private void collect(State state, int node, int length, int rules, int inflections) {
+        final int end = trie.valueStart(node) + trie.valueCount(node);
+        for (int i = trie.valueStart(node); i < end; i++) {
+            final int id = trie.value(i);
+            if (rules != 0 && (ruleMasks[id] & rules) == 0) {
+                continue;
+            }
+            state.add(id, length, inflections);
+        }
+    }
+
+    private ScanSpan toSpan(State state, int start) {
+        final Integer[] order = new Integer[state.matches];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            final int ia = state.ids[a];
+            final int ib = state.ids[b];
+            if (state.lengths[a] != state.lengths[b]) {
+                return Integer.compare(state.lengths[b], state.lengths[a]);
+            }
+            if (scores[ia] != scores[ib]) {
+                return Integer.compare(scores[ib], scores[ia]);
+            }
+            if (frequencyPercentiles[ia] != frequencyPercentiles[ib]) {
+                return Float.compare(frequencyPercentiles[ib], frequencyPercentiles[ia]);
+            }
+            return Integer.compare(ia, ib);
+        });
+        final List<ScanMatch> matches = new ArrayList<>(order.length);
+        int end = start;
+        for (int i : order) {
+            final int id = state.ids[i];
+            final int length = state.lengths[i];
+            matches.add(new ScanMatch(terms[id], dictionaries[id], length, Reason.toList(state.reasons[i]), frequencies[id]));
+            end = Math.max(end, start + length);
+        }
+        return new ScanSpan(start, end, Collections.unmodifiableList(matches));
+    }
+
+    private static Map<String, Integer> frequencyIndex(Collection<YomichanDictionary> dictionaries) {
+        final Map<String, Integer> index = new HashMap<>();
+        for (YomichanDictionary dictionary : dictionaries) {
+            for (TermMetadata meta : dictionary.getTermMetadata()) {
+                final Frequency frequency = meta.getFrequency();
+                if (meta.getType() != TermMetadata.Type.FREQUENCY || frequency == null || frequency.getValue() == null) {
+                    continue;
+                }
+                index.putIfAbsent(frequency.getReading() != null ? frequencyKey(meta.getText(), frequency.getReading()) : meta.getText(), frequency.getValue());
+            }
+        }
+        return index;
+    }
+
+    private static String frequencyKey(String term, String reading) {
+        return term + '\u0000' + reading;
+    }
+
+    /**
+     * An inflection removed from a candidate, linked to the inflections removed before it.
+     */
+    private record Reason(String name, Reason previous) {
+
+        static List<String> toList(Reason reason) {
+            if (reason == null) {
+                return List.of();
+            }
+            final List<String> reasons = new ArrayList<>();
+            for (Reason r = reason; r != null; r = r.previous) {
+                reasons.add(r.name);
+            }
+            return Collections.unmodifiableList(reasons);
+        }
+    }
+
+    /**
+     * Buffers reused by every scan on a thread.
+     *
+     * <p>The terms matched at the current position are tracked in a small open addressing set, which
+     * is cleared in constant time by stamping its slots with the generation of the position. It's
+     * kept at most half full, so it's sized by the most matches found at a single position and not
+     * by the number of terms, which would take 4 MB per thread for a million terms.</p>
+     */
+    private static final class State {
+        private static final int INITIAL_CAPACITY = 32;
+
+        private final int[] path;
+        private int[] seen = new int[INITIAL_CAPACITY];
+        private int[] stamps = new int[INITIAL_CAPACITY];
+        private int generation;
+        private CharSequence text;
+        private int start;
+        private int depth;
+        private int matches;
+        private int[] ids = new int[16];
+        private int[] lengths = new int[16];
+        private Reason[] reasons = new Reason[16];
+        private final char[][] suffixes = new char[MAX_DEINFLECTIONS + 1][16];
+        private final int[] suffixLengths = new int[MAX_DEINFLECTIONS + 1];
+        private final Deinflector.Rule[] applied = new Deinflector.Rule[MAX_DEINFLECTIONS];
+        private Reason reason;
+
+        private State(int maxLength) {
+            this.path = new int[maxLength + 1];
+        }
+
+        private void begin(CharSequence text, int start) {
+            this.text = text;
+            this.start = start;
+            this.depth = 0;
+            this.matches = 0;
+            if (++generation == 0) {
+                Arrays.fill(stamps, 0);
+                generation = 1;
+            }
+        }
+
+        /**
+         * Write the suffix of the level made by applying the rule to the first {@code kept}
+         * characters of the previous suffix.
+         */
+        private void rewrite(int level, char[] previous, int kept, Deinflector.Rule rule) {
+            final String deinflected = rule.deinflected;
+            final int length = kept + deinflected.length();
+            if (suffixes[level].length < length) {
+                suffixes[level] = new char[Math.max(length, suffixes[level].length * 2)];
+            }
+            System.arraycopy(previous, 0, suffixes[level], 0, kept);
+            deinflected.getChars(0, deinflected.length(), suffixes[level], kept);
+            suffixLengths[level] = length;
+            applied[level - 1] = rule;
+            reason = null;
+        }
+
+        /**
+         * @return the reasons of the rules applied to the current candidate, created on first use.
+         */
+        private Reason reason(int inflections) {
+            if (inflections == 0) {
+                return null;
+            }
+            if (reason == null) {
+                for (int i = 0; i < inflections; i++) {
+                    reason = new Reason(applied[i].reason, reason);
+                }
+            }
+            return reason;
+        }
+
+        /**
+         * Add the term unless it was already matched at this position, which is always by a longer
+         * or equally long candidate.
+         */
+        private void add(int id, int length, int inflections) {
+            if (matches * 2 >= seen.length) {
+                resize();
+            }
+            final int slot = slot(id);
+            if (stamps[slot] == generation) {
+                return;
+            }
+            seen[slot] = id;
+            stamps[slot] = generation;
+            if (matches == ids.length) {
+                ids = Arrays.copyOf(ids, matches * 2);
+                lengths = Arrays.copyOf(lengths, matches * 2);
+                reasons = Arrays.copyOf(reasons, matches * 2);
+            }
+            ids[matches] = id;
+            lengths[matches] = length;
+            reasons[matches++] = reason(inflections);
+        }
+
+        /**
+         * @return the slot holding the term at this position, or the free slot it would be stored in.
+         */
+        private int slot(int id) {
+            final int mask = seen.length - 1;
+            final int hash = id * 0x9e3779b9;
+            int slot = (hash ^ hash >>> 16) & mask;
+            while (stamps[slot] == generation && seen[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize() {
+            seen = new int[seen.length * 2];
+            stamps = new int[seen.length];
+            for (int i = 0; i < matches; i++) {
+                final int slot = slot(ids[i]);
+                seen[slot] = ids[i];
+                stamps[slot] = generation;
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package yomichan.server;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import yomichan.YomichanParser;
+import yomichan.exception.YomichanException;
+import yomichan.index.IndexEntry;
+import yomichan.index.LookupIndex;
+import yomichan.index.LookupType;
+import yomichan.model.v3.Kanji;
+import yomichan.model.v3.KanjiMetadata;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.TermMetadata;
+import yomichan.writer.YomichanJsonWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded HTTP server answering lookups from a {@link LookupIndex}, built on the JDK's
+ * {@code com.sun.net.httpserver}, so it doesn't need any dependency.
+ *
+ * <p>Every lookup type is served at its own path and takes the text to look up as the {@code q}
+ * query parameter, e.g. {@code GET /terms?q=日本語}, {@code /kanji}, {@code /frequencies},
+ * {@code /kanji-frequencies} and {@code /pitches}. The response is a JSON array of
+ * {@code {"dictionary": title, "entry": row}} objects, where the row is written in the same format
+ * as in the dictionary's bank files. Responses are written with a streaming {@link JsonGenerator}
+ * into a buffer and sent with a fixed content length.</p>
+ *
+ * <p>The server records the latency of every lookup in a {@link LatencyHistogram} per lookup type,
+ * which are served at {@code GET /stats} and can be reset with {@code POST /stats/reset}, e.g.
+ * between the warmup and the measurement of a load test. Requests are handled on virtual threads
+ * when the JVM supports them (Java 21 and later), and on a cached thread pool otherwise.</p>
+ *
+ * <pre>{@code
+ *     LookupIndex index = new LookupIndex();
+ *     index.add(parser.parseDictionary("/path/to/jmdict.zip"));
+ *     try (YomichanLookupServer server = new YomichanLookupServer(index, 8080)) {
+ *         server.start();
+ *         ...
+ *     }
+ * }</pre>
+ */
+@Slf4j
+public class YomichanLookupServer implements Closeable {
+
+    private static final JsonFactory FACTORY = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private static final String QUERY = "q=";
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+    private final LookupIndex index;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<LookupType, LatencyHistogram> histograms = new EnumMap<>(LookupType.class);
+
+    /**
+     * Create a server listening on the port of the loopback address.
+     *
+     * @param index The index to answer lookups from.
+     * @param port  The port to listen on, or 0 for any free port.
+     */
+    public YomichanLookupServer(LookupIndex index, int port) {
+        this(index, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    public YomichanLookupServer(LookupIndex index, InetSocketAddress address) {
+        this.index = index;
+        this.executor = newExecutor();
+        try {
+            this.server = HttpServer.create(address, 0);
+        } catch (IOException e) {
+            executor.shutdown();
+            throw new YomichanException("Failed to create lookup server at " + address, e);
+        }
+        server.setExecutor(executor);
+        for (LookupType type : LookupType.values()) {
+            histograms.put(type, new LatencyHistogram());
+            server.createContext("/" + type.getValue(), exchange -> lookup(exchange, type));
+        }
+        server.createContext("/stats", this::stats);
+    }
+
+    public void start() {
+        server.start();
+        log.info("Started Yomichan lookup server on port {} with {} dictionaries", getPort(), index.getDictionaries().size());
+    }
+
+    /**
+     * @return the port the server is listening on.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @param type The kind of lookup.
+     * @return the latencies of the lookups of the given type.
+     */
+    public LatencyHistogram getHistogram(LookupType type) {
+        return histograms.get(type);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    private void lookup(HttpExchange exchange, LookupType type) throws IOException {
+        final long start = System.nanoTime();
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            final String key = query(exchange.getRequestURI().getRawQuery());
+            if (key == null || key.isEmpty()) {
+                send(exchange, 400, error("Missing query parameter q"));
+                return;
+            }
+            final ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+            try (JsonGenerator generator = FACTORY.createGenerator(body, JsonEncoding.UTF8)) {
+                generator.writeStartArray();
+                for (IndexEntry<?> entry : index.find(type, key)) {
+                    generator.writeStartObject();
+                    generator.writeStringField("dictionary", entry.getDictionary());
+                    generator.writeFieldName("entry");
+                    writeEntry(generator, type, entry.getValue());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+            }
+            send(exchange, 200, body);
+        } finally {
+            histograms.get(type).record(System.nanoTime() - start);
+        }
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            final String path = exchange.getRequestURI().getPath();
+            if (path.equals("/stats/reset") && "POST".equals(exchange.getRequestMethod())) {
+                histograms.values().forEach(LatencyHistogram::reset);
+                exchange.sendResponseHeaders(204, -1);
+                return;
+            }
+            if (!path.equals("/stats") || !"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+            try (JsonGenerator generator = FACTORY.createGenerator(body, JsonEncoding.UTF8)) {
+                generator.writeStartObject();
+                for (Map.Entry<LookupType, LatencyHistogram> entry : histograms.entrySet()) {
+                    final LatencyHistogram histogram = entry.getValue();
+                    generator.writeObjectFieldStart(entry.getKey().getValue());
+                    generator.writeNumberField("count", histogram.getCount());
+                    generator.writeNumberField("meanMicros", histogram.getMean() / 1000);
+                    for (int i = 0; i < PERCENTILES.length; i++) {
+                        generator.writeNumberField(PERCENTILE_NAMES[i] + "Micros", histogram.getPercentile(PERCENTILES[i]) / 1000.0);
+                    }
+                    generator.writeNumberField("maxMicros", histogram.getMax() / 1000.0);
+                    generator.writeEndObject();
+                }
+                generator.writeEndObject();
+            }
+            send(exchange, 200, body);
+        }
+    }
+
+    private static void writeEntry(JsonGenerator generator, LookupType type, Object value) throws IOException {
+        switch (type) {
+            case TERM -> YomichanJsonWriter.writeTerm(generator, (Term) value);
+            case KANJI -> YomichanJsonWriter.writeKanji(generator, (Kanji) value);
+            case KANJI_FREQUENCY -> YomichanJsonWriter.writeKanjiMetadata(generator, (KanjiMetadata) value);
+            case FREQUENCY, PITCH -> YomichanJsonWriter.writeTermMetadata(generator, (TermMetadata) value);
+        }
+    }
+
+    private static ByteArrayOutputStream error(String message) throws IOException {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (JsonGenerator generator = FACTORY.createGenerator(body, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("error", message);
+            generator.writeEndObject();
+        }
+        return body;
+    }
+
+    private static void send(HttpExchange exchange, int status, ByteArrayOutputStream body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            body.writeTo(out);
+        }
+    }
+
+    private static String query(String query) {
+        if (query == null) {
+            return null;
+        }
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith(QUERY)) {
+                return URLDecoder.decode(parameter.substring(QUERY.length()), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static ExecutorService newExecutor() {
+        try {
+            // Executors.newVirtualThreadPerTaskExecutor() is only available from Java 21
+            return (ExecutorService) MethodHandles.publicLookup()
+                .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                .invoke();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            log.debug("Virtual threads aren't available, handling lookups on a cached thread pool");
+            return Executors.newCachedThreadPool();
+        } catch (Throwable e) {
+            throw new YomichanException("Failed to create virtual thread executor.", e);
+        }
+    }
+
+    /**
+     * Run a lookup server for the dictionaries on the port of the loopback address until the process
+     * is stopped.
+     *
+     * <p>Usage: {@code YomichanLookupServer <port> <dictionary.zip>...}</p>
+     *
+     * @param args The port followed by the dictionary files.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            log.error("Usage: YomichanLookupServer <port> <dictionary.zip>...");
+            System.exit(1);
+        }
+        final long start = System.nanoTime();
+        final YomichanParser parser = new YomichanParser();
+        final LookupIndex index = new LookupIndex();
+        for (String path : List.of(args).subList(1, args.length)) {
+            index.add(parser.parseDictionary(path));
+        }
+        log.info("Loaded {} dictionaries in {}ms", index.getDictionaries().size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        final YomichanLookupServer server = new YomichanLookupServer(index, Integer.parseInt(args[0]));
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+    }
+}
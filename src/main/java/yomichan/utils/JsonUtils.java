@@ -1,9 +1,13 @@
 package yomichan.utils;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.NoArgsConstructor;
 import yomichan.exception.YomichanException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -14,8 +18,18 @@ import java.util.Map;
 @NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
 public class JsonUtils {
 
+    /**
+     * Create a parser for the stream that leaves the stream open when it's closed, so that e.g. the
+     * next entry of a zip stream can still be read.
+     */
+    public static JsonParser createParser(ObjectMapper mapper, InputStream in) throws IOException {
+        final JsonParser parser = mapper.getFactory().createParser(in);
+        parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        return parser;
+    }
+
     public static String getText(JsonNode node) {
-        return node != null ? node.asText() : null;
+        return node != null && !node.isNull() ? node.asText() : null;
     }
 
     public static String getText(JsonNode node, String fieldName) {
@@ -23,7 +37,7 @@ public class JsonUtils {
     }
 
     public static String getText(JsonNode node, String fieldName, String defaultValue) {
-        if (node == null || !node.has(fieldName)) {
+        if (node == null || !node.has(fieldName) || node.get(fieldName).isNull()) {
             return defaultValue;
         }
         final String value = node.get(fieldName).asText();
@@ -61,7 +75,7 @@ public class JsonUtils {
     }
 
     public static Integer getInt(JsonNode node) {
-        return node != null && node.asText() != null ? node.asInt() : null;
+        return node != null && !node.isNull() && node.asText() != null ? node.asInt() : null;
     }
 
     public static Integer getInt(JsonNode node, String fieldName) {
@@ -75,7 +89,7 @@ public class JsonUtils {
         final JsonNode field = node.get(fieldName);
         // Can't use ternary operator because it attempts to
         // unbox the default value throwing an NPE when it's null.
-        if (field.asText() == null) {
+        if (field.isNull() || field.asText() == null) {
             return defaultValue;
         }
         return field.asInt();
@@ -120,7 +134,7 @@ public class JsonUtils {
     }
 
     public static List<String> parseSpaceSeparatedText(JsonNode node) {
-        if (node == null) {
+        if (node == null || node.isNull()) {
             return null;
         }
         if (!node.isTextual()) {
@@ -0,0 +1,635 @@
+package yomichan.validator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import yomichan.model.Index;
+import yomichan.model.v3.TermMetadata;
+import yomichan.model.v3.term.Appearance;
+import yomichan.model.v3.term.ContentType;
+import yomichan.model.v3.term.FontStyle;
+import yomichan.model.v3.term.FontWeight;
+import yomichan.model.v3.term.HtmlTag;
+import yomichan.model.v3.term.ImageRendering;
+import yomichan.model.v3.term.SizeUnits;
+import yomichan.model.v3.term.TextAlign;
+import yomichan.model.v3.term.TextDecorationLine;
+import yomichan.model.v3.term.VerticalAlign;
+import yomichan.parser.YomichanParserType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Validates a single bank file by streaming its tokens, without building a tree or any model objects.
+ *
+ * <p>The checks mirror what the bank parsers enforce: the number and type of the items in every
+ * row, the content and tag types of structured content, and the allowed values of the enums.
+ * Like the parsers, JSON {@code null} is accepted for any optional or nullable value and read as
+ * missing, and the content of a structured content node may be left out.</p>
+ */
+class BankValidator {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private static final Set<String> CONTENT_TYPES = values(ContentType.values(), ContentType::getValue);
+    private static final Set<String> HTML_TAGS = values(HtmlTag.values(), HtmlTag::getValue);
+    private static final Set<String> EMPTY_TAGS = Set.of(HtmlTag.BR.getValue(), HtmlTag.IMG.getValue());
+    private static final Set<String> FONT_STYLES = values(FontStyle.values(), FontStyle::getValue);
+    private static final Set<String> FONT_WEIGHTS = values(FontWeight.values(), FontWeight::getValue);
+    private static final Set<String> TEXT_ALIGNS = values(TextAlign.values(), TextAlign::getValue);
+    private static final Set<String> TEXT_DECORATION_LINES = values(TextDecorationLine.values(), TextDecorationLine::getValue);
+    private static final Set<String> VERTICAL_ALIGNS = values(VerticalAlign.values(), VerticalAlign::getValue);
+    private static final Set<String> SIZE_UNITS = values(SizeUnits.values(), SizeUnits::getValue);
+    private static final Set<String> IMAGE_RENDERINGS = values(ImageRendering.values(), ImageRendering::getValue);
+    private static final Set<String> APPEARANCES = values(Appearance.values(), Appearance::getValue);
+    private static final Set<String> METADATA_TYPES = values(TermMetadata.Type.values(), TermMetadata.Type::getValue);
+    private static final Set<String> FREQUENCY_MODES = values(Index.FrequencyMode.values(), Index.FrequencyMode::getValue);
+
+    private final String name;
+    private final int maxErrors;
+    private final List<ValidationError> errors = new ArrayList<>();
+    private JsonParser parser;
+    private int row = -1;
+
+    /**
+     * Errors found in a part of the row whose validity depends on a later field, e.g. the
+     * content of a structured content node that appears before its tag. Null when errors
+     * are reported directly. Holds at most one more error than the limit, which is enough to
+     * stop the validation once they're reported.
+     */
+    private List<String> deferred;
+
+    BankValidator(String name, int maxErrors) {
+        this.name = name;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Validate the bank file.
+     *
+     * @param type The type of the bank.
+     * @param in   The contents of the bank file.
+     * @return the problems found in the bank.
+     */
+    List<ValidationError> validate(YomichanParserType type, InputStream in) {
+        try (JsonParser json = FACTORY.createParser(in)) {
+            this.parser = json;
+            if (type == YomichanParserType.INDEX) {
+                validateIndex();
+            } else {
+                validateBank(type);
+            }
+        } catch (TooManyErrorsException e) {
+            errors.add(new ValidationError(name, -1, "Stopped validating after " + maxErrors + " errors."));
+        } catch (JsonProcessingException e) {
+            final String location = e.getLocation() != null ? " at line " + e.getLocation().getLineNr() + ", column " + e.getLocation().getColumnNr() : "";
+            errors.add(new ValidationError(name, row, "Malformed JSON" + location + ": " + e.getOriginalMessage()));
+        } catch (IOException e) {
+            errors.add(new ValidationError(name, row, "Couldn't read file: " + e.getMessage()));
+        }
+        return errors;
+    }
+
+    private void validateIndex() throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            error("Index should be an object.");
+            return;
+        }
+        boolean title = false;
+        boolean revision = false;
+        boolean format = false;
+        while (nextField()) {
+            final String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "title" -> title = expectString("Title");
+                case "revision" -> revision = expectString("Revision");
+                case "format", "version" -> format |= expectNumber("Format");
+                case "sequenced" -> expectBoolean("Sequenced");
+                case "frequencyMode" -> expectEnum(FREQUENCY_MODES, "frequency mode");
+                default -> parser.skipChildren();
+            }
+        }
+        if (!title) {
+            error("Index is missing its title.");
+        }
+        if (!revision) {
+            error("Index is missing its revision.");
+        }
+        if (!format) {
+            error("Index is missing its format.");
+        }
+    }
+
+    private void validateBank(YomichanParserType type) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            error("Bank should be an array.");
+            return;
+        }
+        row = 0;
+        while (nextItem()) {
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                error("Row should be an array.");
+                parser.skipChildren();
+            } else {
+                switch (type) {
+                    case TERM -> validateTerm();
+                    case TERM_METADATA -> validateTermMetadata();
+                    case KANJI -> validateKanji();
+                    case KANJI_METADATA -> validateKanjiMetadata();
+                    case TAG -> validateTag();
+                    default -> parser.skipChildren();
+                }
+            }
+            row++;
+        }
+        row = -1;
+    }
+
+    private void validateTerm() throws IOException {
+        int items = 0;
+        while (nextItem()) {
+            switch (items++) {
+                case 0 -> expectString("Term");
+                case 1 -> expectString("Reading");
+                case 2 -> expectString("Definition tags");
+                case 3 -> expectString("Rules");
+                case 4 -> expectNumber("Score");
+                case 5 -> validateDefinitions();
+                case 6 -> expectNumber("Sequence number");
+                case 7 -> expectString("Term tags");
+                default -> parser.skipChildren();
+            }
+        }
+        if (items != 8) {
+            error("Term should have 8 items but has " + items + ".");
+        }
+    }
+
+    private void validateDefinitions() throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            error("Definitions should be an array.");
+            parser.skipChildren();
+            return;
+        }
+        while (nextItem()) {
+            switch (parser.currentToken()) {
+                case VALUE_STRING -> {
+                }
+                case START_OBJECT -> validateDefinition();
+                default -> {
+                    error("Definition should be a string or an object.");
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void validateDefinition() throws IOException {
+        String type = null;
+        List<String> content = null;
+        while (nextField()) {
+            final String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "type" -> type = readString("Definition type");
+                case "content" -> content = defer(this::validateStructuredContent);
+                case "path", "title", "description" -> expectString("Image " + field);
+                case "width", "height" -> expectNumber("Image " + field);
+                case "imageRendering" -> expectEnum(IMAGE_RENDERINGS, "image rendering");
+                case "appearance" -> expectEnum(APPEARANCES, "appearance");
+                default -> parser.skipChildren();
+            }
+        }
+        if (type == null) {
+            error("Definition is missing its type.");
+        } else if (!CONTENT_TYPES.contains(type)) {
+            error("Unknown definition type: " + type);
+        } else if (ContentType.STRUCTURED_CONTENT.getValue().equals(type) && content != null) {
+            content.forEach(this::error);
+        }
+    }
+
+    private void validateStructuredContent() throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_STRING -> {
+            }
+            case START_ARRAY -> {
+                while (nextItem()) {
+                    validateStructuredContent();
+                }
+            }
+            case START_OBJECT -> validateStructuredContentObject();
+            default -> {
+                error("Structured content should be a string, an array or an object.");
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void validateStructuredContentObject() throws IOException {
+        String tag = null;
+        String sizeUnits = null;
+        List<String> content = null;
+        while (nextField()) {
+            final String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "tag" -> tag = readString("Structured content tag");
+                case "content" -> content = defer(this::validateStructuredContent);
+                case "style" -> validateStyle();
+                case "data" -> expectStringMap("Structured content data");
+                case "sizeUnits" -> sizeUnits = readString("Size units");
+                case "verticalAlign" -> expectEnum(VERTICAL_ALIGNS, "vertical align");
+                case "imageRendering" -> expectEnum(IMAGE_RENDERINGS, "image rendering");
+                case "appearance" -> expectEnum(APPEARANCES, "appearance");
+                case "colSpan", "rowSpan", "width", "height" -> expectNumber("Structured content " + field);
+                default -> parser.skipChildren();
+            }
+        }
+        if (tag == null) {
+            error("Structured content object is missing its tag.");
+            return;
+        }
+        if (!HTML_TAGS.contains(tag)) {
+            error("Unknown structured content tag: " + tag);
+            return;
+        }
+        // Elements like an empty span may leave out their content, and the content of br and img is ignored
+        if (!EMPTY_TAGS.contains(tag) && content != null) {
+            content.forEach(this::error);
+        }
+        if (HtmlTag.IMG.getValue().equals(tag) && !SIZE_UNITS.contains(sizeUnits)) {
+            error("Image size units should be one of " + SIZE_UNITS + " but was " + sizeUnits + ".");
+        }
+    }
+
+    private void validateStyle() throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            error("Style should be an object.");
+            parser.skipChildren();
+            return;
+        }
+        while (nextField()) {
+            final String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "fontStyle" -> expectEnum(FONT_STYLES, "font style");
+                case "fontWeight" -> expectEnum(FONT_WEIGHTS, "font weight");
+                case "textAlign" -> expectEnum(TEXT_ALIGNS, "text align");
+                case "verticalAlign" -> expectEnum(VERTICAL_ALIGNS, "vertical align");
+                case "textDecorationLine" -> {
+                    if (parser.currentToken() == JsonToken.START_ARRAY) {
+                        while (nextItem()) {
+                            expectEnum(TEXT_DECORATION_LINES, "text decoration line");
+                        }
+                    } else {
+                        expectEnum(TEXT_DECORATION_LINES, "text decoration line");
+                    }
+                }
+                case "marginTop", "marginLeft", "marginRight", "marginBottom" -> expectNumber("Style " + field);
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private void validateTermMetadata() throws IOException {
+        int items = 0;
+        String type = null;
+        while (nextItem()) {
+            switch (items++) {
+                case 0 -> expectString("Term metadata text");
+                case 1 -> type = expectEnum(METADATA_TYPES, "term metadata type");
+                case 2 -> {
+                    if (TermMetadata.Type.FREQUENCY.getValue().equals(type)) {
+                        validateFrequency(true);
+                    } else if (TermMetadata.Type.PITCH.getValue().equals(type)) {
+                        validatePitches();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        if (items != 3) {
+            error("Term metadata should have 3 items but has " + items + ".");
+        }
+    }
+
+    private void validateFrequency(boolean reading) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT, VALUE_NULL -> {
+            }
+            case START_OBJECT -> {
+                while (nextField()) {
+                    final String field = parser.currentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "value" -> expectNumber("Frequency value");
+                        case "displayValue" -> expectString("Frequency display value");
+                        case "reading" -> {
+                            if (reading) {
+                                expectString("Frequency reading");
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                        case "frequency" -> {
+                            if (reading) {
+                                validateFrequency(false);
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                        default -> parser.skipChildren();
+                    }
+                }
+            }
+            default -> {
+                error("Frequency should be a number or an object.");
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void validatePitches() throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            error("Pitch metadata should be an object.");
+            parser.skipChildren();
+            return;
+        }
+        boolean pitches = false;
+        while (nextField()) {
+            final String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "reading" -> expectString("Pitch reading");
+                case "pitches" -> {
+                    pitches = true;
+                    if (parser.currentToken() != JsonToken.START_ARRAY) {
+                        error("Pitches should be an array.");
+                        parser.skipChildren();
+                    } else {
+                        while (nextItem()) {
+                            validatePitch();
+                        }
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        if (!pitches) {
+            error("Pitch metadata is missing its pitches.");
+        }
+    }
+
+    private void validatePitch() throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            error("Pitch should be an object.");
+            parser.skipChildren();
+            return;
+        }
+        while (nextField()) {
+            final String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "position" -> expectNumber("Pitch position");
+                case "nasal", "devoice" -> {
+                    if (parser.currentToken() == JsonToken.START_ARRAY) {
+                        while (nextItem()) {
+                            expectNumber("Pitch " + field);
+                        }
+                    } else {
+                        // A single position can be given as is, like the parser accepts
+                        expectNumber("Pitch " + field);
+                    }
+                }
+                case "tags" -> expectStringArray("Pitch tags");
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private void validateKanji() throws IOException {
+        int items = 0;
+        while (nextItem()) {
+            switch (items++) {
+                case 0 -> expectString("Kanji character");
+                case 1 -> expectString("Onyomi");
+                case 2 -> expectString("Kunyomi");
+                case 3 -> expectString("Kanji tags");
+                case 4 -> expectStringArray("Meanings");
+                case 5 -> expectStringMap("Kanji stats");
+                default -> parser.skipChildren();
+            }
+        }
+        if (items != 6) {
+            error("Kanji should have 6 items but has " + items + ".");
+        }
+    }
+
+    private void validateKanjiMetadata() throws IOException {
+        int items = 0;
+        while (nextItem()) {
+            switch (items++) {
+                case 0 -> expectString("Kanji metadata character");
+                case 1 -> {
+                    if (!TermMetadata.Type.FREQUENCY.getValue().equals(readString("Kanji metadata type"))) {
+                        error("Kanji metadata type should be " + TermMetadata.Type.FREQUENCY.getValue() + ".");
+                    }
+                }
+                case 2 -> validateFrequency(false);
+                default -> parser.skipChildren();
+            }
+        }
+        if (items != 3) {
+            error("Kanji metadata should have 3 items but has " + items + ".");
+        }
+    }
+
+    private void validateTag() throws IOException {
+        int items = 0;
+        while (nextItem()) {
+            switch (items++) {
+                case 0 -> expectString("Tag name");
+                case 1 -> expectString("Tag category");
+                case 2 -> expectNumber("Tag order");
+                case 3 -> expectString("Tag notes");
+                case 4 -> expectNumber("Tag score");
+                default -> parser.skipChildren();
+            }
+        }
+        if (items != 5) {
+            error("Tag should have 5 items but has " + items + ".");
+        }
+    }
+
+    /**
+     * Advance to the next item of the current array.
+     *
+     * @return false at the end of the array.
+     */
+    private boolean nextItem() throws IOException {
+        final JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new IOException("Unexpected end of file.");
+        }
+        return token != JsonToken.END_ARRAY;
+    }
+
+    /**
+     * Advance to the next field name of the current object.
+     *
+     * @return false at the end of the object.
+     */
+    private boolean nextField() throws IOException {
+        final JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new IOException("Unexpected end of file.");
+        }
+        return token == JsonToken.FIELD_NAME;
+    }
+
+    private String readString(String what) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            error(what + " should be a string.");
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getText();
+    }
+
+    /**
+     * Expect a string or null, which the parsers read as a missing value.
+     *
+     * @return true if the value is a string.
+     */
+    private boolean expectString(String what) throws IOException {
+        return parser.currentToken() != JsonToken.VALUE_NULL && readString(what) != null;
+    }
+
+    /**
+     * Expect a number or null, which the parsers read as a missing value.
+     *
+     * @return true if the value is a number.
+     */
+    private boolean expectNumber(String what) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        if (!parser.currentToken().isNumeric()) {
+            error(what + " should be a number.");
+            parser.skipChildren();
+            return false;
+        }
+        return true;
+    }
+
+    private void expectBoolean(String what) throws IOException {
+        if (!parser.currentToken().isBoolean()) {
+            error(what + " should be a boolean.");
+            parser.skipChildren();
+        }
+    }
+
+    private void expectStringArray(String what) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            error(what + " should be an array.");
+            parser.skipChildren();
+            return;
+        }
+        while (nextItem()) {
+            expectString(what);
+        }
+    }
+
+    /**
+     * Expect an object whose values are all strings, e.g. kanji stats or data attributes, or null.
+     */
+    private void expectStringMap(String what) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            error(what + " should be an object.");
+            parser.skipChildren();
+            return;
+        }
+        while (nextField()) {
+            final String field = parser.currentName();
+            parser.nextToken();
+            expectString(what + " " + field);
+        }
+    }
+
+    private String expectEnum(Set<String> values, String what) throws IOException {
+        final String value = readString(Character.toUpperCase(what.charAt(0)) + what.substring(1));
+        if (value != null && !values.contains(value)) {
+            error("Unknown " + what + ": " + value);
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * Validate the current value, collecting its errors instead of reporting them.
+     *
+     * @return the collected errors, to be reported once it's known that the value is used.
+     */
+    private List<String> defer(Validation validation) throws IOException {
+        final List<String> outer = deferred;
+        deferred = new ArrayList<>();
+        try {
+            validation.validate();
+            return deferred;
+        } finally {
+            deferred = outer;
+        }
+    }
+
+    private void error(String message) {
+        if (deferred != null) {
+            if (deferred.size() <= maxErrors) {
+                deferred.add(message);
+            }
+            return;
+        }
+        if (errors.size() >= maxErrors) {
+            throw new TooManyErrorsException();
+        }
+        errors.add(new ValidationError(name, row, message));
+    }
+
+    private static <E> Set<String> values(E[] values, Function<E, String> value) {
+        final Set<String> set = Arrays.stream(values).map(value).collect(Collectors.toCollection(LinkedHashSet::new));
+        return Collections.unmodifiableSet(set);
+    }
+
+    @FunctionalInterface
+    private interface Validation {
+        void validate() throws IOException;
+    }
+
+    private static class TooManyErrorsException extends RuntimeException {
+        TooManyErrorsException() {
+            super(null, null, false, false);
+        }
+    }
+}
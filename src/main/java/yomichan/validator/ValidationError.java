@@ -0,0 +1,30 @@
+package yomichan.validator;
+
+import lombok.Value;
+
+/**
+ * A problem found while validating a Yomichan dictionary.
+ */
+@Value
+public class ValidationError {
+
+    /**
+     * Name of the file within the dictionary, e.g. {@code term_bank_1.json}.
+     */
+    String file;
+
+    /**
+     * Zero-based index of the row within the bank, or -1 if the problem isn't specific to a row.
+     */
+    int row;
+
+    /**
+     * Description of the problem.
+     */
+    String message;
+
+    @Override
+    public String toString() {
+        return row >= 0 ? file + " row " + row + ": " + message : file + ": " + message;
+    }
+}
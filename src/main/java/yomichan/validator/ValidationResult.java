@@ -0,0 +1,24 @@
+package yomichan.validator;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * The result of validating a Yomichan dictionary.
+ */
+@Value
+public class ValidationResult {
+
+    /**
+     * Every problem found in the dictionary, ordered by file name and row.
+     */
+    List<ValidationError> errors;
+
+    /**
+     * @return true if no problems were found and the dictionary can be parsed.
+     */
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+}
@@ -0,0 +1,105 @@
+package yomichan.validator;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.FileHeader;
+import yomichan.parser.YomichanParserType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that a Yomichan dictionary .zip file can be parsed, without parsing it.
+ *
+ * <p>Each bank file is streamed straight out of the archive and checked token by token: the shape of
+ * every row, the structured content tags and content types, and the values of the style enums. No
+ * model objects are built and nothing is extracted to disk, so validating an upload is much cheaper
+ * than parsing it. Banks are validated in parallel on the executor.</p>
+ *
+ * <p>Instead of stopping at the first problem, every problem is collected together with the bank
+ * file and row it was found in, up to {@link #getMaxErrorsPerBank()} per bank.</p>
+ *
+ * <pre>{@code
+ *     ValidationResult result = new YomichanValidator().validate(upload);
+ *     if (!result.isValid()) {
+ *         result.getErrors().forEach(error -> log.warn("{}", error));
+ *     }
+ * }</pre>
+ */
+@Slf4j
+public class YomichanValidator {
+
+    public static final int DEFAULT_MAX_ERRORS_PER_BANK = 100;
+
+    private final Executor executor;
+
+    /**
+     * Maximum number of problems to report for a single bank file before moving on to the next.
+     */
+    @Getter
+    @Setter
+    private int maxErrorsPerBank = DEFAULT_MAX_ERRORS_PER_BANK;
+
+    public YomichanValidator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public YomichanValidator(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Validate the Yomichan dictionary .zip file.
+     *
+     * @param file The Yomichan dictionary file.
+     * @return the problems found in the dictionary, ordered by bank file and row.
+     */
+    public ValidationResult validate(File file) {
+        final long start = System.nanoTime();
+        final List<FileHeader> headers;
+        try (final ZipFile zip = new ZipFile(file)) {
+            headers = new ArrayList<>(zip.getFileHeaders());
+        } catch (IOException e) {
+            return new ValidationResult(List.of(new ValidationError(file.getName(), -1, "Couldn't read dictionary: " + e.getMessage())));
+        }
+        headers.sort(Comparator.comparing(FileHeader::getFileName));
+
+        boolean index = false;
+        final List<CompletableFuture<List<ValidationError>>> banks = new ArrayList<>();
+        for (FileHeader header : headers) {
+            if (header.isDirectory()) continue;
+            final Optional<YomichanParserType> type = YomichanParserType.findBank(header.getFileName());
+            if (type.isEmpty()) continue;
+            index |= type.get() == YomichanParserType.INDEX;
+            banks.add(CompletableFuture.supplyAsync(() -> validate(file, header, type.get()), executor));
+        }
+
+        final List<ValidationError> errors = new ArrayList<>();
+        if (!index) {
+            errors.add(new ValidationError(file.getName(), -1, "Dictionary is missing its index.json file."));
+        }
+        banks.forEach(bank -> errors.addAll(bank.join()));
+        log.debug("Validated Yomichan dictionary {} with {} errors in {}ms", file.getName(), errors.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return new ValidationResult(errors);
+    }
+
+    private List<ValidationError> validate(File file, FileHeader header, YomichanParserType type) {
+        // Every task opens its own handle, zip4j streams can't be read concurrently from one ZipFile
+        try (final ZipFile zip = new ZipFile(file); final InputStream in = zip.getInputStream(header)) {
+            return new BankValidator(header.getFileName(), maxErrorsPerBank).validate(type, in);
+        } catch (IOException e) {
+            return List.of(new ValidationError(header.getFileName(), -1, "Couldn't read file: " + e.getMessage()));
+        }
+    }
+}
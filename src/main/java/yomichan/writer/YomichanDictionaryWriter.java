@@ -0,0 +1,270 @@
+package yomichan.writer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.lingala.zip4j.io.outputstream.ZipOutputStream;
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.CompressionMethod;
+import yomichan.exception.YomichanException;
+import yomichan.model.Index;
+import yomichan.model.YomichanDictionary;
+import yomichan.model.v3.Kanji;
+import yomichan.model.v3.KanjiMetadata;
+import yomichan.model.v3.Tag;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.TermMetadata;
+import yomichan.parser.YomichanParserType;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static yomichan.parser.YomichanParserType.KANJI;
+import static yomichan.parser.YomichanParserType.KANJI_METADATA;
+import static yomichan.parser.YomichanParserType.TAG;
+import static yomichan.parser.YomichanParserType.TERM;
+import static yomichan.parser.YomichanParserType.TERM_METADATA;
+
+/**
+ * Writes a Yomichan dictionary .zip file by streaming rows into its bank files.
+ *
+ * <p>The index.json file is written when the writer is created. Every row is serialized straight
+ * into the compressed zip entry of the current bank, so neither the dictionary nor the bank files
+ * are ever held in memory or staged on disk. A bank is closed when it reaches the configured number
+ * of rows, or when a row of a different type is written, and the next row of that type starts a new
+ * bank with the next number ({@code term_bank_1.json}, {@code term_bank_2.json}, ...).</p>
+ *
+ * <pre>{@code
+ *     try (YomichanDictionaryWriter writer = new YomichanDictionaryWriter(new File("filtered.zip"), index)) {
+ *         for (Term term : dictionary.getTerms()) {
+ *             if (term.getScore() >= 0) {
+ *                 writer.writeTerm(term);
+ *             }
+ *         }
+ *     }
+ * }</pre>
+ */
+@Slf4j
+public class YomichanDictionaryWriter implements Closeable {
+
+    public static final int DEFAULT_BANK_SIZE = 10_000;
+
+    private static final JsonFactory FACTORY = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final ZipOutputStream zip;
+
+    /**
+     * Maximum number of rows written to a single bank file.
+     */
+    @Getter
+    private final int bankSize;
+
+    private final Map<YomichanParserType, Integer> banks = new EnumMap<>(YomichanParserType.class);
+    private YomichanParserType type;
+    private JsonGenerator generator;
+    private int rows;
+
+    /**
+     * Create a writer for the dictionary file, overwriting it if it exists.
+     *
+     * @param file  The Yomichan dictionary file to write.
+     * @param index The index of the dictionary.
+     */
+    public YomichanDictionaryWriter(File file, Index index) {
+        this(open(file), index, DEFAULT_BANK_SIZE);
+    }
+
+    /**
+     * Create a writer for the dictionary file, overwriting it if it exists.
+     *
+     * @param file     The Yomichan dictionary file to write.
+     * @param index    The index of the dictionary.
+     * @param bankSize The maximum number of rows written to a single bank file.
+     */
+    public YomichanDictionaryWriter(File file, Index index, int bankSize) {
+        this(open(file), index, bankSize);
+    }
+
+    /**
+     * Create a writer that writes the dictionary .zip to the output stream. The stream is closed along with the writer.
+     *
+     * @param out   The stream to write the dictionary to.
+     * @param index The index of the dictionary.
+     */
+    public YomichanDictionaryWriter(OutputStream out, Index index) {
+        this(out, index, DEFAULT_BANK_SIZE);
+    }
+
+    /**
+     * Create a writer that writes the dictionary .zip to the output stream. The stream is closed along with the writer.
+     *
+     * @param out      The stream to write the dictionary to.
+     * @param index    The index of the dictionary.
+     * @param bankSize The maximum number of rows written to a single bank file.
+     */
+    public YomichanDictionaryWriter(OutputStream out, Index index, int bankSize) {
+        if (bankSize <= 0) {
+            throw new IllegalArgumentException("Bank size must be positive: " + bankSize);
+        }
+        if (index == null) {
+            throw new IllegalArgumentException("Index cannot be null!");
+        }
+        this.bankSize = bankSize;
+        try {
+            this.zip = new ZipOutputStream(out);
+            zip.putNextEntry(parameters("index.json"));
+            try (JsonGenerator json = FACTORY.createGenerator(zip)) {
+                YomichanJsonWriter.writeIndex(json, index);
+            }
+            zip.closeEntry();
+        } catch (IOException e) {
+            throw new YomichanException("Failed to write Yomichan index for dictionary " + index.getTitle(), e);
+        }
+    }
+
+    /**
+     * Write every row of the dictionary. The index of the dictionary is ignored, since it was
+     * already written when the writer was created.
+     *
+     * @param dictionary The dictionary to write.
+     */
+    public void write(YomichanDictionary dictionary) {
+        dictionary.getTags().forEach(this::writeTag);
+        dictionary.getTerms().forEach(this::writeTerm);
+        dictionary.getTermMetadata().forEach(this::writeTermMetadata);
+        dictionary.getKanjis().forEach(this::writeKanji);
+        dictionary.getKanjiMetadata().forEach(this::writeKanjiMetadata);
+    }
+
+    public void writeTag(Tag tag) {
+        try {
+            YomichanJsonWriter.writeTag(next(TAG), tag);
+        } catch (IOException e) {
+            throw new YomichanException("Failed to write Yomichan tag " + tag.getName(), e);
+        }
+    }
+
+    public void writeTerm(Term term) {
+        try {
+            YomichanJsonWriter.writeTerm(next(TERM), term);
+        } catch (IOException e) {
+            throw new YomichanException("Failed to write Yomichan term " + term.getTerm(), e);
+        }
+    }
+
+    public void writeTermMetadata(TermMetadata meta) {
+        try {
+            YomichanJsonWriter.writeTermMetadata(next(TERM_METADATA), meta);
+        } catch (IOException e) {
+            throw new YomichanException("Failed to write Yomichan term metadata for " + meta.getText(), e);
+        }
+    }
+
+    public void writeKanji(Kanji kanji) {
+        try {
+            YomichanJsonWriter.writeKanji(next(KANJI), kanji);
+        } catch (IOException e) {
+            throw new YomichanException("Failed to write Yomichan kanji " + kanji.getCharacter(), e);
+        }
+    }
+
+    public void writeKanjiMetadata(KanjiMetadata meta) {
+        try {
+            YomichanJsonWriter.writeKanjiMetadata(next(KANJI_METADATA), meta);
+        } catch (IOException e) {
+            throw new YomichanException("Failed to write Yomichan kanji metadata for " + meta.getText(), e);
+        }
+    }
+
+    /**
+     * Write a media file, such as an image referenced by the term contents, into the dictionary.
+     * The current bank is closed first.
+     *
+     * @param path The path of the file within the dictionary, e.g. {@code img/1.png}.
+     * @param in   The contents of the file, which is read to the end but not closed.
+     */
+    public void writeMedia(String path, InputStream in) {
+        try {
+            closeBank();
+            zip.putNextEntry(parameters(path));
+            in.transferTo(zip);
+            zip.closeEntry();
+        } catch (IOException e) {
+            throw new YomichanException("Failed to write Yomichan media file " + path, e);
+        }
+    }
+
+    /**
+     * Close the current bank file and finish writing the dictionary .zip file.
+     */
+    @Override
+    public void close() {
+        try (zip) {
+            closeBank();
+        } catch (IOException e) {
+            throw new YomichanException("Failed to finish writing Yomichan dictionary", e);
+        }
+    }
+
+    private JsonGenerator next(YomichanParserType type) throws IOException {
+        if (this.type != type || rows == bankSize) {
+            closeBank();
+            final int bank = banks.merge(type, 1, Integer::sum);
+            final String name = getBankName(type, bank);
+            log.debug("Writing Yomichan bank {}", name);
+            zip.putNextEntry(parameters(name));
+            this.generator = FACTORY.createGenerator(zip);
+            this.generator.writeStartArray();
+            this.type = type;
+        }
+        rows++;
+        return generator;
+    }
+
+    private void closeBank() throws IOException {
+        if (generator == null) {
+            return;
+        }
+        generator.writeEndArray();
+        generator.close();
+        zip.closeEntry();
+        generator = null;
+        type = null;
+        rows = 0;
+    }
+
+    private static String getBankName(YomichanParserType type, int bank) {
+        final String prefix = switch (type) {
+            case TAG -> "tag_bank";
+            case TERM -> "term_bank";
+            case TERM_METADATA -> "term_meta_bank";
+            case KANJI -> "kanji_bank";
+            case KANJI_METADATA -> "kanji_meta_bank";
+            default -> throw new IllegalArgumentException("Not a Yomichan bank type: " + type);
+        };
+        return prefix + "_" + bank + ".json";
+    }
+
+    private static ZipParameters parameters(String name) {
+        final ZipParameters parameters = new ZipParameters();
+        parameters.setFileNameInZip(name);
+        parameters.setCompressionMethod(CompressionMethod.DEFLATE);
+        return parameters;
+    }
+
+    private static OutputStream open(File file) {
+        try {
+            return new BufferedOutputStream(new FileOutputStream(file));
+        } catch (IOException e) {
+            throw new YomichanException("Failed to create Yomichan dictionary at path " + file.getAbsolutePath(), e);
+        }
+    }
+}
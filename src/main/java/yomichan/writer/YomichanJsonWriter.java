@@ -0,0 +1,448 @@
+package yomichan.writer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import yomichan.exception.YomichanException;
+import yomichan.model.Index;
+import yomichan.model.v3.Kanji;
+import yomichan.model.v3.KanjiMetadata;
+import yomichan.model.v3.Tag;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.TermMetadata;
+import yomichan.model.v3.term.Appearance;
+import yomichan.model.v3.term.Content;
+import yomichan.model.v3.term.ContentData;
+import yomichan.model.v3.term.ContentStyle;
+import yomichan.model.v3.term.FontStyle;
+import yomichan.model.v3.term.FontWeight;
+import yomichan.model.v3.term.HtmlTag;
+import yomichan.model.v3.term.ImageRendering;
+import yomichan.model.v3.term.StructuredContent;
+import yomichan.model.v3.term.TextAlign;
+import yomichan.model.v3.term.TextDecorationLine;
+import yomichan.model.v3.term.VerticalAlign;
+import yomichan.model.v3.term.meta.Frequency;
+import yomichan.model.v3.term.meta.Pitch;
+import yomichan.model.v3.term.meta.Pitches;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the model objects back into the JSON format of the Yomichan dictionary schemas.
+ *
+ * <p>Each method writes a single row (or the index object) to the generator, so the rows can
+ * be streamed into a bank file without building a tree first. Optional fields that are
+ * missing or set to the schema default are left out. The schemas don't allow {@code null}, so
+ * missing values within a row are written as their schema default instead: an empty string,
+ * {@code 0}, an empty array or an empty object. Such rows read back with the default and not with
+ * {@code null}, unless they're written with {@link MissingValues#NULLS}.</p>
+ *
+ * @see <a href="https://github.com/FooSoft/yomichan/tree/master/ext/data/schemas">Yomichan JSON Schema Definitions</a>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class YomichanJsonWriter {
+
+    public static void writeIndex(JsonGenerator generator, Index index) throws IOException {
+        generator.writeStartObject();
+        writeStringField(generator, "title", index.getTitle());
+        writeNumberField(generator, "format", index.getDeclaredFormat());
+        writeNumberField(generator, "version", index.getDeclaredVersion());
+        writeStringField(generator, "revision", index.getRevision());
+        if (index.isSequenced()) {
+            generator.writeBooleanField("sequenced", true);
+        }
+        writeStringField(generator, "author", index.getAuthor());
+        writeStringField(generator, "url", index.getUrl());
+        writeStringField(generator, "description", index.getDescription());
+        writeStringField(generator, "attribution", index.getAttribution());
+        if (index.getFrequencyMode() != null) {
+            generator.writeStringField("frequencyMode", index.getFrequencyMode().getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    public static void writeTag(JsonGenerator generator, Tag tag) throws IOException {
+        writeTag(generator, tag, MissingValues.DEFAULTS);
+    }
+
+    public static void writeTag(JsonGenerator generator, Tag tag, MissingValues missing) throws IOException {
+        generator.writeStartArray();
+        writeString(generator, tag.getName(), missing);
+        writeString(generator, tag.getCategory(), missing);
+        writeNumber(generator, tag.getOrder(), missing);
+        writeString(generator, tag.getNotes(), missing);
+        writeNumber(generator, tag.getScore(), missing);
+        generator.writeEndArray();
+    }
+
+    public static void writeTerm(JsonGenerator generator, Term term) throws IOException {
+        writeTerm(generator, term, MissingValues.DEFAULTS);
+    }
+
+    public static void writeTerm(JsonGenerator generator, Term term, MissingValues missing) throws IOException {
+        generator.writeStartArray();
+        writeString(generator, term.getTerm(), missing);
+        writeString(generator, term.getReading(), missing);
+        writeSpaceSeparatedText(generator, term.getDefinitionTags(), missing);
+        writeSpaceSeparatedText(generator, term.getRules(), missing);
+        writeNumber(generator, term.getScore(), missing);
+        if (term.getContents() != null || missing == MissingValues.DEFAULTS) {
+            generator.writeStartArray();
+            if (term.getContents() != null) {
+                for (Content content : term.getContents()) {
+                    writeContent(generator, content);
+                }
+            }
+            generator.writeEndArray();
+        } else {
+            generator.writeNull();
+        }
+        writeNumber(generator, term.getSequenceNumber(), missing);
+        writeSpaceSeparatedText(generator, term.getTermTags(), missing);
+        generator.writeEndArray();
+    }
+
+    public static void writeTermMetadata(JsonGenerator generator, TermMetadata meta) throws IOException {
+        writeTermMetadata(generator, meta, MissingValues.DEFAULTS);
+    }
+
+    public static void writeTermMetadata(JsonGenerator generator, TermMetadata meta, MissingValues missing) throws IOException {
+        if (meta.getType() == null) {
+            throw new YomichanException("Can't write Yomichan term metadata without a type: " + meta);
+        }
+        generator.writeStartArray();
+        writeString(generator, meta.getText(), missing);
+        generator.writeString(meta.getType().getValue());
+        switch (meta.getType()) {
+            case FREQUENCY -> writeFrequency(generator, meta.getFrequency(), missing);
+            case PITCH -> writePitches(generator, meta.getPitches(), missing);
+        }
+        generator.writeEndArray();
+    }
+
+    public static void writeKanji(JsonGenerator generator, Kanji kanji) throws IOException {
+        writeKanji(generator, kanji, MissingValues.DEFAULTS);
+    }
+
+    public static void writeKanji(JsonGenerator generator, Kanji kanji, MissingValues missing) throws IOException {
+        generator.writeStartArray();
+        writeString(generator, kanji.getCharacter(), missing);
+        writeSpaceSeparatedText(generator, kanji.getOnyomi(), missing);
+        writeSpaceSeparatedText(generator, kanji.getKunyomi(), missing);
+        writeSpaceSeparatedText(generator, kanji.getTags(), missing);
+        writeStringArray(generator, kanji.getMeanings(), missing);
+        if (kanji.getStats() != null || missing == MissingValues.DEFAULTS) {
+            generator.writeStartObject();
+            if (kanji.getStats() != null) {
+                for (Map.Entry<String, String> stat : kanji.getStats().entrySet()) {
+                    generator.writeFieldName(stat.getKey());
+                    writeString(generator, stat.getValue(), missing);
+                }
+            }
+            generator.writeEndObject();
+        } else {
+            generator.writeNull();
+        }
+        generator.writeEndArray();
+    }
+
+    public static void writeKanjiMetadata(JsonGenerator generator, KanjiMetadata meta) throws IOException {
+        writeKanjiMetadata(generator, meta, MissingValues.DEFAULTS);
+    }
+
+    public static void writeKanjiMetadata(JsonGenerator generator, KanjiMetadata meta, MissingValues missing) throws IOException {
+        generator.writeStartArray();
+        writeString(generator, meta.getText(), missing);
+        generator.writeString(TermMetadata.Type.FREQUENCY.getValue());
+        writeFrequencyValue(generator, meta.getFrequency(), meta.getDisplay(), missing);
+        generator.writeEndArray();
+    }
+
+    private static void writeFrequency(JsonGenerator generator, Frequency frequency, MissingValues missing) throws IOException {
+        if (frequency == null) {
+            throw new YomichanException("Can't write Yomichan frequency metadata without a frequency.");
+        }
+        if (frequency.getReading() == null) {
+            writeFrequencyValue(generator, frequency.getValue(), frequency.getDisplay(), missing);
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeStringField("reading", frequency.getReading());
+        generator.writeFieldName("frequency");
+        writeFrequencyObject(generator, frequency.getValue(), frequency.getDisplay(), missing);
+        generator.writeEndObject();
+    }
+
+    private static void writeFrequencyValue(JsonGenerator generator, Integer value, String display, MissingValues missing) throws IOException {
+        if (display == null) {
+            writeNumber(generator, value, missing);
+        } else {
+            writeFrequencyObject(generator, value, display, missing);
+        }
+    }
+
+    private static void writeFrequencyObject(JsonGenerator generator, Integer value, String display, MissingValues missing) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName("value");
+        writeNumber(generator, value, missing);
+        writeStringField(generator, "displayValue", display);
+        generator.writeEndObject();
+    }
+
+    private static void writePitches(JsonGenerator generator, Pitches pitches, MissingValues missing) throws IOException {
+        if (pitches == null) {
+            throw new YomichanException("Can't write Yomichan pitch metadata without pitches.");
+        }
+        generator.writeStartObject();
+        writeStringField(generator, "reading", pitches.getReading());
+        generator.writeArrayFieldStart("pitches");
+        if (pitches.getPitches() != null) {
+            for (Pitch pitch : pitches.getPitches()) {
+                generator.writeStartObject();
+                generator.writeFieldName("position");
+                writeNumber(generator, pitch.getDownstep(), missing);
+                writeIntegerArrayField(generator, "nasal", pitch.getNasals(), missing);
+                writeIntegerArrayField(generator, "devoice", pitch.getDevoicings(), missing);
+                if (pitch.getTags() != null) {
+                    generator.writeFieldName("tags");
+                    writeStringArray(generator, pitch.getTags(), missing);
+                }
+                generator.writeEndObject();
+            }
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeContent(JsonGenerator generator, Content content) throws IOException {
+        if (content.getType() == null) {
+            throw new YomichanException("Can't write Yomichan term content without a type.");
+        }
+        switch (content.getType()) {
+            case TEXT -> writeString(generator, content.getText(), MissingValues.DEFAULTS);
+            case IMAGE -> {
+                generator.writeStartObject();
+                generator.writeStringField("type", content.getType().getValue());
+                writeImageFields(generator, content);
+                writeStringField(generator, "description", content.getDescription());
+                generator.writeEndObject();
+            }
+            case STRUCTURED_CONTENT -> {
+                generator.writeStartObject();
+                generator.writeStringField("type", content.getType().getValue());
+                generator.writeFieldName("content");
+                writeStructuredContents(generator, content.getContents());
+                generator.writeEndObject();
+            }
+        }
+    }
+
+    private static void writeStructuredContents(JsonGenerator generator, List<StructuredContent> contents) throws IOException {
+        if (contents.size() == 1) {
+            writeStructuredContent(generator, contents.get(0));
+            return;
+        }
+        generator.writeStartArray();
+        for (StructuredContent content : contents) {
+            writeStructuredContent(generator, content);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeStructuredContent(JsonGenerator generator, StructuredContent content) throws IOException {
+        if (content.getTag() == null) {
+            // Plain text node within the structured content.
+            writeString(generator, content.getText(), MissingValues.DEFAULTS);
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeStringField("tag", content.getTag().getValue());
+        if (content.getContents() != null && !content.getContents().isEmpty()) {
+            generator.writeFieldName("content");
+            writeStructuredContents(generator, content.getContents());
+        }
+        writeData(generator, content.getData());
+        writeStyle(generator, content.getStyle());
+        writeStringField(generator, "lang", content.getLang());
+        writeNumberField(generator, "colSpan", content.getColSpan());
+        writeNumberField(generator, "rowSpan", content.getRowSpan());
+        writeStringField(generator, "href", content.getHref());
+        if (content.getTag() == HtmlTag.IMG) {
+            writeImageFields(generator, content);
+            if (content.getSizeUnits() != null) {
+                generator.writeStringField("sizeUnits", content.getSizeUnits().getValue());
+            }
+            if (content.getVerticalAlign() != null && content.getVerticalAlign() != VerticalAlign.getDefault()) {
+                generator.writeStringField("verticalAlign", content.getVerticalAlign().getValue());
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeImageFields(JsonGenerator generator, Content content) throws IOException {
+        writeStringField(generator, "path", content.getPath());
+        writeNumberField(generator, "width", content.getWidth());
+        writeNumberField(generator, "height", content.getHeight());
+        writeStringField(generator, "title", content.getTitle());
+        if (Boolean.TRUE.equals(content.getPixelated())) {
+            generator.writeBooleanField("pixelated", true);
+        }
+        if (content.getImageRendering() != null && content.getImageRendering() != ImageRendering.getDefault()) {
+            generator.writeStringField("imageRendering", content.getImageRendering().getValue());
+        }
+        if (content.getAppearance() != null && content.getAppearance() != Appearance.getDefault()) {
+            generator.writeStringField("appearance", content.getAppearance().getValue());
+        }
+        if (Boolean.TRUE.equals(content.getBackground())) {
+            generator.writeBooleanField("background", true);
+        }
+        if (Boolean.TRUE.equals(content.getCollapsed())) {
+            generator.writeBooleanField("collapsed", true);
+        }
+        if (Boolean.FALSE.equals(content.getCollapsible())) {
+            generator.writeBooleanField("collapsible", false);
+        }
+    }
+
+    private static void writeData(JsonGenerator generator, ContentData data) throws IOException {
+        if (data == null) {
+            return;
+        }
+        generator.writeObjectFieldStart("data");
+        for (Map.Entry<String, String> entry : data.getData().entrySet()) {
+            generator.writeStringField(entry.getKey(), entry.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeStyle(JsonGenerator generator, ContentStyle style) throws IOException {
+        if (style == null) {
+            return;
+        }
+        generator.writeObjectFieldStart("style");
+        if (style.getFontStyle() != null && style.getFontStyle() != FontStyle.getDefault()) {
+            generator.writeStringField("fontStyle", style.getFontStyle().getValue());
+        }
+        if (style.getFontWeight() != null && style.getFontWeight() != FontWeight.getDefault()) {
+            generator.writeStringField("fontWeight", style.getFontWeight().getValue());
+        }
+        if (style.getFontSize() != null && !"medium".equals(style.getFontSize())) {
+            generator.writeStringField("fontSize", style.getFontSize());
+        }
+        final List<TextDecorationLine> lines = style.getTextDecorationLine();
+        if (lines != null && !lines.isEmpty()) {
+            generator.writeArrayFieldStart("textDecorationLine");
+            for (TextDecorationLine line : lines) {
+                generator.writeString(line.getValue());
+            }
+            generator.writeEndArray();
+        }
+        if (style.getVerticalAlign() != null && style.getVerticalAlign() != VerticalAlign.getDefault()) {
+            generator.writeStringField("verticalAlign", style.getVerticalAlign().getValue());
+        }
+        if (style.getTextAlign() != null && style.getTextAlign() != TextAlign.getDefault()) {
+            generator.writeStringField("textAlign", style.getTextAlign().getValue());
+        }
+        writeMargin(generator, "marginTop", style.getMarginTop());
+        writeMargin(generator, "marginLeft", style.getMarginLeft());
+        writeMargin(generator, "marginRight", style.getMarginRight());
+        writeMargin(generator, "marginBottom", style.getMarginBottom());
+        if (style.getListStyleType() != null && !"disc".equals(style.getListStyleType())) {
+            generator.writeStringField("listStyleType", style.getListStyleType());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeMargin(JsonGenerator generator, String name, Double value) throws IOException {
+        if (value != null && value != 0D) {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    private static void writeString(JsonGenerator generator, String value, MissingValues missing) throws IOException {
+        if (value != null) {
+            generator.writeString(value);
+        } else if (missing == MissingValues.NULLS) {
+            generator.writeNull();
+        } else {
+            generator.writeString("");
+        }
+    }
+
+    private static void writeNumber(JsonGenerator generator, Integer value, MissingValues missing) throws IOException {
+        if (value != null) {
+            generator.writeNumber(value);
+        } else if (missing == MissingValues.NULLS) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(0);
+        }
+    }
+
+    private static void writeSpaceSeparatedText(JsonGenerator generator, List<String> values, MissingValues missing) throws IOException {
+        writeString(generator, values != null ? String.join(" ", values) : null, missing);
+    }
+
+    private static void writeStringArray(JsonGenerator generator, List<String> values, MissingValues missing) throws IOException {
+        if (values == null && missing == MissingValues.NULLS) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray();
+        if (values != null) {
+            for (String value : values) {
+                writeString(generator, value, missing);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeIntegerArrayField(JsonGenerator generator, String name, List<Integer> values, MissingValues missing) throws IOException {
+        if (values == null) {
+            return;
+        }
+        generator.writeArrayFieldStart(name);
+        for (Integer value : values) {
+            writeNumber(generator, value, missing);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeStringField(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    private static void writeNumberField(JsonGenerator generator, String name, Integer value) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    private static void writeNumberField(JsonGenerator generator, String name, Double value) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    /**
+     * How values missing from a row are written.
+     */
+    public enum MissingValues {
+        /**
+         * Write the schema default of every missing value, so that the bank follows the Yomichan
+         * schemas. The default is read back instead of the missing value.
+         */
+        DEFAULTS,
+        /**
+         * Write every missing value as {@code null}, so that the parsers read the row back exactly as
+         * it was. Only for files read back by this library, e.g. caches, as the schemas don't allow
+         * {@code null}.
+         */
+        NULLS
+    }
+}
@@ -0,0 +1,83 @@
+package yomichan;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import yomichan.model.YomichanDictionary;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Field by field comparison of model objects, for tests where a dictionary is written out and read
+ * back. Not every model class implements equals, and the ones that do would only say that two
+ * dictionaries differ somewhere, so this walks both object graphs and fails on the path of the first
+ * field that differs.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ModelAssertions {
+
+    public static void assertDictionaryEquals(YomichanDictionary expected, YomichanDictionary actual) {
+        assertModelEquals(expected, actual, "dictionary");
+    }
+
+    /**
+     * @param path The path of the values within the compared objects, used in the failure message.
+     */
+    public static void assertModelEquals(Object expected, Object actual, String path) {
+        if (expected == actual) {
+            return;
+        }
+        if (expected == null || actual == null) {
+            fail(path + ": expected <" + expected + "> but was <" + actual + ">");
+            return;
+        }
+        if (expected instanceof List<?> a && actual instanceof List<?> b) {
+            if (a.size() != b.size()) {
+                fail(path + ": expected " + a.size() + " items but was " + b.size());
+            }
+            for (int i = 0; i < a.size(); i++) {
+                assertModelEquals(a.get(i), b.get(i), path + "[" + i + "]");
+            }
+            return;
+        }
+        if (expected instanceof Map<?, ?> a && actual instanceof Map<?, ?> b) {
+            if (!a.keySet().equals(b.keySet())) {
+                fail(path + ": expected keys " + a.keySet() + " but was " + b.keySet());
+            }
+            for (Map.Entry<?, ?> entry : a.entrySet()) {
+                assertModelEquals(entry.getValue(), b.get(entry.getKey()), path + "." + entry.getKey());
+            }
+            return;
+        }
+        if (!isModel(expected.getClass())) {
+            if (!expected.equals(actual)) {
+                fail(path + ": expected <" + expected + "> but was <" + actual + ">");
+            }
+            return;
+        }
+        if (expected.getClass() != actual.getClass()) {
+            fail(path + ": expected a " + expected.getClass().getSimpleName() + " but was a " + actual.getClass().getSimpleName());
+        }
+        for (Class<?> type = expected.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                field.setAccessible(true);
+                try {
+                    assertModelEquals(field.get(expected), field.get(actual), path + "." + field.getName());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Can't read " + path + "." + field.getName(), e);
+                }
+            }
+        }
+    }
+
+    private static boolean isModel(Class<?> type) {
+        return !type.isEnum() && type.getName().startsWith("yomichan.");
+    }
+}
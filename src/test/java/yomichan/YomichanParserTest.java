@@ -2,7 +2,9 @@ package yomichan;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import yomichan.exception.YomichanException;
+import yomichan.generator.YomichanDictionaryGenerator;
 import yomichan.model.Index;
 import yomichan.model.YomichanDictionary;
 import yomichan.model.v3.Kanji;
@@ -10,17 +12,32 @@ import yomichan.model.v3.KanjiMetadata;
 import yomichan.model.v3.Tag;
 import yomichan.model.v3.Term;
 import yomichan.model.v3.TermMetadata;
+import yomichan.parser.IYomichanParser;
+import yomichan.parser.YomichanBankHandler;
 import yomichan.parser.YomichanParserType;
 import yomichan.utils.FileUtils;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static yomichan.ModelAssertions.assertDictionaryEquals;
 import static yomichan.parser.YomichanParserType.DICTIONARY;
 import static yomichan.parser.YomichanParserType.INDEX;
 import static yomichan.parser.YomichanParserType.KANJI;
@@ -103,6 +120,101 @@ class YomichanParserTest {
         }
     }
 
+    @Test
+    void testParseDictionaryAsync(@TempDir Path dir) throws IOException, ExecutionException, InterruptedException {
+        final YomichanDictionaryGenerator generator = YomichanDictionaryGenerator.small();
+        generator.setTermCount(300);
+        final File file = generator.generate(dir, "dictionary.zip");
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final YomichanDictionary expected = parser.parseDictionary(file);
+            final YomichanDictionary dictionary = parser.parseDictionaryAsync(file, executor).get();
+            assertEquals(expected.getIndex().getTitle(), dictionary.getIndex().getTitle());
+            assertEquals(expected.getTerms().size(), dictionary.getTerms().size());
+            assertEquals(expected.getTermMetadata().size(), dictionary.getTermMetadata().size());
+            assertEquals(expected.getKanjis().size(), dictionary.getKanjis().size());
+            for (int i = 0; i < expected.getTerms().size(); i++) {
+                assertEquals(expected.getTerms().get(i).getTerm(), dictionary.getTerms().get(i).getTerm());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testParseDictionaryWithHandler(@TempDir Path dir) throws IOException {
+        final YomichanDictionaryGenerator generator = YomichanDictionaryGenerator.small();
+        final File file = generator.generate(dir, "dictionary.zip");
+
+        final YomichanDictionary expected = parser.parseDictionary(file);
+        final List<String> banks = new ArrayList<>();
+        final List<Term> terms = new ArrayList<>();
+        parser.parseDictionary(file, new YomichanBankHandler() {
+            @Override
+            public void onIndex(Index index) {
+                banks.add(index.getTitle());
+            }
+
+            @Override
+            public void onTerms(List<Term> bank) {
+                banks.add("terms");
+                terms.addAll(bank);
+            }
+        });
+        assertEquals(List.of(generator.getTitle(), "terms", "terms", "terms"), banks);
+        assertEquals(expected.getTerms().size(), terms.size());
+    }
+
+    @Test
+    void testParseDictionaryFromMemory(@TempDir Path dir) throws IOException {
+        final YomichanDictionaryGenerator generator = YomichanDictionaryGenerator.small();
+        final File file = generator.generate(dir, "dictionary.zip");
+
+        final YomichanDictionary expected = parser.parseDictionary(file);
+        final byte[] bytes = Files.readAllBytes(file.toPath());
+        final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        final List<YomichanDictionary> dictionaries = new ArrayList<>();
+        dictionaries.add(parser.parseDictionary(bytes));
+        dictionaries.add(parser.parseDictionary(direct));
+        dictionaries.add(parser.parseDictionary(file.toPath()));
+        try (InputStream in = new FileInputStream(file)) {
+            dictionaries.add(parser.parseDictionary(in));
+        }
+        for (YomichanDictionary dictionary : dictionaries) {
+            assertEquals(generator.getTitle(), dictionary.getIndex().getTitle());
+            assertDictionaryEquals(expected, dictionary);
+        }
+        assertEquals(0, direct.position());
+    }
+
+    @Test
+    void testParseStreamWithFileParser() {
+        final List<File> files = new ArrayList<>();
+        final IYomichanParser<Long> lengths = file -> {
+            files.add(file);
+            return file.length();
+        };
+        assertEquals(8L, lengths.parse("[\"term\"]".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(1, files.size());
+        assertFalse(files.get(0).exists());
+    }
+
+    @Test
+    void testParseDictionaryAsyncWhenInvalid() {
+        final CompletableFuture<YomichanDictionary> future = parser.parseDictionaryAsync(new File(FILES_ROOT + "/index.json"), Runnable::run);
+        final ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertTrue(e.getCause() instanceof YomichanException);
+    }
+
+    @Test
+    void testParseTermsAsync() throws ExecutionException, InterruptedException {
+        for (File file : getFiles(TERM)) {
+            final List<Term> terms = parser.parseTermsAsync(file, Runnable::run).get();
+            assertEquals(parser.parseTerms(file).size(), terms.size());
+        }
+    }
+
     @Test
     void testParseTermWhenFileNotFound() {
         assertThrows(YomichanException.class, () -> parser.parseTerms("does_not_exist.json"));
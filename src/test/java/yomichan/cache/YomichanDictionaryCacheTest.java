@@ -0,0 +1,138 @@
+package yomichan.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import yomichan.YomichanParser;
+import yomichan.generator.YomichanDictionaryGenerator;
+import yomichan.model.Index;
+import yomichan.model.YomichanDictionary;
+import yomichan.model.v3.Term;
+import yomichan.writer.YomichanDictionaryWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static yomichan.ModelAssertions.assertDictionaryEquals;
+
+class YomichanDictionaryCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testParseDictionary() throws IOException {
+        final File file = generate("dictionary.zip", "Cached", 300);
+        final YomichanDictionaryCache cache = new YomichanDictionaryCache(dir.resolve("cache").toFile());
+
+        final YomichanDictionary parsed = cache.parseDictionary(file);
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertTrue(cache.size() > 0);
+
+        final YomichanDictionary cached = cache.parseDictionary(file);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        final YomichanDictionary expected = new YomichanParser().parseDictionary(file);
+        assertEquals("Cached", cached.getIndex().getTitle());
+        assertDictionaryEquals(expected, parsed);
+        assertDictionaryEquals(expected, cached);
+    }
+
+    @Test
+    void testParseDictionaryKeepsMissingValues() {
+        final Index index = new Index();
+        index.setTitle("Missing values");
+        index.setRevision("1");
+        index.setVersion(3);
+        final Term term = new Term();
+        term.setTerm("犬");
+        term.setReading("いぬ");
+        final File file = dir.resolve("missing.zip").toFile();
+        try (YomichanDictionaryWriter writer = new YomichanDictionaryWriter(file, index)) {
+            writer.writeTerm(term);
+        }
+
+        final YomichanDictionaryCache cache = new YomichanDictionaryCache(dir.resolve("cache").toFile());
+        final YomichanDictionary parsed = cache.parseDictionary(file);
+        final YomichanDictionary cached = cache.parseDictionary(file);
+        assertEquals(1, cache.getHits());
+        assertDictionaryEquals(parsed, cached);
+        assertNull(cached.getIndex().getDeclaredFormat());
+        assertEquals(3, cached.getIndex().getDeclaredVersion());
+        assertNull(cached.getTerms().get(0).getScore());
+        assertNull(cached.getTerms().get(0).getSequenceNumber());
+    }
+
+    @Test
+    void testKeys() throws IOException {
+        final File file = generate("dictionary.zip", "Keyed", 100);
+        final File other = generate("other.zip", "Other", 100);
+        final File copy = dir.resolve("copy.zip").toFile();
+        Files.copy(file.toPath(), copy.toPath());
+        copy.setLastModified(file.lastModified() + 60_000);
+
+        final YomichanDictionaryCache cache = new YomichanDictionaryCache(dir.resolve("cache").toFile());
+        assertEquals(cache.key(file), cache.key(file));
+        assertNotEquals(cache.key(file), cache.key(other));
+        assertNotEquals(cache.key(file), cache.key(copy));
+
+        cache.setKeyStrategy(YomichanDictionaryCache.KeyStrategy.CONTENT);
+        assertEquals(cache.key(file), cache.key(copy));
+        assertNotEquals(cache.key(file), cache.key(other));
+    }
+
+    @Test
+    void testEviction() throws IOException {
+        final File first = generate("first.zip", "First", 200);
+        final File second = generate("second.zip", "Second", 200);
+        final File cacheDirectory = dir.resolve("cache").toFile();
+
+        final YomichanDictionaryCache unbounded = new YomichanDictionaryCache(cacheDirectory);
+        unbounded.parseDictionary(first);
+        final long size = unbounded.size();
+        unbounded.clear();
+        assertEquals(0, unbounded.size());
+
+        // Room for a single entry, so caching the second dictionary evicts the first
+        final YomichanDictionaryCache cache = new YomichanDictionaryCache(cacheDirectory, size + size / 2);
+        cache.parseDictionary(first);
+        cache.parseDictionary(second);
+        cache.parseDictionary(second);
+        assertEquals(1, cache.getHits());
+        assertTrue(cache.size() <= size + size / 2);
+
+        cache.parseDictionary(first);
+        assertEquals(1, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    void testCorruptEntry() throws IOException {
+        final File file = generate("dictionary.zip", "Corrupt", 100);
+        final YomichanDictionaryCache cache = new YomichanDictionaryCache(dir.resolve("cache").toFile());
+        final int terms = cache.parseDictionary(file).getTerms().size();
+
+        final File entry = new File(cache.getDirectory(), cache.key(file) + YomichanDictionaryCache.EXTENSION);
+        Files.write(entry.toPath(), new byte[]{1, 2, 3});
+
+        assertEquals(terms, cache.parseDictionary(file).getTerms().size());
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(terms, cache.parseDictionary(file).getTerms().size());
+        assertEquals(1, cache.getHits());
+    }
+
+    private File generate(String name, String title, int terms) throws IOException {
+        final YomichanDictionaryGenerator generator = YomichanDictionaryGenerator.small();
+        generator.setTitle(title);
+        generator.setTermCount(terms);
+        return generator.generate(dir, name);
+    }
+}
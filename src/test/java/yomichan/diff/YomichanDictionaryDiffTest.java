@@ -0,0 +1,104 @@
+package yomichan.diff;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import yomichan.YomichanParser;
+import yomichan.generator.YomichanDictionaryGenerator;
+import yomichan.model.YomichanDictionary;
+import yomichan.model.v3.Kanji;
+import yomichan.model.v3.Term;
+import yomichan.parser.YomichanParserType;
+import yomichan.writer.YomichanDictionaryWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YomichanDictionaryDiffTest {
+
+    @TempDir
+    Path dir;
+
+    private final YomichanParser parser = new YomichanParser();
+
+    @Test
+    void testDiff() throws IOException {
+        final File previous = YomichanDictionaryGenerator.small().generate(dir, "previous.zip");
+        final YomichanDictionary dictionary = parser.parseDictionary(previous);
+        final int rows = dictionary.getTags().size() + dictionary.getTerms().size() + dictionary.getTermMetadata().size()
+            + dictionary.getKanjis().size() + dictionary.getKanjiMetadata().size();
+
+        final List<Term> terms = new ArrayList<>(dictionary.getTerms());
+        final Term removed = terms.remove(10);
+        final Term changed = terms.get(20);
+        changed.setScore(changed.getScore() + 1);
+        final Term added = new Term();
+        added.setTerm("新語");
+        added.setReading("しんご");
+        terms.add(added);
+        dictionary.setTerms(terms);
+        final Kanji kanji = dictionary.getKanjis().get(0);
+        kanji.setMeanings(List.of("changed"));
+        dictionary.getIndex().setRevision("2");
+        final File current = write(dictionary, "current.zip");
+
+        final List<RowChange> changes = new ArrayList<>();
+        final DiffSummary summary = new YomichanDictionaryDiff(parser).diff(previous, current, changes::add);
+        assertEquals("1", summary.getPreviousRevision());
+        assertEquals("2", summary.getRevision());
+        assertEquals(1, summary.getAdded());
+        assertEquals(1, summary.getRemoved());
+        assertEquals(2, summary.getChanged());
+        assertEquals(rows - 3, summary.getUnchanged());
+        assertTrue(summary.isChanged());
+
+        assertEquals(4, changes.size());
+        assertChange(changes, ChangeType.ADDED, YomichanParserType.TERM, added);
+        assertChange(changes, ChangeType.CHANGED, YomichanParserType.TERM, changed);
+        assertChange(changes, ChangeType.CHANGED, YomichanParserType.KANJI, kanji);
+        assertChange(changes, ChangeType.REMOVED, YomichanParserType.TERM, removed);
+        // Removed rows are only found after the new revision has been read
+        assertSame(ChangeType.REMOVED, changes.get(3).getType());
+    }
+
+    @Test
+    void testUnchanged() throws IOException {
+        final File previous = YomichanDictionaryGenerator.small().generate(dir, "previous.zip");
+        // Rewriting the same rows into differently sized banks doesn't change them
+        final YomichanDictionary dictionary = parser.parseDictionary(previous);
+        final File current = dir.resolve("rewritten.zip").toFile();
+        try (YomichanDictionaryWriter writer = new YomichanDictionaryWriter(current, dictionary.getIndex(), 33)) {
+            writer.write(dictionary);
+        }
+
+        final DiffSummary summary = new YomichanDictionaryDiff(parser).diff(previous, current, change -> {
+            throw new AssertionError("Unexpected change " + change);
+        });
+        assertFalse(summary.isChanged());
+        assertTrue(new YomichanDictionaryDiff(parser).diff(previous, previous).isEmpty());
+    }
+
+    private static void assertChange(List<RowChange> changes, ChangeType type, YomichanParserType bank, Object row) {
+        for (RowChange change : changes) {
+            if (change.getType() == type && change.getBank() == bank && change.getRow().equals(row)) {
+                return;
+            }
+        }
+        throw new AssertionError("Missing " + type + " " + bank + " change " + row + " in " + changes);
+    }
+
+    private File write(YomichanDictionary dictionary, String name) {
+        final File file = dir.resolve(name).toFile();
+        try (YomichanDictionaryWriter writer = new YomichanDictionaryWriter(file, dictionary.getIndex())) {
+            writer.write(dictionary);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,109 @@
+package yomichan.export;
+
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.ZipParameters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import yomichan.exception.YomichanException;
+import yomichan.generator.YomichanDictionaryGenerator;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YomichanSqliteExporterTest {
+
+    @TempDir
+    Path dir;
+
+    private YomichanSqliteExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new YomichanSqliteExporter();
+        exporter.setBatchSize(64);
+    }
+
+    @Test
+    void testExport() throws IOException, SQLException {
+        final File database = dir.resolve("dictionaries.db").toFile();
+        exporter.export(generate("a.zip", "Dictionary A"), database);
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database.getAbsolutePath())) {
+            assertEquals(1, count(connection, "SELECT COUNT(*) FROM dictionaries WHERE title = 'Dictionary A'"));
+            assertEquals(250, count(connection, "SELECT COUNT(*) FROM terms"));
+            assertEquals(120, count(connection, "SELECT COUNT(*) FROM term_meta"));
+            assertEquals(20, count(connection, "SELECT COUNT(*) FROM term_meta WHERE mode = 'pitch' AND pitches IS NOT NULL"));
+            assertEquals(10, count(connection, "SELECT COUNT(*) FROM kanji"));
+            assertEquals(10, count(connection, "SELECT COUNT(*) FROM kanji_meta"));
+            assertEquals(16, count(connection, "SELECT COUNT(*) FROM tags"));
+            assertEquals(0, count(connection, "SELECT COUNT(*) FROM terms WHERE glossary IS NULL"));
+            assertTrue(count(connection, "SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name = 'idx_terms_expression'") > 0);
+        }
+    }
+
+    @Test
+    void testExportReplacesPreviousExport() throws IOException, SQLException {
+        final File database = dir.resolve("dictionaries.db").toFile();
+        final File a = generate("a.zip", "Dictionary A");
+        exporter.export(a, database);
+        exporter.export(generate("b.zip", "Dictionary B"), database);
+        exporter.export(a, database);
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database.getAbsolutePath())) {
+            assertEquals(2, count(connection, "SELECT COUNT(*) FROM dictionaries"));
+            assertEquals(500, count(connection, "SELECT COUNT(*) FROM terms"));
+            assertEquals(250, count(connection, "SELECT COUNT(*) FROM terms t JOIN dictionaries d ON d.id = t.dictionary WHERE d.title = 'Dictionary A'"));
+        }
+    }
+
+    @Test
+    void testFailedExportKeepsPreviousExport() throws IOException, SQLException {
+        final File database = dir.resolve("dictionaries.db").toFile();
+        final File a = generate("a.zip", "Dictionary A");
+        exporter.export(a, database);
+
+        // Same title, with a term bank that can't be parsed after the first ones were loaded
+        final File broken = dir.resolve("broken.zip").toFile();
+        Files.copy(a.toPath(), broken.toPath());
+        try (ZipFile zip = new ZipFile(broken)) {
+            final ZipParameters parameters = new ZipParameters();
+            parameters.setFileNameInZip("term_bank_9.json");
+            zip.addStream(new ByteArrayInputStream("[1]".getBytes(StandardCharsets.UTF_8)), parameters);
+        }
+        assertThrows(YomichanException.class, () -> exporter.export(broken, database));
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database.getAbsolutePath())) {
+            assertEquals(1, count(connection, "SELECT COUNT(*) FROM dictionaries"));
+            assertEquals(250, count(connection, "SELECT COUNT(*) FROM terms"));
+            assertEquals(120, count(connection, "SELECT COUNT(*) FROM term_meta"));
+            assertEquals(10, count(connection, "SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name LIKE 'idx_%'"));
+        }
+    }
+
+    private static long count(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private File generate(String name, String title) throws IOException {
+        final YomichanDictionaryGenerator generator = YomichanDictionaryGenerator.small();
+        generator.setTitle(title);
+        return generator.generate(dir, name);
+    }
+}
@@ -0,0 +1,70 @@
+package yomichan.generator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import yomichan.YomichanParser;
+import yomichan.model.YomichanDictionary;
+import yomichan.model.v3.Term;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class YomichanDictionaryGeneratorTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testGenerate() throws IOException {
+        final YomichanDictionaryGenerator generator = generator();
+        final File file = dir.resolve("generated.zip").toFile();
+        generator.generate(file);
+
+        final YomichanDictionary dictionary = new YomichanParser().parseDictionary(file);
+        assertEquals("Generated Dictionary", dictionary.getIndex().getTitle());
+        assertEquals(250, dictionary.getTerms().size());
+        assertEquals(150, dictionary.getTermMetadata().size());
+        assertEquals(40, dictionary.getKanjis().size());
+        assertEquals(40, dictionary.getKanjiMetadata().size());
+        assertFalse(dictionary.getTags().isEmpty());
+
+        final Term term = dictionary.getTerms().get(7);
+        assertEquals(generator.getTerm(7), term.getTerm());
+        assertEquals(generator.getReading(7), term.getReading());
+        assertEquals(8, term.getSequenceNumber());
+        assertFalse(term.getContents().isEmpty());
+    }
+
+    @Test
+    void testGenerateIsDeterministic() throws IOException {
+        final File a = dir.resolve("a.zip").toFile();
+        final File b = dir.resolve("b.zip").toFile();
+        generator().generate(a);
+        generator().generate(b);
+
+        final YomichanParser parser = new YomichanParser();
+        final List<Term> first = parser.parseDictionary(a).getTerms();
+        final List<Term> second = parser.parseDictionary(b).getTerms();
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getTerm(), second.get(i).getTerm());
+            assertEquals(first.get(i).getReading(), second.get(i).getReading());
+            assertEquals(first.get(i).getScore(), second.get(i).getScore());
+            assertEquals(first.get(i).getContents().size(), second.get(i).getContents().size());
+        }
+    }
+
+    private YomichanDictionaryGenerator generator() {
+        final YomichanDictionaryGenerator generator = YomichanDictionaryGenerator.small();
+        generator.setFrequencyCount(120);
+        generator.setPitchCount(30);
+        generator.setKanjiCount(40);
+        generator.setImageCount(5);
+        return generator;
+    }
+}
@@ -0,0 +1,101 @@
+package yomichan.importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import yomichan.generator.YomichanDictionaryGenerator;
+import yomichan.model.YomichanDictionary;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YomichanBulkImporterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testImportDirectory() throws IOException {
+        generate(4);
+        Files.writeString(dir.resolve("broken.zip"), "not a zip", StandardCharsets.UTF_8);
+        Files.writeString(dir.resolve("notes.txt"), "ignored", StandardCharsets.UTF_8);
+
+        final Map<String, Integer> terms = new ConcurrentHashMap<>();
+        final List<ImportProgress> progress = new ArrayList<>();
+        final YomichanBulkImporter importer = new YomichanBulkImporter();
+        importer.setThreads(3);
+        final ImportResult result = importer.importDirectory(dir.toFile(), new BulkImportHandler() {
+            @Override
+            public void onDictionary(File file, YomichanDictionary dictionary) {
+                terms.put(dictionary.getIndex().getTitle(), dictionary.getTerms().size());
+            }
+
+            @Override
+            public void onProgress(ImportProgress update) {
+                progress.add(update);
+            }
+        });
+
+        assertFalse(result.isSuccessful());
+        assertEquals(4, result.getImported().size());
+        assertEquals(Set.of(dir.resolve("broken.zip").toFile()), result.getFailures().keySet());
+        assertEquals(Map.of("Dictionary 1", 100, "Dictionary 2", 200, "Dictionary 3", 300, "Dictionary 4", 400), terms);
+
+        assertEquals(5, progress.size());
+        for (int i = 0; i < progress.size(); i++) {
+            assertEquals(i + 1, progress.get(i).getCompleted());
+            assertEquals(5, progress.get(i).getTotal());
+        }
+        final ImportProgress last = progress.get(progress.size() - 1);
+        assertEquals(last.getTotalBytes(), last.getCompletedBytes());
+        assertEquals(1.0, last.getFraction());
+        assertEquals(4, progress.stream().filter(ImportProgress::isImported).count());
+    }
+
+    @Test
+    void testMemoryBudget() throws IOException {
+        generate(4);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final YomichanBulkImporter importer = new YomichanBulkImporter();
+        importer.setThreads(4);
+        // Every dictionary is larger than the whole budget, so they have to be imported one at a time
+        importer.setMemoryBudget(1024);
+        final ImportResult result = importer.importDirectory(dir.toFile(), (file, dictionary) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        });
+
+        assertTrue(result.isSuccessful(), result.getFailures().toString());
+        assertEquals(4, result.getImported().size());
+        assertEquals(1, maxRunning.get());
+        // Largest first
+        assertEquals(dir.resolve("dictionary_4.zip").toFile(), result.getImported().get(0));
+    }
+
+    private void generate(int count) throws IOException {
+        for (int i = 1; i <= count; i++) {
+            final YomichanDictionaryGenerator generator = YomichanDictionaryGenerator.small();
+            generator.setTitle("Dictionary " + i);
+            generator.setTermCount(100 * i);
+            generator.generate(dir, "dictionary_" + i + ".zip");
+        }
+    }
+}
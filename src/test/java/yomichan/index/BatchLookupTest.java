@@ -0,0 +1,75 @@
+package yomichan.index;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import yomichan.model.v3.Term;
+import yomichan.scanner.ScanSpan;
+import yomichan.scanner.TextScanner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchLookupTest {
+
+    private static final LookupIndex INDEX = new LookupIndex();
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @BeforeAll
+    static void setUp() {
+        INDEX.add(LookupIndexTest.dictionary());
+    }
+
+    @AfterAll
+    static void tearDown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    void testFind() {
+        final List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            keys.add(switch (i % 4) {
+                case 0 -> "引き合わせる";
+                case 1 -> "ひきあわせる";
+                case 2 -> "存在しない" + i;
+                default -> "する";
+            });
+        }
+        keys.add(null);
+        final BatchLookup batch = new BatchLookup(INDEX, POOL);
+
+        final List<List<IndexEntry<Term>>> terms = batch.findTerms(keys);
+        assertEquals(keys.size(), terms.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(INDEX.findTerms(keys.get(i)), terms.get(i), "key " + i);
+        }
+        // Repeated keys are only looked up once
+        assertSame(terms.get(0), terms.get(4));
+        assertTrue(terms.get(keys.size() - 1).isEmpty());
+
+        final List<List<IndexEntry<?>>> frequencies = batch.find(LookupType.FREQUENCY, List.of("する", "存在しない", "する"));
+        assertEquals(List.of(1, 0, 1), List.of(frequencies.get(0).size(), frequencies.get(1).size(), frequencies.get(2).size()));
+        assertTrue(batch.findTerms(List.of()).isEmpty());
+    }
+
+    @Test
+    void testScan() {
+        final TextScanner scanner = new TextScanner(List.of(LookupIndexTest.dictionary()));
+        final List<String> documents = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            documents.add(i % 2 == 0 ? "引き出しを引き出した" : i + "回引き合わせました");
+        }
+
+        final List<List<ScanSpan>> spans = new BatchLookup(INDEX, POOL).scan(scanner, documents);
+        assertEquals(documents.size(), spans.size());
+        for (int i = 0; i < documents.size(); i++) {
+            assertEquals(scanner.scan(documents.get(i)), spans.get(i), documents.get(i));
+        }
+    }
+}
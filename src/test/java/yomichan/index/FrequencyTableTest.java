@@ -0,0 +1,92 @@
+package yomichan.index;
+
+import org.junit.jupiter.api.Test;
+import yomichan.model.Index;
+import yomichan.model.YomichanDictionary;
+import yomichan.model.v3.TermMetadata;
+import yomichan.model.v3.term.meta.Frequency;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrequencyTableTest {
+
+    @Test
+    void testPercentiles() {
+        final YomichanDictionary ranks = dictionary("Ranks", null, List.of(
+            frequency("日本", null, 1),
+            frequency("言語", null, 2),
+            frequency("言語", null, 2),
+            frequency("猫", null, 3),
+            frequency("犬", null, 4)
+        ));
+        final YomichanDictionary occurrences = dictionary("Occurrences", Index.FrequencyMode.OCCURRENCE, List.of(
+            frequency("犬", null, 9000),
+            frequency("猫", null, 10),
+            frequency("日本", null, 500)
+        ));
+        final YomichanDictionary empty = dictionary("Empty", null, List.of());
+        final FrequencyTable table = new FrequencyTable(List.of(ranks, empty, occurrences));
+
+        assertEquals(List.of("Ranks", "Occurrences"), table.getDictionaries());
+        final int dog = table.id("犬", null);
+        assertEquals(0.25f, table.getPercentile(0, dog));
+        assertEquals(1f, table.getPercentile(1, dog));
+        assertEquals(0.625f, table.getPercentile(dog));
+        // The most frequent occurrence count ranks first, like the lowest rank
+        assertEquals(1f, table.getPercentile(0, table.id("日本", null)));
+        assertEquals(1f / 3, table.getPercentile(1, table.id("猫", null)), 1e-6);
+        // Missing frequencies
+        assertTrue(Float.isNaN(table.getPercentile(1, table.id("言語", null))));
+        assertEquals(0.75f, table.getPercentile("言語", null));
+        assertEquals(-1, table.id("存在しない", null));
+        assertTrue(Float.isNaN(table.getPercentile("存在しない", null)));
+    }
+
+    @Test
+    void testReadings() {
+        final YomichanDictionary readings = dictionary("Readings", null, List.of(
+            frequency("日", "ひ", 10),
+            frequency("日", "にち", 20),
+            frequency("月", null, 30),
+            frequency("日", "か", 40)
+        ));
+        final YomichanDictionary terms = dictionary("Terms", null, List.of(
+            frequency("月", null, 1),
+            frequency("日", null, 2)
+        ));
+        final FrequencyTable table = new FrequencyTable(List.of(readings, terms));
+
+        assertEquals(1f, table.getPercentile(0, table.id("日", "ひ")));
+        assertEquals(0.75f, table.getPercentile(0, table.id("日", "にち")));
+        // Unknown readings fall back to the term, which has the frequency of its most frequent reading
+        assertEquals(table.id("日", null), table.id("日", "じつ"));
+        assertEquals(1f, table.getPercentile(0, table.id("日", "じつ")));
+        // Frequencies without a reading apply to every reading of the term
+        assertEquals(0.5f, table.getPercentile(1, table.id("日", "か")));
+        assertEquals(0.5f, table.getPercentile(1, table.id("日", "ひ")));
+        assertEquals(0.75f, table.getPercentile("日", "ひ"));
+    }
+
+    private static YomichanDictionary dictionary(String title, Index.FrequencyMode mode, List<TermMetadata> metadata) {
+        final Index index = new Index();
+        index.setTitle(title);
+        index.setFrequencyMode(mode);
+        final YomichanDictionary dictionary = new YomichanDictionary();
+        dictionary.setIndex(index);
+        dictionary.setTermMetadata(metadata);
+        return dictionary;
+    }
+
+    private static TermMetadata frequency(String text, String reading, int value) {
+        final Frequency frequency = new Frequency(value);
+        frequency.setReading(reading);
+        final TermMetadata meta = new TermMetadata();
+        meta.setText(text);
+        meta.setType(TermMetadata.Type.FREQUENCY);
+        meta.setFrequency(frequency);
+        return meta;
+    }
+}
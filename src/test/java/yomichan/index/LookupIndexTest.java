@@ -0,0 +1,83 @@
+package yomichan.index;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import yomichan.YomichanParser;
+import yomichan.model.YomichanDictionary;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.TermMetadata;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LookupIndexTest {
+
+    private static final String RESOURCES = "src/test/resources/yomichan/";
+    private static final LookupIndex INDEX = new LookupIndex();
+
+    @BeforeAll
+    static void setUp() {
+        INDEX.add(dictionary());
+    }
+
+    @Test
+    void testFindTerms() {
+        final List<IndexEntry<Term>> byExpression = INDEX.findTerms("引き合わせる");
+        assertEquals(1, byExpression.size());
+        assertEquals("JMdict Extra", byExpression.get(0).getDictionary());
+        assertEquals("ひきあわせる", byExpression.get(0).getValue().getReading());
+
+        final List<IndexEntry<Term>> byReading = INDEX.findTerms("ひきあわせる");
+        assertEquals(13, byReading.size());
+        assertTrue(INDEX.findTerms("存在しない").isEmpty());
+        assertTrue(INDEX.findTerms(null).isEmpty());
+    }
+
+    @Test
+    void testFindKanjiAndMetadata() {
+        assertEquals(1, INDEX.findKanji("亜").size());
+        assertEquals(1, INDEX.findKanjiFrequencies("人").size());
+        assertEquals(1, INDEX.findKanjiFrequencies("人").get(0).getValue().getFrequency());
+
+        final List<IndexEntry<TermMetadata>> frequencies = INDEX.findFrequencies("する");
+        assertEquals(1, frequencies.size());
+        assertEquals(12, frequencies.get(0).getValue().getFrequency().getValue());
+
+        final List<IndexEntry<TermMetadata>> pitches = INDEX.findPitches("積雪");
+        assertEquals(1, pitches.size());
+        assertEquals("せきせつ", pitches.get(0).getValue().getPitches().getReading());
+        assertTrue(INDEX.findPitches("する").isEmpty());
+    }
+
+    @Test
+    void testMultipleDictionaries() {
+        final LookupIndex index = new LookupIndex();
+        index.add(dictionary());
+        final YomichanDictionary other = dictionary();
+        other.getIndex().setTitle("Other");
+        index.add(other);
+
+        assertEquals(List.of("JMdict Extra", "Other"), index.getDictionaries());
+        final List<IndexEntry<Term>> terms = index.findTerms("引き合わせる");
+        assertEquals(2, terms.size());
+        assertEquals("JMdict Extra", terms.get(0).getDictionary());
+        assertEquals("Other", terms.get(1).getDictionary());
+        assertEquals(INDEX.size(LookupType.TERM), index.size(LookupType.TERM));
+    }
+
+    static YomichanDictionary dictionary() {
+        final YomichanParser parser = new YomichanParser();
+        final YomichanDictionary dictionary = new YomichanDictionary();
+        dictionary.setIndex(parser.parseIndex(RESOURCES + "index.json"));
+        dictionary.setTerms(parser.parseTerms(RESOURCES + "term_bank_1.json"));
+        dictionary.setKanjis(parser.parseKanjis(RESOURCES + "kanji_bank_1.json"));
+        dictionary.setKanjiMetadata(parser.parseKanjiMetadata(RESOURCES + "kanji_meta_bank_1.json"));
+        final List<TermMetadata> metadata = new ArrayList<>(parser.parseTermMetadata(RESOURCES + "term_meta_bank_1.json"));
+        metadata.addAll(parser.parseTermMetadata(RESOURCES + "term_meta_bank_2.json"));
+        dictionary.setTermMetadata(metadata);
+        return dictionary;
+    }
+}
@@ -0,0 +1,121 @@
+package yomichan.index;
+
+import org.junit.jupiter.api.Test;
+import yomichan.model.Index;
+import yomichan.model.YomichanDictionary;
+import yomichan.model.v3.Term;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoredTermIndexTest {
+
+    @Test
+    void testTopAndPage() {
+        final List<Term> terms = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            terms.add(term("項" + i, "こう", (i * 37) % 100));
+        }
+        final ScoredTermIndex index = new ScoredTermIndex(List.of(dictionary("Test", terms)));
+
+        assertEquals(300, index.count("こう"));
+        assertEquals(1, index.count("項0"));
+        final List<IndexEntry<Term>> top = index.top("こう", 10);
+        assertEquals(10, top.size());
+        assertEquals("Test", top.get(0).getDictionary());
+
+        // Pages follow each other in score order, with ties in dictionary order
+        final List<Term> all = new ArrayList<>();
+        for (int offset = 0; offset < 300; offset += 7) {
+            for (IndexEntry<Term> entry : index.page("こう", offset, 7)) {
+                all.add(entry.getValue());
+            }
+        }
+        final List<Term> expected = new ArrayList<>(terms);
+        expected.sort((a, b) -> Integer.compare(b.getScore(), a.getScore()));
+        assertEquals(expected, all);
+        assertEquals(expected.subList(0, 10), values(top));
+
+        assertTrue(index.page("こう", 300, 10).isEmpty());
+        assertTrue(index.top("存在しない", 10).isEmpty());
+        assertTrue(index.top(null, 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.page("こう", -1, 10));
+    }
+
+    @Test
+    void testPrefix() {
+        final Term nihon = term("日本", "にほん", 5);
+        final Term nihongo = term("日本語", "にほんご", 10);
+        final Term nihonkai = term("日本海", "にほんかい", 1);
+        final Term nihonmatsu = term("にほんまつ", "", 3);
+        final Term nippon = term("日本", "にっぽん", 8);
+        final ScoredTermIndex index = new ScoredTermIndex(List.of(
+            dictionary("A", List.of(nihon, nihongo)),
+            dictionary("B", List.of(nihonkai, nihonmatsu, nippon))
+        ));
+
+        assertEquals(List.of(nihongo, nihon, nihonmatsu, nihonkai), values(index.topWithPrefix("にほ", 10)));
+        assertEquals(List.of(nihongo, nihon), values(index.topWithPrefix("にほ", 2)));
+        assertEquals(List.of(nihonmatsu, nihonkai), values(index.pageWithPrefix("にほ", 2, 5)));
+        // Terms matching through both their expression and reading are only returned once
+        assertEquals(List.of(nihongo, nippon, nihon, nihonkai), values(index.topWithPrefix("日本", 10)));
+        assertEquals(List.of(nippon, nihon), values(index.top("日本", 10)));
+        assertTrue(index.topWithPrefix("ん", 10).isEmpty());
+    }
+
+    @Test
+    void testPrefixOverManyKeys() {
+        final List<Term> terms = new ArrayList<>();
+        final Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            final String reading = "か" + (char) ('あ' + random.nextInt(40)) + (char) ('あ' + random.nextInt(40));
+            terms.add(term(reading.substring(0, 2) + i, random.nextBoolean() ? reading : "", random.nextInt(50)));
+        }
+        final ScoredTermIndex index = new ScoredTermIndex(List.of(dictionary("Test", terms)));
+
+        for (String prefix : List.of("か", "かい", "かいか")) {
+            final List<Term> expected = new ArrayList<>();
+            for (Term term : terms) {
+                if (term.getTerm().startsWith(prefix) || term.getReading().startsWith(prefix)) {
+                    expected.add(term);
+                }
+            }
+            // Stable, so ties stay in dictionary order
+            expected.sort((a, b) -> Integer.compare(b.getScore(), a.getScore()));
+            final int count = expected.size();
+            assertEquals(expected.subList(0, Math.min(25, count)), values(index.topWithPrefix(prefix, 25)));
+            assertEquals(expected.subList(Math.min(40, count), Math.min(60, count)), values(index.pageWithPrefix(prefix, 40, 20)));
+            assertEquals(expected, values(index.topWithPrefix(prefix, terms.size())));
+        }
+    }
+
+    private static List<Term> values(List<IndexEntry<Term>> entries) {
+        final List<Term> values = new ArrayList<>();
+        for (IndexEntry<Term> entry : entries) {
+            values.add(entry.getValue());
+        }
+        return values;
+    }
+
+    private static YomichanDictionary dictionary(String title, List<Term> terms) {
+        final Index index = new Index();
+        index.setTitle(title);
+        final YomichanDictionary dictionary = new YomichanDictionary();
+        dictionary.setIndex(index);
+        dictionary.setTerms(terms);
+        return dictionary;
+    }
+
+    private static Term term(String text, String reading, int score) {
+        final Term term = new Term();
+        term.setTerm(text);
+        term.setReading(reading);
+        term.setScore(score);
+        return term;
+    }
+}
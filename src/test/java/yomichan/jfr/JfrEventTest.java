@@ -0,0 +1,95 @@
+package yomichan.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import yomichan.YomichanParser;
+import yomichan.index.BatchLookup;
+import yomichan.index.LookupIndex;
+import yomichan.index.ScoredTermIndex;
+import yomichan.model.YomichanDictionary;
+import yomichan.scanner.TextScanner;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JfrEventTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testBankParseEvent() throws IOException {
+        final Path output = dir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(BankParseEvent.class).withoutThreshold();
+            recording.start();
+            new YomichanParser().parseTags("src/test/resources/yomichan/tag_bank_1.json");
+            recording.stop();
+            recording.dump(output);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(output).stream()
+            .filter(e -> e.getEventType().getName().equals("yomichan.BankParse"))
+            .toList();
+        assertFalse(events.isEmpty());
+        final RecordedEvent event = events.get(0);
+        assertEquals("TAG", event.getString("type"));
+        assertEquals("tag_bank_1.json", event.getString("fileName"));
+        assertEquals(312, event.getInt("rows"));
+    }
+
+    @Test
+    void testLookupEvents() throws IOException {
+        final YomichanDictionary dictionary = new YomichanDictionary();
+        dictionary.setTerms(new YomichanParser().parseTerms("src/test/resources/yomichan/term_bank_1.json"));
+        final LookupIndex index = new LookupIndex();
+        index.add(dictionary);
+        final TextScanner scanner = new TextScanner(List.of(dictionary));
+        final ScoredTermIndex scored = new ScoredTermIndex(List.of(dictionary));
+        final ForkJoinPool pool = new ForkJoinPool(2);
+
+        final Path output = dir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ScanEvent.class).withoutThreshold();
+            recording.enable(ScoredLookupEvent.class).withoutThreshold();
+            recording.enable(BatchLookupEvent.class).withoutThreshold();
+            recording.start();
+            scanner.scanAt("引き出した", 0);
+            scored.topWithPrefix("引き", 5);
+            new BatchLookup(index, pool).findTerms(List.of("引き出す", "引き出す", "する"));
+            recording.stop();
+            recording.dump(output);
+        } finally {
+            pool.shutdown();
+        }
+
+        final Map<String, RecordedEvent> events = RecordingFile.readAllEvents(output).stream()
+            .collect(Collectors.toMap(e -> e.getEventType().getName(), Function.identity(), (a, b) -> a));
+        final RecordedEvent scan = events.get("yomichan.Scan");
+        assertEquals(0, scan.getInt("start"));
+        assertEquals(1, scan.getInt("positions"));
+        assertEquals(1, scan.getInt("spans"));
+        final RecordedEvent lookup = events.get("yomichan.ScoredLookup");
+        assertEquals("引き", lookup.getString("key"));
+        assertTrue(lookup.getBoolean("prefix"));
+        assertEquals(5, lookup.getInt("limit"));
+        assertEquals(5, lookup.getInt("results"));
+        final RecordedEvent batch = events.get("yomichan.BatchLookup");
+        assertEquals("TERM", batch.getString("type"));
+        assertEquals(3, batch.getInt("keys"));
+        assertEquals(2, batch.getInt("distinct"));
+        assertEquals(2, batch.getInt("parallelism"));
+    }
+}
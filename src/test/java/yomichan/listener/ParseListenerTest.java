@@ -0,0 +1,149 @@
+package yomichan.listener;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import yomichan.YomichanParser;
+import yomichan.exception.YomichanException;
+import yomichan.generator.YomichanDictionaryGenerator;
+import yomichan.model.YomichanDictionary;
+import yomichan.parser.YomichanParserType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParseListenerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testDictionaryEvents() throws IOException {
+        final File file = YomichanDictionaryGenerator.small().generate(dir, "dictionary.zip");
+
+        final RecordingListener listener = new RecordingListener();
+        final YomichanDictionary dictionary = new YomichanParser(listener).parseDictionary(file);
+
+        assertEquals(1, listener.started);
+        assertNotNull(listener.extract);
+        assertTrue(listener.extract.getEntries() > 0);
+        assertTrue(listener.extract.getUncompressedBytes() > 0);
+        assertEquals(listener.bankStarts, listener.banks.size());
+
+        final List<BankEvent> terms = listener.banks.stream().filter(e -> e.getType() == YomichanParserType.TERM).toList();
+        assertEquals(3, terms.size());
+        assertEquals(250, terms.stream().mapToInt(BankEvent::getRows).sum());
+        terms.forEach(e -> assertEquals(e.getFile().length(), e.getBytes()));
+
+        assertNotNull(listener.dictionary);
+        assertEquals(dictionary.getTerms().size(), listener.dictionary.getRows().get(YomichanParserType.TERM));
+        assertEquals(dictionary.getKanjis().size(), listener.dictionary.getRows().get(YomichanParserType.KANJI));
+        assertEquals(1, listener.dictionary.getRows().get(YomichanParserType.INDEX));
+    }
+
+    @Test
+    void testDictionaryStreamEvents() throws IOException {
+        final File file = YomichanDictionaryGenerator.small().generate(dir, "dictionary.zip");
+
+        final RecordingListener listener = new RecordingListener();
+        final YomichanDictionary dictionary;
+        try (InputStream in = new FileInputStream(file)) {
+            dictionary = new YomichanParser(listener).parseDictionary(in);
+        }
+
+        assertEquals(1, listener.started);
+        assertNotNull(listener.dictionary);
+        assertEquals(file.length(), listener.dictionary.getBytes());
+        assertEquals(250, listener.dictionary.getRows().get(YomichanParserType.TERM));
+        assertEquals(listener.bankStarts, listener.banks.size());
+        assertEquals(0, listener.failures);
+        final List<BankEvent> terms = listener.banks.stream().filter(e -> e.getType() == YomichanParserType.TERM).toList();
+        assertEquals(3, terms.size());
+        assertEquals(250, terms.stream().mapToInt(BankEvent::getRows).sum());
+        terms.forEach(e -> assertTrue(e.getFile().getName().startsWith("term_bank_"), e.getFile().getName()));
+        terms.forEach(e -> assertTrue(e.getBytes() > 0));
+        assertEquals(250, dictionary.getTerms().size());
+    }
+
+    @Test
+    void testDictionaryStreamFailed() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("term_bank_1.json"));
+            zip.write('{');
+            zip.closeEntry();
+        }
+        final byte[] bytes = out.toByteArray();
+
+        final RecordingListener listener = new RecordingListener();
+        assertThrows(YomichanException.class, () -> new YomichanParser(listener).parseDictionary(bytes));
+        assertEquals(1, listener.started);
+        assertEquals(1, listener.dictionaryFailures);
+    }
+
+    @Test
+    void testBankFailed() {
+        final RecordingListener listener = new RecordingListener();
+        final YomichanParser parser = new YomichanParser(listener);
+        assertThrows(YomichanException.class, () -> parser.parseTerms("src/test/resources/yomichan/tag_bank_1.json"));
+        assertEquals(1, listener.bankStarts);
+        assertEquals(1, listener.failures);
+    }
+
+    private static class RecordingListener implements ParseListener {
+        int started;
+        int bankStarts;
+        int failures;
+        int dictionaryFailures;
+        ExtractEvent extract;
+        DictionaryEvent dictionary;
+        final List<BankEvent> banks = new ArrayList<>();
+
+        @Override
+        public void onDictionaryStarted(File file) {
+            started++;
+        }
+
+        @Override
+        public void onDictionaryExtracted(ExtractEvent event) {
+            extract = event;
+        }
+
+        @Override
+        public void onDictionaryFinished(DictionaryEvent event) {
+            dictionary = event;
+        }
+
+        @Override
+        public void onDictionaryFailed(File file, Throwable cause) {
+            dictionaryFailures++;
+        }
+
+        @Override
+        public void onBankStarted(YomichanParserType type, File file) {
+            bankStarts++;
+        }
+
+        @Override
+        public void onBankFinished(BankEvent event) {
+            banks.add(event);
+        }
+
+        @Override
+        public void onBankFailed(YomichanParserType type, File file, Throwable cause) {
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package yomichan.media;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import yomichan.YomichanParser;
+import yomichan.generator.YomichanDictionaryGenerator;
+import yomichan.model.YomichanDictionary;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YomichanMediaAccessorTest {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testGet() throws IOException {
+        try (YomichanMediaAccessor media = new YomichanMediaAccessor(generate())) {
+            assertEquals(10, media.getPaths().size());
+            assertFalse(media.contains("index.json"));
+            assertTrue(media.get("img/does_not_exist.png").isEmpty());
+
+            final ByteBuffer image = media.get("img/0.png").orElseThrow();
+            final byte[] signature = new byte[PNG_SIGNATURE.length];
+            image.get(signature);
+            assertArrayEquals(PNG_SIGNATURE, signature);
+            assertTrue(image.isReadOnly());
+            assertThrows(ReadOnlyBufferException.class, () -> image.put(0, (byte) 0));
+
+            // A cache hit returns its own buffer over the same contents
+            final ByteBuffer cached = media.get("img/0.png").orElseThrow();
+            assertEquals(0, cached.position());
+            assertEquals(image.rewind(), cached);
+            assertEquals(1, media.getCacheHits());
+            assertEquals(1, media.getCacheMisses());
+            assertEquals(image.capacity(), media.getCacheSize());
+        }
+    }
+
+    @Test
+    void testCacheEviction() throws IOException {
+        try (YomichanMediaAccessor media = new YomichanMediaAccessor(generate(), 4096)) {
+            for (String path : media.getPaths()) {
+                media.get(path);
+                assertTrue(media.getCacheSize() <= 4096);
+            }
+            assertEquals(10, media.getCacheMisses());
+
+            // The most recently read image is still cached.
+            final String last = media.getPaths().stream().reduce((a, b) -> b).orElseThrow();
+            media.get(last);
+            assertEquals(1, media.getCacheHits());
+        }
+    }
+
+    @Test
+    void testImageIndex() throws IOException {
+        final File file = generate();
+        final YomichanDictionary dictionary = new YomichanParser().parseDictionary(file);
+        final ImageIndex images = ImageIndex.of(dictionary);
+        assertFalse(images.getPaths().isEmpty());
+        try (YomichanMediaAccessor media = new YomichanMediaAccessor(file)) {
+            for (String path : images.getPaths()) {
+                assertTrue(media.contains(path));
+                final ImageReference image = images.get(path).orElseThrow();
+                assertTrue(image.getWidth() > 0 && image.getHeight() > 0);
+            }
+        }
+    }
+
+    private File generate() throws IOException {
+        final File file = dir.resolve("dictionary.zip").toFile();
+        if (file.exists()) {
+            return file;
+        }
+        final YomichanDictionaryGenerator generator = YomichanDictionaryGenerator.small();
+        generator.setImageCount(10);
+        return generator.generate(dir, "dictionary.zip");
+    }
+}
@@ -0,0 +1,95 @@
+package yomichan.model.v3.compact;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import yomichan.YomichanParser;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.term.Content;
+import yomichan.model.v3.term.HtmlTag;
+import yomichan.model.v3.term.StructuredContent;
+import yomichan.writer.YomichanJsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlatContentTest {
+
+    private static final List<Term> TERMS = new YomichanParser().parseTerms("src/test/resources/yomichan/term_bank_1.json");
+
+    @Test
+    void testToContents() throws IOException {
+        for (Term term : TERMS) {
+            final FlatContent content = FlatContent.of(term.getContents());
+            assertEquals(write(term.getContents()), write(content.toContents()));
+        }
+    }
+
+    @Test
+    void testCursor() {
+        final Term term = TERMS.get(13);
+        final FlatContent content = FlatContent.of(term.getContents());
+        final FlatContent.Cursor cursor = content.cursor();
+
+        int nodes = 0;
+        int definitions = 0;
+        while (cursor.next()) {
+            nodes++;
+            if (cursor.getDepth() == 0) {
+                definitions++;
+                assertNull(cursor.getTag());
+            } else if (cursor.getKind() == FlatContent.Kind.ELEMENT) {
+                assertTrue(cursor.getTag() != null);
+            }
+        }
+        assertEquals(content.size(), nodes);
+        assertEquals(term.getContents().size(), definitions);
+        assertEquals(count(term.getContents()), nodes);
+
+        // Navigating the first definition visits its top-level nodes in order.
+        cursor.reset();
+        assertTrue(cursor.moveToFirstChild());
+        assertEquals(0, cursor.getNode());
+        assertFalse(cursor.moveToParent());
+        final List<StructuredContent> children = term.getContents().get(0).getContents();
+        assertEquals(2, children.size());
+        assertTrue(cursor.moveToFirstChild());
+        for (int i = 0; i < children.size(); i++) {
+            final HtmlTag tag = children.get(i).getTag();
+            assertEquals(tag, cursor.getTag());
+            assertEquals(i < children.size() - 1, cursor.moveToNextSibling());
+        }
+        assertTrue(cursor.moveToParent());
+        assertEquals(0, cursor.getNode());
+    }
+
+    @Test
+    void testNoDefinitions() {
+        assertEquals(0, FlatContent.of(null).size());
+        assertEquals(0, FlatContent.of(List.of()).size());
+    }
+
+    private static int count(List<? extends Content> contents) {
+        int count = contents.size();
+        for (Content content : contents) {
+            count += count(content.getContents());
+        }
+        return count;
+    }
+
+    private static String write(List<Content> contents) throws IOException {
+        final Term term = new Term();
+        term.setContents(contents);
+        final StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = new ObjectMapper().getFactory().createGenerator(writer)) {
+            YomichanJsonWriter.writeTerm(generator, term);
+        }
+        return writer.toString();
+    }
+}
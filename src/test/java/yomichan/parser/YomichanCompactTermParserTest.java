@@ -0,0 +1,141 @@
+package yomichan.parser;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.compact.CompactTerm;
+import yomichan.model.v3.compact.FlatContent;
+import yomichan.model.v3.compact.StringPool;
+import yomichan.model.v3.term.Content;
+import yomichan.model.v3.term.HtmlTag;
+import yomichan.writer.YomichanJsonWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YomichanCompactTermParserTest extends BaseYomichanParserTest<List<CompactTerm>> {
+
+    private static final File TERM_BANK = new File("src/test/resources/yomichan/term_bank_1.json");
+
+    public YomichanCompactTermParserTest() {
+        super(YomichanParserType.TERM, new YomichanCompactTermParser());
+    }
+
+    @Test
+    void testParse() {
+        final List<CompactTerm> terms = parser.parse(TERM_BANK);
+        assertEquals(158, terms.size());
+
+        final CompactTerm term = terms.get(0);
+        assertEquals("引き合わせる", term.getTerm());
+        assertEquals("ひきあわせる", term.getReading());
+        assertEquals(List.of("forms"), term.getDefinitionTags());
+        assertEquals(List.of("v1"), term.getRules());
+        assertEquals(-203, term.getScore());
+        assertEquals(1601510, term.getSequenceNumber());
+        assertTrue(term.getTermTags().isEmpty());
+        assertTrue(term.getContents().startsWith("[\"引き合わせる\""));
+    }
+
+    @Test
+    void testSharedPool() {
+        final StringPool pool = ((YomichanCompactTermParser) parser).getPool();
+        final List<CompactTerm> terms = parser.parse(TERM_BANK);
+        final int size = pool.size();
+        assertTrue(size < terms.size());
+
+        parser.parse(TERM_BANK);
+        assertEquals(size, pool.size());
+    }
+
+    @Test
+    void testToTerm() throws IOException {
+        final YomichanCompactTermParser compactParser = (YomichanCompactTermParser) parser;
+        final List<Term> terms = new YomichanTermParser(new ObjectMapper()).parse(TERM_BANK);
+        final List<CompactTerm> compactTerms = compactParser.parse(TERM_BANK);
+        for (int i = 0; i < terms.size(); i++) {
+            assertEquals(write(terms.get(i)), write(compactParser.toTerm(compactTerms.get(i))));
+            assertEquals(write(terms.get(i)), write(compactParser.toTerm(compactParser.compact(terms.get(i)))));
+        }
+    }
+
+    @Test
+    void testToTermKeepsNullValues() {
+        final YomichanCompactTermParser compactParser = (YomichanCompactTermParser) parser;
+        final byte[] bank = "[[\"語\", null, null, null, null, [], null, null], [\"語\", \"ご\", \"\", \"\", 0, []]]".getBytes(StandardCharsets.UTF_8);
+        final List<Term> expected = new YomichanTermParser(new ObjectMapper()).parse(bank);
+        final List<CompactTerm> terms = compactParser.parse(bank);
+
+        assertTrue(terms.get(0).isNull(CompactTerm.NULL_SCORE));
+        assertFalse(terms.get(1).isNull(CompactTerm.NULL_SCORE));
+        assertTrue(terms.get(1).isNull(CompactTerm.NULL_SEQUENCE_NUMBER));
+        for (int i = 0; i < expected.size(); i++) {
+            for (Term actual : List.of(compactParser.toTerm(terms.get(i)), compactParser.toTerm(compactParser.compact(expected.get(i))))) {
+                assertEquals(expected.get(i).getReading(), actual.getReading());
+                assertEquals(expected.get(i).getDefinitionTags(), actual.getDefinitionTags());
+                assertEquals(expected.get(i).getRules(), actual.getRules());
+                assertEquals(expected.get(i).getScore(), actual.getScore());
+                assertEquals(expected.get(i).getSequenceNumber(), actual.getSequenceNumber());
+                assertEquals(expected.get(i).getTermTags(), actual.getTermTags());
+            }
+        }
+        assertNull(compactParser.toTerm(terms.get(0)).getRules());
+        assertEquals(0, compactParser.toTerm(terms.get(1)).getScore());
+    }
+
+    @Test
+    void testFlatten() throws IOException {
+        final YomichanCompactTermParser compactParser = (YomichanCompactTermParser) parser;
+        final List<Term> terms = new YomichanTermParser(new ObjectMapper()).parse(TERM_BANK);
+        final List<CompactTerm> compactTerms = compactParser.parse(TERM_BANK);
+        for (int i = 0; i < terms.size(); i++) {
+            final FlatContent expected = FlatContent.of(terms.get(i).getContents());
+            final FlatContent actual = compactParser.flatten(compactTerms.get(i));
+            assertEquals(expected.size(), actual.size());
+            assertEquals(write(expected.toContents()), write(actual.toContents()));
+        }
+    }
+
+    @Test
+    void testFlattenOrderAndEmptyTags() throws IOException {
+        final YomichanCompactTermParser compactParser = (YomichanCompactTermParser) parser;
+        // The content comes before the tag, and the content of a br is ignored like by the term parser
+        final String bank = "[[\"語\", \"ご\", \"\", \"\", 0, [{\"content\": [{\"content\": \"語\", \"tag\": \"span\", \"style\": {\"fontWeight\": \"bold\"}}, "
+            + "{\"content\": \"ignored\", \"tag\": \"br\"}], \"type\": \"structured-content\"}, \"word\"], 1, \"\"]]";
+        final byte[] bytes = bank.getBytes(StandardCharsets.UTF_8);
+        final FlatContent content = compactParser.flatten(compactParser.parse(bytes).get(0));
+
+        assertEquals(5, content.size());
+        assertEquals(FlatContent.Kind.STRUCTURED_CONTENT, content.getKind(0));
+        assertEquals(HtmlTag.SPAN, content.getTag(1));
+        assertEquals("語", content.getText(2));
+        assertEquals(HtmlTag.BR, content.getTag(3));
+        assertEquals(-1, content.getFirstChild(3));
+        assertEquals("word", content.getText(4));
+        final List<Term> terms = new YomichanTermParser(new ObjectMapper()).parse(bytes);
+        assertEquals(write(FlatContent.of(terms.get(0).getContents()).toContents()), write(content.toContents()));
+    }
+
+    private static String write(List<Content> contents) throws IOException {
+        final Term term = new Term();
+        term.setContents(contents);
+        return write(term);
+    }
+
+    private static String write(Term term) throws IOException {
+        final StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = new ObjectMapper().getFactory().createGenerator(writer)) {
+            YomichanJsonWriter.writeTerm(generator, term);
+        }
+        return writer.toString();
+    }
+}
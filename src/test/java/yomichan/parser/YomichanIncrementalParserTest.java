@@ -0,0 +1,106 @@
+package yomichan.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import yomichan.generator.YomichanDictionaryGenerator;
+import yomichan.model.DictionaryManifest;
+import yomichan.model.YomichanDictionaryUpdate;
+import yomichan.model.v3.Term;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YomichanIncrementalParserTest {
+
+    @TempDir
+    Path dir;
+
+    private final YomichanIncrementalParser parser = new YomichanIncrementalParser();
+
+    @Test
+    void testParseUnchanged() throws IOException {
+        final File file = generate("dictionary.zip", 250);
+        final File manifest = dir.resolve("manifest.json").toFile();
+
+        final YomichanDictionaryUpdate first = parser.parse(file, manifest, update -> assertFalse(manifest.exists()));
+        assertTrue(first.isChanged());
+        assertTrue(manifest.exists());
+        assertEquals(250, first.getDictionary().getTerms().size());
+        assertTrue(first.getUnchangedBanks().isEmpty());
+
+        final YomichanDictionaryUpdate second = parser.parse(file, manifest, update -> {});
+        assertFalse(second.isChanged());
+        assertNotNull(second.getDictionary().getIndex());
+        assertTrue(second.getDictionary().getTerms().isEmpty());
+        assertTrue(second.getDictionary().getTermMetadata().isEmpty());
+        assertEquals(first.getManifest(), second.getManifest());
+    }
+
+    @Test
+    void testParseChangedBanks() throws IOException {
+        final YomichanDictionaryUpdate first = parser.parse(generate("a.zip", 250), (DictionaryManifest) null);
+        final YomichanDictionaryUpdate second = parser.parse(generate("b.zip", 260), first.getManifest());
+
+        assertTrue(second.getUnchangedBanks().containsAll(List.of("term_bank_1.json", "term_bank_2.json")));
+        assertTrue(second.getChangedBanks().contains("term_bank_3.json"));
+        assertEquals(60, second.getDictionary().getTerms().size());
+        assertTrue(second.getRemovedBanks().isEmpty());
+        for (String bank : second.getChangedBanks()) {
+            assertEquals(!bank.equals("index.json"), second.getChangedRows().containsKey(bank), bank);
+        }
+        final List<?> rows = second.getChangedRows().get("term_bank_3.json");
+        assertEquals(60, rows.size());
+        assertTrue(rows.get(0) instanceof Term);
+
+        final YomichanDictionaryUpdate third = parser.parse(generate("c.zip", 150), second.getManifest());
+        assertEquals(List.of("term_bank_3.json"), third.getRemovedBanks());
+        assertTrue(third.getChangedBanks().contains("term_bank_2.json"));
+        assertTrue(third.getUnchangedBanks().contains("term_bank_1.json"));
+        assertEquals(50, third.getDictionary().getTerms().size());
+    }
+
+    @Test
+    void testFailedHandlerKeepsManifest() throws IOException {
+        final File manifest = dir.resolve("manifest.json").toFile();
+        parser.parse(generate("a.zip", 250), manifest, update -> {});
+        final DictionaryManifest previous = parser.readManifest(manifest);
+
+        final File file = generate("b.zip", 260);
+        assertThrows(IllegalStateException.class, () -> parser.parse(file, manifest, update -> {
+            throw new IllegalStateException("store is unavailable");
+        }));
+        assertEquals(previous, parser.readManifest(manifest));
+
+        final YomichanDictionaryUpdate retry = parser.parse(file, manifest, update -> {});
+        assertTrue(retry.getChangedBanks().contains("term_bank_3.json"));
+        assertEquals(60, retry.getDictionary().getTerms().size());
+        assertEquals(retry.getManifest(), parser.readManifest(manifest));
+    }
+
+    @Test
+    void testParseRenamedDictionary() throws IOException {
+        final YomichanDictionaryUpdate first = parser.parse(generate("a.zip", 250), (DictionaryManifest) null);
+        final YomichanDictionaryGenerator generator = YomichanDictionaryGenerator.small();
+        generator.setTermCount(250);
+        generator.setTitle("Renamed Dictionary");
+
+        final YomichanDictionaryUpdate second = parser.parse(generator.generate(dir, "b.zip"), first.getManifest());
+        assertTrue(second.getUnchangedBanks().isEmpty());
+        assertEquals(250, second.getDictionary().getTerms().size());
+        assertEquals("Renamed Dictionary", second.getManifest().getTitle());
+    }
+
+    private File generate(String name, int terms) throws IOException {
+        final YomichanDictionaryGenerator generator = YomichanDictionaryGenerator.small();
+        generator.setTermCount(terms);
+        return generator.generate(dir, name);
+    }
+}
@@ -0,0 +1,117 @@
+package yomichan.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import yomichan.YomichanParser;
+import yomichan.generator.YomichanDictionaryGenerator;
+import yomichan.listener.BankEvent;
+import yomichan.listener.ParseListener;
+import yomichan.model.v3.Term;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static yomichan.parser.YomichanParserType.TERM;
+
+class YomichanPublisherTest {
+
+    @TempDir
+    Path dir;
+
+    private final AtomicInteger banks = new AtomicInteger();
+    private final YomichanParserFactory factory = new YomichanParserFactory(new ParseListener() {
+        @Override
+        public void onBankFinished(BankEvent event) {
+            banks.incrementAndGet();
+        }
+    });
+
+    @Test
+    void testPublishWithBackpressure() throws IOException {
+        final File file = YomichanDictionaryGenerator.small().generate(dir, "dictionary.zip");
+        final RecordingSubscriber<Term> subscriber = new RecordingSubscriber<>();
+        new YomichanPublisher<Term>(factory, TERM, file, Runnable::run).subscribe(subscriber);
+        assertTrue(subscriber.rows.isEmpty());
+        assertEquals(0, banks.get());
+
+        subscriber.subscription.request(10);
+        assertEquals(10, subscriber.rows.size());
+        assertEquals(1, banks.get());
+
+        subscriber.subscription.request(95);
+        assertEquals(105, subscriber.rows.size());
+        assertEquals(2, banks.get());
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(250, subscriber.rows.size());
+        assertEquals(3, banks.get());
+        assertTrue(subscriber.completed);
+
+        final List<Term> expected = new YomichanParser().parseDictionary(file).getTerms();
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getTerm(), subscriber.rows.get(i).getTerm());
+        }
+    }
+
+    @Test
+    void testPublishCancel() throws IOException {
+        final RecordingSubscriber<Term> subscriber = new RecordingSubscriber<>();
+        new YomichanPublisher<Term>(factory, TERM, YomichanDictionaryGenerator.small().generate(dir, "dictionary.zip"), Runnable::run).subscribe(subscriber);
+        subscriber.subscription.request(5);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(5);
+        assertEquals(5, subscriber.rows.size());
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    void testPublishInvalidRequest() throws IOException {
+        final RecordingSubscriber<Term> subscriber = new RecordingSubscriber<>();
+        new YomichanPublisher<Term>(factory, TERM, YomichanDictionaryGenerator.small().generate(dir, "dictionary.zip"), Runnable::run).subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+    }
+
+    @Test
+    void testPublishIndex() {
+        assertThrows(IllegalArgumentException.class, () -> new YomichanPublisher<>(factory, YomichanParserType.INDEX, dir.toFile(), Runnable::run));
+    }
+
+    private static class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+
+        private final List<T> rows = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private boolean completed;
+        private Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            rows.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed = true;
+        }
+    }
+}
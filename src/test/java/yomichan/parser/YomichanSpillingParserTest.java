@@ -0,0 +1,84 @@
+package yomichan.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import yomichan.YomichanParser;
+import yomichan.generator.YomichanDictionaryGenerator;
+import yomichan.model.YomichanDictionary;
+import yomichan.model.v3.Term;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static yomichan.ModelAssertions.assertDictionaryEquals;
+
+class YomichanSpillingParserTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testParseWithinBudget() throws IOException {
+        final File file = generate();
+        try (YomichanSpilledDictionary dictionary = new YomichanSpillingParser(Long.MAX_VALUE).parse(file)) {
+            assertEquals(0, dictionary.getRunCount());
+            assertEquals(300, dictionary.getTermCount());
+            assertTrue(dictionary.getBufferedBytes() > 0);
+            assertSame(new YomichanParser().parseDictionary(file), dictionary);
+        }
+    }
+
+    @Test
+    void testParseSpillsToDisk() throws IOException {
+        final File file = generate();
+        try (YomichanSpilledDictionary dictionary = new YomichanSpillingParser(64 * 1024).parse(file)) {
+            assertTrue(dictionary.getRunCount() > 1);
+            assertTrue(dictionary.getBufferedBytes() <= 64 * 1024);
+            assertEquals("Generated Dictionary", dictionary.getIndex().getTitle());
+            assertSame(new YomichanParser().parseDictionary(file), dictionary);
+
+            // Iterating again reads the run files again.
+            final List<Term> terms = new ArrayList<>();
+            dictionary.getTerms().forEach(terms::add);
+            assertEquals(300, terms.size());
+        }
+    }
+
+    @Test
+    void testParseDictionarySpilling() throws IOException {
+        final File file = generate();
+        final YomichanParser parser = new YomichanParser();
+        try (YomichanSpilledDictionary dictionary = parser.parseDictionarySpilling(file, 64 * 1024)) {
+            assertTrue(dictionary.getRunCount() > 1);
+            assertSame(parser.parseDictionary(file), dictionary);
+        }
+    }
+
+    private static void assertSame(YomichanDictionary expected, YomichanSpilledDictionary actual) {
+        final YomichanDictionary spilled = new YomichanDictionary();
+        spilled.setIndex(actual.getIndex());
+        spilled.setTags(toList(actual.getTags()));
+        spilled.setTerms(toList(actual.getTerms()));
+        spilled.setTermMetadata(toList(actual.getTermMetadata()));
+        spilled.setKanjis(toList(actual.getKanjis()));
+        spilled.setKanjiMetadata(toList(actual.getKanjiMetadata()));
+        assertDictionaryEquals(expected, spilled);
+    }
+
+    private static <T> List<T> toList(Iterable<T> rows) {
+        final List<T> list = new ArrayList<>();
+        rows.forEach(list::add);
+        return list;
+    }
+
+    private File generate() throws IOException {
+        final YomichanDictionaryGenerator generator = YomichanDictionaryGenerator.small();
+        generator.setTermCount(300);
+        return generator.generate(dir, "dictionary.zip");
+    }
+}
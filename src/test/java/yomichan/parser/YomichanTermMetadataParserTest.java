@@ -2,10 +2,15 @@ package yomichan.parser;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import yomichan.model.v3.TermMetadata;
 import yomichan.model.v3.term.meta.Frequency;
+import yomichan.model.v3.term.meta.Pitch;
 import yomichan.model.v3.term.meta.Pitches;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -58,4 +63,29 @@ class YomichanTermMetadataParserTest extends BaseYomichanParserTest<List<TermMet
             assertNotNull(meta.getFrequency().getDisplay());
         }
     }
+
+    @Test
+    void testParseFrequencyAndPitchVariants(@TempDir Path dir) throws IOException {
+        final Path file = dir.resolve("term_meta_bank_1.json");
+        Files.writeString(file, "["
+            + "[\"語\", \"freq\", {\"reading\": \"ご\", \"frequency\": 5}],"
+            + "[\"語\", \"freq\", {\"frequency\": {\"value\": 6, \"displayValue\": \"6\"}, \"reading\": \"かたり\"}],"
+            + "[\"語\", \"pitch\", {\"reading\": \"ご\", \"pitches\": [{\"position\": 1, \"nasal\": 2, \"devoice\": [0, 1], \"tags\": [\"n\"]}]}]"
+            + "]");
+        final List<TermMetadata> metas = parser.parse(file.toFile());
+        assertEquals(3, metas.size());
+
+        assertEquals("ご", metas.get(0).getFrequency().getReading());
+        assertEquals(5, metas.get(0).getFrequency().getValue());
+
+        assertEquals("かたり", metas.get(1).getFrequency().getReading());
+        assertEquals(6, metas.get(1).getFrequency().getValue());
+        assertEquals("6", metas.get(1).getFrequency().getDisplay());
+
+        final Pitch pitch = metas.get(2).getPitches().getPitches().get(0);
+        assertEquals(1, pitch.getDownstep());
+        assertEquals(List.of(2), pitch.getNasals());
+        assertEquals(List.of(0, 1), pitch.getDevoicings());
+        assertEquals(List.of("n"), pitch.getTags());
+    }
 }
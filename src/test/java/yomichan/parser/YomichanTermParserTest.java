@@ -7,13 +7,18 @@ import yomichan.model.v3.term.Content;
 import yomichan.model.v3.term.ContentType;
 import yomichan.model.v3.term.HtmlTag;
 import yomichan.model.v3.term.StructuredContent;
+import yomichan.model.v3.term.TextDecorationLine;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static yomichan.ModelAssertions.assertModelEquals;
 
 class YomichanTermParserTest extends BaseYomichanParserTest<List<Term>> {
 
@@ -106,4 +111,63 @@ class YomichanTermParserTest extends BaseYomichanParserTest<List<Term>> {
         assertEquals("（", d.getContents().get(1).getText());
         assertEquals("）", d.getContents().get(3).getText());
     }
+
+    @Test
+    void testParseCanonicalContent() {
+        final ContentInterner interner = new ContentInterner();
+        final YomichanTermParser canonicalParser = new YomichanTermParser(new ObjectMapper(), interner);
+        final List<Term> terms = canonicalParser.parse("src/test/resources/yomichan/term_bank_1.json");
+        assertTrue(interner.getHits() > 0);
+
+        final List<StructuredContent> glossaries = new ArrayList<>();
+        for (Term term : terms) {
+            for (Content content : term.getContents()) {
+                for (StructuredContent child : content.getContents()) {
+                    if (child.getData() != null && "glossary".equals(child.getData().get("content"))) {
+                        glossaries.add(child);
+                    }
+                }
+            }
+        }
+        assertTrue(glossaries.size() > 1);
+        for (StructuredContent glossary : glossaries) {
+            assertSame(glossaries.get(0).getData(), glossary.getData());
+        }
+
+        // Every English gloss list of the bank has the same circle list style
+        final List<StructuredContent> circles = new ArrayList<>();
+        for (Term term : terms) {
+            for (Content content : term.getContents()) {
+                collectCircles(content.getContents(), circles);
+            }
+        }
+        assertTrue(circles.size() > 1);
+        for (StructuredContent circle : circles) {
+            assertSame(circles.get(0).getStyle(), circle.getStyle());
+        }
+
+        // Parsing the same bank again returns the same canonical subtrees
+        final List<Term> again = canonicalParser.parse("src/test/resources/yomichan/term_bank_1.json");
+        assertSame(terms.get(13).getContents().get(0).getContents().get(0), again.get(13).getContents().get(0).getContents().get(0));
+        assertModelEquals(terms, again, "terms");
+        assertModelEquals(terms, parser.parse("src/test/resources/yomichan/term_bank_1.json"), "terms");
+    }
+
+    @Test
+    void testParseStringTextDecorationLine() {
+        final String bank = "[[\"語\", \"ご\", \"n\", \"\", 0, [{\"type\": \"structured-content\", \"content\": "
+            + "{\"tag\": \"span\", \"style\": {\"textDecorationLine\": \"underline\"}, \"content\": \"語\"}}], 1, \"\"]]";
+        final List<Term> terms = parser.parse(bank.getBytes(StandardCharsets.UTF_8));
+        final StructuredContent span = terms.get(0).getContents().get(0).getContents().get(0);
+        assertEquals(List.of(TextDecorationLine.UNDERLINE), span.getStyle().getTextDecorationLine());
+    }
+
+    private static void collectCircles(List<StructuredContent> contents, List<StructuredContent> circles) {
+        for (StructuredContent content : contents) {
+            if (content.getTag() == HtmlTag.UL && "circle".equals(content.getStyle().getListStyleType())) {
+                circles.add(content);
+            }
+            collectCircles(content.getContents(), circles);
+        }
+    }
 }
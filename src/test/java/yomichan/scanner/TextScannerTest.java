@@ -0,0 +1,128 @@
+package yomichan.scanner;
+
+import org.junit.jupiter.api.Test;
+import yomichan.YomichanParser;
+import yomichan.model.Index;
+import yomichan.model.YomichanDictionary;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.TermMetadata;
+import yomichan.model.v3.term.meta.Frequency;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextScannerTest {
+
+    @Test
+    void testScan() {
+        final YomichanDictionary dictionary = new YomichanDictionary();
+        dictionary.setIndex(index("JMdict"));
+        dictionary.setTerms(new YomichanParser().parseTerms("src/test/resources/yomichan/term_bank_1.json"));
+        final TextScanner scanner = new TextScanner(List.of(dictionary));
+
+        final List<ScanSpan> spans = scanner.scan("引き出しを引き出した");
+        assertEquals(0, spans.get(0).getStart());
+        assertEquals(4, spans.get(0).getEnd());
+        assertEquals("引き出し", spans.get(0).getMatches().get(0).getTerm().getTerm());
+        assertEquals("JMdict", spans.get(0).getMatches().get(0).getDictionary());
+
+        final ScanSpan past = spans.stream().filter(span -> span.getStart() == 5).findFirst().orElseThrow();
+        assertEquals(10, past.getEnd());
+        final ScanMatch match = past.getMatches().get(0);
+        assertEquals("引き出す", match.getTerm().getTerm());
+        assertEquals(5, match.getLength());
+        assertEquals(List.of("past"), match.getReasons());
+
+        final ScanSpan polite = scanner.scanAt("引き合わせませんでした", 0);
+        assertEquals("引き合わせる", polite.getMatches().get(0).getTerm().getTerm());
+        assertEquals(11, polite.getMatches().get(0).getLength());
+        assertEquals(List.of("polite", "polite past negative"), polite.getMatches().get(0).getReasons());
+
+        // Readings are indexed too
+        assertEquals("ひきだす", scanner.scanAt("ひきだします", 0).getMatches().get(0).getTerm().getReading());
+        assertNull(scanner.scanAt("。", 0));
+    }
+
+    @Test
+    void testDeinflectionChains() {
+        final YomichanDictionary dictionary = new YomichanDictionary();
+        dictionary.setIndex(index("Test"));
+        dictionary.setTerms(List.of(
+            term("食べる", "たべる", "v1", 0),
+            term("書く", "かく", "v5", 0),
+            term("高い", "たかい", "adj-i", 0),
+            term("する", "", "vs", 0),
+            term("見る", "みる", "", 0)
+        ));
+        final TextScanner scanner = new TextScanner(List.of(dictionary));
+
+        assertReasons(scanner, "食べさせられなかった", "食べる", List.of("causative", "passive", "negative", "past"));
+        assertReasons(scanner, "書いていました", "書く", List.of("-te", "progressive or perfect", "polite", "polite past"));
+        assertReasons(scanner, "書かない", "書く", List.of("negative"));
+        assertReasons(scanner, "高くなかった", "高い", List.of("negative", "past"));
+        assertReasons(scanner, "したい", "する", List.of("-tai"));
+
+        // 見る isn't a verb in this dictionary, so its inflections don't match it
+        assertNull(scanner.scanAt("見た", 0));
+    }
+
+    @Test
+    void testRanking() {
+        final YomichanDictionary dictionary = new YomichanDictionary();
+        dictionary.setIndex(index("Test"));
+        dictionary.setTerms(List.of(
+            term("好", "こう", "", 0),
+            term("高", "こう", "", 0),
+            term("公", "こう", "", 10),
+            term("こうこう", "", "", 0)
+        ));
+        final YomichanDictionary frequencies = new YomichanDictionary();
+        frequencies.setIndex(index("Frequencies"));
+        frequencies.setTermMetadata(List.of(frequency("高", 100), frequency("好", 5000)));
+        final TextScanner scanner = new TextScanner(List.of(dictionary, frequencies));
+
+        final List<String> terms = new ArrayList<>();
+        for (ScanMatch match : scanner.scanAt("こうこう", 0).getMatches()) {
+            terms.add(match.getTerm().getTerm());
+        }
+        // Longest first, then by score, then by frequency rank
+        assertEquals(List.of("こうこう", "公", "高", "好"), terms);
+        assertEquals(100, scanner.scanAt("こう", 0).getMatches().get(1).getFrequency());
+    }
+
+    private static void assertReasons(TextScanner scanner, String text, String term, List<String> reasons) {
+        final ScanSpan span = scanner.scanAt(text, 0);
+        assertTrue(span != null, text);
+        final ScanMatch match = span.getMatches().get(0);
+        assertEquals(term, match.getTerm().getTerm(), text);
+        assertEquals(text.length(), match.getLength(), text);
+        assertEquals(reasons, match.getReasons(), text);
+    }
+
+    private static Index index(String title) {
+        final Index index = new Index();
+        index.setTitle(title);
+        return index;
+    }
+
+    private static Term term(String text, String reading, String rules, int score) {
+        final Term term = new Term();
+        term.setTerm(text);
+        term.setReading(reading);
+        term.setRules(rules.isEmpty() ? List.of() : List.of(rules));
+        term.setScore(score);
+        return term;
+    }
+
+    private static TermMetadata frequency(String text, int value) {
+        final TermMetadata meta = new TermMetadata();
+        meta.setText(text);
+        meta.setType(TermMetadata.Type.FREQUENCY);
+        meta.setFrequency(new Frequency(value));
+        return meta;
+    }
+}
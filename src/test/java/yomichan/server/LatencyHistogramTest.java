@@ -0,0 +1,41 @@
+package yomichan.server;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(99));
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_500, histogram.getMean(), 0.001);
+        assertWithin(500_000, histogram.getPercentile(50));
+        assertWithin(990_000, histogram.getPercentile(99));
+        assertEquals(1_000_000, histogram.getPercentile(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    void testBuckets() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 63, 64, 1000, 123_456_789, Long.MAX_VALUE}) {
+            final int index = LatencyHistogram.index(value);
+            assertTrue(LatencyHistogram.highest(index) >= value, "bucket of " + value);
+            assertTrue(index == 0 || LatencyHistogram.highest(index - 1) < value, "bucket of " + value);
+        }
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(expected - actual) <= expected * 0.04, expected + " ~ " + actual);
+    }
+}
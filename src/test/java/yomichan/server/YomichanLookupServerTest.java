@@ -0,0 +1,88 @@
+package yomichan.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import yomichan.YomichanParser;
+import yomichan.index.LookupIndex;
+import yomichan.index.LookupType;
+import yomichan.model.YomichanDictionary;
+
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class YomichanLookupServerTest {
+
+    private static final String RESOURCES = "src/test/resources/yomichan/";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+    private static YomichanLookupServer server;
+
+    @BeforeAll
+    static void setUp() {
+        final YomichanParser parser = new YomichanParser();
+        final YomichanDictionary dictionary = new YomichanDictionary();
+        dictionary.setIndex(parser.parseIndex(RESOURCES + "index.json"));
+        dictionary.setTerms(parser.parseTerms(RESOURCES + "term_bank_1.json"));
+        dictionary.setKanjis(parser.parseKanjis(RESOURCES + "kanji_bank_1.json"));
+        dictionary.setTermMetadata(parser.parseTermMetadata(RESOURCES + "term_meta_bank_2.json"));
+        final LookupIndex index = new LookupIndex();
+        index.add(dictionary);
+        server = new YomichanLookupServer(index, 0);
+        server.start();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void testLookups() throws Exception {
+        final JsonNode terms = get("/terms?q=" + URLEncoder.encode("引き合わせる", StandardCharsets.UTF_8), 200);
+        assertEquals(1, terms.size());
+        assertEquals("JMdict Extra", terms.get(0).get("dictionary").asText());
+        assertEquals("ひきあわせる", terms.get(0).get("entry").get(1).asText());
+
+        final JsonNode kanji = get("/kanji?q=" + URLEncoder.encode("亜", StandardCharsets.UTF_8), 200);
+        assertEquals("亜", kanji.get(0).get("entry").get(0).asText());
+
+        final JsonNode pitches = get("/pitches?q=" + URLEncoder.encode("積雪", StandardCharsets.UTF_8), 200);
+        assertEquals("pitch", pitches.get(0).get("entry").get(1).asText());
+
+        assertEquals(0, get("/frequencies?q=none", 200).size());
+        assertEquals(0, get("/kanji-frequencies?q=none", 200).size());
+        assertEquals("Missing query parameter q", get("/terms", 400).get("error").asText());
+    }
+
+    @Test
+    void testStats() throws Exception {
+        final long before = server.getHistogram(LookupType.KANJI).getCount();
+        get("/kanji?q=" + URLEncoder.encode("人", StandardCharsets.UTF_8), 200);
+        assertEquals(before + 1, server.getHistogram(LookupType.KANJI).getCount());
+
+        final JsonNode stats = get("/stats", 200);
+        assertEquals(before + 1, stats.get("kanji").get("count").asLong());
+        assertEquals(true, stats.get("kanji").has("p99Micros"));
+    }
+
+    private static JsonNode get(String path, int status) throws IOException, InterruptedException {
+        final InetAddress loopback = InetAddress.getLoopbackAddress();
+        final String host = loopback instanceof Inet6Address ? "[" + loopback.getHostAddress() + "]" : loopback.getHostAddress();
+        final HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + host + ":" + server.getPort() + path)).build();
+        final HttpResponse<String> response = CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(status, response.statusCode());
+        return MAPPER.readTree(response.body());
+    }
+}
@@ -3,6 +3,7 @@ package yomichan.utils;
 import com.fasterxml.jackson.databind.node.DoubleNode;
 import com.fasterxml.jackson.databind.node.IntNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 import org.junit.jupiter.api.Test;
@@ -23,6 +24,7 @@ class JsonUtilsTest {
         assertEquals("test", JsonUtils.getText(new TextNode("test")));
         assertNull(JsonUtils.getText(null));
         assertNull(JsonUtils.getText(new TextNode(null)));
+        assertNull(JsonUtils.getText(NullNode.getInstance()));
         final ObjectNode foo = new ObjectNode(factory, Map.of("foo", new TextNode("bar"), "baz", new TextNode(null)));
         assertEquals("bar", JsonUtils.getText(foo, "foo"));
         assertNull(JsonUtils.getText(foo, "baz"));
@@ -57,6 +59,7 @@ class JsonUtilsTest {
         assertEquals(1, JsonUtils.getInt(new IntNode(1)));
         assertNull(JsonUtils.getInt(null));
         assertNull(JsonUtils.getInt(new TextNode(null)));
+        assertNull(JsonUtils.getInt(NullNode.getInstance()));
         final ObjectNode foo = new ObjectNode(factory, Map.of("foo", new IntNode(3), "bar", new TextNode(null)));
         assertEquals(3, JsonUtils.getInt(foo, "foo"));
         assertNull(JsonUtils.getInt(foo, "bar"));
@@ -0,0 +1,202 @@
+package yomichan.validator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import yomichan.YomichanParser;
+import yomichan.generator.YomichanDictionaryGenerator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YomichanValidatorTest {
+
+    private static final String INDEX = "{\"title\": \"Test\", \"format\": 3, \"revision\": \"1\"}";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testValidDictionary() throws IOException {
+        final YomichanDictionaryGenerator generator = YomichanDictionaryGenerator.small();
+        generator.setTermCount(2000);
+        generator.setBankSize(500);
+        final File file = generator.generate(dir, "dictionary.zip");
+
+        final ValidationResult result = new YomichanValidator().validate(file);
+        assertTrue(result.isValid(), result.getErrors().toString());
+    }
+
+    @Test
+    void testInvalidDictionary() throws IOException {
+        final Map<String, String> entries = new TreeMap<>();
+        entries.put("index.json", INDEX);
+        entries.put("tag_bank_1.json", "[[\"n\", \"partOfSpeech\", 0, \"noun\", 0], [\"v\", \"partOfSpeech\", \"0\", \"verb\"]]");
+        entries.put("term_bank_1.json", "["
+            + "[\"語\", \"ご\", \"n\", \"\", 0, [\"word\"], 1, \"\"],"
+            + "[\"語\", \"ご\", \"n\", \"\", 0, [{\"type\": \"video\"}], 1, \"\"],"
+            + "[\"語\", \"ご\", \"n\", \"\", 0, [{\"type\": \"structured-content\", \"content\": {\"tag\": \"blink\"}}], 1, \"\"],"
+            + "[\"語\", \"ご\", \"n\", \"\", 0, [{\"type\": \"structured-content\", \"content\": {\"tag\": \"span\", \"style\": {\"fontWeight\": \"heavy\"}, \"content\": \"語\"}}], 1, \"\"],"
+            + "[\"語\", \"ご\", \"n\", \"\", 0, [{\"type\": \"structured-content\", \"content\": {\"tag\": \"img\", \"path\": \"img/0.png\"}}], 1, \"\"],"
+            + "[\"語\", \"ご\", \"n\", \"\", 0, [{\"type\": \"text\", \"text\": \"word\", \"content\": {\"tag\": \"blink\"}}], 1, \"\"]"
+            + "]");
+        entries.put("term_meta_bank_1.json", "[[\"語\", \"freq\", 10], [\"語\", \"pitch\", {\"reading\": \"ご\"}], [\"語\", \"ipa\", {}]]");
+        entries.put("kanji_meta_bank_1.json", "[[\"語\", \"freq\", 10], [\"語\", \"freq\"");
+        final File file = zip(entries);
+
+        final List<ValidationError> errors = new YomichanValidator().validate(file).getErrors();
+        assertEquals(9, errors.size(), errors.toString());
+        assertEquals("kanji_meta_bank_1.json", errors.get(0).getFile());
+        assertEquals(1, errors.get(0).getRow());
+        assertTrue(errors.get(0).getMessage().startsWith("Malformed JSON"));
+        assertEquals(List.of(
+            new ValidationError("tag_bank_1.json", 1, "Tag order should be a number."),
+            new ValidationError("tag_bank_1.json", 1, "Tag should have 5 items but has 4."),
+            new ValidationError("term_bank_1.json", 1, "Unknown definition type: video"),
+            new ValidationError("term_bank_1.json", 2, "Unknown structured content tag: blink"),
+            new ValidationError("term_bank_1.json", 3, "Unknown font weight: heavy"),
+            new ValidationError("term_bank_1.json", 4, "Image size units should be one of [px, em] but was null."),
+            new ValidationError("term_meta_bank_1.json", 1, "Pitch metadata is missing its pitches."),
+            new ValidationError("term_meta_bank_1.json", 2, "Unknown term metadata type: ipa")
+        ), errors.subList(1, errors.size()));
+    }
+
+    @Test
+    void testSinglePitchPositions() throws IOException {
+        final Map<String, String> entries = new TreeMap<>();
+        entries.put("index.json", INDEX);
+        entries.put("term_meta_bank_1.json", "["
+            + "[\"語\", \"pitch\", {\"reading\": \"ご\", \"pitches\": [{\"position\": 1, \"nasal\": 2, \"devoice\": [1, 2]}]}],"
+            + "[\"語\", \"pitch\", {\"reading\": \"ご\", \"pitches\": [{\"position\": 1, \"devoice\": \"2\"}]}]"
+            + "]");
+        final File file = zip(entries);
+
+        assertEquals(List.of(new ValidationError("term_meta_bank_1.json", 1, "Pitch devoice should be a number.")),
+            new YomichanValidator().validate(file).getErrors());
+    }
+
+    @Test
+    void testNullValuesAndEmptyContent() throws IOException {
+        final Map<String, String> entries = new TreeMap<>();
+        entries.put("index.json", INDEX);
+        entries.put("tag_bank_1.json", "[[\"n\", null, null, null, null]]");
+        entries.put("term_bank_1.json", "["
+            + "[\"語\", null, null, null, null, null, null, null],"
+            + "[\"語\", \"ご\", \"\", \"\", 0, [{\"type\": \"structured-content\", \"content\": {\"tag\": \"span\", \"data\": null}}], 1, \"\"],"
+            + "[\"語\", \"ご\", \"\", \"\", 0, [{\"type\": \"structured-content\"}], 1, \"\"]"
+            + "]");
+        entries.put("term_meta_bank_1.json", "[[\"語\", \"freq\", null], [\"語\", \"freq\", {\"reading\": \"ご\", \"frequency\": null}]]");
+        entries.put("kanji_bank_1.json", "[[\"語\", null, null, null, null, null]]");
+        final File file = zip(entries);
+
+        assertEquals(List.of(), new YomichanValidator().validate(file).getErrors());
+        // Whatever the validator accepts, the parser reads
+        assertEquals(3, new YomichanParser().parseDictionary(file).getTerms().size());
+    }
+
+    @Test
+    void testNullStructuredContent() throws IOException {
+        final Map<String, String> entries = new TreeMap<>();
+        entries.put("index.json", INDEX);
+        entries.put("term_bank_1.json", "[[\"語\", \"ご\", \"\", \"\", 0, [{\"type\": \"structured-content\", \"content\": {\"tag\": \"span\", \"content\": null}}], 1, \"\"]]");
+        final File file = zip(entries);
+
+        assertEquals(List.of(new ValidationError("term_bank_1.json", 0, "Structured content should be a string, an array or an object.")),
+            new YomichanValidator().validate(file).getErrors());
+    }
+
+    @Test
+    void testMissingIndex() throws IOException {
+        final File file = zip(Map.of("tag_bank_1.json", "[]"));
+        final ValidationResult result = new YomichanValidator().validate(file);
+        assertFalse(result.isValid());
+        assertEquals(List.of(new ValidationError(file.getName(), -1, "Dictionary is missing its index.json file.")), result.getErrors());
+    }
+
+    @Test
+    void testMaxErrorsPerBank() throws IOException {
+        final StringBuilder tags = new StringBuilder("[");
+        for (int i = 0; i < 50; i++) {
+            tags.append(i == 0 ? "" : ",").append("[\"n\"]");
+        }
+        final File file = zip(Map.of("index.json", INDEX, "tag_bank_1.json", tags.append("]").toString()));
+
+        final YomichanValidator validator = new YomichanValidator();
+        validator.setMaxErrorsPerBank(10);
+        final List<ValidationError> errors = validator.validate(file).getErrors();
+        assertEquals(11, errors.size());
+        assertEquals(new ValidationError("tag_bank_1.json", -1, "Stopped validating after 10 errors."), errors.get(10));
+    }
+
+    @Test
+    void testMaxErrorsInStructuredContent() throws IOException {
+        final StringBuilder content = new StringBuilder("[");
+        for (int i = 0; i < 50; i++) {
+            content.append(i == 0 ? "" : ",").append("{\"tag\": \"blink\"}");
+        }
+        final String terms = "[[\"語\", \"ご\", \"n\", \"\", 0, [{\"type\": \"structured-content\", \"content\": " + content.append("]") + "}], 1, \"\"]]";
+        final File file = zip(Map.of("index.json", INDEX, "term_bank_1.json", terms));
+
+        final YomichanValidator validator = new YomichanValidator();
+        validator.setMaxErrorsPerBank(10);
+        final List<ValidationError> errors = validator.validate(file).getErrors();
+        assertEquals(11, errors.size());
+        assertEquals(new ValidationError("term_bank_1.json", -1, "Stopped validating after 10 errors."), errors.get(10));
+    }
+
+    @Test
+    void testDataAndStats() throws IOException {
+        final Map<String, String> entries = new TreeMap<>();
+        entries.put("index.json", INDEX);
+        entries.put("term_bank_1.json", "["
+            + "[\"語\", \"ご\", \"n\", \"\", 0, [{\"type\": \"structured-content\", \"content\": {\"tag\": \"span\", \"data\": {\"content\": \"gloss\"}, \"content\": \"語\"}}], 1, \"\"],"
+            + "[\"語\", \"ご\", \"n\", \"\", 0, [{\"type\": \"structured-content\", \"content\": {\"tag\": \"span\", \"data\": {\"content\": {\"nested\": \"gloss\"}}, \"content\": \"語\"}}], 1, \"\"],"
+            + "[\"語\", \"ご\", \"n\", \"\", 0, [{\"type\": \"structured-content\", \"content\": {\"tag\": \"span\", \"data\": \"gloss\", \"content\": \"語\"}}], 1, \"\"]"
+            + "]");
+        entries.put("kanji_bank_1.json", "["
+            + "[\"語\", \"ゴ\", \"かた.る\", \"jouyou\", [\"word\"], {\"grade\": \"2\"}],"
+            + "[\"語\", \"ゴ\", \"かた.る\", \"jouyou\", [\"word\"], {\"grade\": 2}]"
+            + "]");
+        final File file = zip(entries);
+
+        assertEquals(List.of(
+            new ValidationError("kanji_bank_1.json", 1, "Kanji stats grade should be a string."),
+            new ValidationError("term_bank_1.json", 1, "Structured content data content should be a string."),
+            new ValidationError("term_bank_1.json", 2, "Structured content data should be an object.")
+        ), new YomichanValidator().validate(file).getErrors());
+    }
+
+    @Test
+    void testNotAZip() throws IOException {
+        final File file = dir.resolve("dictionary.zip").toFile();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("not a zip".getBytes(StandardCharsets.UTF_8));
+        }
+        final ValidationResult result = new YomichanValidator().validate(file);
+        assertFalse(result.isValid());
+        assertEquals(-1, result.getErrors().get(0).getRow());
+    }
+
+    private File zip(Map<String, String> entries) throws IOException {
+        final File file = dir.resolve("dictionary.zip").toFile();
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(file))) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,144 @@
+package yomichan.writer;
+
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.FileHeader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import yomichan.YomichanParser;
+import yomichan.generator.YomichanDictionaryGenerator;
+import yomichan.model.Index;
+import yomichan.model.YomichanDictionary;
+import yomichan.model.v3.Kanji;
+import yomichan.model.v3.KanjiMetadata;
+import yomichan.model.v3.Tag;
+import yomichan.model.v3.Term;
+import yomichan.model.v3.TermMetadata;
+import yomichan.model.v3.term.Content;
+import yomichan.model.v3.term.ContentData;
+import yomichan.model.v3.term.ContentType;
+import yomichan.model.v3.term.HtmlTag;
+import yomichan.model.v3.term.StructuredContent;
+import yomichan.model.v3.term.meta.Frequency;
+import yomichan.validator.YomichanValidator;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static yomichan.ModelAssertions.assertDictionaryEquals;
+
+class YomichanDictionaryWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private final YomichanParser parser = new YomichanParser();
+
+    @Test
+    void testWriteRoundTrip() throws IOException {
+        final YomichanDictionary expected = parser.parseDictionary(generate());
+        final File file = dir.resolve("written.zip").toFile();
+        try (YomichanDictionaryWriter writer = new YomichanDictionaryWriter(file, expected.getIndex())) {
+            writer.write(expected);
+        }
+
+        assertDictionaryEquals(expected, parser.parseDictionary(file));
+        assertEquals(List.of(), new YomichanValidator().validate(file).getErrors());
+    }
+
+    @Test
+    void testWriteMissingValuesAsDefaults() {
+        final YomichanDictionary expected = new YomichanDictionary();
+        final Index index = new Index();
+        index.setTitle("Missing values");
+        index.setRevision("1");
+        index.setVersion(3);
+        expected.setIndex(index);
+
+        final Tag tag = new Tag();
+        tag.setName("n");
+        expected.getTags().add(tag);
+
+        final Term term = new Term();
+        term.setTerm("犬");
+        final StructuredContent span = new StructuredContent();
+        span.setTag(HtmlTag.SPAN);
+        span.setData(new ContentData());
+        final Content content = new Content();
+        content.setType(ContentType.STRUCTURED_CONTENT);
+        content.getContents().add(span);
+        term.getContents().add(content);
+        expected.getTerms().add(term);
+
+        final TermMetadata frequency = new TermMetadata();
+        frequency.setText("犬");
+        frequency.setType(TermMetadata.Type.FREQUENCY);
+        frequency.setFrequency(new Frequency(null));
+        expected.getTermMetadata().add(frequency);
+
+        final Kanji kanji = new Kanji();
+        kanji.setCharacter("犬");
+        kanji.setMeanings(List.of("dog"));
+        kanji.setStats(null);
+        expected.getKanjis().add(kanji);
+        final KanjiMetadata kanjiFrequency = new KanjiMetadata();
+        kanjiFrequency.setText("犬");
+        expected.getKanjiMetadata().add(kanjiFrequency);
+
+        final File file = dir.resolve("missing.zip").toFile();
+        try (YomichanDictionaryWriter writer = new YomichanDictionaryWriter(file, index)) {
+            writer.write(expected);
+        }
+
+        assertEquals(List.of(), new YomichanValidator().validate(file).getErrors());
+        final YomichanDictionary actual = parser.parseDictionary(file);
+        assertNull(actual.getIndex().getDeclaredFormat());
+        assertEquals("", actual.getTags().get(0).getCategory());
+        assertEquals(0, actual.getTags().get(0).getOrder());
+        final Term written = actual.getTerms().get(0);
+        assertEquals("犬", written.getTerm());
+        assertEquals("", written.getReading());
+        assertEquals(List.of(), written.getDefinitionTags());
+        assertEquals(List.of(), written.getRules());
+        assertEquals(0, written.getScore());
+        assertEquals(0, written.getSequenceNumber());
+        assertEquals(List.of(), written.getTermTags());
+        assertEquals(HtmlTag.SPAN, written.getContents().get(0).getContents().get(0).getTag());
+        assertEquals(0, actual.getTermMetadata().get(0).getFrequency().getValue());
+        assertEquals(Map.of(), actual.getKanjis().get(0).getStats());
+        assertEquals(0, actual.getKanjiMetadata().get(0).getFrequency());
+    }
+
+    @Test
+    void testWriteSplitsBanks() throws IOException {
+        final YomichanDictionary dictionary = parser.parseDictionary(generate());
+        final File file = dir.resolve("written.zip").toFile();
+        try (YomichanDictionaryWriter writer = new YomichanDictionaryWriter(file, dictionary.getIndex(), 100)) {
+            dictionary.getTerms().forEach(writer::writeTerm);
+            dictionary.getTags().forEach(writer::writeTag);
+            writer.writeMedia("img/1.png", new ByteArrayInputStream(new byte[]{1, 2, 3}));
+            writer.writeTerm(dictionary.getTerms().get(0));
+        }
+
+        try (ZipFile zip = new ZipFile(file)) {
+            final List<String> names = zip.getFileHeaders().stream().map(FileHeader::getFileName).toList();
+            assertEquals(List.of("index.json", "term_bank_1.json", "term_bank_2.json", "term_bank_3.json", "tag_bank_1.json", "img/1.png", "term_bank_4.json"), names);
+        }
+        final YomichanDictionary actual = parser.parseDictionary(file);
+        assertEquals(dictionary.getTerms().size() + 1, actual.getTerms().size());
+        assertEquals(dictionary.getTags(), actual.getTags());
+        assertTrue(actual.getKanjis().isEmpty());
+    }
+
+    private File generate() throws IOException {
+        final YomichanDictionaryGenerator generator = YomichanDictionaryGenerator.small();
+        generator.setImageCount(2);
+        return generator.generate(dir, "generated.zip");
+    }
+}
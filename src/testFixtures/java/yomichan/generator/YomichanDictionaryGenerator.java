@@ -0,0 +1,528 @@
+package yomichan.generator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Getter;
+import lombok.Setter;
+import net.lingala.zip4j.io.outputstream.ZipOutputStream;
+import net.lingala.zip4j.model.ZipParameters;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Writes synthetic Yomichan dictionary .zip files for load tests and benchmarks.
+ *
+ * <p>The output only depends on the configured options, so the same generator settings
+ * always produce the same terms, readings and definitions. Rows are streamed straight
+ * into the archive, which keeps memory flat even for 100 MB+ dictionaries.</p>
+ *
+ * <pre>{@code
+ *     YomichanDictionaryGenerator generator = new YomichanDictionaryGenerator();
+ *     generator.setTermCount(500_000);
+ *     generator.setContentDepth(4);
+ *     generator.generate(new File("/tmp/large-dictionary.zip"));
+ * }</pre>
+ */
+@Getter
+@Setter
+public class YomichanDictionaryGenerator {
+
+    private static final JsonFactory FACTORY = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    // Fixed timestamp so that generated archives do not depend on the clock.
+    private static final long LAST_MODIFIED = 1_577_836_800_000L;
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private static final long KEY_SALT = 0x9E3779B97F4A7C15L;
+    private static final long TERM_SALT = 0xC2B2AE3D27D4EB4FL;
+    private static final long META_SALT = 0x165667B19E3779F9L;
+    private static final long KANJI_SALT = 0x27D4EB2F165667C5L;
+    private static final long IMAGE_SALT = 0x85EBCA77C2B2AE63L;
+
+    private static final String[] RULES = {"", "", "v1", "v5", "vs", "vk", "adj-i"};
+    private static final String[] DEFINITION_TAGS = {"n", "v1", "v5", "vt", "vi", "adj-i", "adv", "exp", "uk"};
+    private static final String[] TERM_TAGS = {"", "", "common", "news", "ichi", "spec"};
+    private static final String[] KANJI_TAGS = {"jouyou", "jinmeiyou", "kyouiku"};
+    private static final String[] WORDS = {
+        "to", "read", "write", "take", "on", "assume", "responsibility", "for", "person", "place", "thing",
+        "the", "of", "a", "water", "fire", "mountain", "river", "to be", "quickly", "slowly", "large", "small",
+        "book", "letter", "sound", "voice", "heart", "mind", "spirit", "(archaic)", "(colloquial)", "see also"
+    };
+
+    /**
+     * Seed for every random choice made by the generator.
+     */
+    private long seed = 42L;
+
+    /**
+     * Title written to the index.json file.
+     */
+    private String title = "Generated Dictionary";
+
+    /**
+     * Revision written to the index.json file.
+     */
+    private String revision = "1";
+
+    /**
+     * Number of rows written to the term_bank_N.json files.
+     */
+    private int termCount = 10_000;
+
+    /**
+     * Number of frequency rows written to the term_meta_bank_N.json files.
+     */
+    private int frequencyCount = 10_000;
+
+    /**
+     * Number of pitch accent rows written to the term_meta_bank_N.json files.
+     */
+    private int pitchCount = 5_000;
+
+    /**
+     * Number of rows written to the kanji_bank_N.json and kanji_meta_bank_N.json files.
+     */
+    private int kanjiCount = 2_000;
+
+    /**
+     * Number of distinct images written to the archive and referenced from definitions.
+     */
+    private int imageCount = 100;
+
+    /**
+     * Maximum nesting depth of structured content definitions.
+     */
+    private int contentDepth = 3;
+
+    /**
+     * Maximum number of rows in a single bank file.
+     */
+    private int bankSize = 10_000;
+
+    /**
+     * Get a generator for unit tests: 250 terms, 100 frequencies, 20 pitch accents and 10 kanji in
+     * banks of 100 rows, and no images, which takes a few milliseconds to generate. Tests that need
+     * more rows or images override them with the setters.
+     *
+     * @return a new generator with the unit test settings.
+     */
+    public static YomichanDictionaryGenerator small() {
+        final YomichanDictionaryGenerator generator = new YomichanDictionaryGenerator();
+        generator.setTermCount(250);
+        generator.setFrequencyCount(100);
+        generator.setPitchCount(20);
+        generator.setKanjiCount(10);
+        generator.setImageCount(0);
+        generator.setBankSize(100);
+        return generator;
+    }
+
+    /**
+     * Generate the dictionary and write it to a .zip file in the directory.
+     *
+     * @param dir  The directory to write the dictionary to.
+     * @param name The name of the file. Any existing file is overwritten.
+     * @return the written file.
+     * @throws IOException if the file couldn't be written.
+     */
+    public File generate(Path dir, String name) throws IOException {
+        final File file = dir.resolve(name).toFile();
+        generate(file);
+        return file;
+    }
+
+    /**
+     * Generate the dictionary and write it to the given .zip file.
+     *
+     * @param file The file to write the dictionary to. Any existing file is overwritten.
+     * @throws IOException if the file couldn't be written.
+     */
+    public void generate(File file) throws IOException {
+        if (bankSize <= 0) {
+            throw new IllegalArgumentException("Bank size must be positive: " + bankSize);
+        }
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+             ZipOutputStream zip = new ZipOutputStream(out)) {
+            writeEntry(zip, "index.json", this::writeIndex);
+            writeEntry(zip, "tag_bank_1.json", this::writeTags);
+            writeBanks(zip, "term_bank_%d.json", termCount, this::writeTerm);
+            writeBanks(zip, "term_meta_bank_%d.json", frequencyCount + pitchCount, this::writeTermMetadata);
+            writeBanks(zip, "kanji_bank_%d.json", kanjiCount, this::writeKanji);
+            writeBanks(zip, "kanji_meta_bank_%d.json", kanjiCount, this::writeKanjiMetadata);
+            for (int i = 0; i < imageCount; i++) {
+                writeImage(zip, i);
+            }
+        }
+    }
+
+    /**
+     * Get the term text for the row at the given index in the term banks.
+     *
+     * @param index The index of the term row.
+     * @return the term text.
+     */
+    public String getTerm(int index) {
+        final Random random = random(KEY_SALT, index);
+        return text(random, 0x4E00, 0x9FA5, 1 + random.nextInt(3));
+    }
+
+    /**
+     * Get the reading for the row at the given index in the term banks.
+     *
+     * @param index The index of the term row.
+     * @return the reading of the term.
+     */
+    public String getReading(int index) {
+        final Random random = random(KEY_SALT ^ TERM_SALT, index);
+        return text(random, 0x3041, 0x3093, 2 + random.nextInt(5));
+    }
+
+    private void writeIndex(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("title", title);
+        generator.writeNumberField("format", 3);
+        generator.writeStringField("revision", revision);
+        generator.writeBooleanField("sequenced", true);
+        generator.writeStringField("author", "yomichan-dictionary-parser");
+        generator.writeStringField("url", "https://github.com/caseyscarborough/yomichan-dictionary-parser");
+        generator.writeStringField("description", "Synthetic dictionary generated with seed " + seed);
+        generator.writeStringField("attribution", "Generated");
+        generator.writeStringField("frequencyMode", "rank-based");
+        generator.writeEndObject();
+    }
+
+    private void writeTags(JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        int order = 0;
+        for (String[] tags : new String[][]{DEFINITION_TAGS, TERM_TAGS, KANJI_TAGS}) {
+            for (String tag : tags) {
+                if (tag.isEmpty()) {
+                    continue;
+                }
+                generator.writeStartArray();
+                generator.writeString(tag);
+                generator.writeString(tags == DEFINITION_TAGS ? "partOfSpeech" : "frequent");
+                generator.writeNumber(order++ - 5);
+                generator.writeString("notes for " + tag);
+                generator.writeNumber(tags == DEFINITION_TAGS ? 0 : 1);
+                generator.writeEndArray();
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeTerm(JsonGenerator generator, int index) throws IOException {
+        final Random random = random(TERM_SALT, index);
+        generator.writeStartArray();
+        generator.writeString(getTerm(index));
+        generator.writeString(getReading(index));
+        generator.writeString(pick(random, DEFINITION_TAGS) + " " + pick(random, DEFINITION_TAGS));
+        generator.writeString(pick(random, RULES));
+        generator.writeNumber(random.nextInt(2_000_001) - 1_000_000);
+        generator.writeStartArray();
+        final int definitions = 1 + random.nextInt(4);
+        for (int i = 0; i < definitions; i++) {
+            writeDefinition(generator, random);
+        }
+        generator.writeEndArray();
+        generator.writeNumber(index + 1);
+        generator.writeString(pick(random, TERM_TAGS));
+        generator.writeEndArray();
+    }
+
+    private void writeDefinition(JsonGenerator generator, Random random) throws IOException {
+        final int kind = random.nextInt(10);
+        if (kind < 4 || contentDepth <= 0) {
+            generator.writeString(gloss(random));
+        } else if (kind < 9 || imageCount <= 0) {
+            generator.writeStartObject();
+            generator.writeStringField("type", "structured-content");
+            generator.writeFieldName("content");
+            writeStructuredContent(generator, random, contentDepth);
+            generator.writeEndObject();
+        } else {
+            generator.writeStartObject();
+            generator.writeStringField("type", "image");
+            writeImageFields(generator, random);
+            generator.writeStringField("description", gloss(random));
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeStructuredContent(JsonGenerator generator, Random random, int depth) throws IOException {
+        if (depth <= 0) {
+            generator.writeString(gloss(random));
+            return;
+        }
+        switch (random.nextInt(imageCount > 0 ? 7 : 6)) {
+            case 0, 1 -> {
+                generator.writeStartObject();
+                generator.writeStringField("tag", "ul");
+                generator.writeStringField("lang", "en");
+                writeData(generator, "glossary");
+                generator.writeObjectFieldStart("style");
+                generator.writeStringField("listStyleType", "circle");
+                generator.writeEndObject();
+                generator.writeArrayFieldStart("content");
+                final int items = 1 + random.nextInt(4);
+                for (int i = 0; i < items; i++) {
+                    generator.writeStartObject();
+                    generator.writeStringField("tag", "li");
+                    generator.writeFieldName("content");
+                    writeStructuredContent(generator, random, depth - 1);
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            case 2 -> {
+                generator.writeStartObject();
+                generator.writeStringField("tag", "div");
+                writeData(generator, "sense");
+                generator.writeArrayFieldStart("content");
+                final int spans = 1 + random.nextInt(3);
+                for (int i = 0; i < spans; i++) {
+                    generator.writeStartObject();
+                    generator.writeStringField("tag", "span");
+                    generator.writeObjectFieldStart("style");
+                    generator.writeStringField("fontWeight", random.nextBoolean() ? "bold" : "normal");
+                    generator.writeStringField("fontSize", "small");
+                    generator.writeNumberField("marginLeft", 0.5D);
+                    generator.writeEndObject();
+                    generator.writeFieldName("content");
+                    writeStructuredContent(generator, random, depth - 1);
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            case 3 -> {
+                generator.writeStartObject();
+                generator.writeStringField("tag", "ruby");
+                generator.writeStringField("lang", "ja");
+                generator.writeArrayFieldStart("content");
+                generator.writeString(text(random, 0x4E00, 0x9FA5, 1));
+                generator.writeStartObject();
+                generator.writeStringField("tag", "rt");
+                generator.writeStringField("content", text(random, 0x3041, 0x3093, 2));
+                generator.writeEndObject();
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            case 4 -> {
+                generator.writeStartObject();
+                generator.writeStringField("tag", "table");
+                generator.writeArrayFieldStart("content");
+                final int rows = 1 + random.nextInt(3);
+                for (int i = 0; i < rows; i++) {
+                    generator.writeStartObject();
+                    generator.writeStringField("tag", "tr");
+                    generator.writeArrayFieldStart("content");
+                    generator.writeStartObject();
+                    generator.writeStringField("tag", i == 0 ? "th" : "td");
+                    generator.writeNumberField("colSpan", 1);
+                    generator.writeFieldName("content");
+                    writeStructuredContent(generator, random, depth - 1);
+                    generator.writeEndObject();
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            case 5 -> {
+                generator.writeStartObject();
+                generator.writeStringField("tag", "a");
+                generator.writeStringField("href", "?query=" + text(random, 0x4E00, 0x9FA5, 2));
+                generator.writeStringField("content", gloss(random));
+                generator.writeEndObject();
+            }
+            default -> {
+                generator.writeStartObject();
+                generator.writeStringField("tag", "img");
+                writeImageFields(generator, random);
+                generator.writeStringField("sizeUnits", "em");
+                generator.writeStringField("verticalAlign", "middle");
+                generator.writeEndObject();
+            }
+        }
+    }
+
+    private void writeData(JsonGenerator generator, String content) throws IOException {
+        generator.writeObjectFieldStart("data");
+        generator.writeStringField("content", content);
+        generator.writeEndObject();
+    }
+
+    private void writeImageFields(JsonGenerator generator, Random random) throws IOException {
+        generator.writeStringField("path", imagePath(random.nextInt(imageCount)));
+        generator.writeNumberField("width", 1 + random.nextInt(16));
+        generator.writeNumberField("height", 1 + random.nextInt(16));
+        generator.writeStringField("title", gloss(random));
+    }
+
+    private void writeTermMetadata(JsonGenerator generator, int index) throws IOException {
+        final Random random = random(META_SALT, index);
+        final boolean frequency = index < frequencyCount;
+        final int term = (frequency ? index : index - frequencyCount) % Math.max(termCount, 1);
+        generator.writeStartArray();
+        generator.writeString(getTerm(term));
+        if (frequency) {
+            generator.writeString("freq");
+            if (random.nextBoolean()) {
+                generator.writeNumber(index + 1);
+            } else {
+                generator.writeStartObject();
+                generator.writeStringField("reading", getReading(term));
+                generator.writeObjectFieldStart("frequency");
+                generator.writeNumberField("value", index + 1);
+                generator.writeStringField("displayValue", (index + 1) + "㋕");
+                generator.writeEndObject();
+                generator.writeEndObject();
+            }
+        } else {
+            generator.writeString("pitch");
+            generator.writeStartObject();
+            generator.writeStringField("reading", getReading(term));
+            generator.writeArrayFieldStart("pitches");
+            final int pitches = 1 + random.nextInt(2);
+            for (int i = 0; i < pitches; i++) {
+                generator.writeStartObject();
+                generator.writeNumberField("position", random.nextInt(5));
+                generator.writeArrayFieldStart("tags");
+                generator.writeString(pick(random, DEFINITION_TAGS));
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeKanji(JsonGenerator generator, int index) throws IOException {
+        final Random random = random(KANJI_SALT, index);
+        generator.writeStartArray();
+        generator.writeString(kanji(index));
+        generator.writeString(text(random, 0x30A2, 0x30F3, 2) + " " + text(random, 0x30A2, 0x30F3, 2));
+        generator.writeString(text(random, 0x3041, 0x3093, 1) + "." + text(random, 0x3041, 0x3093, 2));
+        generator.writeString(pick(random, KANJI_TAGS));
+        generator.writeStartArray();
+        final int meanings = 1 + random.nextInt(4);
+        for (int i = 0; i < meanings; i++) {
+            generator.writeString(pick(random, WORDS));
+        }
+        generator.writeEndArray();
+        generator.writeStartObject();
+        generator.writeStringField("freq", String.valueOf(index + 1));
+        generator.writeStringField("grade", String.valueOf(1 + random.nextInt(9)));
+        generator.writeStringField("strokes", String.valueOf(1 + random.nextInt(24)));
+        generator.writeEndObject();
+        generator.writeEndArray();
+    }
+
+    private void writeKanjiMetadata(JsonGenerator generator, int index) throws IOException {
+        generator.writeStartArray();
+        generator.writeString(kanji(index));
+        generator.writeString("freq");
+        if (index % 2 == 0) {
+            generator.writeNumber(index + 1);
+        } else {
+            generator.writeStartObject();
+            generator.writeNumberField("value", index + 1);
+            generator.writeStringField("displayValue", String.valueOf(index + 1));
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeImage(ZipOutputStream zip, int index) throws IOException {
+        final Random random = random(IMAGE_SALT, index);
+        final byte[] bytes = new byte[PNG_SIGNATURE.length + 256 + random.nextInt(1792)];
+        random.nextBytes(bytes);
+        System.arraycopy(PNG_SIGNATURE, 0, bytes, 0, PNG_SIGNATURE.length);
+        zip.putNextEntry(parameters(imagePath(index)));
+        zip.write(bytes);
+        zip.closeEntry();
+    }
+
+    private void writeBanks(ZipOutputStream zip, String pattern, int rows, RowWriter writer) throws IOException {
+        for (int bank = 0; (long) bank * bankSize < rows; bank++) {
+            final int from = bank * bankSize;
+            final int to = Math.min(rows, from + bankSize);
+            writeEntry(zip, String.format(pattern, bank + 1), generator -> {
+                generator.writeStartArray();
+                for (int row = from; row < to; row++) {
+                    writer.write(generator, row);
+                }
+                generator.writeEndArray();
+            });
+        }
+    }
+
+    private void writeEntry(ZipOutputStream zip, String name, EntryWriter writer) throws IOException {
+        zip.putNextEntry(parameters(name));
+        try (JsonGenerator generator = FACTORY.createGenerator(zip)) {
+            writer.write(generator);
+        }
+        zip.closeEntry();
+    }
+
+    private ZipParameters parameters(String name) {
+        final ZipParameters parameters = new ZipParameters();
+        parameters.setFileNameInZip(name);
+        parameters.setLastModifiedFileTime(LAST_MODIFIED);
+        return parameters;
+    }
+
+    private Random random(long salt, int index) {
+        return new Random(seed ^ salt ^ (index * 0x5DEECE66DL));
+    }
+
+    private String gloss(Random random) {
+        final int words = 1 + random.nextInt(6);
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(pick(random, WORDS));
+        }
+        return builder.toString();
+    }
+
+    private static String kanji(int index) {
+        return String.valueOf((char) (0x4E00 + index % (0x9FA5 - 0x4E00)));
+    }
+
+    private static String imagePath(int index) {
+        return "img/" + index + ".png";
+    }
+
+    private static String text(Random random, int from, int to, int length) {
+        final StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) (from + random.nextInt(to - from + 1)));
+        }
+        return builder.toString();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    @FunctionalInterface
+    private interface EntryWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(JsonGenerator generator, int row) throws IOException;
+    }
+}